@@ -14,7 +14,12 @@ import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsDevice;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.WeakHashMap;
 
 import org.jetbrains.annotations.*;
@@ -76,4 +81,67 @@ public class Java8Support
     {
         return new JNR8MultiResolutionImage(baseImageWidth, baseImageHeight, im);
     }
+
+    /*
+      Cleanup actions are implemented using phantom references, which are processed by a daemon thread. The references
+      are retained until they are processed.
+    */
+
+    private static final @NotNull ReferenceQueue<Object> cleanupQueue = new ReferenceQueue<>();
+    private static final @NotNull Set<CleanupReference> cleanupReferences = Collections.synchronizedSet(new HashSet<>());
+    private static @Nullable Thread cleanupThread;
+
+    @Override
+    public @NotNull JavaSupport.Cleanable registerCleanup(@NotNull Object o, @NotNull Runnable action)
+    {
+        ensureCleanupThread();
+        CleanupReference r = new CleanupReference(o, action);
+        cleanupReferences.add(r);
+        return r;
+    }
+
+    private static synchronized void ensureCleanupThread()
+    {
+        if (cleanupThread == null) {
+            Thread t = new Thread(Java8Support::processCleanupQueue, "JNR Cleaner");
+            t.setDaemon(true);
+            t.start();
+            cleanupThread = t;
+        }
+    }
+
+    private static void processCleanupQueue()
+    {
+        for (;;) {
+            try {
+                CleanupReference r = (CleanupReference) cleanupQueue.remove();
+                r.clean();
+            } catch (InterruptedException ignore) {
+            } catch (Throwable th) {
+                th.printStackTrace();
+            }
+        }
+    }
+
+    private static class CleanupReference
+      extends PhantomReference<Object>
+      implements JavaSupport.Cleanable
+    {
+        private final @NotNull Runnable action;
+
+        public CleanupReference(@NotNull Object o, @NotNull Runnable action)
+        {
+            super(o, cleanupQueue);
+            this.action = action;
+        }
+
+        @Override
+        public void clean()
+        {
+            if (cleanupReferences.remove(this)) {
+                clear();
+                action.run();
+            }
+        }
+    }
 }
@@ -14,6 +14,7 @@ import java.awt.GraphicsConfiguration;
 import java.awt.Image;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.lang.ref.Cleaner;
 
 import org.jetbrains.annotations.*;
 
@@ -47,4 +48,13 @@ public class Java9Support
     {
         return new JNR9MultiResolutionImage(baseImageWidth, baseImageHeight, im);
     }
+
+    private static final @NotNull Cleaner cleaner = Cleaner.create();
+
+    @Override
+    public @NotNull JavaSupport.Cleanable registerCleanup(@NotNull Object o, @NotNull Runnable action)
+    {
+        Cleaner.Cleanable c = cleaner.register(o, action);
+        return c::clean;
+    }
 }
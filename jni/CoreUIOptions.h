@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+#import <CoreFoundation/CoreFoundation.h>
+
+// Return the dictionary for an interned Core UI option set, or NULL if the option set is not defined.
+// The caller must release the dictionary.
+
+CFDictionaryRef copyCoreUIOptions(jint id);
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+#import <CoreFoundation/CoreFoundation.h>
+#import <Cocoa/Cocoa.h>
+#include <pthread.h>
+
+#include "jnix.h"
+#include "org_violetlib_jnr_aqua_coreui_CoreUIPainter.h"
+#include "CoreUIOptions.h"
+
+// Interned Core UI option sets. Each option set is decoded once into a dictionary, which is retained until the option
+// set is released. The binary encoding is defined by the Java class CoreUIOptions.
+
+#define TAG_STRING 1
+#define TAG_INTEGER 2
+#define TAG_LONG 3
+#define TAG_DOUBLE 4
+#define TAG_FALSE 5
+#define TAG_TRUE 6
+
+#define MAX_OPTIONS 50
+
+static CFMutableDictionaryRef optionsTable;  // option set ID -> CFDictionary
+static pthread_mutex_t optionsLock = PTHREAD_MUTEX_INITIALIZER;
+
+static UInt64 readUnsigned(const UInt8 *p, int count)
+{
+    UInt64 result = 0;
+    for (int i = 0; i < count; i++) {
+        result = (result << 8) | p[i];
+    }
+    return result;
+}
+
+// Decode a key or value. Return NULL if the encoding is not valid.
+
+static CFTypeRef decodeOption(const UInt8 *bytes, jsize length, jsize *position)
+{
+    jsize p = *position;
+    if (p >= length) {
+        return NULL;
+    }
+
+    CFTypeRef result = NULL;
+    int tag = bytes[p++];
+    switch (tag) {
+        case TAG_STRING: {
+            if (p + 2 > length) {
+                return NULL;
+            }
+            jsize count = (jsize) readUnsigned(bytes + p, 2);
+            p += 2;
+            if (p + count > length) {
+                return NULL;
+            }
+            result = CFStringCreateWithBytes(NULL, bytes + p, count, kCFStringEncodingUTF8, false);
+            p += count;
+            break;
+        }
+        case TAG_INTEGER: {
+            if (p + 4 > length) {
+                return NULL;
+            }
+            SInt32 value = (SInt32) readUnsigned(bytes + p, 4);
+            p += 4;
+            result = CFNumberCreate(NULL, kCFNumberSInt32Type, &value);
+            break;
+        }
+        case TAG_LONG: {
+            if (p + 8 > length) {
+                return NULL;
+            }
+            SInt64 value = (SInt64) readUnsigned(bytes + p, 8);
+            p += 8;
+            result = CFNumberCreate(NULL, kCFNumberSInt64Type, &value);
+            break;
+        }
+        case TAG_DOUBLE: {
+            if (p + 8 > length) {
+                return NULL;
+            }
+            UInt64 bits = readUnsigned(bytes + p, 8);
+            Float64 value;
+            memcpy(&value, &bits, sizeof(value));
+            p += 8;
+            result = CFNumberCreate(NULL, kCFNumberDoubleType, &value);
+            break;
+        }
+        case TAG_FALSE:
+            result = CFRetain(kCFBooleanFalse);
+            break;
+        case TAG_TRUE:
+            result = CFRetain(kCFBooleanTrue);
+            break;
+        default:
+            return NULL;
+    }
+
+    *position = p;
+    return result;
+}
+
+static CFDictionaryRef decodeOptions(const UInt8 *bytes, jsize length)
+{
+    if (length < 2) {
+        return NULL;
+    }
+
+    jsize count = (jsize) readUnsigned(bytes, 2);
+    if (count > MAX_OPTIONS) {
+        return NULL;
+    }
+
+    CFTypeRef keys[MAX_OPTIONS];
+    CFTypeRef values[MAX_OPTIONS];
+    jsize position = 2;
+    jsize decodedCount = 0;
+    BOOL isValid = YES;
+
+    for (int i = 0; i < count; i++) {
+        CFTypeRef key = decodeOption(bytes, length, &position);
+        if (key == NULL) {
+            isValid = NO;
+            break;
+        }
+        CFTypeRef value = decodeOption(bytes, length, &position);
+        if (value == NULL) {
+            CFRelease(key);
+            isValid = NO;
+            break;
+        }
+        keys[decodedCount] = key;
+        values[decodedCount] = value;
+        decodedCount++;
+    }
+
+    CFDictionaryRef d = NULL;
+    if (isValid && position == length) {
+        d = CFDictionaryCreate(kCFAllocatorDefault, (const void **) keys, (const void **) values, decodedCount,
+            &kCFTypeDictionaryKeyCallBacks, &kCFTypeDictionaryValueCallBacks);
+    }
+
+    for (int i = 0; i < decodedCount; i++) {
+        CFRelease(keys[i]);
+        CFRelease(values[i]);
+    }
+
+    return d;
+}
+
+CFDictionaryRef copyCoreUIOptions(jint id)
+{
+    CFDictionaryRef d = NULL;
+    pthread_mutex_lock(&optionsLock);
+    if (optionsTable != NULL) {
+        d = CFDictionaryGetValue(optionsTable, (const void *) (intptr_t) id);
+        if (d != NULL) {
+            CFRetain(d);
+        }
+    }
+    pthread_mutex_unlock(&optionsLock);
+    return d;
+}
+
+/*
+ * Class:     org_violetlib_jnr_aqua_coreui_CoreUIPainter
+ * Method:    nativeDefineOptions
+ * Signature: (I[B)V
+ */
+JNIEXPORT void JNICALL Java_org_violetlib_jnr_aqua_coreui_CoreUIPainter_nativeDefineOptions
+  (JNIEnv *env, jclass cl, jint id, jbyteArray encoding)
+{
+    COCOA_ENTER();
+
+    jsize length = (*env) -> GetArrayLength(env, encoding);
+    jbyte *bytes = (*env) -> GetByteArrayElements(env, encoding, NULL);
+    if (bytes != NULL) {
+        CFDictionaryRef d = decodeOptions((const UInt8 *) bytes, length);
+        (*env) -> ReleaseByteArrayElements(env, encoding, bytes, JNI_ABORT);
+        if (d != NULL) {
+            pthread_mutex_lock(&optionsLock);
+            if (optionsTable == NULL) {
+                // The IDs are used directly as keys
+                optionsTable = CFDictionaryCreateMutable(NULL, 0, NULL, &kCFTypeDictionaryValueCallBacks);
+            }
+            CFDictionarySetValue(optionsTable, (const void *) (intptr_t) id, d);
+            pthread_mutex_unlock(&optionsLock);
+            CFRelease(d);
+        } else {
+            NSLog(@"Invalid CoreUI options");
+        }
+    }
+
+    COCOA_EXIT();
+}
+
+/*
+ * Class:     org_violetlib_jnr_aqua_coreui_CoreUIPainter
+ * Method:    nativeReleaseOptions
+ * Signature: (I)V
+ */
+JNIEXPORT void JNICALL Java_org_violetlib_jnr_aqua_coreui_CoreUIPainter_nativeReleaseOptions
+  (JNIEnv *env, jclass cl, jint id)
+{
+    pthread_mutex_lock(&optionsLock);
+    if (optionsTable != NULL) {
+        CFDictionaryRemoveValue(optionsTable, (const void *) (intptr_t) id);
+    }
+    pthread_mutex_unlock(&optionsLock);
+}
@@ -113,9 +113,9 @@ static inline void *getValueFor
 static inline jint syncChangesToControl
 (JRSUIControlRef control, UInt8 *changeBuffer)
 {
-    UInt8 *endOfBuffer = changeBuffer + org_violetlib_jnr_impl_jrs_JRSUIControl_NIO_BUFFER_SIZE;
+    // The buffer is sized by Java to hold all changes; the changes are terminated by a null key.
 
-    while (changeBuffer < endOfBuffer)
+    for (;;)
     {
         // dereference the pointer to the constant that was stored as a jlong in the byte buffer
         CFStringRef key = (CFStringRef)jlong_to_ptr(*((jlong *)changeBuffer));
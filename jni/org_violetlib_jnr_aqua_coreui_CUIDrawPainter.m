@@ -13,6 +13,7 @@
 #include "jnix.h"
 #include "org_violetlib_jnr_aqua_coreui_CoreUIPainter.h"
 #include "CoreUISupport.h"
+#include "CoreUIOptions.h"
 #include "AppearanceSupport.h"
 
 // This painter uses private methods of NSAppearance to perform Core UI rendering.
@@ -22,6 +23,64 @@
 - (void)_createOrUpdateLayer: (CALayer **) layer options: (CFDictionaryRef) options;
 @end
 
+static NSAppearance *getPaintingAppearance()
+{
+    NSAppearance *app = configuredAppearance;
+
+    if (app == nil) {
+        id application = [NSApplication sharedApplication];
+        if ([application respondsToSelector:@selector(appearance)]) {
+            app = [application appearance];
+        }
+    }
+
+    if (app == nil) {
+        app = [NSAppearance currentAppearance];
+    }
+
+    return app;
+}
+
+// Draw into a context whose origin and scale have been configured. The bounds are in device independent pixels.
+
+static void draw(CGContextRef cgRef, NSAppearance *app, NSRect bounds, jfloat xscale, CFDictionaryRef d, jboolean useLayer)
+{
+    if (useLayer) {
+        CALayer *layer = [CALayer layer];
+        layer.contentsScale = xscale;
+        layer.bounds = bounds;
+        [app _createOrUpdateLayer: &layer options: d];
+        [layer renderInContext: cgRef];
+    } else {
+        [app _drawInRect: bounds context: cgRef options: d];
+    }
+}
+
+static void paintPixels(void *pixels, jint w, jint h, jfloat xscale, jfloat yscale, CFDictionaryRef d, jboolean useLayer)
+{
+    CGColorSpaceRef colorspace = CGColorSpaceCreateDeviceRGB();
+    CGContextRef cgRef = CGBitmapContextCreate(pixels, w, h, 8, w * 4, colorspace, kCGImageAlphaPremultipliedFirst | kCGBitmapByteOrder32Host);
+    CGColorSpaceRelease(colorspace);
+
+    CGContextScaleCTM(cgRef, xscale, yscale);
+
+    NSAppearance *app = getPaintingAppearance();
+    NSRect bounds = NSMakeRect(0, 0, w / xscale, h / yscale);
+    draw(cgRef, app, bounds, xscale, d, useLayer);
+
+    CFRelease(cgRef);
+}
+
+static void paint(JNIEnv *env, jintArray data, jint w, jint h, jfloat xscale, jfloat yscale, CFDictionaryRef d, jboolean useLayer)
+{
+    jboolean isCopy = JNI_FALSE;
+    void *rawPixelData = (*env)->GetPrimitiveArrayCritical(env, data, &isCopy);
+    if (rawPixelData) {
+        paintPixels(rawPixelData, w, h, xscale, yscale, d, useLayer);
+        (*env)->ReleasePrimitiveArrayCritical(env, data, rawPixelData, 0);
+    }
+}
+
 /*
  * Class:     org_violetlib_jnr_aqua_coreui_CoreUIPainter
  * Method:    nativePaint
@@ -69,44 +128,151 @@ JNIEXPORT void JNICALL Java_org_violetlib_jnr_aqua_coreui_CoreUIPainter_nativePa
         CFRelease(values[i]);
     }
 
-    jboolean isCopy = JNI_FALSE;
-    void *rawPixelData = (*env)->GetPrimitiveArrayCritical(env, data, &isCopy);
-    if (rawPixelData) {
-        CGColorSpaceRef colorspace = CGColorSpaceCreateDeviceRGB();
-        CGContextRef cgRef = CGBitmapContextCreate(rawPixelData, w, h, 8, w * 4, colorspace, kCGImageAlphaPremultipliedFirst | kCGBitmapByteOrder32Host);
-        CGColorSpaceRelease(colorspace);
+    paint(env, data, w, h, xscale, yscale, d, useLayer);
 
-        CGContextScaleCTM(cgRef, xscale, yscale);
+    CFRelease(d);
 
-        NSAppearance *app = configuredAppearance;
+    COCOA_EXIT();
+}
 
-        if (app == nil) {
-            id application = [NSApplication sharedApplication];
-            if ([application respondsToSelector:@selector(appearance)]) {
-                app = [application appearance];
-            }
+/*
+ * Class:     org_violetlib_jnr_aqua_coreui_CoreUIPainter
+ * Method:    nativePaintOptions
+ * Signature: ([IIIFFIZ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_violetlib_jnr_aqua_coreui_CoreUIPainter_nativePaintOptions
+  (JNIEnv *env, jclass cl, jintArray data, jint w, jint h, jfloat xscale, jfloat yscale, jint optionsID, jboolean useLayer)
+{
+    jboolean result = JNI_FALSE;
+
+    COCOA_ENTER();
+
+    CFDictionaryRef d = copyCoreUIOptions(optionsID);
+    if (d != NULL) {
+        paint(env, data, w, h, xscale, yscale, d, useLayer);
+        CFRelease(d);
+        result = JNI_TRUE;
+    }
+
+    COCOA_EXIT();
+
+    return result;
+}
+
+/*
+ * Class:     org_violetlib_jnr_aqua_coreui_CoreUIPainter
+ * Method:    nativePaintOptionsToBuffer
+ * Signature: (Ljava/nio/IntBuffer;IIFFIZ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_violetlib_jnr_aqua_coreui_CoreUIPainter_nativePaintOptionsToBuffer
+  (JNIEnv *env, jclass cl, jobject buffer, jint w, jint h, jfloat xscale, jfloat yscale, jint optionsID, jboolean useLayer)
+{
+    jboolean result = JNI_FALSE;
+
+    COCOA_ENTER();
+
+    // The buffer is direct, so native code renders into it without pinning or copying a Java array.
+
+    void *pixels = (*env)->GetDirectBufferAddress(env, buffer);
+    jlong capacity = (*env)->GetDirectBufferCapacity(env, buffer);
+    if (pixels != NULL && capacity >= (jlong) w * h) {
+        CFDictionaryRef d = copyCoreUIOptions(optionsID);
+        if (d != NULL) {
+            paintPixels(pixels, w, h, xscale, yscale, d, useLayer);
+            CFRelease(d);
+            result = JNI_TRUE;
+        }
+    }
+
+    COCOA_EXIT();
+
+    return result;
+}
+
+/*
+ * Class:     org_violetlib_jnr_aqua_coreui_CoreUIPainter
+ * Method:    nativePaintBatch
+ * Signature: ([IIII[I[F[I[Z[Z)V
+ */
+JNIEXPORT void JNICALL Java_org_violetlib_jnr_aqua_coreui_CoreUIPainter_nativePaintBatch
+  (JNIEnv *env, jclass cl, jintArray data, jint w, jint h, jint count, jintArray jregions, jfloatArray jscales,
+    jintArray joptionIDs, jbooleanArray jlayers, jbooleanArray jpainted)
+{
+    COCOA_ENTER();
+
+    // Each region is defined by four values: X, Y, width, height (in raster pixels, Y down).
+    // Each scale is defined by two values: X scale, Y scale.
+
+    jint *regions = malloc(count * 4 * sizeof(jint));
+    jfloat *scales = malloc(count * 2 * sizeof(jfloat));
+    jint *optionIDs = malloc(count * sizeof(jint));
+    jboolean *layers = malloc(count * sizeof(jboolean));
+    jboolean *painted = calloc(count, sizeof(jboolean));
+    CFDictionaryRef *dictionaries = calloc(count, sizeof(CFDictionaryRef));
+
+    if (regions && scales && optionIDs && layers && painted && dictionaries) {
+        (*env)->GetIntArrayRegion(env, jregions, 0, count * 4, regions);
+        (*env)->GetFloatArrayRegion(env, jscales, 0, count * 2, scales);
+        (*env)->GetIntArrayRegion(env, joptionIDs, 0, count, optionIDs);
+        (*env)->GetBooleanArrayRegion(env, jlayers, 0, count, layers);
+
+        // Look up the option sets before entering the critical region.
+
+        for (jint i = 0; i < count; i++) {
+            dictionaries[i] = copyCoreUIOptions(optionIDs[i]);
         }
 
-        if (app == nil) {
-            app = [NSAppearance currentAppearance];
+        jboolean isCopy = JNI_FALSE;
+        void *rawPixelData = (*env)->GetPrimitiveArrayCritical(env, data, &isCopy);
+        if (rawPixelData) {
+            CGColorSpaceRef colorspace = CGColorSpaceCreateDeviceRGB();
+            CGContextRef cgRef = CGBitmapContextCreate(rawPixelData, w, h, 8, w * 4, colorspace, kCGImageAlphaPremultipliedFirst | kCGBitmapByteOrder32Host);
+            CGColorSpaceRelease(colorspace);
+
+            NSAppearance *app = getPaintingAppearance();
+
+            for (jint i = 0; i < count; i++) {
+                CFDictionaryRef d = dictionaries[i];
+                if (d != NULL) {
+                    jint x = regions[i*4];
+                    jint y = regions[i*4+1];
+                    jint rw = regions[i*4+2];
+                    jint rh = regions[i*4+3];
+                    jfloat xscale = scales[i*2];
+                    jfloat yscale = scales[i*2+1];
+
+                    // The context origin is at the lower left corner.
+                    CGRect r = CGRectMake(x, h - y - rh, rw, rh);
+                    CGContextSaveGState(cgRef);
+                    CGContextClipToRect(cgRef, r);
+                    CGContextTranslateCTM(cgRef, r.origin.x, r.origin.y);
+                    CGContextScaleCTM(cgRef, xscale, yscale);
+                    NSRect bounds = NSMakeRect(0, 0, rw / xscale, rh / yscale);
+                    draw(cgRef, app, bounds, xscale, d, layers[i]);
+                    CGContextRestoreGState(cgRef);
+                    painted[i] = JNI_TRUE;
+                }
+            }
+
+            (*env)->ReleasePrimitiveArrayCritical(env, data, rawPixelData, 0);
+            CFRelease(cgRef);
         }
 
-        NSRect bounds = NSMakeRect(0, 0, w / xscale, h / yscale);
-        if (useLayer) {
-            CALayer *layer = [CALayer layer];
-            layer.contentsScale = xscale;
-            layer.bounds = bounds;
-            [app _createOrUpdateLayer: &layer options: d];
-            [layer renderInContext: cgRef];
-        } else {
-            [app _drawInRect: bounds context: cgRef options: d];
+        for (jint i = 0; i < count; i++) {
+            if (dictionaries[i] != NULL) {
+                CFRelease(dictionaries[i]);
+            }
         }
 
-        (*env)->ReleasePrimitiveArrayCritical(env, data, rawPixelData, 0);
-        CFRelease(cgRef);
+        (*env)->SetBooleanArrayRegion(env, jpainted, 0, count, painted);
     }
 
-    CFRelease(d);
+    free(regions);
+    free(scales);
+    free(optionIDs);
+    free(layers);
+    free(painted);
+    free(dictionaries);
 
     COCOA_EXIT();
 }
@@ -15,6 +15,7 @@
 #include "org_violetlib_jnr_aqua_coreui_CoreUIPainter.h"
 #include "AppearanceSupport.h"
 #include "CoreUISupport.h"
+#include "CoreUIOptions.h"
 
 // This painter uses the Java RuntimeSupport framework to perform Core UI rendering.
 
@@ -24,6 +25,29 @@
 
 static JRSUIRendererRef renderer;
 
+static void paintPixels(void *pixels, jint w, jint h, jfloat xscale, jfloat yscale, JRSUIControlRef control)
+{
+    CGColorSpaceRef colorspace = CGColorSpaceCreateDeviceRGB();
+    CGContextRef cgRef = CGBitmapContextCreate(pixels, w, h, 8, w * 4, colorspace, kCGImageAlphaPremultipliedFirst | kCGBitmapByteOrder32Host);
+    CGColorSpaceRelease(colorspace);
+
+    CGContextScaleCTM(cgRef, xscale, yscale);
+    NSRect bounds = NSMakeRect(0, 0, w / xscale, h / yscale);
+    JRSUIControlDraw(renderer, control, cgRef, bounds);
+
+    CFRelease(cgRef);
+}
+
+static void paint(JNIEnv *env, jintArray data, jint w, jint h, jfloat xscale, jfloat yscale, JRSUIControlRef control)
+{
+    jboolean isCopy = JNI_FALSE;
+    void *rawPixelData = (*env)->GetPrimitiveArrayCritical(env, data, &isCopy);
+    if (rawPixelData) {
+        paintPixels(rawPixelData, w, h, xscale, yscale, control);
+        (*env)->ReleasePrimitiveArrayCritical(env, data, rawPixelData, 0);
+    }
+}
+
 /*
  * Class:     org_violetlib_jnr_aqua_coreui_CoreUIPainter
  * Method:    nativeJRSPaint
@@ -77,22 +101,84 @@ JNIEXPORT void JNICALL Java_org_violetlib_jnr_aqua_coreui_CoreUIPainter_nativeJR
         CFRelease(value);
     }
 
-    jboolean isCopy = JNI_FALSE;
-    void *rawPixelData = (*env)->GetPrimitiveArrayCritical(env, data, &isCopy);
-    if (rawPixelData) {
-        CGColorSpaceRef colorspace = CGColorSpaceCreateDeviceRGB();
-        CGContextRef cgRef = CGBitmapContextCreate(rawPixelData, w, h, 8, w * 4, colorspace, kCGImageAlphaPremultipliedFirst | kCGBitmapByteOrder32Host);
-        CGColorSpaceRelease(colorspace);
+    paint(env, data, w, h, xscale, yscale, control);
 
-        CGContextScaleCTM(cgRef, xscale, yscale);
-        NSRect bounds = NSMakeRect(0, 0, w / xscale, h / yscale);
-        JRSUIControlDraw(renderer, control, cgRef, bounds);
+    JRSUIControlRelease(control);
 
-        (*env)->ReleasePrimitiveArrayCritical(env, data, rawPixelData, 0);
-        CFRelease(cgRef);
+    COCOA_EXIT();
+}
+
+static void setControlValue(const void *key, const void *value, void *control)
+{
+    JRSUIControlSetValueByKey((JRSUIControlRef) control, (CFTypeRef) key, (CFTypeRef) value);
+}
+
+/*
+ * Class:     org_violetlib_jnr_aqua_coreui_CoreUIPainter
+ * Method:    nativeJRSPaintOptions
+ * Signature: ([IIIFFI)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_violetlib_jnr_aqua_coreui_CoreUIPainter_nativeJRSPaintOptions
+  (JNIEnv *env, jclass cl, jintArray data, jint w, jint h, jfloat xscale, jfloat yscale, jint optionsID)
+{
+    jboolean result = JNI_FALSE;
+
+    COCOA_ENTER();
+
+    CFDictionaryRef d = copyCoreUIOptions(optionsID);
+    if (d != NULL) {
+        if (renderer == nil) {
+            renderer = JRSUIRendererCreate();
+        }
+
+        JRSUIControlRef control = JRSUIControlCreate(NO);
+        CFDictionaryApplyFunction(d, setControlValue, control);
+        CFRelease(d);
+
+        paint(env, data, w, h, xscale, yscale, control);
+
+        JRSUIControlRelease(control);
+        result = JNI_TRUE;
     }
 
-    JRSUIControlRelease(control);
+    COCOA_EXIT();
+
+    return result;
+}
+
+/*
+ * Class:     org_violetlib_jnr_aqua_coreui_CoreUIPainter
+ * Method:    nativeJRSPaintOptionsToBuffer
+ * Signature: (Ljava/nio/IntBuffer;IIFFI)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_violetlib_jnr_aqua_coreui_CoreUIPainter_nativeJRSPaintOptionsToBuffer
+  (JNIEnv *env, jclass cl, jobject buffer, jint w, jint h, jfloat xscale, jfloat yscale, jint optionsID)
+{
+    jboolean result = JNI_FALSE;
+
+    COCOA_ENTER();
+
+    void *pixels = (*env)->GetDirectBufferAddress(env, buffer);
+    jlong capacity = (*env)->GetDirectBufferCapacity(env, buffer);
+    if (pixels != NULL && capacity >= (jlong) w * h) {
+        CFDictionaryRef d = copyCoreUIOptions(optionsID);
+        if (d != NULL) {
+            if (renderer == nil) {
+                renderer = JRSUIRendererCreate();
+            }
+
+            JRSUIControlRef control = JRSUIControlCreate(NO);
+            CFDictionaryApplyFunction(d, setControlValue, control);
+            CFRelease(d);
+
+            paintPixels(pixels, w, h, xscale, yscale, control);
+
+            JRSUIControlRelease(control);
+            result = JNI_TRUE;
+        }
+    }
 
     COCOA_EXIT();
+
+    return result;
 }
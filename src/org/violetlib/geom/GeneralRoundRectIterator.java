@@ -22,8 +22,6 @@ class GeneralRoundRectIterator implements PathIterator {
     AffineTransform affine;
     int index;
     int cornerIndex;
-    double arcWidths[];
-    double arcHeights[];
 
     GeneralRoundRectIterator(GeneralRoundRectangle rr, AffineTransform at) {
         this.x = rr.getX();
@@ -43,8 +41,26 @@ class GeneralRoundRectIterator implements PathIterator {
             // Don't draw anything...
             index = ctrlpts.length;
         }
-        arcWidths = new double[] { tlaw, blaw, braw, traw };
-        arcHeights = new double[] { tlah, blah, brah, trah };
+    }
+
+    // The corners are visited in the order top left, bottom left, bottom right, top right.
+
+    private double getArcWidth() {
+        switch (cornerIndex) {
+            case 0: return tlaw;
+            case 1: return blaw;
+            case 2: return braw;
+            default: return traw;
+        }
+    }
+
+    private double getArcHeight() {
+        switch (cornerIndex) {
+            case 0: return tlah;
+            case 1: return blah;
+            case 2: return brah;
+            default: return trah;
+        }
     }
 
     /**
@@ -125,10 +141,12 @@ class GeneralRoundRectIterator implements PathIterator {
             throw new NoSuchElementException("GeneralRoundRect iterator out of bounds");
         }
         double ctrls[] = ctrlpts[index];
+        double aw = getArcWidth();
+        double ah = getArcHeight();
         int nc = 0;
         for (int i = 0; i < ctrls.length; i += 4) {
-            coords[nc++] = (float) (x + ctrls[i + 0] * w + ctrls[i + 1] * arcWidths[cornerIndex]);
-            coords[nc++] = (float) (y + ctrls[i + 2] * h + ctrls[i + 3] * arcHeights[cornerIndex]);
+            coords[nc++] = (float) (x + ctrls[i + 0] * w + ctrls[i + 1] * aw);
+            coords[nc++] = (float) (y + ctrls[i + 2] * h + ctrls[i + 3] * ah);
         }
         if (affine != null) {
             affine.transform(coords, 0, coords, 0, nc / 2);
@@ -141,10 +159,12 @@ class GeneralRoundRectIterator implements PathIterator {
             throw new NoSuchElementException("GeneralRoundRect iterator out of bounds");
         }
         double ctrls[] = ctrlpts[index];
+        double aw = getArcWidth();
+        double ah = getArcHeight();
         int nc = 0;
         for (int i = 0; i < ctrls.length; i += 4) {
-            coords[nc++] = (x + ctrls[i + 0] * w + ctrls[i + 1] * arcWidths[cornerIndex]);
-            coords[nc++] = (y + ctrls[i + 2] * h + ctrls[i + 3] * arcHeights[cornerIndex]);
+            coords[nc++] = (x + ctrls[i + 0] * w + ctrls[i + 1] * aw);
+            coords[nc++] = (y + ctrls[i + 2] * h + ctrls[i + 3] * ah);
         }
         if (affine != null) {
             affine.transform(coords, 0, coords, 0, nc / 2);
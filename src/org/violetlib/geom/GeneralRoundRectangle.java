@@ -12,6 +12,8 @@ package org.violetlib.geom;
 
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.FlatteningPathIterator;
+import java.awt.geom.Path2D;
 import java.awt.geom.PathIterator;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RectangularShape;
@@ -24,8 +26,6 @@ import org.jetbrains.annotations.*;
 */
 public class GeneralRoundRectangle extends RectangularShape implements ExpandableOutline.ExpandableShape
 {
-    // TBD: contains and intersects are not implemented
-
     private double x;
     private double y;
     private double width;
@@ -39,6 +39,16 @@ public class GeneralRoundRectangle extends RectangularShape implements Expandabl
     private double blaw;    // bottom left arc width
     private double blah;    // bottom left arc height
 
+    // A precomputed path, which may be shared with translated copies. The path of this shape is the precomputed path
+    // translated by (pathX, pathY).
+    private @Nullable Path2D path;
+    private double pathX;
+    private double pathY;
+
+    // A cached flattened path and the flatness used to create it.
+    private @Nullable Path2D flattenedPath;
+    private double flattenedPathFlatness;
+
     public GeneralRoundRectangle() {
     }
 
@@ -117,6 +127,8 @@ public class GeneralRoundRectangle extends RectangularShape implements Expandabl
         this.brah = brah;
         this.blaw = blaw;
         this.blah = blah;
+        this.path = null;
+        this.flattenedPath = null;
     }
 
     public void set(GeneralRoundRectangle rr) {
@@ -133,6 +145,11 @@ public class GeneralRoundRectangle extends RectangularShape implements Expandabl
         this.brah = rr.getBottomRightArcHeight();
         this.blaw = rr.getBottomLeftArcWidth();
         this.blah = rr.getBottomLeftArcHeight();
+        this.path = rr.path;
+        this.pathX = rr.pathX;
+        this.pathY = rr.pathY;
+        this.flattenedPath = rr.flattenedPath;
+        this.flattenedPathFlatness = rr.flattenedPathFlatness;
     }
 
     @Override
@@ -153,8 +170,29 @@ public class GeneralRoundRectangle extends RectangularShape implements Expandabl
     @Override
     public @NotNull Shape createTranslatedShape(double x, double y)
     {
-        return new GeneralRoundRectangle(x + this.x, y + this.y, width, height,
+        GeneralRoundRectangle rr = new GeneralRoundRectangle(x + this.x, y + this.y, width, height,
           tlaw, tlah, traw, trah, braw, brah, blaw, blah);
+        if (path != null) {
+            rr.path = path;
+            rr.pathX = pathX + x;
+            rr.pathY = pathY + y;
+        }
+        return rr;
+    }
+
+    /**
+      Precompute the path of this shape. The precomputed path is used by subsequent path iterators and is shared with
+      translated copies created by {@link #createTranslatedShape}. It is discarded if the shape is changed.
+    */
+
+    public void precomputePath() {
+        if (path == null) {
+            Path2D.Double p = new Path2D.Double();
+            p.append(new GeneralRoundRectIterator(this, null), false);
+            path = p;
+            pathX = 0;
+            pathY = 0;
+        }
     }
 
     public Rectangle2D getBounds2D() {
@@ -169,92 +207,129 @@ public class GeneralRoundRectangle extends RectangularShape implements Expandabl
           getBottomLeftArcWidth(), getBottomLeftArcHeight());
     }
 
-    public boolean contains(double x, double y) {
-//        if (isEmpty()) {
-//            return false;
-//        }
-//        double rrx0 = getX();
-//        double rry0 = getY();
-//        double rrx1 = rrx0 + getWidth();
-//        double rry1 = rry0 + getHeight();
-//        // Check for trivial rejection - point is outside bounding rectangle
-//        if (x < rrx0 || y < rry0 || x >= rrx1 || y >= rry1) {
-//            return false;
-//        }
-//        double aw = Math.min(getWidth(), Math.abs(getArcWidth())) / 2.0;
-//        double ah = Math.min(getHeight(), Math.abs(getArcHeight())) / 2.0;
-//        // Check which corner point is in and do circular containment
-//        // test - otherwise simple acceptance
-//        if (x >= (rrx0 += aw) && x < (rrx0 = rrx1 - aw)) {
-//            return true;
-//        }
-//        if (y >= (rry0 += ah) && y < (rry0 = rry1 - ah)) {
-//            return true;
-//        }
-//        x = (x - rrx0) / aw;
-//        y = (y - rry0) / ah;
-//        return (x * x + y * y <= 1.0);
-
-        // TBD
-        return false;
+    /*
+      The corners are elliptical arcs. The radii of a corner are half of its arc width and height, limited by the width
+      and height of the shape, as in the path. Containment is tested analytically against the ellipses; the path
+      approximates the ellipses using cubic curves.
+    */
+
+    private static double radius(double arc, double limit) {
+        return Math.min(limit, Math.abs(arc)) / 2.0;
+    }
+
+    /**
+      Test whether a point is inside the ellipse of a corner.
+
+      @param dx The X offset of the point from the center of the ellipse.
+      @param dy The Y offset of the point from the center of the ellipse.
+      @param rx The horizontal radius of the ellipse.
+      @param ry The vertical radius of the ellipse.
+    */
+
+    private static boolean isInsideCorner(double dx, double dy, double rx, double ry) {
+        double nx = dx / rx;
+        double ny = dy / ry;
+        return nx * nx + ny * ny <= 1.0;
     }
 
-//    private int classify(double coord, double left, double right,
-//                         double arcsize)
-//    {
-//        if (coord < left) {
-//            return 0;
-//        } else if (coord < left + arcsize) {
-//            return 1;
-//        } else if (coord < right - arcsize) {
-//            return 2;
-//        } else if (coord < right) {
-//            return 3;
-//        } else {
-//            return 4;
-//        }
-//    }
+    public boolean contains(double x, double y) {
+        if (isEmpty()) {
+            return false;
+        }
+        double x0 = this.x;
+        double y0 = this.y;
+        double x1 = x0 + width;
+        double y1 = y0 + height;
+
+        // Quick reject: the point is outside the bounds
+        if (x < x0 || y < y0 || x >= x1 || y >= y1) {
+            return false;
+        }
+
+        // Otherwise, the point is inside unless it is inside a corner box and outside the corner ellipse. Because each
+        // radius is at most half of the width or height, the corner boxes do not overlap.
+
+        boolean isLeft = x < x0 + width / 2;
+        boolean isTop = y < y0 + height / 2;
+        double rx;
+        double ry;
+        if (isTop) {
+            rx = radius(isLeft ? tlaw : traw, width);
+            ry = radius(isLeft ? tlah : trah, height);
+        } else {
+            rx = radius(isLeft ? blaw : braw, width);
+            ry = radius(isLeft ? blah : brah, height);
+        }
+
+        // Quick accept: the point is not inside the corner box
+        double cx = isLeft ? x0 + rx : x1 - rx;
+        double cy = isTop ? y0 + ry : y1 - ry;
+        if (isLeft ? x >= cx : x < cx) {
+            return true;
+        }
+        if (isTop ? y >= cy : y < cy) {
+            return true;
+        }
+        return isInsideCorner(x - cx, y - cy, rx, ry);
+    }
 
     public boolean intersects(double x, double y, double w, double h) {
-//        if (isEmpty() || w <= 0 || h <= 0) {
-//            return false;
-//        }
-//        double rrx0 = getX();
-//        double rry0 = getY();
-//        double rrx1 = rrx0 + getWidth();
-//        double rry1 = rry0 + getHeight();
-//        // Check for trivial rejection - bounding rectangles do not intersect
-//        if (x + w <= rrx0 || x >= rrx1 || y + h <= rry0 || y >= rry1) {
-//            return false;
-//        }
-//        double aw = Math.min(getWidth(), Math.abs(getArcWidth())) / 2.0;
-//        double ah = Math.min(getHeight(), Math.abs(getArcHeight())) / 2.0;
-//        int x0class = classify(x, rrx0, rrx1, aw);
-//        int x1class = classify(x + w, rrx0, rrx1, aw);
-//        int y0class = classify(y, rry0, rry1, ah);
-//        int y1class = classify(y + h, rry0, rry1, ah);
-//        // Trivially accept if any point is inside inner rectangle
-//        if (x0class == 2 || x1class == 2 || y0class == 2 || y1class == 2) {
-//            return true;
-//        }
-//        // Trivially accept if either edge spans inner rectangle
-//        if ((x0class < 2 && x1class > 2) || (y0class < 2 && y1class > 2)) {
-//            return true;
-//        }
-//        // Since neither edge spans the center, then one of the corners
-//        // must be in one of the rounded edges.  We detect this case if
-//        // a [xy]0class is 3 or a [xy]1class is 1.  One of those two cases
-//        // must be true for each direction.
-//        // We now find a "nearest point" to test for being inside a rounded
-//        // corner.
-//        x = (x1class == 1) ? (x = x + w - (rrx0 + aw)) : (x = x - (rrx1 - aw));
-//        y = (y1class == 1) ? (y = y + h - (rry0 + ah)) : (y = y - (rry1 - ah));
-//        x = x / aw;
-//        y = y / ah;
-//        return (x * x + y * y <= 1.0);
-
-        // TBD
-        return false;
+        if (isEmpty() || w <= 0 || h <= 0) {
+            return false;
+        }
+        double x0 = this.x;
+        double y0 = this.y;
+        double x1 = x0 + width;
+        double y1 = y0 + height;
+
+        // Quick reject: the rectangle does not intersect the bounds
+        if (x + w <= x0 || x >= x1 || y + h <= y0 || y >= y1) {
+            return false;
+        }
+
+        // Consider only the part of the rectangle inside the bounds
+        double ix0 = Math.max(x, x0);
+        double iy0 = Math.max(y, y0);
+        double ix1 = Math.min(x + w, x1);
+        double iy1 = Math.min(y + h, y1);
+
+        // The rectangle intersects the shape unless it is entirely inside one corner box and does not reach the corner
+        // ellipse. A rectangle that extends beyond a corner box includes a point on the line through the center of
+        // the corner ellipse, which is inside the shape.
+
+        double tlrx = radius(tlaw, width);
+        double tlry = radius(tlah, height);
+        if (ix1 <= x0 + tlrx && iy1 <= y0 + tlry) {
+            return reachesCorner(ix0, iy0, ix1, iy1, x0 + tlrx, y0 + tlry, tlrx, tlry);
+        }
+        double trrx = radius(traw, width);
+        double trry = radius(trah, height);
+        if (ix0 >= x1 - trrx && iy1 <= y0 + trry) {
+            return reachesCorner(ix0, iy0, ix1, iy1, x1 - trrx, y0 + trry, trrx, trry);
+        }
+        double brrx = radius(braw, width);
+        double brry = radius(brah, height);
+        if (ix0 >= x1 - brrx && iy0 >= y1 - brry) {
+            return reachesCorner(ix0, iy0, ix1, iy1, x1 - brrx, y1 - brry, brrx, brry);
+        }
+        double blrx = radius(blaw, width);
+        double blry = radius(blah, height);
+        if (ix1 <= x0 + blrx && iy0 >= y1 - blry) {
+            return reachesCorner(ix0, iy0, ix1, iy1, x0 + blrx, y1 - blry, blrx, blry);
+        }
+        return true;
+    }
+
+    /**
+      Test whether a rectangle inside a corner box reaches the corner ellipse. The point of the rectangle nearest to
+      the center of the ellipse is tested.
+    */
+
+    private static boolean reachesCorner(double x0, double y0, double x1, double y1,
+                                         double cx, double cy, double rx, double ry) {
+        double nx = Math.max(x0, Math.min(cx, x1));
+        double ny = Math.max(y0, Math.min(cy, y1));
+        return isInsideCorner(nx - cx, ny - cy, rx, ry);
     }
 
     public boolean contains(double x, double y, double w, double h) {
@@ -268,7 +343,48 @@ public class GeneralRoundRectangle extends RectangularShape implements Expandabl
     }
 
     public PathIterator getPathIterator(AffineTransform at) {
-        return new GeneralRoundRectIterator(this, at);
+        Path2D p = path;
+        if (p == null) {
+            return new GeneralRoundRectIterator(this, at);
+        }
+        if (pathX == 0 && pathY == 0) {
+            return p.getPathIterator(at);
+        }
+        AffineTransform tr = at != null ? new AffineTransform(at) : new AffineTransform();
+        tr.translate(pathX, pathY);
+        return p.getPathIterator(tr);
+    }
+
+    /**
+      Return a path iterator that flattens the curves of this shape. If the transform is a translation, the iterator is
+      based on a cached flattened path.
+    */
+
+    public PathIterator getPathIterator(AffineTransform at, double flatness) {
+        if (at != null && at.getType() != AffineTransform.TYPE_IDENTITY
+              && at.getType() != AffineTransform.TYPE_TRANSLATION) {
+            return super.getPathIterator(at, flatness);
+        }
+        return getFlattenedPath(flatness).getPathIterator(at);
+    }
+
+    /**
+      Return a path that approximates this shape using line segments. The path is cached until the shape is changed or
+      a different flatness is requested. The returned shape must not be modified.
+
+      @param flatness The maximum distance between the line segments and the curves they approximate.
+    */
+
+    public @NotNull Shape getFlattenedPath(double flatness) {
+        Path2D p = flattenedPath;
+        if (p == null || flattenedPathFlatness != flatness) {
+            Path2D.Double fp = new Path2D.Double(PathIterator.WIND_NON_ZERO, 24);
+            fp.append(new FlatteningPathIterator(getPathIterator(null), flatness), false);
+            p = fp;
+            flattenedPathFlatness = flatness;
+            flattenedPath = p;
+        }
+        return p;
     }
 
     public int hashCode() {
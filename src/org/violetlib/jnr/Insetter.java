@@ -15,6 +15,7 @@ import java.awt.geom.Dimension2D;
 import java.awt.geom.Rectangle2D;
 
 import org.violetlib.jnr.impl.CombinedInsetter;
+import org.violetlib.jnr.impl.Insetters;
 
 import org.jetbrains.annotations.*;
 
@@ -90,6 +91,35 @@ public interface Insetter
 
     @NotNull Rectangle2D apply2D(double width, double height);
 
+    /**
+      Map from (outer) component bounds to (inner) region bounds by subtracting the insets from the component bounds.
+      The origin of the component is assumed to be (0, 0). This method stores the result in a rectangle supplied by the
+      caller, avoiding allocation.
+
+      @param width The width of the component.
+      @param height The height of the component.
+      @param result The rectangle to receive the bounds that result from applying the insets to the specified bounds.
+    */
+
+    default void applyTo(float width, float height, @NotNull Rectangle2D.Float result)
+    {
+        result.setRect(apply2D(width, height));
+    }
+
+    /**
+      Map from (outer) component bounds to (inner) region bounds by subtracting the insets from the component bounds.
+      This method stores the result in a rectangle supplied by the caller, avoiding allocation.
+
+      @param bounds The component bounds.
+      @param result The rectangle to receive the bounds that result from applying the insets to the specified bounds.
+      The result rectangle may be the same object as {@code bounds}.
+    */
+
+    default void applyToBounds2D(@NotNull Rectangle2D bounds, @NotNull Rectangle2D.Float result)
+    {
+        result.setRect(applyToBounds2D(bounds));
+    }
+
     /**
       Map from (outer) component bounds to (inner) region bounds by subtracting the insets from the component bounds.
       The origin of the component is assumed to be (0, 0).
@@ -156,10 +186,12 @@ public interface Insetter
     @Nullable Insets asInsets();
 
     /**
-      Return an insetter that is equivalent to applying the specified insetter to the results of this one.
+      Return an insetter that is equivalent to applying the specified insetter to the results of this one. Sequences of
+      fixed insets are folded into a single insetter.
     */
 
     default @NotNull Insetter prepend(@NotNull Insetter p) {
-        return new InsetterSequenceImpl(this, p);
+        Insetter folded = Insetters.fold(this, p);
+        return folded != null ? folded : new InsetterSequenceImpl(this, p);
     }
 }
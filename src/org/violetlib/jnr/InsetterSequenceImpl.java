@@ -50,6 +50,20 @@ import org.jetbrains.annotations.*;
         return i2.applyToBounds2D(i1.apply2D(width, height));
     }
 
+    @Override
+    public void applyTo(float width, float height, @NotNull Rectangle2D.Float result)
+    {
+        i1.applyTo(width, height, result);
+        i2.applyToBounds2D(result, result);
+    }
+
+    @Override
+    public void applyToBounds2D(@NotNull Rectangle2D bounds, @NotNull Rectangle2D.Float result)
+    {
+        i1.applyToBounds2D(bounds, result);
+        i2.applyToBounds2D(result, result);
+    }
+
     @Override
     public @NotNull Rectangle apply(int width, int height)
     {
@@ -11,13 +11,20 @@ package org.violetlib.jnr.aqua;
 import java.awt.Dimension;
 import java.awt.Shape;
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
+import org.violetlib.jnr.Insets2D;
 import org.violetlib.jnr.Insetter;
 import org.violetlib.jnr.LayoutInfo;
 import org.violetlib.jnr.aqua.impl.PopupArrowConfiguration;
 import org.violetlib.jnr.aqua.impl.SliderThumbConfiguration;
 import org.violetlib.jnr.aqua.impl.SliderTickConfiguration;
 import org.violetlib.jnr.impl.BasicLayoutInfo;
+import org.violetlib.jnr.impl.ClassDispatcher;
 import org.violetlib.jnr.impl.CombinedInsetter;
 
 import org.jetbrains.annotations.*;
@@ -30,124 +37,571 @@ import static org.violetlib.jnr.aqua.AquaUIPainter.*;
 
 public abstract class AquaUILayoutInfo
 {
-    public AquaUILayoutInfo()
-    {
-    }
-
-    /**
-      Return the layout information for the specified widget configuration.
-      @param g The configuration.
-      @return the layout information for the specified configuration.
+    /*
+      Layout information and content insets depend only upon the layout configuration and the platform UI, which is
+      fixed for an instance of this class. The results are immutable, so they are memoized. Memoization can be disabled
+      by setting the system property VAqua.memoizeLayoutInfo to false.
     */
 
-    public @NotNull LayoutInfo getLayoutInfo(@NotNull LayoutConfiguration g)
-      throws UnsupportedOperationException
+    private static final boolean isLayoutMemoEnabled
+      = !"false".equals(System.getProperty("VAqua.memoizeLayoutInfo"));
+
+    private static final int MAXIMUM_MEMOIZED_LAYOUT_COUNT = 2000;
+
+    private static final @NotNull Object NO_INSETS = new Object();
+
+    private static final class LayoutMemo
     {
-        if (g instanceof ButtonLayoutConfiguration) {
-            ButtonLayoutConfiguration gg = (ButtonLayoutConfiguration) g;
-            return getButtonLayoutInfo(gg);
+        private final @NotNull LinkedHashMap<LayoutConfiguration,Object> map
+          = new LinkedHashMap<LayoutConfiguration,Object>(64, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(@NotNull Map.Entry<LayoutConfiguration,Object> eldest)
+            {
+                return size() > MAXIMUM_MEMOIZED_LAYOUT_COUNT;
+            }
+        };
+
+        private int hitCount;
+        private int missCount;
+
+        public synchronized @Nullable Object lookup(@NotNull LayoutConfiguration g)
+        {
+            Object o = map.get(g);
+            if (o != null) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+            return o;
         }
 
-        if (g instanceof ComboBoxLayoutConfiguration) {
-            ComboBoxLayoutConfiguration gg = (ComboBoxLayoutConfiguration) g;
-            return getComboBoxLayoutInfo(gg);
+        public synchronized void install(@NotNull LayoutConfiguration g, @NotNull Object o)
+        {
+            map.put(g, o);
         }
 
-        if (g instanceof PopupButtonLayoutConfiguration) {
-            PopupButtonLayoutConfiguration gg = (PopupButtonLayoutConfiguration) g;
-            return getPopUpButtonLayoutInfo(gg);
+        public synchronized int getHitCount()
+        {
+            return hitCount;
         }
 
-        if (g instanceof TitleBarLayoutConfiguration) {
-            TitleBarLayoutConfiguration gg = (TitleBarLayoutConfiguration) g;
-            return getTitleBarLayoutInfo(gg);
+        public synchronized int getMissCount()
+        {
+            return missCount;
         }
+    }
+
+    /**
+      Provides layout information for layout configurations of a specific type.
+    */
+
+    public interface LayoutInfoProvider<G extends LayoutConfiguration>
+    {
+        /**
+          Return the layout information for the specified configuration.
+          @param li The platform layout information.
+          @param g The configuration.
+          @return the layout information, or null if the configuration is not supported.
+        */
+
+        @Nullable LayoutInfo getLayoutInfo(@NotNull AquaUILayoutInfo li, @NotNull G g);
+    }
+
+    /**
+      Provides content insets for layout configurations of a specific type.
+    */
+
+    public interface ContentInsetsProvider<G extends LayoutConfiguration>
+    {
+        /**
+          Return the content insets for the specified configuration.
+          @param li The platform layout information.
+          @param g The configuration.
+          @return the content insets, or null if the configuration does not support contents.
+        */
+
+        @Nullable Insetter getContentInsets(@NotNull AquaUILayoutInfo li, @NotNull G g);
+    }
+
+    /*
+      The layout information and content insets of the most common layout configurations are determined by a few enum
+      values. For these configurations, tables indexed by the enum ordinals are built once, when the layout is
+      initialized. A table lookup does not depend upon the other attributes of a configuration, such as its state, so
+      one entry serves all of the configurations that share a layout. Table lookups can be disabled by setting the
+      system property VAqua.layoutTables to false.
+    */
+
+    private static final boolean isLayoutTableEnabled = !"false".equals(System.getProperty("VAqua.layoutTables"));
+
+    private static final int SIZES = Size.values().length;
+    private static final int DIRECTIONS = UILayoutDirection.values().length;
+    private static final int ORIENTATIONS = Orientation.values().length;
+
+    /**
+      Maps the layout configurations of a specific type to table indexes.
+    */
+
+    private interface LayoutIndexer<G extends LayoutConfiguration>
+    {
+        int getIndex(@NotNull G g);
+    }
+
+    /**
+      A description of a layout table.
+    */
 
-        if (g instanceof SliderLayoutConfiguration) {
-            SliderLayoutConfiguration gg = (SliderLayoutConfiguration) g;
-            return getSliderLayoutInfo(gg);
+    private static final class LayoutTableSpec<G extends LayoutConfiguration>
+    {
+        final int id;
+        final @NotNull Class<G> type;
+        final int size;
+        final @NotNull LayoutIndexer<G> indexer;
+        final @NotNull Supplier<List<G>> configurations;
+
+        LayoutTableSpec(int id,
+                        @NotNull Class<G> type,
+                        int size,
+                        @NotNull LayoutIndexer<G> indexer,
+                        @NotNull Supplier<List<G>> configurations)
+        {
+            this.id = id;
+            this.type = type;
+            this.size = size;
+            this.indexer = indexer;
+            this.configurations = configurations;
         }
 
-        if (g instanceof SpinnerArrowsLayoutConfiguration) {
-            SpinnerArrowsLayoutConfiguration gg = (SpinnerArrowsLayoutConfiguration) g;
-            return getSpinnerArrowsLayoutInfo(gg);
+        int getIndex(@NotNull LayoutConfiguration g)
+        {
+            return indexer.getIndex(type.cast(g));
         }
+    }
+
+    /**
+      A layout table for one platform UI. Absent entries are null. The providers used to build the table are recorded,
+      so that the table is not used for a configuration type whose providers have been replaced.
+    */
 
-        if (g instanceof SplitPaneDividerLayoutConfiguration) {
-            SplitPaneDividerLayoutConfiguration gg = (SplitPaneDividerLayoutConfiguration) g;
-            return getSplitPaneDividerLayoutInfo(gg);
+    private static final class LayoutTable
+    {
+        final @NotNull LayoutTableSpec<?> spec;
+        final @Nullable LayoutInfoProvider<?> layoutInfoProvider;
+        final @Nullable ContentInsetsProvider<?> contentInsetsProvider;
+        final @NotNull LayoutInfo[] layoutInfo;
+        final @NotNull Object[] contentInsets;
+
+        LayoutTable(@NotNull LayoutTableSpec<?> spec,
+                    @Nullable LayoutInfoProvider<?> layoutInfoProvider,
+                    @Nullable ContentInsetsProvider<?> contentInsetsProvider)
+        {
+            this.spec = spec;
+            this.layoutInfoProvider = layoutInfoProvider;
+            this.contentInsetsProvider = contentInsetsProvider;
+            this.layoutInfo = new LayoutInfo[spec.size];
+            this.contentInsets = new Object[spec.size];
         }
+    }
+
+    private static final @NotNull List<LayoutTableSpec<?>> layoutTableSpecs = new ArrayList<>();
+    private static final @NotNull ClassDispatcher<LayoutTableSpec<?>> layoutTableDispatcher = new ClassDispatcher<>();
+
+    private static <G extends LayoutConfiguration> void registerTable(@NotNull Class<G> c,
+                                                                      int size,
+                                                                      @NotNull LayoutIndexer<G> indexer,
+                                                                      @NotNull Supplier<List<G>> configurations)
+    {
+        LayoutTableSpec<G> spec = new LayoutTableSpec<>(layoutTableSpecs.size(), c, size, indexer, configurations);
+        layoutTableSpecs.add(spec);
+        layoutTableDispatcher.register(c, spec);
+    }
 
-        if (g instanceof SegmentedButtonLayoutConfiguration) {
-            SegmentedButtonLayoutConfiguration gg = (SegmentedButtonLayoutConfiguration) g;
-            return getSegmentedButtonLayoutInfo(gg);
+    static {
+        registerTable(ButtonLayoutConfiguration.class, ButtonWidget.values().length * SIZES * DIRECTIONS,
+          g -> (g.getButtonWidget().ordinal() * SIZES + g.getSize().ordinal()) * DIRECTIONS
+                 + g.getLayoutDirection().ordinal(),
+          () -> {
+              List<ButtonLayoutConfiguration> gs = new ArrayList<>();
+              for (ButtonWidget w : ButtonWidget.values()) {
+                  for (Size sz : Size.values()) {
+                      for (UILayoutDirection ld : UILayoutDirection.values()) {
+                          gs.add(new ButtonLayoutConfiguration(w, sz, ld));
+                      }
+                  }
+              }
+              return gs;
+          });
+
+        registerTable(ComboBoxLayoutConfiguration.class, ComboBoxWidget.values().length * SIZES * DIRECTIONS,
+          g -> (g.getWidget().ordinal() * SIZES + g.getSize().ordinal()) * DIRECTIONS
+                 + g.getLayoutDirection().ordinal(),
+          () -> {
+              List<ComboBoxLayoutConfiguration> gs = new ArrayList<>();
+              for (ComboBoxWidget w : ComboBoxWidget.values()) {
+                  for (Size sz : Size.values()) {
+                      for (UILayoutDirection ld : UILayoutDirection.values()) {
+                          gs.add(new ComboBoxLayoutConfiguration(w, sz, ld));
+                      }
+                  }
+              }
+              return gs;
+          });
+
+        registerTable(PopupButtonLayoutConfiguration.class, PopupButtonWidget.values().length * SIZES * DIRECTIONS,
+          g -> (g.getPopupButtonWidget().ordinal() * SIZES + g.getSize().ordinal()) * DIRECTIONS
+                 + g.getLayoutDirection().ordinal(),
+          () -> {
+              List<PopupButtonLayoutConfiguration> gs = new ArrayList<>();
+              for (PopupButtonWidget w : PopupButtonWidget.values()) {
+                  for (Size sz : Size.values()) {
+                      for (UILayoutDirection ld : UILayoutDirection.values()) {
+                          gs.add(new PopupButtonLayoutConfiguration(w, sz, ld));
+                      }
+                  }
+              }
+              return gs;
+          });
+
+        registerTable(TextFieldLayoutConfiguration.class, TextFieldWidget.values().length * SIZES * DIRECTIONS,
+          g -> (g.getWidget().ordinal() * SIZES + g.getSize().ordinal()) * DIRECTIONS
+                 + g.getLayoutDirection().ordinal(),
+          () -> {
+              List<TextFieldLayoutConfiguration> gs = new ArrayList<>();
+              for (TextFieldWidget w : TextFieldWidget.values()) {
+                  for (Size sz : Size.values()) {
+                      for (UILayoutDirection ld : UILayoutDirection.values()) {
+                          gs.add(new TextFieldLayoutConfiguration(w, sz, ld));
+                      }
+                  }
+              }
+              return gs;
+          });
+
+        int positions = Position.values().length;
+        registerTable(SegmentedButtonLayoutConfiguration.class,
+          SegmentedButtonWidget.values().length * SIZES * positions,
+          g -> (g.getWidget().ordinal() * SIZES + g.getSize().ordinal()) * positions + g.getPosition().ordinal(),
+          () -> {
+              List<SegmentedButtonLayoutConfiguration> gs = new ArrayList<>();
+              for (SegmentedButtonWidget w : SegmentedButtonWidget.values()) {
+                  for (Size sz : Size.values()) {
+                      for (Position p : Position.values()) {
+                          gs.add(new SegmentedButtonLayoutConfiguration(w, sz, p));
+                      }
+                  }
+              }
+              return gs;
+          });
+
+        registerTable(ProgressIndicatorLayoutConfiguration.class, ProgressWidget.values().length * SIZES * ORIENTATIONS,
+          g -> (g.getWidget().ordinal() * SIZES + g.getSize().ordinal()) * ORIENTATIONS + g.getOrientation().ordinal(),
+          () -> {
+              List<ProgressIndicatorLayoutConfiguration> gs = new ArrayList<>();
+              for (ProgressWidget w : ProgressWidget.values()) {
+                  for (Size sz : Size.values()) {
+                      for (Orientation o : Orientation.values()) {
+                          gs.add(new ProgressIndicatorLayoutConfiguration(w, sz, o));
+                      }
+                  }
+              }
+              return gs;
+          });
+
+        registerTable(ScrollBarLayoutConfiguration.class, ScrollBarWidget.values().length * SIZES * ORIENTATIONS,
+          g -> (g.getWidget().ordinal() * SIZES + g.getSize().ordinal()) * ORIENTATIONS + g.getOrientation().ordinal(),
+          () -> {
+              List<ScrollBarLayoutConfiguration> gs = new ArrayList<>();
+              for (ScrollBarWidget w : ScrollBarWidget.values()) {
+                  for (Size sz : Size.values()) {
+                      for (Orientation o : Orientation.values()) {
+                          gs.add(new ScrollBarLayoutConfiguration(w, sz, o));
+                      }
+                  }
+              }
+              return gs;
+          });
+
+        registerTable(SpinnerArrowsLayoutConfiguration.class, SIZES,
+          g -> g.getSize().ordinal(),
+          () -> {
+              List<SpinnerArrowsLayoutConfiguration> gs = new ArrayList<>();
+              for (Size sz : Size.values()) {
+                  gs.add(new SpinnerArrowsLayoutConfiguration(sz));
+              }
+              return gs;
+          });
+    }
+
+    private static final @NotNull ClassDispatcher<LayoutInfoProvider<?>> layoutInfoProviders = new ClassDispatcher<>();
+    private static final @NotNull ClassDispatcher<ContentInsetsProvider<?>> contentInsetsProviders
+      = new ClassDispatcher<>();
+
+    static {
+        registerBuiltin(ButtonLayoutConfiguration.class, AquaUILayoutInfo::getButtonLayoutInfo);
+        registerBuiltin(ComboBoxLayoutConfiguration.class, AquaUILayoutInfo::getComboBoxLayoutInfo);
+        registerBuiltin(PopupButtonLayoutConfiguration.class, AquaUILayoutInfo::getPopUpButtonLayoutInfo);
+        registerBuiltin(TitleBarLayoutConfiguration.class, AquaUILayoutInfo::getTitleBarLayoutInfo);
+        registerBuiltin(SliderLayoutConfiguration.class, AquaUILayoutInfo::getSliderLayoutInfo);
+        registerBuiltin(SpinnerArrowsLayoutConfiguration.class, AquaUILayoutInfo::getSpinnerArrowsLayoutInfo);
+        registerBuiltin(SplitPaneDividerLayoutConfiguration.class, AquaUILayoutInfo::getSplitPaneDividerLayoutInfo);
+        registerBuiltin(SegmentedButtonLayoutConfiguration.class, AquaUILayoutInfo::getSegmentedButtonLayoutInfo);
+        registerBuiltin(ToolBarItemWellLayoutConfiguration.class, AquaUILayoutInfo::getToolBarItemWellLayoutInfo);
+        registerBuiltin(GroupBoxLayoutConfiguration.class, AquaUILayoutInfo::getGroupBoxLayoutInfo);
+        registerBuiltin(ListBoxLayoutConfiguration.class, AquaUILayoutInfo::getListBoxLayoutInfo);
+        registerBuiltin(TextFieldLayoutConfiguration.class, AquaUILayoutInfo::getTextFieldLayoutInfo);
+        registerBuiltin(ScrollBarLayoutConfiguration.class, AquaUILayoutInfo::getScrollBarLayoutInfo);
+        registerBuiltin(ScrollColumnSizerLayoutConfiguration.class, AquaUILayoutInfo::getScrollColumnSizerLayoutInfo);
+        registerBuiltin(ProgressIndicatorLayoutConfiguration.class, AquaUILayoutInfo::getProgressIndicatorLayoutInfo);
+        registerBuiltin(TableColumnHeaderLayoutConfiguration.class, AquaUILayoutInfo::getTableColumnHeaderLayoutInfo);
+
+        // for testing
+        registerBuiltin(SliderThumbConfiguration.class,
+          (li, g) -> li.getSliderThumbLayoutInfo(g.getSliderConfiguration()));
+        registerBuiltin(SliderTickConfiguration.class,
+          (li, g) -> li.getSliderTickLayoutInfo(g.getSliderConfiguration()));
+        registerBuiltin(PopupArrowConfiguration.class, (li, g) -> {
+            Insetter s = li.getPopUpArrowInsets(g.getPopupButtonConfiguration());
+            if (s instanceof CombinedInsetter) {
+                CombinedInsetter cs = (CombinedInsetter) s;
+                float fixedWidth = cs.getFixedRegionWidth();
+                float fixedHeight = cs.getFixedRegionHeight();
+                return BasicLayoutInfo.createFixed(fixedWidth, fixedHeight);
+            }
+            return null;
+        });
+
+        registerBuiltinInsets(ButtonLayoutConfiguration.class, AquaUILayoutInfo::getButtonLabelInsets);
+        registerBuiltinInsets(ComboBoxLayoutConfiguration.class, AquaUILayoutInfo::getComboBoxEditorInsets);
+        registerBuiltinInsets(PopupButtonLayoutConfiguration.class, AquaUILayoutInfo::getPopupButtonContentInsets);
+        registerBuiltinInsets(TitleBarLayoutConfiguration.class, AquaUILayoutInfo::getTitleBarLabelInsets);
+        registerBuiltinInsets(SegmentedButtonLayoutConfiguration.class,
+          AquaUILayoutInfo::getSegmentedButtonLabelInsets);
+        registerBuiltinInsets(TextFieldLayoutConfiguration.class, AquaUILayoutInfo::getTextFieldTextInsets);
+        registerBuiltinInsets(TableColumnHeaderLayoutConfiguration.class,
+          AquaUILayoutInfo::getTableColumnHeaderLabelInsets);
+    }
+
+    private static <G extends LayoutConfiguration> void registerBuiltin(@NotNull Class<G> c,
+                                                                        @NotNull LayoutInfoProvider<G> p)
+    {
+        layoutInfoProviders.register(c, p);
+    }
+
+    private static <G extends LayoutConfiguration> void registerBuiltinInsets(@NotNull Class<G> c,
+                                                                              @NotNull ContentInsetsProvider<G> p)
+    {
+        contentInsetsProviders.register(c, p);
+    }
+
+    /**
+      Register a layout information provider for a layout configuration type. The provider is used for configurations
+      of the specified type and its subtypes. It takes precedence over the existing providers, which allows an
+      application to support its own configurations. Layout information that is already memoized is not affected.
+
+      @param c The layout configuration type.
+      @param p The layout information provider.
+    */
+
+    public static <G extends LayoutConfiguration> void registerLayoutInfoProvider(
+      @NotNull Class<G> c, @NotNull LayoutInfoProvider<? super G> p)
+    {
+        layoutInfoProviders.registerFirst(c, p);
+    }
+
+    /**
+      Register a content insets provider for a layout configuration type. The provider is used for configurations of
+      the specified type and its subtypes. It takes precedence over the existing providers, which allows an application
+      to support its own configurations. Content insets that are already memoized are not affected.
+
+      @param c The layout configuration type.
+      @param p The content insets provider.
+    */
+
+    public static <G extends LayoutConfiguration> void registerContentInsetsProvider(
+      @NotNull Class<G> c, @NotNull ContentInsetsProvider<? super G> p)
+    {
+        contentInsetsProviders.registerFirst(c, p);
+    }
+
+    private final @NotNull LayoutMemo layoutInfoMemo = new LayoutMemo();
+    private final @NotNull LayoutMemo contentInsetsMemo = new LayoutMemo();
+    private volatile @Nullable LayoutTable[] layoutTables;
+    private int layoutTableHitCount;  // approximate, not synchronized
+
+    public AquaUILayoutInfo()
+    {
+    }
+
+    /**
+      Build the layout tables. This method is called once, when the layout is installed. It must not be called from a
+      constructor, as the layout computations may depend upon the state of a subclass.
+    */
+
+    public void initializeLayoutTables()
+    {
+        if (!isLayoutTableEnabled || layoutTables != null) {
+            return;
         }
 
-        if (g instanceof ToolBarItemWellLayoutConfiguration) {
-            ToolBarItemWellLayoutConfiguration gg = (ToolBarItemWellLayoutConfiguration) g;
-            return getToolBarItemWellLayoutInfo(gg);
+        LayoutTable[] tables = new LayoutTable[layoutTableSpecs.size()];
+        for (LayoutTableSpec<?> spec : layoutTableSpecs) {
+            tables[spec.id] = buildLayoutTable(spec);
         }
+        layoutTables = tables;
+    }
 
-        if (g instanceof GroupBoxLayoutConfiguration) {
-            GroupBoxLayoutConfiguration gg = (GroupBoxLayoutConfiguration) g;
-            return getGroupBoxLayoutInfo(gg);
+    private @NotNull LayoutTable buildLayoutTable(@NotNull LayoutTableSpec<?> spec)
+    {
+        LayoutTable t
+          = new LayoutTable(spec, layoutInfoProviders.get(spec.type), contentInsetsProviders.get(spec.type));
+        for (LayoutConfiguration g : spec.configurations.get()) {
+            int index = spec.getIndex(g);
+            try {
+                t.layoutInfo[index] = computeLayoutInfo(g);
+            } catch (RuntimeException ex) {
+                // not supported on this platform
+            }
+            if (t.contentInsetsProvider != null) {
+                try {
+                    Insetter insets = computeContentInsets(g);
+                    t.contentInsets[index] = insets != null ? insets : NO_INSETS;
+                } catch (RuntimeException ex) {
+                    // not supported on this platform
+                }
+            }
         }
+        return t;
+    }
 
-        if (g instanceof ListBoxLayoutConfiguration) {
-            ListBoxLayoutConfiguration gg = (ListBoxLayoutConfiguration) g;
-            return getListBoxLayoutInfo(gg);
+    private @Nullable LayoutTable getLayoutTable(@NotNull LayoutConfiguration g)
+    {
+        LayoutTable[] tables = layoutTables;
+        if (tables != null) {
+            LayoutTableSpec<?> spec = layoutTableDispatcher.get(g.getClass());
+            if (spec != null) {
+                return tables[spec.id];
+            }
         }
+        return null;
+    }
 
-        if (g instanceof TextFieldLayoutConfiguration) {
-            TextFieldLayoutConfiguration gg = (TextFieldLayoutConfiguration) g;
-            return getTextFieldLayoutInfo(gg);
+    private @Nullable LayoutInfo lookupLayoutTable(@NotNull LayoutConfiguration g)
+    {
+        LayoutTable t = getLayoutTable(g);
+        if (t != null && layoutInfoProviders.get(g.getClass()) == t.layoutInfoProvider) {
+            LayoutInfo info = t.layoutInfo[t.spec.getIndex(g)];
+            if (info != null) {
+                layoutTableHitCount++;
+                return info;
+            }
         }
+        return null;
+    }
 
-        if (g instanceof ScrollBarLayoutConfiguration) {
-            ScrollBarLayoutConfiguration gg = (ScrollBarLayoutConfiguration) g;
-            return getScrollBarLayoutInfo(gg);
+    private @Nullable Object lookupContentInsetsTable(@NotNull LayoutConfiguration g)
+    {
+        LayoutTable t = getLayoutTable(g);
+        if (t != null && t.contentInsetsProvider != null
+              && contentInsetsProviders.get(g.getClass()) == t.contentInsetsProvider) {
+            Object o = t.contentInsets[t.spec.getIndex(g)];
+            if (o != null) {
+                layoutTableHitCount++;
+                return o;
+            }
         }
+        return null;
+    }
 
-        if (g instanceof ScrollColumnSizerLayoutConfiguration) {
-            ScrollColumnSizerLayoutConfiguration gg = (ScrollColumnSizerLayoutConfiguration) g;
-            return getScrollColumnSizerLayoutInfo(gg);
+    /**
+      Compare the layout tables with the layout information and content insets computed by the existing logic, for
+      every combination of enum values.
+
+      @return descriptions of the entries that do not match. The list is empty if the tables are consistent, or if the
+      tables have not been built.
+    */
+
+    public @NotNull List<String> verifyLayoutTables()
+    {
+        List<String> problems = new ArrayList<>();
+        LayoutTable[] tables = layoutTables;
+        if (tables == null) {
+            return problems;
         }
 
-        if (g instanceof ProgressIndicatorLayoutConfiguration) {
-            ProgressIndicatorLayoutConfiguration gg = (ProgressIndicatorLayoutConfiguration) g;
-            return getProgressIndicatorLayoutInfo(gg);
+        for (LayoutTable t : tables) {
+            for (LayoutConfiguration g : t.spec.configurations.get()) {
+                int index = t.spec.getIndex(g);
+                LayoutInfo expected;
+                try {
+                    expected = computeLayoutInfo(g);
+                } catch (RuntimeException ex) {
+                    expected = null;
+                }
+                if (!isSameLayoutInfo(expected, t.layoutInfo[index])) {
+                    problems.add("Layout information: " + g);
+                }
+                if (t.contentInsetsProvider != null) {
+                    Insetter expectedInsets;
+                    try {
+                        expectedInsets = computeContentInsets(g);
+                    } catch (RuntimeException ex) {
+                        continue;
+                    }
+                    Object o = t.contentInsets[index];
+                    if (o == null || !isSameInsets(expectedInsets, o != NO_INSETS ? (Insetter) o : null)) {
+                        problems.add("Content insets: " + g);
+                    }
+                }
+            }
         }
+        return problems;
+    }
 
-        if (g instanceof TableColumnHeaderLayoutConfiguration) {
-            TableColumnHeaderLayoutConfiguration gg = (TableColumnHeaderLayoutConfiguration) g;
-            return getTableColumnHeaderLayoutInfo(gg);
+    private static boolean isSameLayoutInfo(@Nullable LayoutInfo a, @Nullable LayoutInfo b)
+    {
+        if (a == null || b == null) {
+            return a == b;
         }
+        return a.getFixedVisualWidth() == b.getFixedVisualWidth()
+                 && a.getFixedVisualHeight() == b.getFixedVisualHeight()
+                 && a.getMinimumVisualWidth() == b.getMinimumVisualWidth()
+                 && a.getMinimumVisualHeight() == b.getMinimumVisualHeight();
+    }
 
-        // for testing
-        if (g instanceof SliderThumbConfiguration) {
-            SliderThumbConfiguration gg = (SliderThumbConfiguration) g;
-            return getSliderThumbLayoutInfo(gg.getSliderConfiguration());
+    private static boolean isSameInsets(@Nullable Insetter a, @Nullable Insetter b)
+    {
+        if (a == null || b == null) {
+            return a == b;
         }
+        return a.isInvertible() == b.isInvertible()
+                 && a.apply2D(100, 40).equals(b.apply2D(100, 40))
+                 && a.apply2D(37, 19).equals(b.apply2D(37, 19));
+    }
 
-        // for testing
-        if (g instanceof SliderTickConfiguration) {
-            SliderTickConfiguration gg = (SliderTickConfiguration) g;
-            return getSliderTickLayoutInfo(gg.getSliderConfiguration());
+    /**
+      Return the layout information for the specified widget configuration.
+      @param g The configuration.
+      @return the layout information for the specified configuration.
+    */
+
+    public @NotNull LayoutInfo getLayoutInfo(@NotNull LayoutConfiguration g)
+      throws UnsupportedOperationException
+    {
+        LayoutInfo info = lookupLayoutTable(g);
+        if (info != null) {
+            return info;
         }
 
-        // for testing
-        if (g instanceof PopupArrowConfiguration) {
-            PopupArrowConfiguration gg = (PopupArrowConfiguration) g;
-            Insetter s = getPopUpArrowInsets(gg.getPopupButtonConfiguration());
-            if (s instanceof CombinedInsetter) {
-                CombinedInsetter cs = (CombinedInsetter) s;
-                float fixedWidth = cs.getFixedRegionWidth();
-                float fixedHeight = cs.getFixedRegionHeight();
-                return BasicLayoutInfo.createFixed(fixedWidth, fixedHeight);
-            }
+        if (!isLayoutMemoEnabled) {
+            return computeLayoutInfo(g);
         }
 
-        return BasicLayoutInfo.getInstance();  // should not happen
+        info = (LayoutInfo) layoutInfoMemo.lookup(g);
+        if (info == null) {
+            info = computeLayoutInfo(g);
+            layoutInfoMemo.install(g, info);
+        }
+        return info;
     }
 
     /**
@@ -158,42 +612,242 @@ public abstract class AquaUILayoutInfo
 
     public @Nullable Insetter getContentInsets(@NotNull LayoutConfiguration g)
     {
-        if (g instanceof ButtonLayoutConfiguration) {
-            ButtonLayoutConfiguration gg = (ButtonLayoutConfiguration) g;
-            return getButtonLabelInsets(gg);
+        Object o = lookupContentInsetsTable(g);
+        if (o != null) {
+            return o != NO_INSETS ? (Insetter) o : null;
         }
 
-        if (g instanceof ComboBoxLayoutConfiguration) {
-            ComboBoxLayoutConfiguration gg = (ComboBoxLayoutConfiguration) g;
-            return getComboBoxEditorInsets(gg);
+        if (!isLayoutMemoEnabled) {
+            return computeContentInsets(g);
         }
 
-        if (g instanceof PopupButtonLayoutConfiguration) {
-            PopupButtonLayoutConfiguration gg = (PopupButtonLayoutConfiguration) g;
-            return getPopupButtonContentInsets(gg);
+        o = contentInsetsMemo.lookup(g);
+        if (o == null) {
+            Insetter insets = computeContentInsets(g);
+            contentInsetsMemo.install(g, insets != null ? insets : NO_INSETS);
+            return insets;
         }
+        return o != NO_INSETS ? (Insetter) o : null;
+    }
 
-        if (g instanceof TitleBarLayoutConfiguration) {
-            TitleBarLayoutConfiguration gg = (TitleBarLayoutConfiguration) g;
-            return getTitleBarLabelInsets(gg);
+    /**
+      Obtain the layout information for many configurations at once. This method is equivalent to calling {@link
+      #getLayoutInfo(LayoutConfiguration)} for each configuration, but it avoids most of the per-request dispatch. The
+      configuration type is resolved once for each run of configurations of the same class, and the result for a
+      configuration that equals its predecessor is reused. Configurations of the same type should be adjacent.
+
+      @param gs The configurations.
+      @param fixedWidths If not null, receives the fixed visual width of each configuration, or 0 if the width is not
+      fixed.
+      @param fixedHeights If not null, receives the fixed visual height of each configuration, or 0 if the height is
+      not fixed.
+      @param minimumWidths If not null, receives the minimum visual width of each configuration.
+      @param minimumHeights If not null, receives the minimum visual height of each configuration.
+      @throws IllegalArgumentException if a result array is shorter than the array of configurations.
+    */
+
+    public void getLayoutInfo(@NotNull LayoutConfiguration[] gs,
+                              @Nullable float[] fixedWidths,
+                              @Nullable float[] fixedHeights,
+                              @Nullable float[] minimumWidths,
+                              @Nullable float[] minimumHeights)
+    {
+        int count = gs.length;
+        checkResultLength(fixedWidths, count);
+        checkResultLength(fixedHeights, count);
+        checkResultLength(minimumWidths, count);
+        checkResultLength(minimumHeights, count);
+
+        Class<?> currentClass = null;
+        LayoutTable table = null;
+        LayoutConfiguration previous = null;
+        LayoutInfo info = null;
+
+        for (int i = 0; i < count; i++) {
+            LayoutConfiguration g = gs[i];
+            if (g.getClass() != currentClass) {
+                currentClass = g.getClass();
+                table = getLayoutTable(g);
+                if (table != null && layoutInfoProviders.get(currentClass) != table.layoutInfoProvider) {
+                    table = null;
+                }
+                previous = null;
+            }
+
+            if (previous == null || (g != previous && !g.equals(previous))) {
+                info = table != null ? table.layoutInfo[table.spec.getIndex(g)] : null;
+                if (info != null) {
+                    layoutTableHitCount++;
+                } else {
+                    info = getLayoutInfo(g);
+                }
+                previous = g;
+            }
+
+            if (fixedWidths != null) {
+                fixedWidths[i] = info.getFixedVisualWidth();
+            }
+            if (fixedHeights != null) {
+                fixedHeights[i] = info.getFixedVisualHeight();
+            }
+            if (minimumWidths != null) {
+                minimumWidths[i] = info.getMinimumVisualWidth();
+            }
+            if (minimumHeights != null) {
+                minimumHeights[i] = info.getMinimumVisualHeight();
+            }
         }
+    }
 
-        if (g instanceof SegmentedButtonLayoutConfiguration) {
-            SegmentedButtonLayoutConfiguration gg = (SegmentedButtonLayoutConfiguration) g;
-            return getSegmentedButtonLabelInsets(gg);
+    /**
+      Obtain the content insets for many configurations at once. This method is equivalent to calling {@link
+      #getContentInsets(LayoutConfiguration)} for each configuration, but it avoids most of the per-request dispatch, as
+      described in {@link #getLayoutInfo(LayoutConfiguration[], float[], float[], float[], float[])}.
+
+      @param gs The configurations.
+      @param insets Receives the insets of each configuration as four consecutive values: top, left, bottom, and right.
+      The value -1 is stored for an inset that is not fixed. If a configuration does not support contents, all four
+      values are -1.
+      @throws IllegalArgumentException if the result array is shorter than four times the number of configurations.
+    */
+
+    public void getContentInsets(@NotNull LayoutConfiguration[] gs, @NotNull float[] insets)
+    {
+        int count = gs.length;
+        if (insets.length < 4 * count) {
+            throw new IllegalArgumentException("Result array is too short");
         }
 
-        if (g instanceof TextFieldLayoutConfiguration) {
-            TextFieldLayoutConfiguration gg = (TextFieldLayoutConfiguration) g;
-            return getTextFieldTextInsets(gg);
+        Class<?> currentClass = null;
+        LayoutTable table = null;
+        LayoutConfiguration previous = null;
+        float top = -1;
+        float left = -1;
+        float bottom = -1;
+        float right = -1;
+
+        for (int i = 0; i < count; i++) {
+            LayoutConfiguration g = gs[i];
+            if (g.getClass() != currentClass) {
+                currentClass = g.getClass();
+                table = getLayoutTable(g);
+                if (table != null && (table.contentInsetsProvider == null
+                                        || contentInsetsProviders.get(currentClass) != table.contentInsetsProvider)) {
+                    table = null;
+                }
+                previous = null;
+            }
+
+            if (previous == null || (g != previous && !g.equals(previous))) {
+                Object o = table != null ? table.contentInsets[table.spec.getIndex(g)] : null;
+                Insetter s;
+                if (o != null) {
+                    layoutTableHitCount++;
+                    s = o != NO_INSETS ? (Insetter) o : null;
+                } else {
+                    s = getContentInsets(g);
+                }
+                top = left = bottom = right = -1;
+                if (s instanceof CombinedInsetter) {
+                    CombinedInsetter cs = (CombinedInsetter) s;
+                    top = cs.getVertical().getFixedInset1();
+                    left = cs.getHorizontal().getFixedInset1();
+                    bottom = cs.getVertical().getFixedInset2();
+                    right = cs.getHorizontal().getFixedInset2();
+                } else if (s != null) {
+                    Insets2D n = s.asInsets2D();
+                    if (n != null) {
+                        top = n.getTop();
+                        left = n.getLeft();
+                        bottom = n.getBottom();
+                        right = n.getRight();
+                    }
+                }
+                previous = g;
+            }
+
+            int base = 4 * i;
+            insets[base] = top;
+            insets[base + 1] = left;
+            insets[base + 2] = bottom;
+            insets[base + 3] = right;
         }
+    }
 
-        if (g instanceof TableColumnHeaderLayoutConfiguration) {
-            TableColumnHeaderLayoutConfiguration gg = (TableColumnHeaderLayoutConfiguration) g;
-            return getTableColumnHeaderLabelInsets(gg);
+    private static void checkResultLength(@Nullable float[] result, int count)
+    {
+        if (result != null && result.length < count) {
+            throw new IllegalArgumentException("Result array is too short");
         }
+    }
 
-        return null;
+    /**
+      Return the number of layout information requests that were satisfied by a memoized result.
+    */
+
+    public int getLayoutInfoHitCount()
+    {
+        return layoutInfoMemo.getHitCount();
+    }
+
+    /**
+      Return the number of layout information requests that required computing the layout information.
+    */
+
+    public int getLayoutInfoMissCount()
+    {
+        return layoutInfoMemo.getMissCount();
+    }
+
+    /**
+      Return the number of layout information and content insets requests that were satisfied by a layout table.
+    */
+
+    public int getLayoutTableHitCount()
+    {
+        return layoutTableHitCount;
+    }
+
+    /**
+      Return the number of content insets requests that were satisfied by a memoized result.
+    */
+
+    public int getContentInsetsHitCount()
+    {
+        return contentInsetsMemo.getHitCount();
+    }
+
+    /**
+      Return the number of content insets requests that required computing the content insets.
+    */
+
+    public int getContentInsetsMissCount()
+    {
+        return contentInsetsMemo.getMissCount();
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NotNull LayoutInfo computeLayoutInfo(@NotNull LayoutConfiguration g)
+      throws UnsupportedOperationException
+    {
+        LayoutInfoProvider<LayoutConfiguration> p
+          = (LayoutInfoProvider<LayoutConfiguration>) layoutInfoProviders.get(g.getClass());
+        if (p != null) {
+            LayoutInfo info = p.getLayoutInfo(this, g);
+            if (info != null) {
+                return info;
+            }
+        }
+
+        return BasicLayoutInfo.getInstance();  // should not happen
+    }
+
+    @SuppressWarnings("unchecked")
+    private @Nullable Insetter computeContentInsets(@NotNull LayoutConfiguration g)
+    {
+        ContentInsetsProvider<LayoutConfiguration> p
+          = (ContentInsetsProvider<LayoutConfiguration>) contentInsetsProviders.get(g.getClass());
+        return p != null ? p.getContentInsets(this, g) : null;
     }
 
     /**
@@ -11,11 +11,17 @@ package org.violetlib.jnr.aqua;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.violetlib.jnr.Painter;
+import org.violetlib.jnr.impl.JavaSupport;
+import org.violetlib.jnr.impl.PlaceholderStrategy;
+import org.violetlib.jnr.impl.RenderScheduler;
+import org.violetlib.jnr.impl.RenderTicket;
 import org.violetlib.vappearances.VAppearance;
 
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
   An interface that supports native rendering for the Aqua look and feel. The goals of this interface are to isolate the
@@ -679,6 +685,137 @@ public interface AquaUIPainter
     @NotNull Painter getPainter(@NotNull Configuration g)
       throws UnsupportedOperationException;
 
+    /**
+      Return a widget painter based on the specified configuration and render context. This method does not use or
+      change the configured widget size and appearance. It may be called concurrently from multiple threads.
+
+      <p>
+      The default implementation configures a copy of this painter. If the render context does not specify an
+      appearance, the copy has no configured appearance.
+
+      @param context The render context, which specifies the widget size and appearance.
+      @param g The widget configuration.
+      @return the painter.
+      @throws UnsupportedOperationException if the configuration is not supported.
+    */
+
+    default @NotNull Painter getPainter(@NotNull RenderContext context, @NotNull Configuration g)
+      throws UnsupportedOperationException
+    {
+        AquaUIPainter p = copy();
+        VAppearance appearance = context.getAppearance();
+        if (appearance != null) {
+            p.configureAppearance(appearance);
+        }
+        p.configure(context.getWidth(), context.getHeight());
+        return p.getPainter(g);
+    }
+
+    /**
+      Return a painter that need not render on the calling thread when its image is not cached. An implementation that
+      supports asynchronous rendering renders the image on a worker thread and paints a placeholder. When the image is
+      available, the repaint callback is invoked on the event dispatch thread. This method does not use or change the
+      configured widget size and appearance. It may be called concurrently from multiple threads.
+
+      <p>
+      The default implementation returns a painter that renders synchronously (see {@link #getPainter(RenderContext,
+      Configuration)}).
+
+      @param context The render context, which specifies the widget size and appearance.
+      @param g The widget configuration.
+      @param strategy The placeholder strategy.
+      @param repaintCallback The callback to invoke when a pending image is available.
+      @param ticket The priority and generation of the rendering requests (see {@link RenderScheduler}).
+      @return the painter.
+      @throws UnsupportedOperationException if the configuration is not supported.
+    */
+
+    default @NotNull Painter getAsyncPainter(@NotNull RenderContext context,
+                                             @NotNull Configuration g,
+                                             @NotNull PlaceholderStrategy strategy,
+                                             @Nullable Runnable repaintCallback,
+                                             @NotNull RenderTicket ticket)
+      throws UnsupportedOperationException
+    {
+        return getPainter(context, g);
+    }
+
+    /**
+      Return the image used to paint a widget. If the image is available, the returned future is complete. An
+      implementation that supports asynchronous rendering renders an image that is not cached on a worker thread. This
+      method does not use or change the configured widget size and appearance. It may be called concurrently from
+      multiple threads.
+
+      <p>
+      The default implementation paints the widget on the calling thread into an image of the size specified by the
+      render context.
+
+      @param context The render context, which specifies the widget size and appearance.
+      @param g The widget configuration.
+      @param scaleFactor The scale factor.
+      @param ticket The priority and generation of the rendering request (see {@link RenderScheduler}).
+      @return a future that is completed with the image, which may be null if the widget has no rendering.
+      @throws UnsupportedOperationException if the configuration is not supported.
+    */
+
+    default @NotNull CompletableFuture<Image> getImageAsync(@NotNull RenderContext context,
+                                                            @NotNull Configuration g,
+                                                            int scaleFactor,
+                                                            @NotNull RenderTicket ticket)
+      throws UnsupportedOperationException
+    {
+        int width = context.getWidth();
+        int height = context.getHeight();
+        if (width <= 0 || height <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Painter p = getPainter(context, g);
+        int rw = width * scaleFactor;
+        int rh = height * scaleFactor;
+        BufferedImage im = new BufferedImage(rw, rh, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D gg = JavaSupport.createOffscreenGraphics(im, scaleFactor);
+        try {
+            p.paint(gg, 0, 0);
+        } finally {
+            gg.dispose();
+        }
+        return CompletableFuture.completedFuture(JavaSupport.createMultiResolutionImage(width, height, im));
+    }
+
+    /**
+      Return painters for the buttons of a segmented control. The painters are equivalent to the painters returned by
+      {@link #getPainter(RenderContext, Configuration)} for the individual buttons. An implementation may render the
+      buttons as a group, which is faster than rendering each button individually. This method does not use or change
+      the configured widget size and appearance. It may be called concurrently from multiple threads.
+
+      <p>
+      The default implementation returns the painters for the individual buttons.
+
+      @param gs The button configurations, in order from left to right.
+      @param segmentWidths The widths of the buttons.
+      @param height The height of the buttons.
+      @param appearance The appearance.
+      @return the painters, in the order of the button configurations.
+      @throws IllegalArgumentException if the number of widths does not match the number of configurations.
+      @throws UnsupportedOperationException if a configuration is not supported.
+    */
+
+    default @NotNull Painter[] getSegmentedControlPainters(@NotNull SegmentedButtonConfiguration[] gs,
+                                                           @NotNull int[] segmentWidths,
+                                                           int height,
+                                                           @NotNull VAppearance appearance)
+      throws IllegalArgumentException, UnsupportedOperationException
+    {
+        if (segmentWidths.length != gs.length) {
+            throw new IllegalArgumentException("The number of segment widths must match the number of segments");
+        }
+        Painter[] ps = new Painter[gs.length];
+        for (int i = 0; i < gs.length; i++) {
+            ps[i] = getPainter(new RenderContext(segmentWidths[i], height, appearance), gs[i]);
+        }
+        return ps;
+    }
+
     /**
       Return a provider of layout information.
     */
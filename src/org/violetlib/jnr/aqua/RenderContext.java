@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.aqua;
+
+import java.util.Objects;
+
+import org.violetlib.vappearances.VAppearance;
+
+import org.jetbrains.annotations.*;
+
+/**
+  The generic parameters of a single painter request: the widget size and the appearance. A render context is
+  immutable. Passing a render context with each request, rather than configuring a painter before each request, allows
+  a painter to be used concurrently.
+*/
+
+public final class RenderContext
+{
+    private final int width;
+    private final int height;
+    private final @Nullable VAppearance appearance;
+
+    /**
+      Create a render context.
+
+      @param width The width of the widget.
+      @param height The height of the widget.
+      @param appearance The appearance to use, or null to use the appearance previously configured by the thread.
+    */
+
+    public RenderContext(int width, int height, @Nullable VAppearance appearance)
+    {
+        this.width = width;
+        this.height = height;
+        this.appearance = appearance;
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+
+    public int getHeight()
+    {
+        return height;
+    }
+
+    public @Nullable VAppearance getAppearance()
+    {
+        return appearance;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RenderContext that = (RenderContext) o;
+        return width == that.width && height == that.height && Objects.equals(appearance, that.appearance);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(width, height, appearance);
+    }
+
+    @Override
+    public @NotNull String toString()
+    {
+        String as = appearance != null ? " " + appearance.getName() : "";
+        return width + "x" + height + as;
+    }
+}
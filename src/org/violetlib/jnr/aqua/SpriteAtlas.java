@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.aqua;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.RasterFormatException;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+import org.violetlib.vappearances.VAppearance;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A collection of pre-rendered widget images (sprites) packed into atlas images. A sprite atlas is created at build time
+  by {@link SpriteAtlasGenerator} and used at run time by {@link SpriteAtlasPainter}.
+
+  <p>
+  A sprite is identified by a configuration, a widget size, an appearance name, and a scale factor. Configurations are
+  identified by their class and string representation (see {@link #getConfigurationKey}). Only configurations whose
+  string representations distinguish all of their parameters and whose painters need no special painter type are
+  supported (see {@link #isSupported}).
+
+  <p>
+  The index is a UTF-8 text file. Each line is a comment (starting with #), an atlas line, or a sprite line. The fields
+  of a line are separated by tabs:
+  <pre>
+  atlas  [atlas number]  [image file name]
+  sprite [atlas number]  [x]  [y]  [scale factor]  [width]  [height]  [appearance name]  [configuration key]
+  </pre>
+  The image file names are relative to the index. The location of a sprite is specified in atlas pixels. The size of a
+  sprite is specified in device independent pixels; its size in atlas pixels is its size multiplied by the scale factor.
+*/
+
+public final class SpriteAtlas
+{
+    public static final @NotNull String INDEX_HEADER = "# JNR sprite atlas 1";
+
+    /**
+      Indicate whether a configuration can be included in a sprite atlas. A configuration is supported if its string
+      representation distinguishes every parameter compared by its {@code equals} method and its painter is a basic
+      painter. For example, slider configurations are not supported because their values are rounded in their string
+      representations and because they are painted using a {@link org.violetlib.jnr.SliderPainter}.
+    */
+
+    public static boolean isSupported(@NotNull Configuration g)
+    {
+        Class<?> c = g.getClass();
+        return c == ButtonConfiguration.class
+                 || c == SegmentedButtonConfiguration.class
+                 || c == PopupButtonConfiguration.class
+                 || c == ComboBoxConfiguration.class
+                 || c == TextFieldConfiguration.class;
+    }
+
+    /**
+      Return the string that identifies a configuration in a sprite atlas. The string identifies the configuration only
+      if the configuration is supported (see {@link #isSupported}).
+    */
+
+    public static @NotNull String getConfigurationKey(@NotNull Configuration g)
+    {
+        return g.getClass().getName() + " " + g;
+    }
+
+    static @NotNull String getSpriteKey(@NotNull String configurationKey,
+                                        int width,
+                                        int height,
+                                        @NotNull String appearanceName)
+    {
+        return appearanceName + "\t" + width + "\t" + height + "\t" + configurationKey;
+    }
+
+    // The sprites for each sprite key, indexed by scale factor
+    private final @NotNull Map<String,BufferedImage[]> sprites;
+    private final int spriteCount;
+
+    private SpriteAtlas(@NotNull Map<String,BufferedImage[]> sprites, int spriteCount)
+    {
+        this.sprites = sprites;
+        this.spriteCount = spriteCount;
+    }
+
+    /**
+      Load a sprite atlas.
+
+      @param index The index file.
+      @return the sprite atlas.
+      @throws IOException if the index or an atlas image could not be read or is invalid.
+    */
+
+    public static @NotNull SpriteAtlas load(@NotNull File index)
+      throws IOException
+    {
+        return load(index.toURI().toURL());
+    }
+
+    /**
+      Load a sprite atlas. The atlas images are located relative to the index.
+
+      @param index The URL of the index.
+      @return the sprite atlas.
+      @throws IOException if the index or an atlas image could not be read or is invalid.
+    */
+
+    public static @NotNull SpriteAtlas load(@NotNull URL index)
+      throws IOException
+    {
+        List<BufferedImage> atlases = new ArrayList<>();
+        Map<String,BufferedImage[]> sprites = new HashMap<>();
+        int spriteCount = 0;
+
+        try (InputStream s = index.openStream();
+             BufferedReader r = new BufferedReader(new InputStreamReader(s, StandardCharsets.UTF_8))) {
+            String line = r.readLine();
+            if (!INDEX_HEADER.equals(line)) {
+                throw new IOException("Not a sprite atlas index: " + index);
+            }
+            int lineNumber = 1;
+            while ((line = r.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    if (line.startsWith("atlas\t")) {
+                        String[] fields = line.split("\t", 3);
+                        int n = Integer.parseInt(fields[1]);
+                        if (n != atlases.size()) {
+                            throw new IOException("Unexpected atlas number");
+                        }
+                        BufferedImage im = ImageIO.read(new URL(index, fields[2]));
+                        if (im == null) {
+                            throw new IOException("Unable to read atlas image " + fields[2]);
+                        }
+                        atlases.add(im);
+                    } else if (line.startsWith("sprite\t")) {
+                        String[] fields = line.split("\t", 9);
+                        BufferedImage atlas = atlases.get(Integer.parseInt(fields[1]));
+                        int x = Integer.parseInt(fields[2]);
+                        int y = Integer.parseInt(fields[3]);
+                        int scaleFactor = Integer.parseInt(fields[4]);
+                        int width = Integer.parseInt(fields[5]);
+                        int height = Integer.parseInt(fields[6]);
+                        if (scaleFactor < 1 || width <= 0 || height <= 0) {
+                            throw new IOException("Invalid sprite size");
+                        }
+                        String key = getSpriteKey(fields[8], width, height, fields[7]);
+                        BufferedImage im = atlas.getSubimage(x, y, width * scaleFactor, height * scaleFactor);
+                        BufferedImage[] images = sprites.get(key);
+                        if (images == null || images.length <= scaleFactor) {
+                            BufferedImage[] a = new BufferedImage[scaleFactor + 1];
+                            if (images != null) {
+                                System.arraycopy(images, 0, a, 0, images.length);
+                            }
+                            images = a;
+                            sprites.put(key, images);
+                        }
+                        images[scaleFactor] = im;
+                        spriteCount++;
+                    } else {
+                        throw new IOException("Unrecognized line");
+                    }
+                } catch (NumberFormatException | IndexOutOfBoundsException | RasterFormatException ex) {
+                    throw new IOException("Invalid sprite atlas index line " + lineNumber + ": " + ex);
+                } catch (IOException ex) {
+                    throw new IOException("Invalid sprite atlas index line " + lineNumber + ": " + ex.getMessage());
+                }
+            }
+        }
+
+        return new SpriteAtlas(sprites, spriteCount);
+    }
+
+    /**
+      Return the number of sprites in this atlas.
+    */
+
+    public int getSpriteCount()
+    {
+        return spriteCount;
+    }
+
+    /**
+      Indicate whether this atlas contains a sprite for the specified parameters at any scale factor. An atlas never
+      contains a sprite for an unsupported configuration.
+    */
+
+    public boolean contains(@NotNull Configuration g, int width, int height, @NotNull VAppearance appearance)
+    {
+        return getSprites(g, width, height, appearance) != null;
+    }
+
+    /**
+      Return the sprite for the specified parameters.
+
+      @return the sprite image, whose size is the widget size multiplied by the scale factor, or null if this atlas does
+      not contain a sprite for the specified parameters.
+    */
+
+    public @Nullable BufferedImage getSprite(@NotNull Configuration g,
+                                             int width,
+                                             int height,
+                                             @NotNull VAppearance appearance,
+                                             int scaleFactor)
+    {
+        BufferedImage[] images = getSprites(g, width, height, appearance);
+        return images != null && scaleFactor > 0 && scaleFactor < images.length ? images[scaleFactor] : null;
+    }
+
+    private @Nullable BufferedImage[] getSprites(@NotNull Configuration g,
+                                                 int width,
+                                                 int height,
+                                                 @NotNull VAppearance appearance)
+    {
+        if (!isSupported(g)) {
+            return null;
+        }
+        return sprites.get(getSpriteKey(getConfigurationKey(g), width, height, appearance.getName()));
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.aqua;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import javax.imageio.ImageIO;
+
+import org.violetlib.jnr.Painter;
+import org.violetlib.jnr.impl.JavaSupport;
+import org.violetlib.jnr.impl.ShelfPacker;
+import org.violetlib.vappearances.VAppearance;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A build time tool that creates a sprite atlas (see {@link SpriteAtlas}). The sprites are specified as a matrix of
+  configurations, widget sizes, appearances, and scale factors. Each combination is rendered using a painter and the
+  renderings are packed into atlas images, which are written as PNG files along with an index.
+
+  <p>
+  A sprite captures the area of the rendering defined by the widget size. Combinations that are not supported by the
+  painter are skipped.
+*/
+
+public final class SpriteAtlasGenerator
+{
+    public static final int DEFAULT_ATLAS_WIDTH = 1024;
+    public static final int DEFAULT_MAXIMUM_ATLAS_HEIGHT = 4096;
+
+    private static class Sprite
+    {
+        final @NotNull String configurationKey;
+        final int width;
+        final int height;
+        final @NotNull String appearanceName;
+        final int scaleFactor;
+        final @NotNull BufferedImage image;
+        int atlas;
+        int x;
+        int y;
+
+        Sprite(@NotNull String configurationKey,
+               int width,
+               int height,
+               @NotNull String appearanceName,
+               int scaleFactor,
+               @NotNull BufferedImage image)
+        {
+            this.configurationKey = configurationKey;
+            this.width = width;
+            this.height = height;
+            this.appearanceName = appearanceName;
+            this.scaleFactor = scaleFactor;
+            this.image = image;
+        }
+    }
+
+    private final @NotNull AquaUIPainter painter;
+    private final @NotNull List<Configuration> configurations = new ArrayList<>();
+    private final @NotNull List<Dimension> sizes = new ArrayList<>();
+    private final @NotNull List<VAppearance> appearances = new ArrayList<>();
+    private final @NotNull List<Integer> scaleFactors = new ArrayList<>();
+    private int atlasWidth = DEFAULT_ATLAS_WIDTH;
+    private int maximumAtlasHeight = DEFAULT_MAXIMUM_ATLAS_HEIGHT;
+
+    private int skippedCount;
+
+    /**
+      Create a sprite atlas generator.
+
+      @param painter The painter used to render the sprites.
+    */
+
+    public SpriteAtlasGenerator(@NotNull AquaUIPainter painter)
+    {
+        this.painter = painter;
+    }
+
+    /**
+      Add a configuration to be rendered.
+
+      @param g The configuration.
+      @throws IllegalArgumentException if the configuration cannot be included in a sprite atlas (see
+      {@link SpriteAtlas#isSupported}).
+    */
+
+    public void addConfiguration(@NotNull Configuration g)
+      throws IllegalArgumentException
+    {
+        if (!SpriteAtlas.isSupported(g)) {
+            throw new IllegalArgumentException("Configuration cannot be included in a sprite atlas: " + g);
+        }
+        configurations.add(g);
+    }
+
+    /**
+      Add a widget size.
+
+      @param width The widget width, in device independent pixels.
+      @param height The widget height, in device independent pixels.
+    */
+
+    public void addSize(int width, int height)
+    {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid sprite size");
+        }
+        sizes.add(new Dimension(width, height));
+    }
+
+    public void addAppearance(@NotNull VAppearance appearance)
+    {
+        appearances.add(appearance);
+    }
+
+    public void addScaleFactor(int scaleFactor)
+    {
+        if (scaleFactor < 1) {
+            throw new IllegalArgumentException("Invalid scale factor");
+        }
+        scaleFactors.add(scaleFactor);
+    }
+
+    /**
+      Specify the size of the atlas images.
+
+      @param width The width of the atlas images, in pixels.
+      @param maximumHeight The maximum height of the atlas images, in pixels.
+    */
+
+    public void setAtlasSize(int width, int maximumHeight)
+    {
+        if (width <= 0 || maximumHeight <= 0) {
+            throw new IllegalArgumentException("Invalid atlas size");
+        }
+        this.atlasWidth = width;
+        this.maximumAtlasHeight = maximumHeight;
+    }
+
+    /**
+      Return the number of combinations skipped by the last generation because they are not supported by the painter
+      or are too large for an atlas image.
+    */
+
+    public int getSkippedCount()
+    {
+        return skippedCount;
+    }
+
+    /**
+      Render the sprites and write the sprite atlas. The index is written to a file named {@code name.index}. The atlas
+      images are written to files named {@code name-N.png}.
+
+      @param directory The directory where the files are written.
+      @param name The base name of the files.
+      @return the index file.
+      @throws IOException if the files could not be written.
+    */
+
+    public @NotNull File generate(@NotNull File directory, @NotNull String name)
+      throws IOException
+    {
+        skippedCount = 0;
+        List<Sprite> sprites = render();
+
+        // Packing is more efficient when the tallest sprites are placed first.
+        sprites.sort((a, b) -> Integer.compare(b.image.getHeight(), a.image.getHeight()));
+
+        List<Integer> atlasHeights = new ArrayList<>();
+        ShelfPacker packer = new ShelfPacker(atlasWidth, maximumAtlasHeight);
+        int[] location = new int[2];
+        for (Sprite s : sprites) {
+            int rw = s.image.getWidth();
+            int rh = s.image.getHeight();
+            if (!packer.add(rw, rh, location)) {
+                atlasHeights.add(packer.getHeight());
+                packer.reset();
+                packer.add(rw, rh, location);
+            }
+            s.atlas = atlasHeights.size();
+            s.x = location[0];
+            s.y = location[1];
+        }
+        if (!packer.isEmpty()) {
+            atlasHeights.add(packer.getHeight());
+        }
+
+        Files.createDirectories(directory.toPath());
+
+        List<String> atlasNames = new ArrayList<>();
+        for (int i = 0; i < atlasHeights.size(); i++) {
+            BufferedImage atlas = new BufferedImage(atlasWidth, atlasHeights.get(i), BufferedImage.TYPE_INT_ARGB);
+            for (Sprite s : sprites) {
+                if (s.atlas == i) {
+                    int rw = s.image.getWidth();
+                    int rh = s.image.getHeight();
+                    int[] pixels = s.image.getRGB(0, 0, rw, rh, null, 0, rw);
+                    atlas.setRGB(s.x, s.y, rw, rh, pixels, 0, rw);
+                }
+            }
+            String atlasName = name + "-" + i + ".png";
+            if (!ImageIO.write(atlas, "png", new File(directory, atlasName))) {
+                throw new IOException("Unable to write PNG image");
+            }
+            atlasNames.add(atlasName);
+        }
+
+        File index = new File(directory, name + ".index");
+        try (OutputStream s = Files.newOutputStream(index.toPath());
+             PrintWriter w = new PrintWriter(new OutputStreamWriter(s, StandardCharsets.UTF_8))) {
+            w.print(SpriteAtlas.INDEX_HEADER + "\n");
+            for (int i = 0; i < atlasNames.size(); i++) {
+                w.print("atlas\t" + i + "\t" + atlasNames.get(i) + "\n");
+            }
+            for (Sprite sp : sprites) {
+                w.print("sprite\t" + sp.atlas + "\t" + sp.x + "\t" + sp.y + "\t" + sp.scaleFactor
+                          + "\t" + sp.width + "\t" + sp.height + "\t" + sp.appearanceName
+                          + "\t" + sp.configurationKey + "\n");
+            }
+            if (w.checkError()) {
+                throw new IOException("Unable to write sprite atlas index");
+            }
+        }
+        return index;
+    }
+
+    private @NotNull List<Sprite> render()
+    {
+        List<Sprite> sprites = new ArrayList<>();
+        for (Configuration g : configurations) {
+            String key = SpriteAtlas.getConfigurationKey(g);
+            if (key.indexOf('\n') >= 0 || key.indexOf('\r') >= 0) {
+                throw new IllegalArgumentException("Configuration cannot be included in a sprite atlas: " + key);
+            }
+            for (VAppearance appearance : appearances) {
+                for (Dimension size : sizes) {
+                    Painter p;
+                    try {
+                        p = painter.getPainter(new RenderContext(size.width, size.height, appearance), g);
+                    } catch (UnsupportedOperationException ex) {
+                        skippedCount += scaleFactors.size();
+                        continue;
+                    }
+                    for (int scaleFactor : scaleFactors) {
+                        int rw = size.width * scaleFactor;
+                        int rh = size.height * scaleFactor;
+                        if (rw > atlasWidth || rh > maximumAtlasHeight) {
+                            skippedCount++;
+                            continue;
+                        }
+                        BufferedImage im = new BufferedImage(rw, rh, BufferedImage.TYPE_INT_ARGB);
+                        Graphics2D gg = JavaSupport.createOffscreenGraphics(im, scaleFactor);
+                        try {
+                            p.paint(gg, 0, 0);
+                        } finally {
+                            gg.dispose();
+                        }
+                        sprites.add(new Sprite(key, size.width, size.height, appearance.getName(), scaleFactor, im));
+                    }
+                }
+            }
+        }
+        return sprites;
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.aqua;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.violetlib.jnr.Painter;
+import org.violetlib.jnr.impl.JNRPlatformUtils;
+import org.violetlib.jnr.impl.JavaSupport;
+import org.violetlib.jnr.impl.PlaceholderStrategy;
+import org.violetlib.jnr.impl.RenderTicket;
+import org.violetlib.vappearances.VAppearance;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A painter that paints widgets using a sprite atlas (see {@link SpriteAtlas}) when the atlas contains a matching
+  sprite, and otherwise uses another painter. Painting a sprite does not use native code.
+
+  <p>
+  A request matches a sprite if the configuration, widget size, appearance, and the scale factor of the graphics
+  context match. If the atlas contains sprites for the configuration, size, and appearance but not for the scale
+  factor, the other painter is used when painting at that scale factor. Configurations that are not supported by sprite
+  atlases (see {@link SpriteAtlas#isSupported}) are always painted by the other painter, which preserves any special
+  painter type, such as a slider painter.
+*/
+
+public class SpriteAtlasPainter
+  implements AquaUIPainter
+{
+    protected final @NotNull AquaUIPainter painter;
+    protected final @NotNull SpriteAtlas atlas;
+
+    private int w;
+    private int h;
+    private @Nullable VAppearance appearance;
+
+    /**
+      Create a painter that uses a sprite atlas.
+
+      @param painter The painter to use for requests that do not match a sprite.
+      @param atlas The sprite atlas.
+    */
+
+    public SpriteAtlasPainter(@NotNull AquaUIPainter painter, @NotNull SpriteAtlas atlas)
+    {
+        this.painter = painter;
+        this.atlas = atlas;
+    }
+
+    @Override
+    public @NotNull SpriteAtlasPainter copy()
+    {
+        return new SpriteAtlasPainter(painter.copy(), atlas);
+    }
+
+    @Override
+    public @NotNull Map<String,Color> getColors(@NotNull VAppearance appearance)
+    {
+        return painter.getColors(appearance);
+    }
+
+    @Override
+    public void configureAppearance(@NotNull VAppearance appearance)
+    {
+        this.appearance = appearance;
+    }
+
+    @Override
+    public void configure(int w, int h)
+    {
+        this.w = w;
+        this.h = h;
+    }
+
+    @Override
+    public @NotNull Painter getPainter(@NotNull Configuration g)
+      throws UnsupportedOperationException
+    {
+        return getPainter(new RenderContext(w, h, appearance), g);
+    }
+
+    @Override
+    public @NotNull Painter getPainter(@NotNull RenderContext context, @NotNull Configuration g)
+      throws UnsupportedOperationException
+    {
+        VAppearance a = context.getAppearance();
+        if (a != null && SpriteAtlas.isSupported(g) && atlas.contains(g, context.getWidth(), context.getHeight(), a)) {
+            return new SpritePainter(context, a, g);
+        }
+        return painter.getPainter(context, g);
+    }
+
+    @Override
+    public @NotNull Painter getAsyncPainter(@NotNull RenderContext context,
+                                            @NotNull Configuration g,
+                                            @NotNull PlaceholderStrategy strategy,
+                                            @Nullable Runnable repaintCallback,
+                                            @NotNull RenderTicket ticket)
+      throws UnsupportedOperationException
+    {
+        VAppearance a = context.getAppearance();
+        if (a != null && SpriteAtlas.isSupported(g) && atlas.contains(g, context.getWidth(), context.getHeight(), a)) {
+            return new SpritePainter(context, a, g);
+        }
+        return painter.getAsyncPainter(context, g, strategy, repaintCallback, ticket);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Image> getImageAsync(@NotNull RenderContext context,
+                                                           @NotNull Configuration g,
+                                                           int scaleFactor,
+                                                           @NotNull RenderTicket ticket)
+      throws UnsupportedOperationException
+    {
+        VAppearance a = context.getAppearance();
+        if (a != null && SpriteAtlas.isSupported(g)) {
+            int width = context.getWidth();
+            int height = context.getHeight();
+            BufferedImage im = atlas.getSprite(g, width, height, a, scaleFactor);
+            if (im != null) {
+                return CompletableFuture.completedFuture(JavaSupport.createMultiResolutionImage(width, height, im));
+            }
+        }
+        return painter.getImageAsync(context, g, scaleFactor, ticket);
+    }
+
+    /**
+      A painter that paints a sprite, if available for the scale factor of the graphics context. Otherwise, the
+      rendering is obtained from the other painter.
+    */
+
+    private class SpritePainter
+      implements Painter
+    {
+        private final @NotNull RenderContext context;
+        private final @NotNull VAppearance appearance;
+        private final @NotNull Configuration g;
+
+        private volatile @Nullable Painter fallback;
+
+        public SpritePainter(@NotNull RenderContext context, @NotNull VAppearance appearance, @NotNull Configuration g)
+        {
+            this.context = context;
+            this.appearance = appearance;
+            this.g = g;
+        }
+
+        @Override
+        public void paint(@NotNull Graphics gg, float x, float y)
+        {
+            int scaleFactor = JavaSupport.getScaleFactor(gg);
+            int width = context.getWidth();
+            int height = context.getHeight();
+            BufferedImage im = atlas.getSprite(g, width, height, appearance, scaleFactor);
+            if (im != null) {
+                Graphics2D g2 = JNRPlatformUtils.toGraphics2D(gg);
+                if (g2 != null) {
+                    Graphics2D dg = (Graphics2D) g2.create();
+                    dg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    AffineTransform tr = AffineTransform.getTranslateInstance(x, y);
+                    tr.scale(1.0 / scaleFactor, 1.0 / scaleFactor);
+                    dg.drawImage(im, tr, null);
+                    dg.dispose();
+                }
+                return;
+            }
+
+            Painter p = fallback;
+            if (p == null) {
+                p = painter.getPainter(context, g);
+                fallback = p;
+            }
+            p.paint(gg, x, y);
+        }
+    }
+
+    @Override
+    public @NotNull AquaUILayoutInfo getLayoutInfo()
+    {
+        return painter.getLayoutInfo();
+    }
+
+    @Override
+    public @Nullable Shape getOutline(@NotNull LayoutConfiguration g)
+    {
+        synchronized (painter) {
+            painter.configure(w, h);
+            return painter.getOutline(g);
+        }
+    }
+
+    @Override
+    public @NotNull Rectangle2D getComboBoxEditorBounds(@NotNull ComboBoxLayoutConfiguration g)
+    {
+        synchronized (painter) {
+            painter.configure(w, h);
+            return painter.getComboBoxEditorBounds(g);
+        }
+    }
+
+    @Override
+    public @NotNull Rectangle2D getComboBoxIndicatorBounds(@NotNull ComboBoxLayoutConfiguration g)
+    {
+        synchronized (painter) {
+            painter.configure(w, h);
+            return painter.getComboBoxIndicatorBounds(g);
+        }
+    }
+
+    @Override
+    public @NotNull Rectangle2D getPopupButtonContentBounds(@NotNull PopupButtonLayoutConfiguration g)
+    {
+        synchronized (painter) {
+            painter.configure(w, h);
+            return painter.getPopupButtonContentBounds(g);
+        }
+    }
+
+    @Override
+    public @NotNull Rectangle2D getSliderThumbBounds(@NotNull SliderLayoutConfiguration g, double thumbPosition)
+    {
+        synchronized (painter) {
+            painter.configure(w, h);
+            return painter.getSliderThumbBounds(g, thumbPosition);
+        }
+    }
+
+    @Override
+    public double getSliderThumbPosition(@NotNull SliderLayoutConfiguration g, int x, int y)
+    {
+        synchronized (painter) {
+            painter.configure(w, h);
+            return painter.getSliderThumbPosition(g, x, y);
+        }
+    }
+
+    @Override
+    public float getScrollBarThumbPosition(@NotNull ScrollBarThumbLayoutConfiguration g, boolean useExtent)
+    {
+        synchronized (painter) {
+            painter.configure(w, h);
+            return painter.getScrollBarThumbPosition(g, useExtent);
+        }
+    }
+
+    @Override
+    public int getScrollBarThumbHit(@NotNull ScrollBarThumbConfiguration g)
+    {
+        synchronized (painter) {
+            painter.configure(w, h);
+            return painter.getScrollBarThumbHit(g);
+        }
+    }
+
+    @Override
+    public @NotNull Rectangle2D getSliderLabelBounds(@NotNull SliderLayoutConfiguration g,
+                                                     double thumbPosition,
+                                                     @NotNull Dimension size)
+    {
+        synchronized (painter) {
+            painter.configure(w, h);
+            return painter.getSliderLabelBounds(g, thumbPosition, size);
+        }
+    }
+
+    @Override
+    public @NotNull String toString()
+    {
+        return "Sprite atlas (" + atlas.getSpriteCount() + " sprites) + " + painter;
+    }
+}
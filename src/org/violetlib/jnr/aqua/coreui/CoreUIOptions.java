@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.aqua.coreui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jetbrains.annotations.*;
+
+/**
+  An immutable set of Core UI rendering options: the key/value pairs that define a Core UI rendering. Pairs whose value
+  is null are omitted. Keys and values must be strings, integers, longs, doubles, or booleans, as those are the types
+  supported by native code.
+
+  <p>
+  Option sets with the same pairs in the same order are equal, which allows option sets to be interned (see
+  {@link CoreUIOptionsRegistry}). An option set is transferred to native code in a compact binary encoding, in which
+  each key and value is represented by a one byte tag followed by its data in big-endian order:
+
+  <ul>
+  <li>{@link #STRING}: an unsigned two byte length followed by that number of bytes of UTF-8 text</li>
+  <li>{@link #INTEGER}: a four byte signed integer</li>
+  <li>{@link #LONG}: an eight byte signed integer</li>
+  <li>{@link #DOUBLE}: the eight byte IEEE 754 representation of a double</li>
+  <li>{@link #FALSE} and {@link #TRUE}: no data</li>
+  </ul>
+
+  The encoding begins with an unsigned two byte count of the key/value pairs.
+*/
+
+public final class CoreUIOptions
+{
+    // Encoding tags
+
+    public static final int STRING = 1;
+    public static final int INTEGER = 2;
+    public static final int LONG = 3;
+    public static final int DOUBLE = 4;
+    public static final int FALSE = 5;
+    public static final int TRUE = 6;
+
+    private final @NotNull Object[] pairs;
+    private final int hash;
+    private @Nullable byte[] encoding;
+
+    /**
+      Create an option set.
+
+      @param args The rendering arguments, alternating keys and values.
+      @throws IllegalArgumentException if the number of arguments is odd or an argument has an unsupported type.
+    */
+
+    public CoreUIOptions(@NotNull Object... args)
+      throws IllegalArgumentException
+    {
+        if ((args.length % 2) != 0) {
+            throw new IllegalArgumentException("Options require an even number of arguments");
+        }
+
+        List<Object> ps = new ArrayList<>(args.length);
+        for (int i = 0; i < args.length; i += 2) {
+            Object key = args[i];
+            Object value = args[i+1];
+            if (value != null) {
+                ps.add(validate(key));
+                ps.add(validate(value));
+            }
+        }
+        if (ps.size() / 2 > 0xFFFF) {
+            throw new IllegalArgumentException("Too many options");
+        }
+        this.pairs = ps.toArray();
+        this.hash = Arrays.hashCode(pairs);
+    }
+
+    private static @NotNull Object validate(@Nullable Object o)
+    {
+        if (o instanceof String) {
+            // A UTF-8 encoding requires at most three bytes per character
+            String s = (String) o;
+            if (s.length() > 0xFFFF / 3 && s.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) {
+                throw new IllegalArgumentException("String option is too long");
+            }
+            return o;
+        }
+        if (o instanceof Integer || o instanceof Long || o instanceof Double || o instanceof Boolean) {
+            return o;
+        }
+        throw new IllegalArgumentException("Unsupported option: " + o);
+    }
+
+    /**
+      Return the number of key/value pairs.
+    */
+
+    public int getCount()
+    {
+        return pairs.length / 2;
+    }
+
+    public @NotNull Object getKey(int index)
+    {
+        return pairs[2 * index];
+    }
+
+    public @NotNull Object getValue(int index)
+    {
+        return pairs[2 * index + 1];
+    }
+
+    /**
+      Return the key/value pairs, alternating keys and values.
+    */
+
+    public @NotNull Object[] getArguments()
+    {
+        return pairs.clone();
+    }
+
+    /**
+      Return the binary encoding of this option set. The encoding is created on first use.
+
+      @return the encoding. The caller must not modify the array.
+    */
+
+    public synchronized @NotNull byte[] getEncoding()
+    {
+        if (encoding == null) {
+            encoding = encode();
+        }
+        return encoding;
+    }
+
+    private @NotNull byte[] encode()
+    {
+        ByteArrayOutputStream bs = new ByteArrayOutputStream(16 * pairs.length);
+        DataOutputStream out = new DataOutputStream(bs);
+        try {
+            out.writeShort(pairs.length / 2);
+            for (Object o : pairs) {
+                if (o instanceof String) {
+                    byte[] bytes = ((String) o).getBytes(StandardCharsets.UTF_8);
+                    out.writeByte(STRING);
+                    out.writeShort(bytes.length);
+                    out.write(bytes);
+                } else if (o instanceof Integer) {
+                    out.writeByte(INTEGER);
+                    out.writeInt((Integer) o);
+                } else if (o instanceof Long) {
+                    out.writeByte(LONG);
+                    out.writeLong((Long) o);
+                } else if (o instanceof Double) {
+                    out.writeByte(DOUBLE);
+                    out.writeLong(Double.doubleToRawLongBits((Double) o));
+                } else {
+                    out.writeByte((Boolean) o ? TRUE : FALSE);
+                }
+            }
+            out.flush();
+        } catch (IOException ex) {
+            throw new AssertionError(ex);  // not possible with a byte array output stream
+        }
+        return bs.toByteArray();
+    }
+
+    /**
+      Decode an option set. This method performs the same decoding as native code.
+
+      @param encoding The binary encoding.
+      @return the option set.
+      @throws IllegalArgumentException if the encoding is not valid.
+    */
+
+    public static @NotNull CoreUIOptions decode(@NotNull byte[] encoding)
+      throws IllegalArgumentException
+    {
+        try {
+            ByteBuffer b = ByteBuffer.wrap(encoding);
+            int count = b.getShort() & 0xFFFF;
+            Object[] args = new Object[2 * count];
+            for (int i = 0; i < args.length; i++) {
+                int tag = b.get();
+                switch (tag) {
+                    case STRING:
+                        int length = b.getShort() & 0xFFFF;
+                        args[i] = new String(encoding, b.position(), length, StandardCharsets.UTF_8);
+                        b.position(b.position() + length);
+                        break;
+                    case INTEGER:
+                        args[i] = b.getInt();
+                        break;
+                    case LONG:
+                        args[i] = b.getLong();
+                        break;
+                    case DOUBLE:
+                        args[i] = Double.longBitsToDouble(b.getLong());
+                        break;
+                    case FALSE:
+                        args[i] = false;
+                        break;
+                    case TRUE:
+                        args[i] = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Invalid option tag: " + tag);
+                }
+            }
+            if (b.hasRemaining()) {
+                throw new IllegalArgumentException("Unexpected data following options");
+            }
+            return new CoreUIOptions(args);
+        } catch (RuntimeException ex) {
+            if (ex instanceof IllegalArgumentException) {
+                throw ex;
+            }
+            throw new IllegalArgumentException("Invalid option encoding", ex);
+        }
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj)
+    {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof CoreUIOptions) {
+            CoreUIOptions that = (CoreUIOptions) obj;
+            return hash == that.hash && Arrays.equals(pairs, that.pairs);
+        }
+        return false;
+    }
+
+    @Override
+    public @NotNull String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (sb.length() > 0) {
+                sb.append(" ");
+            }
+            sb.append(pairs[i]);
+            sb.append("=");
+            sb.append(pairs[i+1]);
+        }
+        return sb.toString();
+    }
+}
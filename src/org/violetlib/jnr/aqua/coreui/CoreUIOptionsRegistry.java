@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.aqua.coreui;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Interns Core UI option sets. Each distinct option set is assigned an ID and is delivered to a sink once, in its
+  binary encoding. Thereafter the option set is identified by its ID. The number of option sets retained is limited;
+  when the limit is exceeded, the least recently used option set is released. A released option set is assigned a
+  new ID if it is used again.
+*/
+
+public final class CoreUIOptionsRegistry
+{
+    private final @NotNull CoreUIOptionsSink sink;
+    private final int maximumSize;
+
+    // Ordered by most recent access
+    private final @NotNull LinkedHashMap<CoreUIOptions,Integer> map = new LinkedHashMap<>(64, 0.75f, true);
+    private int nextID = 1;
+    private int hitCount;
+    private int definitionCount;
+
+    /**
+      Create a registry.
+
+      @param sink The sink that receives the option sets.
+      @param maximumSize The maximum number of option sets to retain.
+    */
+
+    public CoreUIOptionsRegistry(@NotNull CoreUIOptionsSink sink, int maximumSize)
+    {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Invalid maximum size");
+        }
+        this.sink = sink;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+      Return the ID of an option set, defining the option set if necessary.
+
+      @param options The option set.
+      @return the ID.
+    */
+
+    public synchronized int getID(@NotNull CoreUIOptions options)
+    {
+        Integer id = map.get(options);
+        if (id != null) {
+            hitCount++;
+            return id;
+        }
+
+        int newID = nextID++;
+        sink.defineOptions(newID, options.getEncoding());
+        definitionCount++;
+        map.put(options, newID);
+
+        if (map.size() > maximumSize) {
+            Iterator<Map.Entry<CoreUIOptions,Integer>> it = map.entrySet().iterator();
+            Map.Entry<CoreUIOptions,Integer> e = it.next();
+            it.remove();
+            sink.releaseOptions(e.getValue());
+        }
+        return newID;
+    }
+
+    /**
+      Release all option sets.
+    */
+
+    public synchronized void flush()
+    {
+        for (Integer id : map.values()) {
+            sink.releaseOptions(id);
+        }
+        map.clear();
+    }
+
+    public synchronized int getSize()
+    {
+        return map.size();
+    }
+
+    public synchronized int getHitCount()
+    {
+        return hitCount;
+    }
+
+    public synchronized int getDefinitionCount()
+    {
+        return definitionCount;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.aqua.coreui;
+
+import org.jetbrains.annotations.*;
+
+/**
+  The recipient of the option sets interned by a {@link CoreUIOptionsRegistry}. The Core UI painter uses a sink that
+  installs each option set in native code, where it is converted once to a dictionary. Other sinks may be used to test
+  or measure the interning and encoding of options without native code.
+*/
+
+public interface CoreUIOptionsSink
+{
+    /**
+      Define an option set.
+
+      @param id The ID assigned to the option set. IDs are positive and are not reused.
+      @param encoding The binary encoding of the option set (see {@link CoreUIOptions}).
+    */
+
+    void defineOptions(int id, @NotNull byte[] encoding);
+
+    /**
+      Release an option set that is no longer in use.
+
+      @param id The ID of the option set.
+    */
+
+    void releaseOptions(int id);
+}
@@ -14,11 +14,16 @@ import org.violetlib.jnr.Insetter;
 import org.violetlib.jnr.aqua.*;
 import org.violetlib.jnr.aqua.impl.*;
 import org.violetlib.jnr.impl.*;
+import org.violetlib.vappearances.VAppearance;
 
 import java.awt.geom.Rectangle2D;
+import java.nio.IntBuffer;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.violetlib.jnr.aqua.AquaUIPainter.SegmentedButtonWidget.BUTTON_SEGMENTED_TEXTURED_SEPARATED_TOOLBAR;
 import static org.violetlib.jnr.aqua.coreui.CoreUIKeys.*;
@@ -32,8 +37,9 @@ import static org.violetlib.jnr.aqua.coreui.CoreUISegmentSeparatorTypes.NONE_SEL
   is used. The second option uses a private method on NSAppearance. This option does not use the Java Runtime Support
   framework.
 
-  The implementation is not optimized. There is no fancy protocol for transferring data to native code. A CFDictionary
-  is created and released for each rendering operation.
+  The rendering options are transferred to native code as an interned option set (see {@link CoreUIOptions}). Native
+  code converts each distinct option set to a CFDictionary once. Subsequent rendering operations using the same options
+  identify the option set by its ID.
 */
 
 public class CoreUIPainter
@@ -61,6 +67,34 @@ public class CoreUIPainter
 
     protected static final @NotNull CoreUIRendererDescriptions rendererDescriptions = new CoreUIRendererDescriptions();
 
+    /*
+      Option sets are interned so that each distinct option set is converted to a dictionary once, by native code.
+      Thereafter, only the option set ID is passed to native code. Interning can be disabled by setting the system
+      property VAqua.internCoreUIOptions to false.
+    */
+
+    private static final @NotNull CoreUIOptionsRegistry optionsRegistry
+      = new CoreUIOptionsRegistry(new NativeOptionsSink(), 2000);
+
+    private static volatile boolean isOptionInterningEnabled = getDefaultOptionInterningEnabled();
+
+    /*
+      Renderers that use interned option sets can be rendered in batches into a shared atlas raster using one native
+      call per batch, and can render into off-heap memory. These features are disabled if the native library does not
+      support them.
+    */
+
+    private static final @NotNull BatchRenderingBackend batchRenderingBackend = new NativeBatchRenderingBackend();
+
+    private static volatile boolean isBatchRenderingEnabled = true;
+    private static volatile boolean isDirectRenderingEnabled = true;
+
+    private static boolean getDefaultOptionInterningEnabled()
+    {
+        String s = System.getProperty("VAqua.internCoreUIOptions");
+        return !"false".equals(s);
+    }
+
     protected boolean useJRS;  // if true, use the Java Runtime Support framework to access Core UI rendering
 
     /**
@@ -1875,7 +1909,43 @@ public class CoreUIPainter
             throw new IllegalArgumentException("getRenderer requires an even number of parameters");
         }
 
-        return (data, rw, rh, w, h) -> {
+        // The appearance is captured so that the rendering matches the descriptor used by the sub-render cache.
+
+        VAppearance a = appearance;
+        CoreUIOptions options = isOptionInterningEnabled ? createOptions(args) : null;
+        BasicRenderer r = new CoreUIRenderer(args, options, useLayer, a);
+        List<Object> descriptor = Arrays.asList(useJRS, useLayer, forceLayers, Arrays.asList(args));
+        return new CacheableBasicRenderer(r, descriptor, a);
+    }
+
+    /**
+      A renderer for a set of Core UI rendering arguments. Renderers that do not use the Java Runtime Support framework
+      and whose options can be interned can be rendered in batches (see {@link AtlasRenderer}). Renderers whose options
+      can be interned can render into off-heap memory (see {@link DirectBasicRenderer}).
+    */
+
+    private class CoreUIRenderer
+      implements BatchableRenderer, DirectBasicRenderer
+    {
+        private final @NotNull Object[] args;
+        private final @Nullable CoreUIOptions options;
+        private final boolean useLayer;
+        private final @Nullable VAppearance appearance;
+
+        public CoreUIRenderer(@NotNull Object[] args,
+                              @Nullable CoreUIOptions options,
+                              boolean useLayer,
+                              @Nullable VAppearance appearance)
+        {
+            this.args = args;
+            this.options = options;
+            this.useLayer = useLayer;
+            this.appearance = appearance;
+        }
+
+        @Override
+        public void render(@NotNull int[] data, int rw, int rh, float w, float h)
+        {
             float xscale = ((float) rw) / w;
             float yscale = ((float) rh) / h;
 
@@ -1888,36 +1958,219 @@ public class CoreUIPainter
             }
 
             if (useJRS) {
-                nativeJRSPaint(data, rw, rh, xscale, yscale, args);
+                if (options == null || !paintInterned(data, rw, rh, xscale, yscale, options, false)) {
+                    nativeJRSPaint(data, rw, rh, xscale, yscale, args);
+                }
             } else {
-                // Layer painting is experimental and in many cases does not work.
+                boolean shouldUseLayer = shouldUseLayer();
+                try {
+                    if (options == null || !paintInterned(data, rw, rh, xscale, yscale, options, shouldUseLayer)) {
+                        nativePaint(data, rw, rh, xscale, yscale, args, shouldUseLayer);
+                    }
+                } catch (RuntimeException ex) {
+                    System.err.println("Exception during native painting");
+                    if (!debugFlag) {
+                        showRenderingArguments(args);
+                    }
+                    ex.printStackTrace();
+                }
+            }
+        }
+
+        @Override
+        public boolean render(@NotNull IntBuffer buffer, int rw, int rh, float w, float h)
+        {
+            if (options == null || !isOptionInterningEnabled || !isDirectRenderingEnabled) {
+                return false;
+            }
+
+            float xscale = ((float) rw) / w;
+            float yscale = ((float) rh) / h;
+
+            if (debugFlag) {
+                showRenderingArguments(args);
+            }
+
+            if (appearance != null) {
+                configureNativeAppearance(appearance);
+            }
+
+            try {
+                int id = optionsRegistry.getID(options);
+                // The option set could be released by another thread before it is used. In that case, the native method
+                // returns false.
+                return useJRS
+                         ? nativeJRSPaintOptionsToBuffer(buffer, rw, rh, xscale, yscale, id)
+                         : nativePaintOptionsToBuffer(buffer, rw, rh, xscale, yscale, id, shouldUseLayer());
+            } catch (UnsatisfiedLinkError ex) {
+                NativeSupport.log("Core UI rendering into direct buffers is not supported by the native library");
+                isDirectRenderingEnabled = false;
+                return false;
+            } catch (RuntimeException ex) {
+                System.err.println("Exception during native painting");
+                if (!debugFlag) {
+                    showRenderingArguments(args);
+                }
+                ex.printStackTrace();
+                // The caller falls back to rendering into an array
+                return false;
+            }
+        }
 
-                boolean shouldUseLayer = useLayer;
+        /**
+          Determine whether a layer should be used when the Java Runtime Support framework is not used.
+        */
 
-                if (Boolean.TRUE.equals(forceLayers)) {
-                    shouldUseLayer = true;
-                } else if (Boolean.FALSE.equals(forceLayers)) {
+        private boolean shouldUseLayer()
+        {
+            // Layer painting is experimental and in many cases does not work.
+
+            boolean shouldUseLayer = useLayer;
+
+            if (Boolean.TRUE.equals(forceLayers)) {
+                shouldUseLayer = true;
+            } else if (Boolean.FALSE.equals(forceLayers)) {
+                shouldUseLayer = false;
+            }
+
+            if (shouldUseLayer && args.length >= 2) {
+                if (args[1].equals("kCUIWidgetWindowFrame")) {
+                    // this widget provokes an exception on 10.14 at least
                     shouldUseLayer = false;
                 }
+            }
+
+            return shouldUseLayer;
+        }
 
-                if (shouldUseLayer && args.length >= 2) {
-                    if (args[1].equals("kCUIWidgetWindowFrame")) {
-                        // this widget provokes an exception on 10.14 at least
-                        shouldUseLayer = false;
+        @Override
+        public @Nullable BatchRenderingBackend getBatchRenderingBackend()
+        {
+            return !useJRS && options != null && isOptionInterningEnabled && isBatchRenderingEnabled
+                     ? batchRenderingBackend
+                     : null;
+        }
+    }
+
+    /**
+      Render a batch of Core UI renderers into an atlas raster. The renderers are grouped by appearance. Each group is
+      rendered using one native call. Slots that native code is unable to render (because the option set was released)
+      are rendered individually.
+    */
+
+    private static class NativeBatchRenderingBackend
+      implements BatchRenderingBackend
+    {
+        @Override
+        public void renderBatch(@NotNull int[] data, int rw, int rh, @NotNull List<AtlasRenderer.Slot> slots)
+        {
+            Map<VAppearance,List<AtlasRenderer.Slot>> groups = new LinkedHashMap<>();
+            for (AtlasRenderer.Slot slot : slots) {
+                CoreUIRenderer r = (CoreUIRenderer) slot.getRenderer();
+                groups.computeIfAbsent(r.appearance, a -> new ArrayList<>()).add(slot);
+            }
+
+            for (Map.Entry<VAppearance,List<AtlasRenderer.Slot>> e : groups.entrySet()) {
+                VAppearance a = e.getKey();
+                List<AtlasRenderer.Slot> group = e.getValue();
+                int count = group.size();
+                int[] regions = new int[count * 4];
+                float[] scales = new float[count * 2];
+                int[] optionIDs = new int[count];
+                boolean[] layers = new boolean[count];
+                boolean[] painted = new boolean[count];
+
+                for (int i = 0; i < count; i++) {
+                    AtlasRenderer.Slot slot = group.get(i);
+                    CoreUIRenderer r = (CoreUIRenderer) slot.getRenderer();
+                    assert r.options != null;
+                    regions[i*4] = slot.getX();
+                    regions[i*4+1] = slot.getY();
+                    regions[i*4+2] = slot.getRasterWidth();
+                    regions[i*4+3] = slot.getRasterHeight();
+                    scales[i*2] = slot.getRasterWidth() / slot.getWidth();
+                    scales[i*2+1] = slot.getRasterHeight() / slot.getHeight();
+                    optionIDs[i] = optionsRegistry.getID(r.options);
+                    layers[i] = r.shouldUseLayer();
+                }
+
+                if (isBatchRenderingEnabled) {
+                    if (a != null) {
+                        configureNativeAppearance(a);
+                    }
+                    try {
+                        nativePaintBatch(data, rw, rh, count, regions, scales, optionIDs, layers, painted);
+                    } catch (UnsatisfiedLinkError ex) {
+                        NativeSupport.log("Core UI batch rendering is not supported by the native library");
+                        isBatchRenderingEnabled = false;
                     }
                 }
 
-                try {
-                    nativePaint(data, rw, rh, xscale, yscale, args, shouldUseLayer);
-                } catch (RuntimeException ex) {
-                    System.err.println("Exception during native painting");
-                    if (!debugFlag) {
-                        showRenderingArguments(args);
+                for (int i = 0; i < count; i++) {
+                    if (!painted[i]) {
+                        AtlasRenderer.renderIndividually(data, rw, rh, group.get(i));
                     }
-                    ex.printStackTrace();
                 }
             }
-        };
+        }
+    }
+
+    private static @Nullable CoreUIOptions createOptions(@NotNull Object[] args)
+    {
+        try {
+            return new CoreUIOptions(args);
+        } catch (IllegalArgumentException ex) {
+            // The rendering arguments will be passed directly to native code.
+            return null;
+        }
+    }
+
+    /**
+      Paint using an interned option set.
+
+      @return true if the painting was performed, false if the rendering arguments must be passed to native code.
+    */
+
+    private boolean paintInterned(@NotNull int[] data,
+                                  int rw,
+                                  int rh,
+                                  float xscale,
+                                  float yscale,
+                                  @NotNull CoreUIOptions options,
+                                  boolean shouldUseLayer)
+    {
+        if (!isOptionInterningEnabled) {
+            return false;
+        }
+
+        try {
+            int id = optionsRegistry.getID(options);
+            // The option set could be released by another thread before it is used. In that case, the native method
+            // returns false.
+            return useJRS
+                     ? nativeJRSPaintOptions(data, rw, rh, xscale, yscale, id)
+                     : nativePaintOptions(data, rw, rh, xscale, yscale, id, shouldUseLayer);
+        } catch (UnsatisfiedLinkError ex) {
+            NativeSupport.log("Core UI option interning is not supported by the native library");
+            isOptionInterningEnabled = false;
+            return false;
+        }
+    }
+
+    private static class NativeOptionsSink
+      implements CoreUIOptionsSink
+    {
+        @Override
+        public void defineOptions(int id, @NotNull byte[] encoding)
+        {
+            nativeDefineOptions(id, encoding);
+        }
+
+        @Override
+        public void releaseOptions(int id)
+        {
+            nativeReleaseOptions(id);
+        }
     }
 
     private static void showRenderingArguments(@NotNull Object[] args)
@@ -1938,4 +2191,11 @@ public class CoreUIPainter
 
     private static native void nativePaint(int[] data, int w, int h, float xscale, float yscale, Object[] args, boolean useLayer);
     private static native void nativeJRSPaint(int[] data, int w, int h, float xscale, float yscale, Object[] args);
+    private static native boolean nativePaintOptions(int[] data, int w, int h, float xscale, float yscale, int optionsID, boolean useLayer);
+    private static native boolean nativeJRSPaintOptions(int[] data, int w, int h, float xscale, float yscale, int optionsID);
+    private static native boolean nativePaintOptionsToBuffer(IntBuffer buffer, int w, int h, float xscale, float yscale, int optionsID, boolean useLayer);
+    private static native boolean nativeJRSPaintOptionsToBuffer(IntBuffer buffer, int w, int h, float xscale, float yscale, int optionsID);
+    private static native void nativePaintBatch(int[] data, int w, int h, int count, int[] regions, float[] scales, int[] optionIDs, boolean[] layers, boolean[] painted);
+    private static native void nativeDefineOptions(int id, byte[] encoding);
+    private static native void nativeReleaseOptions(int id);
 }
@@ -14,6 +14,7 @@ import org.violetlib.jnr.aqua.AquaUIPainter;
 import org.violetlib.jnr.aqua.SliderConfiguration;
 import org.violetlib.jnr.impl.JNRUtils;
 import org.violetlib.jnr.impl.Renderer;
+import org.violetlib.jnr.impl.RendererStamp;
 import org.violetlib.jnr.impl.ReusableCompositor;
 import org.violetlib.jnr.impl.SliderTickMarkRendererFactory;
 
@@ -29,18 +30,35 @@ public class LinearSliderTickMarkRenderer
     protected final @NotNull SliderConfiguration g;
     protected final @NotNull Renderer tintedRenderer;
     protected final @NotNull Renderer untintedRenderer;
+    protected final boolean isStamped;
 
     /**
-      Create a renderer that draws tick marks for a linear slider.
+      Create a renderer that draws tick marks for a linear slider. Each kind of tick mark is rendered once and the
+      rendering is copied to each tick mark location.
       @param g The slider configuration.
       @param tickRendererFactory A factory that creates renderers used to draw an individual tick mark.
     */
     public LinearSliderTickMarkRenderer(@NotNull SliderConfiguration g,
                                         @NotNull SliderTickMarkRendererFactory tickRendererFactory)
+    {
+        this(g, tickRendererFactory, true);
+    }
+
+    /**
+      Create a renderer that draws tick marks for a linear slider.
+      @param g The slider configuration.
+      @param tickRendererFactory A factory that creates renderers used to draw an individual tick mark.
+      @param isStamped If true, each kind of tick mark is rendered once and the rendering is copied to each tick mark
+      location. If false, the tick mark renderer is invoked for each tick mark.
+    */
+    public LinearSliderTickMarkRenderer(@NotNull SliderConfiguration g,
+                                        @NotNull SliderTickMarkRendererFactory tickRendererFactory,
+                                        boolean isStamped)
     {
         this.g = g;
         this.tintedRenderer = tickRendererFactory.getSliderTickMarkRenderer(g, true);
         this.untintedRenderer = tickRendererFactory.getSliderTickMarkRenderer(g, false);
+        this.isStamped = isStamped;
     }
 
     @Override
@@ -69,6 +87,9 @@ public class LinearSliderTickMarkRenderer
         double thickness = JNRUtils.size(sz, 2, 2, 1);
         double length = JNRUtils.size(sz, 8, 8, 7);
 
+        RendererStamp tintedStamp = isStamped ? new RendererStamp(tintedRenderer) : null;
+        RendererStamp untintedStamp = isStamped ? new RendererStamp(untintedRenderer) : null;
+
         if (isHorizontal) {
             width -= thickness;
             double x = 0;
@@ -76,7 +97,7 @@ public class LinearSliderTickMarkRenderer
             for (int i = 0; i < tickCount; i++) {
                 double v = isRTL ? 1 - (x / width) : x / width;
                 boolean isTinted = v <= value;
-                drawTick(compositor, isTinted, x, 0, thickness, length);
+                drawTick(compositor, isTinted ? tintedStamp : untintedStamp, isTinted, x, 0, thickness, length);
                 x += spacing;
             }
         } else {
@@ -86,18 +107,22 @@ public class LinearSliderTickMarkRenderer
             for (int i = 0; i < tickCount; i++) {
                 double v = 1 - (y / height);
                 boolean isTinted = v <= value;
-                drawTick(compositor, isTinted, 0, y, length, thickness);
+                drawTick(compositor, isTinted ? tintedStamp : untintedStamp, isTinted, 0, y, length, thickness);
                 y += spacing;
             }
         }
     }
 
-    private void drawTick(@NotNull ReusableCompositor compositor, boolean isTinted,
+    private void drawTick(@NotNull ReusableCompositor compositor, @Nullable RendererStamp stamp, boolean isTinted,
                           double x, double y, double w, double h)
     {
-        Renderer tr = isTinted ? tintedRenderer : untintedRenderer;
         Rectangle2D tickBounds = new Rectangle2D.Double(x, y, w, h);
-        Renderer r = Renderer.createOffsetRenderer(tr, tickBounds);
-        r.composeTo(compositor);
+        if (stamp != null) {
+            stamp.stampTo(compositor, tickBounds);
+        } else {
+            Renderer tr = isTinted ? tintedRenderer : untintedRenderer;
+            Renderer r = Renderer.createOffsetRenderer(tr, tickBounds);
+            r.composeTo(compositor);
+        }
     }
 }
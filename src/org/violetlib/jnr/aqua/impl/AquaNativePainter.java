@@ -10,6 +10,8 @@ package org.violetlib.jnr.aqua.impl;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.violetlib.jnr.LayoutInfo;
+import org.violetlib.jnr.Painter;
 import org.violetlib.jnr.aqua.*;
 import org.violetlib.jnr.impl.*;
 import org.violetlib.vappearances.VAppearance;
@@ -476,6 +478,16 @@ public class AquaNativePainter
         return Renderer.create(r, rd);
     }
 
+    @Override
+    protected boolean isForcedVertical(@NotNull Configuration g)
+    {
+        if (g instanceof SliderConfiguration) {
+            SliderWidget sw = ((SliderConfiguration) g).getWidget();
+            return sw == SliderWidget.SLIDER_VERTICAL || sw == SliderWidget.SLIDER_UPSIDE_DOWN;
+        }
+        return false;
+    }
+
     @Override
     protected @NotNull Renderer getSliderRenderer(@NotNull SliderConfiguration g)
     {
@@ -501,7 +513,6 @@ public class AquaNativePainter
             if (w >= h) {
                 w = Math.max(0, h - 1);
             }
-            forceVertical = true;
         }
 
         int sliderType = toSliderType(sw);
@@ -599,6 +610,76 @@ public class AquaNativePainter
         return segmentedControlPainter.createSegmentedButtonRenderer(g);
     }
 
+    /**
+      Return painters for the buttons of a segmented control. The painters are equivalent to the painters returned by
+      {@link #getPainter} for the individual buttons, using the configured height and the specified widths. The images
+      of the buttons are cached in the same way. When the images are not cached, the buttons are rendered as a group, so
+      that the buttons share native renderings of the segmented control (see {@link
+      AquaNativeSegmentedControlPainter#createSegmentedControlRenderers}).
+
+      @param gs The button configurations, in order from left to right.
+      @param segmentWidths The widths of the buttons, in device independent pixels.
+      @return the painters, in the order of the button configurations.
+      @throws IllegalArgumentException if the number of widths does not match the number of configurations.
+      @throws IllegalStateException if the appearance has not been configured.
+    */
+
+    public @NotNull Painter[] getSegmentedControlPainters(@NotNull SegmentedButtonConfiguration[] gs,
+                                                          @NotNull int[] segmentWidths)
+      throws IllegalArgumentException, IllegalStateException
+    {
+        if (segmentWidths.length != gs.length) {
+            throw new IllegalArgumentException("The number of segment widths must match the number of segments");
+        }
+        VAppearance a = appearance;
+        if (a == null) {
+            throw new IllegalStateException("Appearance must be configured");
+        }
+
+        // The group renderers must be created with the sizes of the painted areas, which are limited by the fixed
+        // width or height of a button (if any).
+
+        int configuredWidth = w;
+        int configuredHeight = h;
+        LayoutInfo[] layouts = new LayoutInfo[gs.length];
+        int[] paintedWidths = new int[gs.length];
+        int paintedHeight = configuredHeight;
+        for (int i = 0; i < gs.length; i++) {
+            LayoutInfo info = uiLayout.getLayoutInfo(gs[i]);
+            layouts[i] = info;
+            float fixedWidth = info.getFixedVisualWidth();
+            paintedWidths[i] = fixedWidth > 0 ? Math.round(fixedWidth) : segmentWidths[i];
+            float fixedHeight = info.getFixedVisualHeight();
+            if (fixedHeight > 0) {
+                paintedHeight = Math.round(fixedHeight);
+            }
+        }
+
+        Renderer[] rs = segmentedControlPainter.createSegmentedControlRenderers(gs, paintedWidths, paintedHeight, a);
+        Painter[] ps = new Painter[gs.length];
+        try {
+            for (int i = 0; i < gs.length; i++) {
+                configure(segmentWidths[i], configuredHeight);
+                Painter p = getPainter(layouts[i], gs[i], rs[i]);
+                ps[i] = customizePainter(p, gs[i], layouts[i]);
+            }
+        } finally {
+            configure(configuredWidth, configuredHeight);
+        }
+        return ps;
+    }
+
+    @Override
+    public @NotNull Painter[] getSegmentedControlPainters(@NotNull SegmentedButtonConfiguration[] gs,
+                                                          @NotNull int[] segmentWidths,
+                                                          int height,
+                                                          @NotNull VAppearance appearance)
+      throws IllegalArgumentException
+    {
+        AquaNativePainter worker = (AquaNativePainter) getWorker(new RenderContext(0, height, appearance));
+        return worker.getSegmentedControlPainters(gs, segmentWidths);
+    }
+
     @Override
     public @NotNull Renderer getTableColumnHeaderRenderer(@NotNull TableColumnHeaderConfiguration g)
     {
@@ -11,6 +11,10 @@ package org.violetlib.jnr.aqua.impl;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.lang.annotation.Native;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.violetlib.jnr.aqua.AquaUIPainter;
 import org.violetlib.jnr.aqua.SegmentedButtonConfiguration;
@@ -22,6 +26,7 @@ import org.violetlib.jnr.impl.PixelRasterImpl;
 import org.violetlib.jnr.impl.Renderer;
 import org.violetlib.jnr.impl.RendererDebugInfo;
 import org.violetlib.jnr.impl.ReusableCompositor;
+import org.violetlib.vappearances.VAppearance;
 
 import org.jetbrains.annotations.*;
 
@@ -107,6 +112,315 @@ public class AquaNativeSegmentedControlPainter
         }
     }
 
+    /**
+      Create renderers for the buttons of a segmented control. The buttons are rendered as a group: buttons that can be
+      extracted from the same rendering of a native control share that rendering, which is performed at most once for
+      each scale factor. The renderers render using the specified appearance, which is configured as the native
+      appearance for each rendering. A renderer that is used to render a button whose size differs from the specified
+      size renders the button individually.
+
+      @param gs The button configurations, in order from left to right.
+      @param segmentWidths The desired button widths (in points).
+      @param controlHeight The desired control height (in points).
+      @param appearance The appearance.
+      @return the renderers, in the order of the button configurations.
+      @throws IllegalArgumentException if the number of widths does not match the number of configurations.
+    */
+
+    public @NotNull Renderer[] createSegmentedControlRenderers(@NotNull SegmentedButtonConfiguration[] gs,
+                                                               @NotNull int[] segmentWidths,
+                                                               int controlHeight,
+                                                               @NotNull VAppearance appearance)
+      throws IllegalArgumentException
+    {
+        if (segmentWidths.length != gs.length) {
+            throw new IllegalArgumentException("The number of segment widths must match the number of segments");
+        }
+
+        SegmentGroup group = new SegmentGroup(gs.clone(), segmentWidths.clone(), controlHeight, appearance);
+        Renderer[] rs = new Renderer[gs.length];
+        for (int i = 0; i < gs.length; i++) {
+            SegmentedButtonRenderer r = new SegmentedButtonRenderer(gs[i]);
+            rs[i] = gs[i].getPosition() == Position.ONLY ? r : new GroupSegmentRenderer(group, i, r);
+        }
+        return rs;
+    }
+
+    /**
+      Return the number of native control renderings that have been performed. This information supports evaluation.
+    */
+
+    public int getNativeRenderCount()
+    {
+        return nativeRenderCount;
+    }
+
+    private int nativeRenderCount;
+
+    private class GroupSegmentRenderer
+      extends Renderer
+    {
+        private final @NotNull SegmentGroup group;
+        private final int index;
+        private final @NotNull SegmentedButtonRenderer individualRenderer;
+
+        public GroupSegmentRenderer(@NotNull SegmentGroup group,
+                                    int index,
+                                    @NotNull SegmentedButtonRenderer individualRenderer)
+        {
+            this.group = group;
+            this.index = index;
+            this.individualRenderer = individualRenderer;
+        }
+
+        @Override
+        public void composeTo(@NotNull ReusableCompositor compositor)
+        {
+            AquaUIPainterBase.renderWithNativeAppearance(group.appearance, () -> {
+                compose(compositor);
+                return null;
+            });
+        }
+
+        private void compose(@NotNull ReusableCompositor compositor)
+        {
+            int buttonWidth = Math.round(compositor.getWidth());
+            int buttonHeight = Math.round(compositor.getHeight());
+            if (buttonWidth != group.segmentWidths[index] || buttonHeight != group.controlHeight) {
+                individualRenderer.composeTo(compositor);
+                return;
+            }
+            SegmentSlice slice = group.getSlice(index, compositor.getScaleFactor());
+            compositor.composeFrom(slice.source, slice.x, slice.y, 0, 0, slice.w, slice.h);
+        }
+    }
+
+    /**
+      The renderings of the buttons of a segmented control in one appearance, created on demand for each scale factor.
+      The renderings are performed with the appearance of the group configured as the native appearance, so the
+      appearance is part of the identity of every slice.
+    */
+
+    private class SegmentGroup
+    {
+        final @NotNull SegmentedButtonConfiguration[] gs;
+        final @NotNull int[] segmentWidths;
+        final int controlHeight;
+        final @NotNull VAppearance appearance;
+        private final @NotNull Map<Integer,SegmentSlice[]> slices = new HashMap<>();
+
+        public SegmentGroup(@NotNull SegmentedButtonConfiguration[] gs,
+                            @NotNull int[] segmentWidths,
+                            int controlHeight,
+                            @NotNull VAppearance appearance)
+        {
+            this.gs = gs;
+            this.segmentWidths = segmentWidths;
+            this.controlHeight = controlHeight;
+            this.appearance = appearance;
+        }
+
+        // The caller must have configured the native appearance of this group
+        public synchronized @NotNull SegmentSlice getSlice(int index, int scale)
+        {
+            SegmentSlice[] ss = slices.get(scale);
+            if (ss == null) {
+                ss = render(scale);
+                slices.put(scale, ss);
+            }
+            return ss[index];
+        }
+
+        private @NotNull SegmentSlice[] render(int scale)
+        {
+            // Each button is assigned to a native rendering that can provide it, using the configuration that would
+            // be used to render the button individually. The only change is that the other segments of the native
+            // control are given the widths of the buttons that share the rendering.
+
+            List<CompositeSegmentRendering> renderings = new ArrayList<>();
+            for (int i = 0; i < gs.length; i++) {
+                SegmentedButtonConfiguration g = gs[i];
+                if (g.getPosition() == Position.ONLY) {
+                    continue;
+                }
+                RenderInsets s = scds.getInsets(g, scale);
+                SegmentedControl4LayoutInfo layout = scds.getSegment4LayoutInfo(g, scale);
+                SegmentButtonRenderingConfiguration4 bc
+                  = getRenderConfiguration(g, s, layout, scale, segmentWidths[i], controlHeight);
+                SegmentedControlConfiguration4 cc = createControlConfiguration(g, bc);
+                CompositeSegmentRendering target = null;
+                for (CompositeSegmentRendering r : renderings) {
+                    if (r.isCompatible(s, bc, cc)) {
+                        target = r;
+                        break;
+                    }
+                }
+                if (target == null) {
+                    target = new CompositeSegmentRendering(s, cc);
+                    renderings.add(target);
+                }
+                target.add(i, bc);
+            }
+
+            SegmentSlice[] result = new SegmentSlice[gs.length];
+            for (CompositeSegmentRendering r : renderings) {
+                r.render(result);
+            }
+            return result;
+        }
+    }
+
+    /**
+      A native rendering of a four segment control that provides the renderings of up to four buttons, each
+      occupying a distinct segment.
+    */
+
+    private class CompositeSegmentRendering
+    {
+        private final @NotNull RenderInsets s;
+        private final @NotNull SegmentedControlConfiguration4 cc;
+        private final @NotNull int[] indexes = { -1, -1, -1, -1 };
+        private final @NotNull SegmentButtonRenderingConfiguration4[] bcs = new SegmentButtonRenderingConfiguration4[4];
+
+        public CompositeSegmentRendering(@NotNull RenderInsets s, @NotNull SegmentedControlConfiguration4 cc)
+        {
+            this.s = s;
+            this.cc = cc;
+        }
+
+        /**
+          Determine whether a button can be extracted from this rendering. The segment used to render the button must
+          be unassigned, and the native control must be the same except for the segment widths. To avoid rounding
+          differences, the width of a segment may differ from the default width of the other segments only by whole
+          pixels.
+        */
+
+        public boolean isCompatible(@NotNull RenderInsets s,
+                                    @NotNull SegmentButtonRenderingConfiguration4 bc,
+                                    @NotNull SegmentedControlConfiguration4 cc)
+        {
+            SegmentedControlConfiguration4 c = this.cc;
+            return indexes[bc.designatedSegment - 1] < 0
+                     && s.equals(this.s)
+                     && isPixelAligned(bc.segmentWidth - bc.otherSegmentWidth, bc.scale)
+                     && bc.otherSegmentWidth == getOtherSegmentWidth()
+                     && cc.widget == c.widget && cc.isToolbar == c.isToolbar
+                     && cc.size == c.size && cc.state == c.state && cc.tracking == c.tracking
+                     && cc.s1 == c.s1 && cc.s2 == c.s2 && cc.s3 == c.s3 && cc.s4 == c.s4;
+        }
+
+        public void add(int index, @NotNull SegmentButtonRenderingConfiguration4 bc)
+        {
+            int segment = bc.designatedSegment - 1;
+            indexes[segment] = index;
+            bcs[segment] = bc;
+        }
+
+        private float getOtherSegmentWidth()
+        {
+            for (SegmentButtonRenderingConfiguration4 bc : bcs) {
+                if (bc != null) {
+                    return bc.otherSegmentWidth;
+                }
+            }
+            return 20;
+        }
+
+        /**
+          Render the native control and store the slices for the assigned buttons.
+        */
+
+        public void render(@NotNull SegmentSlice[] result)
+        {
+            float other = getOtherSegmentWidth();
+            float[] widths = new float[4];
+            for (int i = 0; i < 4; i++) {
+                widths[i] = bcs[i] != null ? bcs[i].segmentWidth : other;
+            }
+
+            // The raster of an individual rendering accommodates the default width of the other segments.
+
+            float rasterWidth = 0;
+            float rasterHeight = 0;
+            for (int i = 0; i < 4; i++) {
+                SegmentButtonRenderingConfiguration4 bc = bcs[i];
+                if (bc != null) {
+                    float extra = 0;
+                    for (int j = 0; j < 4; j++) {
+                        if (j != i) {
+                            extra += widths[j] - other;
+                        }
+                    }
+                    rasterWidth = Math.max(rasterWidth, bc.rasterWidth + (float) Math.ceil(extra));
+                    rasterHeight = Math.max(rasterHeight, bc.rasterHeight);
+                }
+            }
+
+            int scale = Math.round(bcs[indexOfAnySegment()].scale);
+            int rw = Math.round(scale * rasterWidth);
+            int rh = Math.round(scale * rasterHeight);
+            int[] raster = new int[rw * rh];
+            SegmentedControlConfiguration4 g = new SegmentedControlConfiguration4(cc.widget, cc.isToolbar, cc.size,
+              cc.state, cc.tracking, widths[0], widths[1], widths[2], widths[3], cc.s1, cc.s2, cc.s3, cc.s4);
+            paintSegmentedControl4(raster, rw, rh, scale, g, false);
+            PixelRaster px = new PixelRasterImpl(raster, rw, rh);
+
+            // Each button is shifted by the extra width of the segments that precede it.
+
+            float shift = 0;
+            for (int i = 0; i < 4; i++) {
+                SegmentButtonRenderingConfiguration4 bc = bcs[i];
+                if (bc != null) {
+                    Rectangle2D bounds = bc.bounds;
+                    int x = Math.round(scale * (float) (bounds.getX() + shift));
+                    int y = Math.round(scale * (float) bounds.getY());
+                    int w = Math.round(scale * (float) bounds.getWidth());
+                    int h = Math.round(scale * (float) bounds.getHeight());
+                    result[indexes[i]] = new SegmentSlice(px, x, y, w, h);
+                }
+                shift += widths[i] - other;
+            }
+        }
+
+        private int indexOfAnySegment()
+        {
+            for (int i = 0; i < 4; i++) {
+                if (bcs[i] != null) {
+                    return i;
+                }
+            }
+            throw new AssertionError("Empty composite rendering");
+        }
+    }
+
+    private static boolean isPixelAligned(float d, float scale)
+    {
+        float pixels = d * scale;
+        return pixels == Math.round(pixels);
+    }
+
+    /**
+      The location of a button rendering in a raster.
+    */
+
+    private static class SegmentSlice
+    {
+        final @NotNull PixelRaster source;
+        final int x;
+        final int y;
+        final int w;
+        final int h;
+
+        public SegmentSlice(@NotNull PixelRaster source, int x, int y, int w, int h)
+        {
+            this.source = source;
+            this.x = x;
+            this.y = y;
+            this.w = w;
+            this.h = h;
+        }
+    }
+
     private static @NotNull Rectangle2D extractBounds(@NotNull float[] fs, int start)
     {
         return new Rectangle2D.Float(fs[start], fs[start+1], fs[start+2], fs[start+3]);
@@ -550,6 +864,7 @@ public class AquaNativeSegmentedControlPainter
 
         float[] debugData = requestDebugOutput ? new float[4] : null;
 
+        nativeRenderCount++;
         nativePaintSegmentedControl1(data, rw, rh, scale, g.w, style, isSelected, context, size, state, debugData);
 
         if (debugData != null) {
@@ -604,6 +919,7 @@ public class AquaNativeSegmentedControlPainter
 
         float[] debugData = requestDebugOutput ? new float[16] : null;
 
+        nativeRenderCount++;
         nativePaintSegmentedControl4(data, rw, rh, scale, g.w1, g.w2, g.w3, g.w4, style, tracking,
           selectionFlags, context, size, state, debugData);
 
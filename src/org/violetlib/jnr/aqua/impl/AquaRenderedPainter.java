@@ -8,6 +8,8 @@
 
 package org.violetlib.jnr.aqua.impl;
 
+import java.awt.Image;
+
 import org.violetlib.jnr.aqua.Configuration;
 import org.violetlib.jnr.impl.CachingRendererPainter;
 import org.violetlib.jnr.impl.ImageCache;
@@ -47,6 +49,32 @@ public class AquaRenderedPainter
         this.appearance = appearance;
     }
 
+    @Override
+    protected @Nullable Image createImage(int scaleFactor, int width, int height)
+    {
+        // The native appearance is global state. It must be configured for each rendering, because another painter may
+        // have configured a different appearance since this painter was created.
+
+        return AquaUIPainterBase.renderWithNativeAppearance(appearance,
+          () -> super.createImage(scaleFactor, width, height));
+    }
+
+    @Override
+    protected boolean isImageRequestMonitored()
+    {
+        return PaintTraceRecorder.isRecording();
+    }
+
+    @Override
+    protected void imageProvided(int scaleFactor, int width, int height, int cacheOutcome, long elapsedNanos)
+    {
+        PaintTraceRecorder recorder = PaintTraceRecorder.getActiveRecorder();
+        if (recorder != null) {
+            long start = System.nanoTime() - elapsedNanos;
+            recorder.recordPaint(g, appearance, scaleFactor, width, height, cacheOutcome, start, elapsedNanos);
+        }
+    }
+
     @Override
     protected @Nullable ImageCache.PixelsKey createKey(int scaleFactor, int rasterWidth, int rasterHeight)
     {
@@ -53,7 +53,23 @@ public abstract class AquaUIPainterAbstractBase
     protected final @NotNull AquaUILayoutInfo uiLayout;
     protected final @NotNull UIOutliner uiOutliner;
 
-    protected static @NotNull AquaUILayoutInfo createLayout()
+    private static @Nullable AquaUILayoutInfo sharedLayout;
+
+    /**
+      Return the layout information for the platform UI. The layout information is stateless, so one instance is shared
+      by all painters, which allows its memoized results to be shared.
+    */
+
+    protected static synchronized @NotNull AquaUILayoutInfo createLayout()
+    {
+        if (sharedLayout == null) {
+            sharedLayout = createPlatformLayout();
+            sharedLayout.initializeLayoutTables();
+        }
+        return sharedLayout;
+    }
+
+    private static @NotNull AquaUILayoutInfo createPlatformLayout()
     {
         int platformVersion = JNRPlatformUtils.getPlatformVersion();
         if (platformVersion >= 260000) {
@@ -78,7 +94,25 @@ public abstract class AquaUIPainterAbstractBase
         return new LayoutInfo10_10();
     }
 
-    protected static @NotNull UIOutliner createOutliner(@NotNull AquaUILayoutInfo uiLayout)
+    private static @Nullable UIOutliner sharedOutliner;
+
+    /**
+      Return the outliner for the platform UI. The outliner is shared by all painters that use the shared layout, which
+      allows its cached outlines to be shared.
+    */
+
+    protected static synchronized @NotNull UIOutliner createOutliner(@NotNull AquaUILayoutInfo uiLayout)
+    {
+        if (uiLayout != sharedLayout) {
+            return createPlatformOutliner(uiLayout);
+        }
+        if (sharedOutliner == null) {
+            sharedOutliner = createPlatformOutliner(uiLayout);
+        }
+        return sharedOutliner;
+    }
+
+    private static @NotNull UIOutliner createPlatformOutliner(@NotNull AquaUILayoutInfo uiLayout)
     {
         int platformVersion = JNRPlatformUtils.getPlatformVersion();
         if (platformVersion >= 150000) {
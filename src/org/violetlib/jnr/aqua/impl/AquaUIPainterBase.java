@@ -20,8 +20,16 @@ import org.violetlib.vappearances.VAppearance;
 
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.violetlib.jnr.aqua.impl.AquaNativePainter.nativeDetermineSliderRenderingVersion;
 import static org.violetlib.jnr.aqua.impl.AquaNativeSegmentedControlPainter.nativeDetermineSegmentedButtonRenderingVersion;
@@ -142,148 +150,409 @@ public abstract class AquaUIPainterBase
         return uiOutliner.getOutline(bounds, g);
     }
 
+    /*
+      Requests that supply a render context are performed by a per-thread worker, which is a copy of this painter that
+      holds the per-request state of one thread. The workers share the painter memo of this painter. The workers are
+      owned by this painter, weakly keyed by thread, so that neither a thread nor its thread local storage retains this
+      painter, and the worker of a terminated thread can be collected.
+    */
+
+    private final @NotNull Map<Thread,AquaUIPainterBase> workers = new WeakHashMap<>();
+
+    private @NotNull AquaUIPainterBase createWorker()
+    {
+        AquaUIPainterBase worker = (AquaUIPainterBase) copy();
+        worker.painterMemo = painterMemo;
+        return worker;
+    }
+
+    protected @NotNull AquaUIPainterBase getWorker(@NotNull RenderContext context)
+    {
+        AquaUIPainterBase worker;
+        Thread thread = Thread.currentThread();
+        synchronized (workers) {
+            worker = workers.get(thread);
+            if (worker == null) {
+                worker = createWorker();
+                workers.put(thread, worker);
+            }
+        }
+        worker.isAlignmentEnabled = isAlignmentEnabled;
+        VAppearance a = context.getAppearance();
+        if (a != null) {
+            worker.configureAppearance(a);
+        } else {
+            // The appearance of a previous request must not be used
+            worker.appearance = null;
+        }
+        worker.configure(context.getWidth(), context.getHeight());
+        return worker;
+    }
+
     @Override
-    public @NotNull Painter getPainter(@NotNull Configuration g)
+    public @NotNull Painter getPainter(@NotNull RenderContext context, @NotNull Configuration g)
       throws UnsupportedOperationException
     {
-        LayoutInfo layoutInfo = uiLayout.getLayoutInfo((LayoutConfiguration) g);
-        Renderer r = getRenderer(g);
-        Painter p = getPainter(layoutInfo, g, r);
-        return customizePainter(p, g, layoutInfo);
+        return getWorker(context).getPainter(g);
     }
 
-    protected @NotNull Painter customizePainter(@NotNull Painter p, @NotNull Configuration g, @NotNull LayoutInfo layoutInfo)
+    @Override
+    public @NotNull Painter getAsyncPainter(@NotNull RenderContext context,
+                                            @NotNull Configuration g,
+                                            @NotNull PlaceholderStrategy strategy,
+                                            @Nullable Runnable repaintCallback,
+                                            @NotNull RenderTicket ticket)
+      throws UnsupportedOperationException
     {
-        if (g instanceof SliderConfiguration) {
-            SliderConfiguration sg = (SliderConfiguration) g;
-            Rectangle2D bounds = getCenteredBounds(layoutInfo);
-            return new SliderPainterImpl(sg, layoutInfo, bounds, sg.getValue(), p);
-        }
-        return p;
+        return getWorker(context).getAsyncPainter(g, strategy, repaintCallback, ticket);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Image> getImageAsync(@NotNull RenderContext context,
+                                                           @NotNull Configuration g,
+                                                           int scaleFactor,
+                                                           @NotNull RenderTicket ticket)
+      throws UnsupportedOperationException
+    {
+        return getWorker(context).getImageAsync(g, scaleFactor, ticket);
     }
 
+    /**
+      Return a renderer based on the specified configuration and render context. This method does not use the
+      previously configured widget size. It may be called concurrently from multiple threads.
+    */
+
     // public to support evaluation
-    public @NotNull Renderer getRenderer(@NotNull Configuration g)
+    public @NotNull Renderer getRenderer(@NotNull RenderContext context, @NotNull Configuration g)
     {
-        if (g instanceof ButtonConfiguration) {
-            ButtonConfiguration gg = (ButtonConfiguration) g;
-            return getButtonRenderer(gg);
-        }
+        return getWorker(context).getRenderer(g);
+    }
 
-        if (g instanceof ComboBoxConfiguration) {
-            ComboBoxConfiguration gg = (ComboBoxConfiguration) g;
-            return getComboBoxButtonRenderer(gg);
+    @Override
+    public @NotNull Painter getPainter(@NotNull Configuration g)
+      throws UnsupportedOperationException
+    {
+        PaintTraceRecorder recorder = PaintTraceRecorder.getActiveRecorder();
+        if (recorder != null) {
+            long start = System.nanoTime();
+            Painter p = createPainter(g);
+            recorder.recordGetPainter(g, appearance, w, h, start, System.nanoTime() - start);
+            return p;
         }
+        return createPainter(g);
+    }
 
-        if (g instanceof PopupButtonConfiguration) {
-            PopupButtonConfiguration gg = (PopupButtonConfiguration) g;
-            return getPopupButtonRenderer(gg);
-        }
+    /*
+      Painters are immutable, so a painter can be reused for a later request with the same configuration, size,
+      appearance, and transition step count. Reusing a painter avoids the layout, renderer, and painter construction
+      that precedes the image cache lookup. Memoization can be disabled by setting the system property
+      VAqua.memoizePainters to false.
+    */
 
-        if (g instanceof TitleBarConfiguration) {
-            TitleBarConfiguration gg = (TitleBarConfiguration) g;
-            return getTitleBarRenderer(gg);
-        }
+    private static final boolean isPainterMemoEnabled = !"false".equals(System.getProperty("VAqua.memoizePainters"));
 
-        if (g instanceof SliderConfiguration) {
-            SliderConfiguration gg = (SliderConfiguration) g;
-            return getSliderRenderer(gg);
-        }
+    private static final int MAXIMUM_MEMOIZED_PAINTER_COUNT = 1000;
 
-        if (g instanceof SpinnerArrowsConfiguration) {
-            SpinnerArrowsConfiguration gg = (SpinnerArrowsConfiguration) g;
-            return getSpinnerArrowsRenderer(gg);
+    private @NotNull LinkedHashMap<PainterKey,Painter> painterMemo
+      = new LinkedHashMap<PainterKey,Painter>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(@NotNull Map.Entry<PainterKey,Painter> eldest)
+        {
+            return size() > MAXIMUM_MEMOIZED_PAINTER_COUNT;
         }
+    };
 
-        if (g instanceof SplitPaneDividerConfiguration) {
-            SplitPaneDividerConfiguration gg = (SplitPaneDividerConfiguration) g;
-            return getSplitPaneDividerRenderer(gg);
+    private static final class PainterKey
+    {
+        private final @NotNull Configuration g;
+        private final int w;
+        private final int h;
+        private final @Nullable VAppearance appearance;
+        private final boolean isAlignmentEnabled;
+        private final boolean forceVertical;
+        private final int transitionStepCount;
+        private final int hash;
+
+        public PainterKey(@NotNull Configuration g,
+                          int w,
+                          int h,
+                          @Nullable VAppearance appearance,
+                          boolean isAlignmentEnabled,
+                          boolean forceVertical,
+                          int transitionStepCount)
+        {
+            this.g = g;
+            this.w = w;
+            this.h = h;
+            this.appearance = appearance;
+            this.isAlignmentEnabled = isAlignmentEnabled;
+            this.forceVertical = forceVertical;
+            this.transitionStepCount = transitionStepCount;
+
+            int hash = g.hashCode();
+            hash = 31 * hash + w;
+            hash = 31 * hash + h;
+            hash = 31 * hash + (appearance != null ? appearance.hashCode() : 0);
+            hash = 31 * hash + (isAlignmentEnabled ? 1 : 0);
+            hash = 31 * hash + (forceVertical ? 1 : 0);
+            hash = 31 * hash + transitionStepCount;
+            this.hash = hash;
         }
 
-        if (g instanceof SegmentedButtonConfiguration) {
-            SegmentedButtonConfiguration gg = (SegmentedButtonConfiguration) g;
-            return getSegmentedButtonRenderer(gg);
+        @Override
+        public int hashCode()
+        {
+            return hash;
         }
 
-        if (g instanceof ToolBarItemWellConfiguration) {
-            ToolBarItemWellConfiguration gg = (ToolBarItemWellConfiguration) g;
-            return getToolBarItemWellRenderer(gg);
+        @Override
+        public boolean equals(@Nullable Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PainterKey)) {
+                return false;
+            }
+            PainterKey that = (PainterKey) o;
+            return w == that.w && h == that.h && isAlignmentEnabled == that.isAlignmentEnabled
+                     && forceVertical == that.forceVertical && transitionStepCount == that.transitionStepCount
+                     && g.equals(that.g)
+                     && Objects.equals(appearance, that.appearance);
         }
+    }
 
-        if (g instanceof GroupBoxConfiguration) {
-            GroupBoxConfiguration gg = (GroupBoxConfiguration) g;
-            return getGroupBoxRenderer(gg);
-        }
+    private @NotNull Painter createPainter(@NotNull Configuration g)
+      throws UnsupportedOperationException
+    {
+        // The orientation is determined before the memo key is created, so that building the painter does not alter
+        // the state represented by the key.
+        forceVertical = isForcedVertical(g);
 
-        if (g instanceof ListBoxConfiguration) {
-            ListBoxConfiguration gg = (ListBoxConfiguration) g;
-            return getListBoxRenderer(gg);
+        if (!isPainterMemoEnabled) {
+            return buildPainter(g);
         }
 
-        if (g instanceof TextFieldConfiguration) {
-            TextFieldConfiguration gg = (TextFieldConfiguration) g;
-            return getTextFieldRenderer(gg);
+        PainterKey key = new PainterKey(g, w, h, appearance, isAlignmentEnabled, forceVertical, transitionStepCount);
+        synchronized (painterMemo) {
+            Painter p = painterMemo.get(key);
+            if (p != null) {
+                return p;
+            }
         }
-
-        if (g instanceof ScrollBarConfiguration) {
-            ScrollBarConfiguration gg = (ScrollBarConfiguration) g;
-            return getScrollBarRenderer(gg);
+        Painter p = buildPainter(g);
+        synchronized (painterMemo) {
+            painterMemo.put(key, p);
         }
+        return p;
+    }
 
-        if (g instanceof ScrollColumnSizerConfiguration) {
-            ScrollColumnSizerConfiguration gg = (ScrollColumnSizerConfiguration) g;
-            return getScrollColumnSizerRenderer(gg);
-        }
+    /**
+      Indicate whether the rendering of a widget must be vertical regardless of the configured size.
+    */
 
-        if (g instanceof IndeterminateProgressIndicatorConfiguration) {
-            IndeterminateProgressIndicatorConfiguration gg = (IndeterminateProgressIndicatorConfiguration) g;
-            return getIndeterminateProgressIndicatorRenderer(gg);
-        }
+    protected boolean isForcedVertical(@NotNull Configuration g)
+    {
+        return false;
+    }
 
-        if (g instanceof ProgressIndicatorConfiguration) {
-            ProgressIndicatorConfiguration gg = (ProgressIndicatorConfiguration) g;
-            return getProgressIndicatorRenderer(gg);
-        }
+    /**
+      Discard the memoized painters. The painters previously returned by this painter remain valid.
+    */
 
-        if (g instanceof TableColumnHeaderConfiguration) {
-            TableColumnHeaderConfiguration gg = (TableColumnHeaderConfiguration) g;
-            return getTableColumnHeaderRenderer(gg);
+    public void flushPainters()
+    {
+        synchronized (painterMemo) {
+            painterMemo.clear();
         }
+    }
 
-        if (g instanceof GradientConfiguration) {
-            GradientConfiguration gg = (GradientConfiguration) g;
-            return getGradientRenderer(gg);
-        }
+    private @NotNull Painter buildPainter(@NotNull Configuration g)
+      throws UnsupportedOperationException
+    {
+        LayoutInfo layoutInfo = uiLayout.getLayoutInfo((LayoutConfiguration) g);
+        Renderer r = getRenderer(g);
+        Painter p = getPainter(layoutInfo, g, r);
+        return customizePainter(p, g, layoutInfo);
+    }
 
-        if (g instanceof SliderThumbConfiguration) {
-            SliderThumbConfiguration gg = (SliderThumbConfiguration) g;
-            return getSliderThumbRenderer(gg.getSliderConfiguration());
-        }
+    /**
+      Return a painter that does not render on the calling thread when its image is not cached. Instead, the image is
+      rendered on a worker thread and a placeholder is painted. When the image is available, the repaint callback is
+      invoked on the event dispatch thread.
 
-        if (g instanceof SliderTickConfiguration) {
-            SliderTickConfiguration gg = (SliderTickConfiguration) g;
-            return getSliderTickRenderer(gg);
-        }
+      @param g The widget configuration.
+      @param strategy The placeholder strategy.
+      @param repaintCallback The callback to invoke when a pending image is available.
+      @return the painter.
+      @throws UnsupportedOperationException if the configuration is not supported.
+    */
 
-        if (g instanceof PopupArrowConfiguration) {
-            PopupArrowConfiguration gg = (PopupArrowConfiguration) g;
-            Renderer r = getPopupArrowRenderer(gg.getPopupButtonConfiguration());
-            if (r != null) {
-                return r;
+    public @NotNull Painter getAsyncPainter(@NotNull Configuration g,
+                                            @NotNull PlaceholderStrategy strategy,
+                                            @Nullable Runnable repaintCallback)
+      throws UnsupportedOperationException
+    {
+        return getAsyncPainter(g, strategy, repaintCallback, RenderTicket.VISIBLE);
+    }
+
+    /**
+      Return a painter that does not render on the calling thread when its image is not cached. Instead, the image is
+      rendered on a worker thread and a placeholder is painted. When the image is available, the repaint callback is
+      invoked on the event dispatch thread.
+
+      @param g The widget configuration.
+      @param strategy The placeholder strategy.
+      @param repaintCallback The callback to invoke when a pending image is available.
+      @param ticket The priority and generation of the rendering requests (see {@link RenderScheduler}).
+      @return the painter.
+      @throws UnsupportedOperationException if the configuration is not supported.
+    */
+
+    public @NotNull Painter getAsyncPainter(@NotNull Configuration g,
+                                            @NotNull PlaceholderStrategy strategy,
+                                            @Nullable Runnable repaintCallback,
+                                            @NotNull RenderTicket ticket)
+      throws UnsupportedOperationException
+    {
+        LayoutInfo layoutInfo = uiLayout.getLayoutInfo((LayoutConfiguration) g);
+        Renderer r = getRenderer(g);
+        Painter p = getPainter(layoutInfo, g, r, new AsyncOptions(strategy, repaintCallback, ticket));
+        return customizePainter(p, g, layoutInfo);
+    }
+
+    /**
+      Return the image used to paint a widget, excluding offsets. If the image is cached, the returned future is
+      complete. Otherwise, the image is rendered on a worker thread.
+
+      @param g The widget configuration.
+      @param scaleFactor The scale factor.
+      @return a future that is completed with the image, which may be null if the widget has no rendering.
+      @throws UnsupportedOperationException if the configuration is not supported.
+    */
+
+    public @NotNull CompletableFuture<Image> getImageAsync(@NotNull Configuration g, int scaleFactor)
+      throws UnsupportedOperationException
+    {
+        return getImageAsync(g, scaleFactor, RenderTicket.VISIBLE);
+    }
+
+    /**
+      Return the image used to paint a widget, excluding offsets. If the image is cached, the returned future is
+      complete. Otherwise, the image is rendered on a worker thread.
+
+      @param g The widget configuration.
+      @param scaleFactor The scale factor.
+      @param ticket The priority and generation of the rendering request (see {@link RenderScheduler}).
+      @return a future that is completed with the image, which may be null if the widget has no rendering. The future is
+      cancelled if the rendering is cancelled.
+      @throws UnsupportedOperationException if the configuration is not supported.
+    */
+
+    public @NotNull CompletableFuture<Image> getImageAsync(@NotNull Configuration g,
+                                                           int scaleFactor,
+                                                           @NotNull RenderTicket ticket)
+      throws UnsupportedOperationException
+    {
+        LayoutInfo layoutInfo = uiLayout.getLayoutInfo((LayoutConfiguration) g);
+        Renderer r = getRenderer(g);
+        configureLayout(layoutInfo);
+        if (pWidth > 0 && pHeight > 0 && appearance != null) {
+            Painter p = createAsyncPainter(g, appearance, r, new AsyncOptions(PlaceholderStrategy.NONE, null, ticket));
+            if (p instanceof AsyncPainter) {
+                return ((AsyncPainter) p).getImage(scaleFactor);
             }
         }
+        return CompletableFuture.completedFuture(null);
+    }
 
-        if (g instanceof SearchFieldFindButtonConfiguration) {
-            SearchFieldFindButtonConfiguration gg = (SearchFieldFindButtonConfiguration) g;
-            Renderer r = getSearchFieldFindButtonRenderer(gg.getTextFieldConfiguration());
-            if (r != null) {
-                return r;
-            }
+    protected @NotNull Painter customizePainter(@NotNull Painter p, @NotNull Configuration g, @NotNull LayoutInfo layoutInfo)
+    {
+        if (g instanceof SliderConfiguration) {
+            SliderConfiguration sg = (SliderConfiguration) g;
+            Rectangle2D bounds = getCenteredBounds(layoutInfo);
+            return new SliderPainterImpl(sg, layoutInfo, bounds, sg.getValue(), p);
         }
+        return p;
+    }
 
-        if (g instanceof SearchFieldCancelButtonConfiguration) {
-            SearchFieldCancelButtonConfiguration gg = (SearchFieldCancelButtonConfiguration) g;
-            Renderer r = getSearchFieldCancelButtonRenderer(gg.getTextFieldConfiguration());
+    /**
+      Creates renderers for configurations of a specific type.
+    */
+
+    public interface RendererFactory<G extends Configuration>
+    {
+        /**
+          Return a renderer for the specified configuration.
+          @param p The painter.
+          @param g The configuration.
+          @return the renderer, or null if the configuration is not supported.
+        */
+
+        @Nullable Renderer getRenderer(@NotNull AquaUIPainterBase p, @NotNull G g);
+    }
+
+    private static final @NotNull ClassDispatcher<RendererFactory<?>> rendererFactories = new ClassDispatcher<>();
+
+    static {
+        registerBuiltin(ButtonConfiguration.class, AquaUIPainterBase::getButtonRenderer);
+        registerBuiltin(ComboBoxConfiguration.class, AquaUIPainterBase::getComboBoxButtonRenderer);
+        registerBuiltin(PopupButtonConfiguration.class, AquaUIPainterBase::getPopupButtonRenderer);
+        registerBuiltin(TitleBarConfiguration.class, AquaUIPainterBase::getTitleBarRenderer);
+        registerBuiltin(SliderConfiguration.class, AquaUIPainterBase::getSliderRenderer);
+        registerBuiltin(SpinnerArrowsConfiguration.class, AquaUIPainterBase::getSpinnerArrowsRenderer);
+        registerBuiltin(SplitPaneDividerConfiguration.class, AquaUIPainterBase::getSplitPaneDividerRenderer);
+        registerBuiltin(SegmentedButtonConfiguration.class, AquaUIPainterBase::getSegmentedButtonRenderer);
+        registerBuiltin(ToolBarItemWellConfiguration.class, AquaUIPainterBase::getToolBarItemWellRenderer);
+        registerBuiltin(GroupBoxConfiguration.class, AquaUIPainterBase::getGroupBoxRenderer);
+        registerBuiltin(ListBoxConfiguration.class, AquaUIPainterBase::getListBoxRenderer);
+        registerBuiltin(TextFieldConfiguration.class, AquaUIPainterBase::getTextFieldRenderer);
+        registerBuiltin(ScrollBarConfiguration.class, AquaUIPainterBase::getScrollBarRenderer);
+        registerBuiltin(ScrollColumnSizerConfiguration.class, AquaUIPainterBase::getScrollColumnSizerRenderer);
+        registerBuiltin(IndeterminateProgressIndicatorConfiguration.class,
+          AquaUIPainterBase::getIndeterminateProgressIndicatorRenderer);
+        registerBuiltin(ProgressIndicatorConfiguration.class, AquaUIPainterBase::getProgressIndicatorRenderer);
+        registerBuiltin(TableColumnHeaderConfiguration.class, AquaUIPainterBase::getTableColumnHeaderRenderer);
+        registerBuiltin(GradientConfiguration.class, AquaUIPainterBase::getGradientRenderer);
+        registerBuiltin(SliderThumbConfiguration.class,
+          (p, g) -> p.getSliderThumbRenderer(g.getSliderConfiguration()));
+        registerBuiltin(SliderTickConfiguration.class, AquaUIPainterBase::getSliderTickRenderer);
+        registerBuiltin(PopupArrowConfiguration.class,
+          (p, g) -> p.getPopupArrowRenderer(g.getPopupButtonConfiguration()));
+        registerBuiltin(SearchFieldFindButtonConfiguration.class,
+          (p, g) -> p.getSearchFieldFindButtonRenderer(g.getTextFieldConfiguration()));
+        registerBuiltin(SearchFieldCancelButtonConfiguration.class,
+          (p, g) -> p.getSearchFieldCancelButtonRenderer(g.getTextFieldConfiguration()));
+    }
+
+    private static <G extends Configuration> void registerBuiltin(@NotNull Class<G> c, @NotNull RendererFactory<G> f)
+    {
+        rendererFactories.register(c, f);
+    }
+
+    /**
+      Register a renderer factory for a configuration type. The factory is used by all painters for configurations of
+      the specified type and its subtypes. It takes precedence over the existing factories, which allows an application
+      to support its own configurations.
+
+      @param c The configuration type.
+      @param f The renderer factory.
+    */
+
+    public static <G extends Configuration> void registerRendererFactory(@NotNull Class<G> c,
+                                                                         @NotNull RendererFactory<? super G> f)
+    {
+        rendererFactories.registerFirst(c, f);
+    }
+
+    // public to support evaluation
+    @SuppressWarnings("unchecked")
+    public @NotNull Renderer getRenderer(@NotNull Configuration g)
+    {
+        RendererFactory<Configuration> f = (RendererFactory<Configuration>) rendererFactories.get(g.getClass());
+        if (f != null) {
+            Renderer r = f.getRenderer(this, g);
             if (r != null) {
                 return r;
             }
@@ -390,6 +659,14 @@ public abstract class AquaUIPainterBase
     protected @NotNull Painter getPainter(@Nullable LayoutInfo info,
                                           @NotNull Configuration g,
                                           @NotNull Renderer r)
+    {
+        return getPainter(info, g, r, null);
+    }
+
+    private @NotNull Painter getPainter(@Nullable LayoutInfo info,
+                                        @NotNull Configuration g,
+                                        @NotNull Renderer r,
+                                        @Nullable AsyncOptions async)
     {
         configureLayout(info);
 
@@ -401,7 +678,9 @@ public abstract class AquaUIPainterBase
             throw new IllegalStateException("Appearance must be configured");
         }
 
-        Painter p = getPainter(g, appearance, r, pWidth, pHeight);
+        Painter p = async != null
+                      ? createAsyncPainter(g, appearance, r, async)
+                      : getPainter(g, appearance, r, pWidth, pHeight);
 
         if (xOffset != 0 || yOffset != 0) {
             p = new OffsetPainter(p, xOffset, yOffset);
@@ -427,9 +706,428 @@ public abstract class AquaUIPainterBase
                                           float width,
                                           float height)
     {
+        if (isAnimationStripEnabled && g instanceof IndeterminateProgressIndicatorConfiguration) {
+            IndeterminateProgressIndicatorConfiguration pg = (IndeterminateProgressIndicatorConfiguration) g;
+            int frameCount = getAnimationFrameCount(pg);
+            int frame = pg.getAnimationFrame();
+            if (frameCount > 1 && frame >= 0 && frame < frameCount) {
+                int w = (int) Math.ceil(width);
+                int h = (int) Math.ceil(height);
+                AnimationStrip strip = getAnimationStrip(withAnimationFrame(pg, 0), appearance, frameCount, w, h,
+                  () -> getAnimationFrameRenderers(pg, frameCount));
+                return new AnimationStripPainter(strip, frame);
+            }
+        }
+        if (transitionStepCount > 0 && g instanceof AnimatedButtonConfiguration) {
+            AnimatedButtonConfiguration ag = (AnimatedButtonConfiguration) g;
+            if (isCrossFaded(ag)) {
+                int stepCount = transitionStepCount;
+                int step = Math.round(ag.getTransition() * stepCount);
+                int w = (int) Math.ceil(width);
+                int h = (int) Math.ceil(height);
+                AnimationStrip strip = getAnimationStrip(withTransition(ag, 0), appearance, stepCount + 1, w, h,
+                  () -> getTransitionRenderers(ag, stepCount));
+                return new AnimationStripPainter(strip, step);
+            }
+        }
         return new AquaRenderedPainter(g, appearance, r, width, height);
     }
 
+    /*
+      The frames of an animated widget are rendered together into an animation strip, which is retained separately
+      from the image cache, so that the frames do not displace the images of static widgets. The animation strips are
+      limited by the number of pixels they retain, including the end renderings retained by cross-fade renderers, using
+      the same limit as the image cache. A strip retains more pixels each time it is rendered at a new scale factor, so
+      the limit is enforced when a strip is rendered, and the least recently used strips other than the rendered strip
+      are discarded. Animation strips can be disabled by setting the system property VAqua.enableAnimationStrips to
+      false.
+    */
+
+    private static final boolean isAnimationStripEnabled
+      = !"false".equals(System.getProperty("VAqua.enableAnimationStrips"));
+
+    private static final long MAXIMUM_ANIMATION_STRIP_PIXEL_COUNT = (8 * 1024 * 1024) / 4;  // 8Mb of pixels
+
+    private static final @NotNull LinkedHashMap<AnimationStripKey,RetainedAnimationStrip> animationStrips
+      = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static final class RetainedAnimationStrip
+    {
+        final @NotNull AnimationStrip strip;
+        final @NotNull Renderer[] frames;  // the frame renderers, which may retain renderings
+
+        public RetainedAnimationStrip(@NotNull AnimationStrip strip, @NotNull Renderer[] frames)
+        {
+            this.strip = strip;
+            this.frames = frames;
+        }
+
+        public long getPixelCount()
+        {
+            return strip.getPixelCount() + CrossFadeRenderer.getRetainedPixelCount(frames);
+        }
+    }
+
+    private static void animationStripRendered(@NotNull AnimationStrip strip)
+    {
+        synchronized (animationStrips) {
+            long pixelCount = 0;
+            for (RetainedAnimationStrip s : animationStrips.values()) {
+                pixelCount += s.getPixelCount();
+            }
+            Iterator<RetainedAnimationStrip> it = animationStrips.values().iterator();
+            while (pixelCount > MAXIMUM_ANIMATION_STRIP_PIXEL_COUNT && it.hasNext()) {
+                RetainedAnimationStrip s = it.next();
+                if (s.strip != strip) {
+                    pixelCount -= s.getPixelCount();
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private static final class AnimationStripKey
+    {
+        private final @NotNull Class<?> painterClass;
+        private final @NotNull Configuration g;
+        private final @NotNull VAppearance appearance;
+        private final int frameCount;
+        private final int w;
+        private final int h;
+
+        public AnimationStripKey(@NotNull Class<?> painterClass,
+                                 @NotNull Configuration g,
+                                 @NotNull VAppearance appearance,
+                                 int frameCount,
+                                 int w,
+                                 int h)
+        {
+            this.painterClass = painterClass;
+            this.g = g;
+            this.appearance = appearance;
+            this.frameCount = frameCount;
+            this.w = w;
+            this.h = h;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(painterClass, g, appearance, frameCount, w, h);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AnimationStripKey)) {
+                return false;
+            }
+            AnimationStripKey that = (AnimationStripKey) o;
+            return painterClass == that.painterClass && frameCount == that.frameCount && w == that.w && h == that.h
+                     && g.equals(that.g) && appearance.equals(that.appearance);
+        }
+    }
+
+    /**
+      Return the number of frames in the animation of an indeterminate progress indicator, if the frames should be
+      rendered as an animation strip.
+
+      @return the number of frames, or zero if the frames should be rendered individually.
+    */
+
+    protected int getAnimationFrameCount(@NotNull IndeterminateProgressIndicatorConfiguration g)
+    {
+        return 0;
+    }
+
+    /**
+      Return the animation strip for an animated widget.
+
+      @param g The configuration that identifies the animation.
+      @param appearance The appearance.
+      @param frameCount The number of frames.
+      @param w The width of the frames.
+      @param h The height of the frames.
+      @param frames Creates the frame renderers, if the animation strip is not available.
+      @return the animation strip.
+    */
+
+    private @NotNull AnimationStrip getAnimationStrip(@NotNull Configuration g,
+                                                      @NotNull VAppearance appearance,
+                                                      int frameCount,
+                                                      int w,
+                                                      int h,
+                                                      @NotNull Supplier<Renderer[]> frames)
+    {
+        AnimationStripKey key = new AnimationStripKey(getClass(), g, appearance, frameCount, w, h);
+        synchronized (animationStrips) {
+            RetainedAnimationStrip s = animationStrips.get(key);
+            if (s != null) {
+                return s.strip;
+            }
+        }
+
+        // The frame renderers are created now, while this painter is configured with the appearance. The frames are
+        // rendered later, possibly after the native appearance has been configured for another request.
+        Renderer[] frameRenderers = frames.get();
+        Renderer[] rs = new Renderer[frameRenderers.length];
+        for (int i = 0; i < rs.length; i++) {
+            rs[i] = new NativeAppearanceRenderer(frameRenderers[i], appearance);
+        }
+        AnimationStrip strip = new AnimationStrip(rs, w, h, AquaUIPainterBase::animationStripRendered);
+        synchronized (animationStrips) {
+            RetainedAnimationStrip existing
+              = animationStrips.putIfAbsent(key, new RetainedAnimationStrip(strip, frameRenderers));
+            return existing != null ? existing.strip : strip;
+        }
+    }
+
+    private @NotNull Renderer[] getAnimationFrameRenderers(@NotNull IndeterminateProgressIndicatorConfiguration g,
+                                                           int frameCount)
+    {
+        Renderer[] frames = new Renderer[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            frames[i] = getRenderer(withAnimationFrame(g, i));
+        }
+        return frames;
+    }
+
+    private static @NotNull IndeterminateProgressIndicatorConfiguration withAnimationFrame(
+      @NotNull IndeterminateProgressIndicatorConfiguration g, int frame)
+    {
+        return new IndeterminateProgressIndicatorConfiguration(g.getWidget(), g.getSize(), g.getState(),
+          g.getOrientation(), frame);
+    }
+
+    /*
+      An animated transition of a button from one button state to another can be rendered as a cross-fade. The two end
+      states are rendered, and a fixed number of intermediate steps are produced by interpolation. The transition of a
+      configuration is rounded to the nearest step. The number of steps is specified by the system property
+      VAqua.transitionSteps. By default, cross-fades are not used and each transition is rendered individually.
+    */
+
+    private static volatile int transitionStepCount = getDefaultTransitionStepCount();
+
+    private static int getDefaultTransitionStepCount()
+    {
+        String s = System.getProperty("VAqua.transitionSteps");
+        if (s != null) {
+            try {
+                return Math.max(0, Integer.parseInt(s));
+            } catch (NumberFormatException ignore) {
+            }
+        }
+        return 0;
+    }
+
+    /**
+      Specify the number of steps used to render an animated button transition as a cross-fade between the two button
+      states.
+
+      @param count The number of steps, or zero to render each transition individually.
+    */
+
+    public static void setTransitionStepCount(int count)
+    {
+        if (count < 0) {
+            throw new IllegalArgumentException("Invalid step count");
+        }
+        transitionStepCount = count;
+    }
+
+    public static int getTransitionStepCount()
+    {
+        return transitionStepCount;
+    }
+
+    /**
+      Indicate whether an animated button transition should be rendered as a cross-fade. A disclosure triangle is not
+      cross-faded, because its transition is a rotation that is rendered natively.
+    */
+
+    protected boolean isCrossFaded(@NotNull AnimatedButtonConfiguration g)
+    {
+        return g.getPreviousButtonState() != g.getButtonState()
+                 && g.getButtonWidget() != ButtonWidget.BUTTON_DISCLOSURE_TRIANGLE;
+    }
+
+    private @NotNull Renderer[] getTransitionRenderers(@NotNull AnimatedButtonConfiguration g, int stepCount)
+    {
+        ButtonConfiguration from = new ButtonConfiguration(g.getButtonWidget(), g.getSize(), g.getState(),
+          g.isFocused(), g.getPreviousButtonState(), g.getLayoutDirection());
+        ButtonConfiguration to = new ButtonConfiguration(g.getButtonWidget(), g.getSize(), g.getState(),
+          g.isFocused(), g.getButtonState(), g.getLayoutDirection());
+        return CrossFadeRenderer.createSteps(getRenderer(from), getRenderer(to), stepCount);
+    }
+
+    private static @NotNull AnimatedButtonConfiguration withTransition(@NotNull AnimatedButtonConfiguration g,
+                                                                       float transition)
+    {
+        return new AnimatedButtonConfiguration(g.getButtonWidget(), g.getSize(), g.getState(), g.isFocused(),
+          g.getButtonState(), g.getLayoutDirection(), g.getPreviousButtonState(), transition);
+    }
+
+    /**
+      Discard the retained animation strips.
+    */
+
+    public static void flushAnimationStrips()
+    {
+        synchronized (animationStrips) {
+            animationStrips.clear();
+        }
+    }
+
+    private static class AsyncOptions
+    {
+        final @NotNull PlaceholderStrategy strategy;
+        final @Nullable Runnable repaintCallback;
+        final @NotNull RenderTicket ticket;
+
+        AsyncOptions(@NotNull PlaceholderStrategy strategy,
+                     @Nullable Runnable repaintCallback,
+                     @NotNull RenderTicket ticket)
+        {
+            this.strategy = strategy;
+            this.repaintCallback = repaintCallback;
+            this.ticket = ticket;
+        }
+    }
+
+    private @NotNull Painter createAsyncPainter(@NotNull Configuration g,
+                                                @NotNull VAppearance appearance,
+                                                @NotNull Renderer r,
+                                                @NotNull AsyncOptions async)
+    {
+        Painter p = getPainter(g, appearance, r, pWidth, pHeight);
+        if (p instanceof CachingRendererPainter) {
+            CachingRendererPainter cp = (CachingRendererPainter) p;
+            AsyncPainter.RenderingScope scope = s -> renderWithNativeAppearance(appearance, s);
+            return new AsyncPainter(cp, async.strategy, async.repaintCallback, scope, async.ticket);
+        }
+        return p;
+    }
+
+    /**
+      A request to prepare the cached image of a widget.
+    */
+
+    public static final class ImageRequest
+    {
+        public final @NotNull Configuration g;
+        public final int width;
+        public final int height;
+        public final int scaleFactor;
+        public final @NotNull VAppearance appearance;
+
+        /**
+          Create a request.
+
+          @param g The widget configuration.
+          @param width The width of the painted area, in device independent pixels.
+          @param height The height of the painted area, in device independent pixels.
+          @param scaleFactor The scale factor of the display.
+          @param appearance The appearance.
+        */
+
+        public ImageRequest(@NotNull Configuration g,
+                            int width,
+                            int height,
+                            int scaleFactor,
+                            @NotNull VAppearance appearance)
+        {
+            this.g = g;
+            this.width = width;
+            this.height = height;
+            this.scaleFactor = scaleFactor;
+            this.appearance = appearance;
+        }
+    }
+
+    /**
+      Render and cache the images that would be used to paint the specified widgets. Images that are already cached, or
+      that would not be cached, are not rendered. Renderings that support batch rendering are rendered together using
+      shared atlas rasters, which reduces the number of native calls. This method may be used to populate the image
+      cache in advance, for example, before displaying a component that contains many widgets.
+
+      <p>
+      The configured size and appearance of this painter are not changed.
+
+      @param requests The requests.
+      @return the number of images that were rendered and cached.
+    */
+
+    public int prepareImages(@NotNull List<ImageRequest> requests)
+    {
+        // Some renderers use the native appearance configured when the painter appearance is configured, so the
+        // requests are rendered in groups by appearance.
+
+        Map<VAppearance,List<ImageRequest>> groups = new LinkedHashMap<>();
+        for (ImageRequest rq : requests) {
+            groups.computeIfAbsent(rq.appearance, a -> new ArrayList<>()).add(rq);
+        }
+
+        int savedWidth = w;
+        int savedHeight = h;
+        VAppearance savedAppearance = appearance;
+        int count = 0;
+
+        try {
+            for (Map.Entry<VAppearance,List<ImageRequest>> e : groups.entrySet()) {
+                configureAppearance(e.getKey());
+                count += prepareImages(e.getKey(), e.getValue());
+            }
+        } finally {
+            configure(savedWidth, savedHeight);
+            if (savedAppearance != null) {
+                configureAppearance(savedAppearance);
+            } else {
+                appearance = null;
+            }
+        }
+
+        return count;
+    }
+
+    private int prepareImages(@NotNull VAppearance appearance, @NotNull List<ImageRequest> requests)
+    {
+        List<CachingRendererPainter> painters = new ArrayList<>();
+        List<AtlasRenderer.Request> renderRequests = new ArrayList<>();
+
+        for (ImageRequest rq : requests) {
+            configure(rq.width, rq.height);
+            LayoutInfo layoutInfo = uiLayout.getLayoutInfo((LayoutConfiguration) rq.g);
+            Renderer r = getRenderer(rq.g);
+            configureLayout(layoutInfo);
+            if (pWidth > 0 && pHeight > 0) {
+                Painter p = getPainter(rq.g, appearance, r, pWidth, pHeight);
+                if (p instanceof CachingRendererPainter) {
+                    CachingRendererPainter cp = (CachingRendererPainter) p;
+                    AtlasRenderer.Request ar = cp.createImageRequest(rq.scaleFactor);
+                    if (ar != null) {
+                        painters.add(cp);
+                        renderRequests.add(ar);
+                    }
+                }
+            }
+        }
+
+        if (!renderRequests.isEmpty()) {
+            ReusableCompositor[] results;
+            synchronized (RendererPainter.getRenderingLock()) {
+                results = new AtlasRenderer().render(renderRequests);
+            }
+            for (int i = 0; i < results.length; i++) {
+                painters.get(i).cacheImage(renderRequests.get(i), results[i]);
+            }
+        }
+
+        return renderRequests.size();
+    }
+
     protected abstract @NotNull Renderer getButtonRenderer(@NotNull ButtonConfiguration g);
 
     protected abstract @NotNull Renderer getTableColumnHeaderRenderer(@NotNull TableColumnHeaderConfiguration g);
@@ -579,19 +1277,75 @@ public abstract class AquaUIPainterBase
 
     protected static void configureNativeAppearance(@NotNull VAppearance appearance)
     {
-        String appearanceName = appearance.getName();
-        int appearanceID;
-        Integer id = appearanceIDMap.get(appearanceName);
-        if (id == null) {
-            appearanceID = nativeRegisterAppearance(appearanceName);
-            appearanceIDMap.put(appearanceName, appearanceID);
-        } else {
-            appearanceID = id;
+        synchronized (RendererPainter.getRenderingLock()) {
+            String appearanceName = appearance.getName();
+            int appearanceID;
+            Integer id = appearanceIDMap.get(appearanceName);
+            if (id == null) {
+                appearanceID = nativeRegisterAppearance(appearanceName);
+                appearanceIDMap.put(appearanceName, appearanceID);
+            } else {
+                appearanceID = id;
+            }
+
+            nativeSetAppearance(appearanceID);
+            nativeAppearance = appearance;
         }
+    }
 
-        nativeSetAppearance(appearanceID);
+    /**
+      Perform a rendering using the specified native appearance. The native appearance is global, so it is configured
+      for each rendering while holding the rendering lock. The previously configured native appearance is restored, so
+      that a rendering performed on behalf of one painter or thread does not affect a painter configured on another
+      thread.
+    */
+
+    static <T> T renderWithNativeAppearance(@NotNull VAppearance appearance, @NotNull Supplier<T> renderer)
+    {
+        synchronized (RendererPainter.getRenderingLock()) {
+            VAppearance previous = nativeAppearance;
+            if (previous == appearance) {
+                return renderer.get();
+            }
+            configureNativeAppearance(appearance);
+            try {
+                return renderer.get();
+            } finally {
+                if (previous != null) {
+                    configureNativeAppearance(previous);
+                }
+            }
+        }
+    }
+
+    /**
+      A renderer that renders using a specified native appearance.
+    */
+
+    private static class NativeAppearanceRenderer
+      extends Renderer
+    {
+        private final @NotNull Renderer r;
+        private final @NotNull VAppearance appearance;
+
+        public NativeAppearanceRenderer(@NotNull Renderer r, @NotNull VAppearance appearance)
+        {
+            this.r = r;
+            this.appearance = appearance;
+        }
+
+        @Override
+        public void composeTo(@NotNull ReusableCompositor compositor)
+        {
+            renderWithNativeAppearance(appearance, () -> {
+                r.composeTo(compositor);
+                return null;
+            });
+        }
     }
 
+    private static @Nullable VAppearance nativeAppearance;  // the most recently configured native appearance
+
     private static final Map<String,Integer> appearanceIDMap = new HashMap<>();
 
     private static native int nativeRegisterAppearance(String appearanceName);
@@ -103,6 +103,16 @@ public class AugmentedAquaNativePainter
         return super.getIndeterminateProgressIndicatorRenderer(g);
     }
 
+    @Override
+    protected int getAnimationFrameCount(@NotNull IndeterminateProgressIndicatorConfiguration g)
+    {
+        int platformVersion = JNRPlatformUtils.getPlatformVersion();
+        if (platformVersion >= 101600 && g.getWidget() == ProgressWidget.INDETERMINATE_BAR) {
+            return IndeterminateProgressBarPainterExtension.FRAME_COUNT;
+        }
+        return super.getAnimationFrameCount(g);
+    }
+
     @Override
     public @NotNull String toString()
     {
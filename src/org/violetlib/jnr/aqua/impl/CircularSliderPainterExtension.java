@@ -13,6 +13,7 @@ import java.awt.Graphics2D;
 
 import org.violetlib.jnr.aqua.AquaUIPainter;
 import org.violetlib.jnr.aqua.SliderConfiguration;
+import org.violetlib.jnr.impl.ColorKey;
 import org.violetlib.jnr.impl.Colors;
 import org.violetlib.jnr.impl.JNRUtils;
 import org.violetlib.jnr.impl.PainterExtension;
@@ -60,7 +61,7 @@ public class CircularSliderPainterExtension
         double p1 = tickCount > 1 ? 1 : 0.5;
         double zeroAngle = Math.PI/2;
         float radius = JNRUtils.size2D(sg.getSize(), 15.5f, 10.5f, 10.5f);
-        Color tickColor = colors.get("circularSliderTick");
+        Color tickColor = colors.get(ColorKey.CIRCULAR_SLIDER_TICK);
         SliderCircularTickPainter p = new SliderCircularTickPainter(
           tickColor, 1, 1, x, y, radius, zeroAngle, tickCount, p0, p1);
         p.paint(g);
@@ -14,6 +14,7 @@ import java.awt.geom.Path2D;
 
 import org.violetlib.jnr.aqua.AquaUIPainter;
 import org.violetlib.jnr.aqua.ComboBoxConfiguration;
+import org.violetlib.jnr.impl.ColorKey;
 import org.violetlib.jnr.impl.Colors;
 import org.violetlib.jnr.impl.PainterExtension;
 import org.violetlib.vappearances.VAppearance;
@@ -63,7 +64,7 @@ public class ComboBoxButtonCellPainterExtension
         p2.moveTo(x1, y5);
         p2.lineTo(x2, y4);
         p2.lineTo(x3, y5);
-        g.setColor(colors.get("comboBoxArrow"));
+        g.setColor(colors.get(ColorKey.COMBO_BOX_ARROW));
         g.setStroke(new BasicStroke(1.5f));
         g.fill(p1);
         g.fill(p2);
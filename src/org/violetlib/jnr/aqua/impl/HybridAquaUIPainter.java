@@ -12,13 +12,17 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.violetlib.jnr.Painter;
 import org.violetlib.jnr.aqua.*;
+import org.violetlib.jnr.impl.ClassDispatcher;
 import org.violetlib.jnr.impl.Colors;
 import org.violetlib.jnr.impl.JNRPlatformUtils;
+import org.violetlib.jnr.impl.PlaceholderStrategy;
+import org.violetlib.jnr.impl.RenderTicket;
 import org.violetlib.vappearances.VAppearance;
 
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
   A hybrid painter that uses the best available implementation for each given configuration.
@@ -31,6 +35,151 @@ public class HybridAquaUIPainter
     protected final @NotNull AquaUIPainter coreUIPainter;
     protected final @Nullable AquaUIPainter jrsPainter;
 
+    /**
+      The implementations to which a hybrid painter routes requests.
+    */
+
+    public enum Route
+    {
+        /** The NSView painter. */
+        VIEW,
+        /** The Core UI painter. */
+        CORE_UI,
+        /** The preferred painter for configurations that do not require a specific implementation. */
+        DEFAULT
+    }
+
+    /**
+      Selects the implementation used to paint configurations of a specific type.
+    */
+
+    public interface Router<G extends Configuration>
+    {
+        @NotNull Route route(@NotNull G g);
+    }
+
+    /*
+      The routing table is created once. The platform version is fixed, so the tests of the platform version are
+      performed when the table is created.
+
+      Prefer the JSR painter if defined because it is faster, except where it is not accurate. Otherwise the core UI
+      painter except where it falls down and the view painter is better.
+    */
+
+    private static final @NotNull ClassDispatcher<Router<?>> routers = new ClassDispatcher<>();
+
+    static {
+        int platformVersion = JNRPlatformUtils.getPlatformVersion();
+
+        registerBuiltin(ButtonConfiguration.class,
+          g -> g.getButtonWidget() == ButtonWidget.BUTTON_INLINE ? Route.VIEW : Route.CORE_UI);
+
+        if (platformVersion >= 101600) {
+            // The direct CoreUI painter creates blurry images.
+            // The JRS CoreUI painter is good except for the slider style, but it does not support
+            // components using an appearance other than the application effective appearance.
+            // Therefore, use the NSView painter except where it does not work.
+            registerBuiltin(SegmentedButtonConfiguration.class, sg -> {
+                SegmentedButtonWidget w = sg.getWidget();
+                if ((w.isSlider() && w.isToolbar())
+                      || w.isTextured()
+                      || w == SegmentedButtonWidget.BUTTON_SEGMENTED
+                      || sg.getState() == State.PRESSED
+                      || sg.getState() == State.PRESSED_DEFAULT
+                ) {
+                    return Route.CORE_UI;
+                }
+                return Route.VIEW;
+            });
+        } else {
+            // The NSView painter produces more accurate backgrounds for gradient buttons and, on older releases,
+            // separated, textured, and S-curve buttons.
+            registerBuiltin(SegmentedButtonConfiguration.class, sg -> Route.VIEW);
+        }
+
+        registerBuiltin(GradientConfiguration.class, g -> Route.CORE_UI);
+
+        // On 10.11 and earlier, all renderers paint proper cell style arrows, except JDK is unable to paint the
+        // mini size. On 10.12 and later, the cell style arrows have changed to a "V" shape, but JDK still uses the
+        // triangle version.
+        boolean isCellArrowChanged = platformVersion >= 101200;
+        registerBuiltin(ComboBoxConfiguration.class, bg -> {
+            ComboBoxWidget w = bg.getWidget();
+            State st = bg.getState();
+            if (w == ComboBoxWidget.BUTTON_COMBO_BOX_CELL) {
+                if (isCellArrowChanged || bg.getSize() == Size.MINI) {
+                    return Route.CORE_UI;
+                }
+            } else if (st == State.DISABLED
+                         || st == State.DISABLED_INACTIVE
+                         || bg.getLayoutDirection() == UILayoutDirection.RIGHT_TO_LEFT
+                         || w == ComboBoxWidget.BUTTON_COMBO_BOX_TEXTURED
+                         || w == ComboBoxWidget.BUTTON_COMBO_BOX_TEXTURED_TOOLBAR
+            ) {
+                return Route.CORE_UI;
+            }
+            return Route.DEFAULT;
+        });
+
+        registerBuiltin(PopupButtonConfiguration.class, bg -> {
+            if (bg.getLayoutDirection() == UILayoutDirection.RIGHT_TO_LEFT) {
+                return Route.CORE_UI;
+            }
+            PopupButtonWidget widget = bg.getPopupButtonWidget();
+            if (widget == PopupButtonWidget.BUTTON_POP_UP_TEXTURED
+                  || widget == PopupButtonWidget.BUTTON_POP_DOWN_TEXTURED
+                  || widget == PopupButtonWidget.BUTTON_POP_UP_TEXTURED_TOOLBAR
+                  || widget == PopupButtonWidget.BUTTON_POP_DOWN_TEXTURED_TOOLBAR) {
+                return Route.CORE_UI;
+            }
+            return Route.DEFAULT;
+        });
+
+        registerBuiltin(ProgressIndicatorConfiguration.class, g -> Route.CORE_UI);
+
+        if (platformVersion >= 101600) {
+            registerBuiltin(IndeterminateProgressIndicatorConfiguration.class,
+              bg -> bg.getWidget() == ProgressWidget.INDETERMINATE_BAR ? Route.VIEW : Route.CORE_UI);
+        } else {
+            registerBuiltin(IndeterminateProgressIndicatorConfiguration.class, bg -> Route.CORE_UI);
+        }
+
+        registerBuiltin(TextFieldConfiguration.class, bg -> {
+            TextFieldWidget w = bg.getWidget();
+            return w != TextFieldWidget.TEXT_FIELD && w != TextFieldWidget.TEXT_FIELD_ROUND
+                     ? Route.CORE_UI : Route.DEFAULT;
+        });
+
+        if (platformVersion < 101500) {
+            registerBuiltin(SliderConfiguration.class, bg -> bg.getSize() == Size.MINI ? Route.VIEW : Route.CORE_UI);
+        } else {
+            registerBuiltin(SliderConfiguration.class, bg -> Route.CORE_UI);
+        }
+
+        registerBuiltin(TitleBarConfiguration.class, g -> Route.CORE_UI);
+        registerBuiltin(ScrollBarConfiguration.class, g -> Route.CORE_UI);
+    }
+
+    private static <G extends Configuration> void registerBuiltin(@NotNull Class<G> c, @NotNull Router<G> r)
+    {
+        routers.register(c, r);
+    }
+
+    /**
+      Register a router for a configuration type. The router is used by all hybrid painters for configurations of the
+      specified type and its subtypes. It takes precedence over the existing routers, which allows an application to
+      select the implementation used for its own configurations.
+
+      @param c The configuration type.
+      @param r The router.
+    */
+
+    public static <G extends Configuration> void registerRouter(@NotNull Class<G> c, @NotNull Router<? super G> r)
+    {
+        routers.registerFirst(c, r);
+    }
+
+    private final @NotNull AquaUIPainter defaultPainter;
     private final @NotNull AquaUILayoutInfo layout;
     private int w;
     private int h;
@@ -44,6 +193,12 @@ public class HybridAquaUIPainter
         this.coreUIPainter = coreUIPainter;
         this.jrsPainter = jrsPainter;
 
+        // The JRS painter does not support the dark appearance.
+        // TBD: check to see if the dark appearance is being used, if possible
+
+        int platformVersion = JNRPlatformUtils.getPlatformVersion();
+        this.defaultPainter = platformVersion >= 101400 || jrsPainter == null ? coreUIPainter : jrsPainter;
+
         layout = viewPainter.getLayoutInfo();  // all implementations share the same layout
     }
 
@@ -77,145 +232,68 @@ public class HybridAquaUIPainter
     public @NotNull Painter getPainter(@NotNull Configuration g)
       throws UnsupportedOperationException
     {
-        AquaUIPainter p = select(g);
-        if (appearance != null) {
-            p.configureAppearance(appearance);
-        }
-        p.configure(w, h);
-        return p.getPainter(g);
+        return getPainter(new RenderContext(w, h, appearance), g);
     }
 
-    protected @NotNull AquaUIPainter select(@NotNull Configuration g)
+    @Override
+    public @NotNull Painter getPainter(@NotNull RenderContext context, @NotNull Configuration g)
+      throws UnsupportedOperationException
     {
-        // Prefer the JSR painter if defined because it is faster, except where it is not accurate.
-        // Otherwise the core UI painter except where it falls down and the view painter is better.
+        // The implementations are shared by copies of this painter, so they are not configured directly.
+        return select(g).getPainter(context, g);
+    }
 
-        if (g instanceof ButtonConfiguration) {
-            ButtonConfiguration bg = (ButtonConfiguration) g;
-            ButtonWidget bw = bg.getButtonWidget();
-            if (bw == ButtonWidget.BUTTON_INLINE) {
-                return viewPainter;
-            } else {
-                return coreUIPainter;
-            }
-        } else if (g instanceof SegmentedButtonConfiguration) {
-            SegmentedButtonConfiguration sg = (SegmentedButtonConfiguration) g;
-            SegmentedButtonWidget w = sg.getWidget();
-            int platformVersion = JNRPlatformUtils.getPlatformVersion();
-            // The NSView painter produces more accurate backgrounds for gradient buttons
-            if (w == SegmentedButtonWidget.BUTTON_SEGMENTED_SMALL_SQUARE && platformVersion < 101600) {
-                return viewPainter;
-            }
-            if (platformVersion < 101300) {
-                if (w == SegmentedButtonWidget.BUTTON_SEGMENTED_SEPARATED
-                      || w == SegmentedButtonWidget.BUTTON_SEGMENTED_TEXTURED
-                      || w == SegmentedButtonWidget.BUTTON_SEGMENTED_SCURVE) {
-                    return viewPainter;
-                }
-            } else if (platformVersion < 101400) {
-                if (w == SegmentedButtonWidget.BUTTON_SEGMENTED_SEPARATED) {
-                    return viewPainter;
-                }
-            } else if (platformVersion >= 101600) {
-                // The direct CoreUI painter creates blurry images.
-                // The JRS CoreUI painter is good except for the slider style, but it does not support
-                // components using an appearance other than the application effective appearance.
-                // Therefore, use the NSView painter except where it does not work.
+    @Override
+    public @NotNull Painter getAsyncPainter(@NotNull RenderContext context,
+                                            @NotNull Configuration g,
+                                            @NotNull PlaceholderStrategy strategy,
+                                            @Nullable Runnable repaintCallback,
+                                            @NotNull RenderTicket ticket)
+      throws UnsupportedOperationException
+    {
+        return select(g).getAsyncPainter(context, g, strategy, repaintCallback, ticket);
+    }
 
-                if ((w.isSlider() && w.isToolbar())
-                      || w.isTextured()
-                      || w == SegmentedButtonWidget.BUTTON_SEGMENTED
-                      || sg.getState() == State.PRESSED
-                      || sg.getState() == State.PRESSED_DEFAULT
-                ) {
-                    return coreUIPainter;
-                }
+    @Override
+    public @NotNull CompletableFuture<Image> getImageAsync(@NotNull RenderContext context,
+                                                           @NotNull Configuration g,
+                                                           int scaleFactor,
+                                                           @NotNull RenderTicket ticket)
+      throws UnsupportedOperationException
+    {
+        return select(g).getImageAsync(context, g, scaleFactor, ticket);
+    }
 
-//                if (w == SegmentedButtonWidget.BUTTON_SEGMENTED_INSET && sg.getSize() == Size.LARGE) {
-//                    return viewPainter;
-//                }
-//                if (w == SegmentedButtonWidget.BUTTON_SEGMENTED_SLIDER) {
-//                    return viewPainter;
-//                }
+    @Override
+    public @NotNull Painter[] getSegmentedControlPainters(@NotNull SegmentedButtonConfiguration[] gs,
+                                                          @NotNull int[] segmentWidths,
+                                                          int height,
+                                                          @NotNull VAppearance appearance)
+      throws IllegalArgumentException, UnsupportedOperationException
+    {
+        // The buttons can be rendered as a group only if they are painted by the same implementation
+        AquaUIPainter p = gs.length > 0 ? select(gs[0]) : defaultPainter;
+        for (SegmentedButtonConfiguration g : gs) {
+            if (select(g) != p) {
+                return AquaUIPainter.super.getSegmentedControlPainters(gs, segmentWidths, height, appearance);
             }
-            return viewPainter;
-        } else if (g instanceof GradientConfiguration) {
-            return coreUIPainter;
-        } else if (g instanceof ComboBoxConfiguration) {
-            ComboBoxConfiguration bg = (ComboBoxConfiguration) g;
-            ComboBoxWidget w = bg.getWidget();
-            State st = bg.getState();
-            Size sz = bg.getSize();
-
-            // On 10.11 and earlier, all renderers paint proper cell style arrows, except JDK is unable to paint the
-            // mini size. On 10.12 and later, the cell style arrows have changed to a "V" shape, but JDK still uses the
-            // triangle version.
+        }
+        return p.getSegmentedControlPainters(gs, segmentWidths, height, appearance);
+    }
 
-            if (w == ComboBoxWidget.BUTTON_COMBO_BOX_CELL) {
-                int platformVersion = JNRPlatformUtils.getPlatformVersion();
-                if (platformVersion >= 101200 || sz == Size.MINI) {
-                    return coreUIPainter;
-                }
-            } else if (st == State.DISABLED
-                         || st == State.DISABLED_INACTIVE
-                         || bg.getLayoutDirection() == UILayoutDirection.RIGHT_TO_LEFT
-                         || w == ComboBoxWidget.BUTTON_COMBO_BOX_TEXTURED
-                         || w == ComboBoxWidget.BUTTON_COMBO_BOX_TEXTURED_TOOLBAR
-            ) {
-                return coreUIPainter;
-            }
-        } else if (g instanceof PopupButtonConfiguration) {
-            PopupButtonConfiguration bg = (PopupButtonConfiguration) g;
-            if (bg.getLayoutDirection() == UILayoutDirection.RIGHT_TO_LEFT) {
-                return coreUIPainter;
-            }
-            PopupButtonWidget widget = bg.getPopupButtonWidget();
-            if (widget == PopupButtonWidget.BUTTON_POP_UP_TEXTURED
-                  || widget == PopupButtonWidget.BUTTON_POP_DOWN_TEXTURED
-                  || widget == PopupButtonWidget.BUTTON_POP_UP_TEXTURED_TOOLBAR
-                  || widget == PopupButtonWidget.BUTTON_POP_DOWN_TEXTURED_TOOLBAR) {
-                return coreUIPainter;
-            }
-        } else if (g instanceof ProgressIndicatorConfiguration) {
-            ProgressIndicatorConfiguration bg = (ProgressIndicatorConfiguration) g;
-            return coreUIPainter;
-        } else if (g instanceof IndeterminateProgressIndicatorConfiguration) {
-            IndeterminateProgressIndicatorConfiguration bg = (IndeterminateProgressIndicatorConfiguration) g;
-            int platformVersion = JNRPlatformUtils.getPlatformVersion();
-            if (platformVersion >= 101600 && bg.getWidget() == ProgressWidget.INDETERMINATE_BAR) {
+    @SuppressWarnings("unchecked")
+    protected @NotNull AquaUIPainter select(@NotNull Configuration g)
+    {
+        Router<Configuration> r = (Router<Configuration>) routers.get(g.getClass());
+        Route route = r != null ? r.route(g) : Route.DEFAULT;
+        switch (route) {
+            case VIEW:
                 return viewPainter;
-            }
-            return coreUIPainter;
-        } else if (g instanceof TextFieldConfiguration) {
-            TextFieldConfiguration bg = (TextFieldConfiguration) g;
-            TextFieldWidget w = bg.getWidget();
-            if (w != TextFieldWidget.TEXT_FIELD && w != TextFieldWidget.TEXT_FIELD_ROUND) {
+            case CORE_UI:
                 return coreUIPainter;
-            }
-        } else if (g instanceof SliderConfiguration) {
-            SliderConfiguration bg = (SliderConfiguration) g;
-            if (bg.getSize() == Size.MINI) {
-                int platformVersion = JNRPlatformUtils.getPlatformVersion();
-                if (platformVersion < 101500) {
-                    return viewPainter;
-                }
-            }
-            return coreUIPainter;
-        } else if (g instanceof TitleBarConfiguration) {
-            return coreUIPainter;
-        } else if (g instanceof ScrollBarConfiguration) {
-            return coreUIPainter;
+            default:
+                return defaultPainter;
         }
-
-        // The JRS painter does not support the dark appearance.
-        // TBD: check to see if the dark appearance is being used, if possible
-
-        int platformVersion = JNRPlatformUtils.getPlatformVersion();
-        if (platformVersion >= 101400) {
-            return coreUIPainter;
-        }
-
-        return jrsPainter != null ? jrsPainter : coreUIPainter;
     }
 
     @Override
@@ -227,57 +305,73 @@ public class HybridAquaUIPainter
     @Override
     public @Nullable Shape getOutline(@NotNull LayoutConfiguration g)
     {
-        viewPainter.configure(w, h);
-        return viewPainter.getOutline(g);
+        synchronized (viewPainter) {
+            viewPainter.configure(w, h);
+            return viewPainter.getOutline(g);
+        }
     }
 
     @Override
     public @NotNull Rectangle2D getComboBoxEditorBounds(@NotNull ComboBoxLayoutConfiguration g)
     {
-        viewPainter.configure(w, h);
-        return viewPainter.getComboBoxEditorBounds(g);
+        synchronized (viewPainter) {
+            viewPainter.configure(w, h);
+            return viewPainter.getComboBoxEditorBounds(g);
+        }
     }
 
     @Override
     public @NotNull Rectangle2D getComboBoxIndicatorBounds(@NotNull ComboBoxLayoutConfiguration g)
     {
-        viewPainter.configure(w, h);
-        return viewPainter.getComboBoxIndicatorBounds(g);
+        synchronized (viewPainter) {
+            viewPainter.configure(w, h);
+            return viewPainter.getComboBoxIndicatorBounds(g);
+        }
     }
 
     @Override
     public @NotNull Rectangle2D getPopupButtonContentBounds(@NotNull PopupButtonLayoutConfiguration g)
     {
-        viewPainter.configure(w, h);
-        return viewPainter.getPopupButtonContentBounds(g);
+        synchronized (viewPainter) {
+            viewPainter.configure(w, h);
+            return viewPainter.getPopupButtonContentBounds(g);
+        }
     }
 
     @Override
     public @NotNull Rectangle2D getSliderThumbBounds(@NotNull SliderLayoutConfiguration g, double thumbPosition)
     {
-        viewPainter.configure(w, h);
-        return viewPainter.getSliderThumbBounds(g, thumbPosition);
+        synchronized (viewPainter) {
+            viewPainter.configure(w, h);
+            return viewPainter.getSliderThumbBounds(g, thumbPosition);
+        }
     }
 
     @Override
     public double getSliderThumbPosition(@NotNull SliderLayoutConfiguration g, int x, int y)
     {
-        viewPainter.configure(w, h);
-        return viewPainter.getSliderThumbPosition(g, x, y);
+        synchronized (viewPainter) {
+            viewPainter.configure(w, h);
+            return viewPainter.getSliderThumbPosition(g, x, y);
+        }
     }
 
     @Override
     public float getScrollBarThumbPosition(@NotNull ScrollBarThumbLayoutConfiguration g, boolean useExtent)
     {
-        viewPainter.configure(w, h);
-        return viewPainter.getScrollBarThumbPosition(g, useExtent);
+        synchronized (viewPainter) {
+            viewPainter.configure(w, h);
+            return viewPainter.getScrollBarThumbPosition(g, useExtent);
+        }
     }
 
     @Override
     public int getScrollBarThumbHit(@NotNull ScrollBarThumbConfiguration g)
     {
-        viewPainter.configure(w, h);
-        return viewPainter.getScrollBarThumbHit(g);
+        synchronized (viewPainter) {
+            viewPainter.configure(w, h);
+            return viewPainter.getScrollBarThumbHit(g);
+        }
     }
 
     @Override
@@ -285,8 +379,10 @@ public class HybridAquaUIPainter
                                                      double thumbPosition,
                                                      @NotNull Dimension size)
     {
-        viewPainter.configure(w, h);
-        return viewPainter.getSliderLabelBounds(g, thumbPosition, size);
+        synchronized (viewPainter) {
+            viewPainter.configure(w, h);
+            return viewPainter.getSliderLabelBounds(g, thumbPosition, size);
+        }
     }
 
     @Override
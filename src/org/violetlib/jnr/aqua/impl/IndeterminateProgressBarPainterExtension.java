@@ -23,17 +23,25 @@ import org.violetlib.vappearances.VAppearance;
 import org.jetbrains.annotations.*;
 
 /**
-
+  Paints one frame of the animation of an indeterminate progress bar.
 */
 
 public class IndeterminateProgressBarPainterExtension
   implements PainterExtension
 {
+    /**
+      The number of frames in the animation.
+    */
+
+    public static final int FRAME_COUNT = 90; // must agree with VAqua (AquaProgressBarUI)
+
     protected final @NotNull AquaUILayoutInfo uiLayout;
     protected final @NotNull IndeterminateProgressIndicatorConfiguration pg;
     protected final @Nullable Map<String,Color> colors;
     protected final @NotNull Color background;
     protected final @NotNull Color thumb;
+    protected final boolean isVertical;
+    protected final float arc;
 
     public IndeterminateProgressBarPainterExtension(@NotNull AquaUILayoutInfo uiLayout,
                                                     @NotNull IndeterminateProgressIndicatorConfiguration g,
@@ -52,14 +60,13 @@ public class IndeterminateProgressBarPainterExtension
             Color accent = colors != null ? colors.get("controlAccent") : null;
             thumb = accent != null ? accent : Color.LIGHT_GRAY;
         }
+        this.isVertical = pg.getOrientation() == AquaUIPainter.Orientation.VERTICAL;
+        this.arc = pg.getSize() == AquaUIPainter.Size.SMALL ? 3 : 6;
     }
 
     @Override
     public void paint(@NotNull Graphics2D g, float width, float height)
     {
-        boolean isVertical = pg.getOrientation() == AquaUIPainter.Orientation.VERTICAL;
-        float arc = pg.getSize() == AquaUIPainter.Size.SMALL ? 3 : 6;
-
         g = (Graphics2D) g.create();
         g.clip(new Rectangle2D.Float(0, 0, width, height));
 
@@ -68,10 +75,9 @@ public class IndeterminateProgressBarPainterExtension
 
         g.setColor(thumb);
 
-        int frameCount = 90; // must agree with VAqua (AquaProgressBarUI)
         float length = isVertical ? height : width;
         int segment = (int) (length / 4);
-        float interval = (length + segment) / frameCount;
+        float interval = (length + segment) / FRAME_COUNT;
         int animationFrame = pg.getAnimationFrame();
         int position1 = (int) Math.floor(interval * animationFrame - segment);
         int position2 = (int) Math.ceil(position1 + segment);
@@ -19,6 +19,7 @@ import org.violetlib.jnr.aqua.AquaUILayoutInfo;
 import org.violetlib.jnr.aqua.AquaUIPainter;
 import org.violetlib.jnr.aqua.AquaUIPainter.ScrollBarKnobWidget;
 import org.violetlib.jnr.aqua.ScrollBarConfiguration;
+import org.violetlib.jnr.impl.ColorKey;
 import org.violetlib.jnr.impl.Colors;
 import org.violetlib.jnr.impl.PainterExtension;
 import org.violetlib.vappearances.VAppearance;
@@ -136,12 +137,12 @@ public class LegacyScrollBarPainterExtension
 
     protected @Nullable Color getInnerBorderColor()
     {
-        return colors.getOptional("legacyScrollBarInnerBorder");
+        return colors.getOptional(ColorKey.LEGACY_SCROLL_BAR_INNER_BORDER);
     }
 
     protected @Nullable Color getOuterBorderColor()
     {
-        return colors.getOptional("legacyScrollBarOuterBorder");
+        return colors.getOptional(ColorKey.LEGACY_SCROLL_BAR_OUTER_BORDER);
     }
 
     protected float getThumbBorderThickness()
@@ -151,28 +152,28 @@ public class LegacyScrollBarPainterExtension
 
     protected @NotNull Color getTrackBackgroundColor()
     {
-        return colors.get("legacyScrollBarTrack");
+        return colors.get(ColorKey.LEGACY_SCROLL_BAR_TRACK);
     }
 
     protected @NotNull Color getThumbColor()
     {
         if (isRollover) {
-            Color c = colors.getOptional("legacyScrollBarThumb_rollover");
+            Color c = colors.getOptional(ColorKey.LEGACY_SCROLL_BAR_THUMB_ROLLOVER);
             if (c != null) {
                 return c;
             }
         }
-        return colors.get("legacyScrollBarThumb");
+        return colors.get(ColorKey.LEGACY_SCROLL_BAR_THUMB);
     }
 
     protected @Nullable Color getThumbBorderColor()
     {
         if (isRollover) {
-            Color c = colors.getOptional("legacyScrollBarThumbBorder_rollover");
+            Color c = colors.getOptional(ColorKey.LEGACY_SCROLL_BAR_THUMB_BORDER_ROLLOVER);
             if (c != null) {
                 return c;
             }
         }
-        return colors.getOptional("legacyScrollBarThumbBorder");
+        return colors.getOptional(ColorKey.LEGACY_SCROLL_BAR_THUMB_BORDER);
     }
 }
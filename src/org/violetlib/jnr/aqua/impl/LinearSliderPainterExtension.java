@@ -15,6 +15,7 @@ import java.awt.geom.Rectangle2D;
 import org.violetlib.jnr.aqua.AquaUILayoutInfo;
 import org.violetlib.jnr.aqua.AquaUIPainter;
 import org.violetlib.jnr.aqua.SliderConfiguration;
+import org.violetlib.jnr.impl.ColorKey;
 import org.violetlib.jnr.impl.Colors;
 import org.violetlib.jnr.impl.JNRUtils;
 import org.violetlib.jnr.impl.PainterExtension;
@@ -54,7 +55,7 @@ public class LinearSliderPainterExtension
 
     protected void paintLinearTickMarks(@NotNull Graphics2D g, float width, float height)
     {
-        Color tickColor = colors.get("linearSliderTick");
+        Color tickColor = colors.get(ColorKey.LINEAR_SLIDER_TICK);
 
         AquaUIPainter.SliderWidget sw = sg.getWidget();
         AquaUIPainter.Size sz = sg.getSize();
@@ -66,14 +66,15 @@ public class LinearSliderRenderer
     {
         float w = compositor.getWidth();
         float h = compositor.getHeight();
-        Rectangle2D trackBounds = trackInsets.apply2D(w, h);
+        Rectangle2D.Float bounds = new Rectangle2D.Float();
+        trackInsets.applyTo(w, h, bounds);
 
         {
-            Renderer r = Renderer.createOffsetRenderer(trackRenderer, trackBounds);
+            Renderer r = Renderer.createOffsetRenderer(trackRenderer, bounds);
             r.composeTo(compositor);
             if (tickMarkRenderer != null && tickMarkInsets != null) {
-                Rectangle2D tickMarkBounds = tickMarkInsets.apply2D(w, h);
-                Renderer tr = Renderer.createOffsetRenderer(tickMarkRenderer, tickMarkBounds);
+                tickMarkInsets.applyTo(w, h, bounds);
+                Renderer tr = Renderer.createOffsetRenderer(tickMarkRenderer, bounds);
                 if (tickOperator != null) {
                     ReusableCompositor mask = compositor.createSimilar();
                     tr.composeTo(mask);
@@ -85,8 +86,8 @@ public class LinearSliderRenderer
         }
 
         {
-            Rectangle2D thumbBounds = thumbInsets.apply2D(w, h);
-            Renderer r = Renderer.createOffsetRenderer(thumbRenderer, thumbBounds);
+            thumbInsets.applyTo(w, h, bounds);
+            Renderer r = Renderer.createOffsetRenderer(thumbRenderer, bounds);
 
             // If a translucent thumb is directly painted, the track will show through.
             // Instead, the non-transparent thumb pixels must be copied into the raster.
@@ -19,6 +19,7 @@ import org.violetlib.jnr.aqua.AquaUILayoutInfo;
 import org.violetlib.jnr.aqua.AquaUIPainter;
 import org.violetlib.jnr.aqua.AquaUIPainter.ScrollBarKnobWidget;
 import org.violetlib.jnr.aqua.ScrollBarConfiguration;
+import org.violetlib.jnr.impl.ColorKey;
 import org.violetlib.jnr.impl.Colors;
 import org.violetlib.jnr.impl.PainterExtension;
 import org.violetlib.vappearances.VAppearance;
@@ -157,12 +158,12 @@ public class OverlayScrollBarPainterExtension
 
     protected @Nullable Color getInnerBorderColor()
     {
-        return colors.get("overlayScrollTrackBorder");
+        return colors.get(ColorKey.OVERLAY_SCROLL_TRACK_BORDER);
     }
 
     protected @Nullable Color getOuterBorderColor()
     {
-        return colors.get("overlayScrollTrackBorder");
+        return colors.get(ColorKey.OVERLAY_SCROLL_TRACK_BORDER);
     }
 
     protected float getThumbBorderThickness()
@@ -177,30 +178,30 @@ public class OverlayScrollBarPainterExtension
 
     protected @NotNull Color getTrackBackgroundColor()
     {
-        return colors.get("overlayScrollTrack");
+        return colors.get(ColorKey.OVERLAY_SCROLL_TRACK);
     }
 
     protected @NotNull Color getThumbColor()
     {
         if (isRollover) {
-            Color c = colors.getOptional("overlayThumb_rollover");
+            Color c = colors.getOptional(ColorKey.OVERLAY_THUMB_ROLLOVER);
             if (c != null) {
                 return c;
             }
         }
 
-        return colors.get("overlayThumb");
+        return colors.get(ColorKey.OVERLAY_THUMB);
     }
 
     protected @Nullable Color getThumbBorderColor()
     {
         if (isRollover) {
-            Color c = colors.getOptional("overlayThumbBorder_rollover");
+            Color c = colors.getOptional(ColorKey.OVERLAY_THUMB_BORDER_ROLLOVER);
             if (c != null) {
                 return c;
             }
         }
 
-        return colors.getOptional("overlayThumbBorder");
+        return colors.getOptional(ColorKey.OVERLAY_THUMB_BORDER);
     }
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.aqua.impl;
+
+import org.jetbrains.annotations.*;
+
+/**
+  An event read from a paint trace.
+
+  @see PaintTraceRecorder
+  @see PaintTraceReader
+*/
+
+public final class PaintTraceEvent
+{
+    /**
+      A description of a recorded configuration.
+    */
+
+    public static final class ConfigurationRecord
+    {
+        private final int id;
+        private final @NotNull String className;
+        private final @NotNull String description;
+
+        public ConfigurationRecord(int id, @NotNull String className, @NotNull String description)
+        {
+            this.id = id;
+            this.className = className;
+            this.description = description;
+        }
+
+        /**
+          Return the ID of the configuration, which is unique within a trace.
+        */
+
+        public int getID()
+        {
+            return id;
+        }
+
+        /**
+          Return the name of the configuration class.
+        */
+
+        public @NotNull String getClassName()
+        {
+            return className;
+        }
+
+        /**
+          Return the string representation of the configuration.
+        */
+
+        public @NotNull String getDescription()
+        {
+            return description;
+        }
+
+        @Override
+        public @NotNull String toString()
+        {
+            return description;
+        }
+    }
+
+    private final int kind;
+    private final @NotNull ConfigurationRecord configuration;
+    private final @Nullable String appearanceName;
+    private final @NotNull String threadName;
+    private final long time;
+    private final int scaleFactor;
+    private final int width;
+    private final int height;
+    private final int cacheOutcome;
+    private final long elapsedNanos;
+
+    public PaintTraceEvent(int kind,
+                           @NotNull ConfigurationRecord configuration,
+                           @Nullable String appearanceName,
+                           @NotNull String threadName,
+                           long time,
+                           int scaleFactor,
+                           int width,
+                           int height,
+                           int cacheOutcome,
+                           long elapsedNanos)
+    {
+        this.kind = kind;
+        this.configuration = configuration;
+        this.appearanceName = appearanceName;
+        this.threadName = threadName;
+        this.time = time;
+        this.scaleFactor = scaleFactor;
+        this.width = width;
+        this.height = height;
+        this.cacheOutcome = cacheOutcome;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+      Return the kind of event: {@link PaintTraceRecorder#GET_PAINTER} or {@link PaintTraceRecorder#PAINT}.
+    */
+
+    public int getKind()
+    {
+        return kind;
+    }
+
+    public boolean isPaint()
+    {
+        return kind == PaintTraceRecorder.PAINT;
+    }
+
+    public @NotNull ConfigurationRecord getConfiguration()
+    {
+        return configuration;
+    }
+
+    /**
+      Return the name of the appearance, or null if no appearance was configured.
+    */
+
+    public @Nullable String getAppearanceName()
+    {
+        return appearanceName;
+    }
+
+    public @NotNull String getThreadName()
+    {
+        return threadName;
+    }
+
+    /**
+      Return the time of the event, in nanoseconds since the start of recording.
+    */
+
+    public long getTime()
+    {
+        return time;
+    }
+
+    /**
+      Return the scale factor of a paint event. Painter requests return zero.
+    */
+
+    public int getScaleFactor()
+    {
+        return scaleFactor;
+    }
+
+    /**
+      Return the width. For a painter request, this is the configured width. For a paint event, this is the width of
+      the image, in device independent pixels.
+    */
+
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+      Return the height. For a painter request, this is the configured height. For a paint event, this is the height of
+      the image, in device independent pixels.
+    */
+
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+      Return the recorded image cache outcome of a paint event, as defined by
+      {@link org.violetlib.jnr.impl.CachingRendererPainter}.
+    */
+
+    public int getCacheOutcome()
+    {
+        return cacheOutcome;
+    }
+
+    /**
+      Return the recorded duration of the event, in nanoseconds.
+    */
+
+    public long getElapsedNanos()
+    {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.aqua.impl;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.*;
+
+import static org.violetlib.jnr.aqua.impl.PaintTraceRecorder.*;
+
+/**
+  Reads a paint trace written by {@link PaintTraceRecorder}. The reader does not use native code.
+*/
+
+public final class PaintTraceReader
+{
+    /**
+      Read a paint trace.
+
+      @param s The input stream. The stream is not closed.
+      @return the events, in the order they were recorded.
+      @throws IOException if the trace could not be read or is invalid.
+    */
+
+    public static @NotNull List<PaintTraceEvent> read(@NotNull InputStream s)
+      throws IOException
+    {
+        return new PaintTraceReader(s).readEvents();
+    }
+
+    private final @NotNull DataInputStream in;
+    private final @NotNull Map<Integer,PaintTraceEvent.ConfigurationRecord> configurations = new HashMap<>();
+    private final @NotNull Map<Integer,String> appearances = new HashMap<>();
+    private final @NotNull Map<Integer,String> threads = new HashMap<>();
+    private long lastTime;
+
+    private PaintTraceReader(@NotNull InputStream s)
+    {
+        this.in = new DataInputStream(new BufferedInputStream(s));
+    }
+
+    private @NotNull List<PaintTraceEvent> readEvents()
+      throws IOException
+    {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a paint trace");
+        }
+        int version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported paint trace version: " + version);
+        }
+
+        List<PaintTraceEvent> result = new ArrayList<>();
+        for (;;) {
+            int tag = in.read();
+            if (tag < 0) {
+                return Collections.unmodifiableList(result);
+            }
+            try {
+                switch (tag) {
+                    case DEFINE_CONFIGURATION:
+                    {
+                        int id = readVarInt();
+                        String className = in.readUTF();
+                        String description = in.readUTF();
+                        configurations.put(id, new PaintTraceEvent.ConfigurationRecord(id, className, description));
+                        break;
+                    }
+                    case DEFINE_APPEARANCE:
+                    {
+                        int id = readVarInt();
+                        appearances.put(id, in.readUTF());
+                        break;
+                    }
+                    case DEFINE_THREAD:
+                    {
+                        int id = readVarInt();
+                        threads.put(id, in.readUTF());
+                        break;
+                    }
+                    case GET_PAINTER:
+                    {
+                        PaintTraceEvent.ConfigurationRecord g = getConfiguration(readVarInt());
+                        String appearanceName = getAppearanceName(readVarInt());
+                        String threadName = getThreadName(readVarInt());
+                        long time = readTime();
+                        int width = readVarInt();
+                        int height = readVarInt();
+                        long elapsed = readVarLong();
+                        result.add(new PaintTraceEvent(GET_PAINTER, g, appearanceName, threadName, time,
+                          0, width, height, 0, elapsed));
+                        break;
+                    }
+                    case PAINT:
+                    {
+                        PaintTraceEvent.ConfigurationRecord g = getConfiguration(readVarInt());
+                        String appearanceName = getAppearanceName(readVarInt());
+                        String threadName = getThreadName(readVarInt());
+                        long time = readTime();
+                        int scaleFactor = in.readUnsignedByte();
+                        int width = readVarInt();
+                        int height = readVarInt();
+                        int cacheOutcome = in.readUnsignedByte();
+                        long elapsed = readVarLong();
+                        result.add(new PaintTraceEvent(PAINT, g, appearanceName, threadName, time,
+                          scaleFactor, width, height, cacheOutcome, elapsed));
+                        break;
+                    }
+                    default:
+                        throw new IOException("Invalid paint trace record: " + tag);
+                }
+            } catch (EOFException ex) {
+                // A trace that was not closed properly may end with an incomplete record
+                return Collections.unmodifiableList(result);
+            }
+        }
+    }
+
+    private @NotNull PaintTraceEvent.ConfigurationRecord getConfiguration(int id)
+      throws IOException
+    {
+        PaintTraceEvent.ConfigurationRecord g = configurations.get(id);
+        if (g == null) {
+            throw new IOException("Undefined configuration: " + id);
+        }
+        return g;
+    }
+
+    private @Nullable String getAppearanceName(int id)
+      throws IOException
+    {
+        if (id == 0) {
+            return null;
+        }
+        String name = appearances.get(id);
+        if (name == null) {
+            throw new IOException("Undefined appearance: " + id);
+        }
+        return name;
+    }
+
+    private @NotNull String getThreadName(int id)
+      throws IOException
+    {
+        String name = threads.get(id);
+        if (name == null) {
+            throw new IOException("Undefined thread: " + id);
+        }
+        return name;
+    }
+
+    private long readTime()
+      throws IOException
+    {
+        long n = readVarLong();
+        long delta = (n >>> 1) ^ -(n & 1);
+        lastTime += delta;
+        return lastTime;
+    }
+
+    private int readVarInt()
+      throws IOException
+    {
+        return (int) readVarLong();
+    }
+
+    private long readVarLong()
+      throws IOException
+    {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Invalid variable length integer");
+    }
+}
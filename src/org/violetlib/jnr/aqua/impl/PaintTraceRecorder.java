@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.aqua.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.violetlib.jnr.aqua.Configuration;
+import org.violetlib.vappearances.VAppearance;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Records the paint traffic of an application as a compact binary trace. Two kinds of events are recorded: requests for
+  a painter (see {@link AquaUIPainterBase#getPainter(Configuration)}) and requests for the image drawn by a painter
+  (see {@link AquaRenderedPainter}). Each event identifies the configuration, size, appearance, thread, and time. Paint
+  events also include the scale factor and the image cache outcome. A trace can be read using
+  {@link PaintTraceReader} and replayed using the replay harness in the evaluation package.
+
+  <p>
+  Configurations, appearances, and threads are written once, when first encountered, and are thereafter identified by
+  small integers. Configurations are described by their class name and their string representation.
+
+  <p>
+  At most one recorder is active at a time.
+*/
+
+public final class PaintTraceRecorder
+{
+    public static final int MAGIC = 0x4A4E5254;  // JNRT
+    public static final int VERSION = 1;
+
+    // Record tags
+
+    public static final int DEFINE_CONFIGURATION = 1;
+    public static final int DEFINE_APPEARANCE = 2;
+    public static final int DEFINE_THREAD = 3;
+    public static final int GET_PAINTER = 4;
+    public static final int PAINT = 5;
+
+    private static volatile @Nullable PaintTraceRecorder activeRecorder;
+
+    /**
+      Start recording. Any previously active recorder is stopped.
+
+      @param s The output stream where the trace is written. The stream is closed when recording stops.
+      @return the recorder.
+      @throws IOException if the trace header could not be written.
+    */
+
+    public static synchronized @NotNull PaintTraceRecorder start(@NotNull OutputStream s)
+      throws IOException
+    {
+        stopRecording();
+        PaintTraceRecorder r = new PaintTraceRecorder(s);
+        activeRecorder = r;
+        return r;
+    }
+
+    /**
+      Stop recording, if a recorder is active.
+    */
+
+    public static synchronized void stopRecording()
+    {
+        PaintTraceRecorder r = activeRecorder;
+        if (r != null) {
+            activeRecorder = null;
+            r.close();
+        }
+    }
+
+    /**
+      Return the active recorder, if any.
+    */
+
+    public static @Nullable PaintTraceRecorder getActiveRecorder()
+    {
+        return activeRecorder;
+    }
+
+    public static boolean isRecording()
+    {
+        return activeRecorder != null;
+    }
+
+    private final @NotNull DataOutputStream out;
+    private final @NotNull Map<Configuration,Integer> configurations = new HashMap<>();
+    private final @NotNull Map<String,Integer> appearances = new HashMap<>();
+    private final @NotNull Map<Long,Integer> threads = new HashMap<>();  // keyed by thread ID
+    private final long startTime;
+    private long lastTime;
+    private int eventCount;
+    private boolean isClosed;
+
+    private PaintTraceRecorder(@NotNull OutputStream s)
+      throws IOException
+    {
+        this.out = new DataOutputStream(new BufferedOutputStream(s));
+        this.startTime = System.nanoTime();
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+    }
+
+    /**
+      Return the number of events recorded.
+    */
+
+    public synchronized int getEventCount()
+    {
+        return eventCount;
+    }
+
+    /**
+      Record a painter request.
+
+      @param g The configuration.
+      @param appearance The appearance.
+      @param width The configured width.
+      @param height The configured height.
+      @param requestTime The value of {@link System#nanoTime} when the request started.
+      @param elapsedNanos The time required to create the painter.
+    */
+
+    public synchronized void recordGetPainter(@NotNull Configuration g,
+                                              @Nullable VAppearance appearance,
+                                              int width,
+                                              int height,
+                                              long requestTime,
+                                              long elapsedNanos)
+    {
+        if (!isClosed) {
+            try {
+                int configurationID = getConfigurationID(g);
+                int appearanceID = getAppearanceID(appearance);
+                int threadID = getThreadID();
+                out.writeByte(GET_PAINTER);
+                writeVarInt(configurationID);
+                writeVarInt(appearanceID);
+                writeVarInt(threadID);
+                writeTime(requestTime);
+                writeVarInt(width);
+                writeVarInt(height);
+                writeVarLong(elapsedNanos);
+                eventCount++;
+            } catch (IOException ex) {
+                fail(ex);
+            }
+        }
+    }
+
+    /**
+      Record an image request made when painting.
+
+      @param g The configuration.
+      @param appearance The appearance.
+      @param scaleFactor The scale factor.
+      @param width The image width, in device independent pixels.
+      @param height The image height, in device independent pixels.
+      @param cacheOutcome The image cache outcome, as defined by {@link org.violetlib.jnr.impl.CachingRendererPainter}.
+      @param requestTime The value of {@link System#nanoTime} when the request started.
+      @param elapsedNanos The time required to provide the image.
+    */
+
+    public synchronized void recordPaint(@NotNull Configuration g,
+                                         @Nullable VAppearance appearance,
+                                         int scaleFactor,
+                                         int width,
+                                         int height,
+                                         int cacheOutcome,
+                                         long requestTime,
+                                         long elapsedNanos)
+    {
+        if (!isClosed) {
+            try {
+                int configurationID = getConfigurationID(g);
+                int appearanceID = getAppearanceID(appearance);
+                int threadID = getThreadID();
+                out.writeByte(PAINT);
+                writeVarInt(configurationID);
+                writeVarInt(appearanceID);
+                writeVarInt(threadID);
+                writeTime(requestTime);
+                out.writeByte(scaleFactor);
+                writeVarInt(width);
+                writeVarInt(height);
+                out.writeByte(cacheOutcome);
+                writeVarLong(elapsedNanos);
+                eventCount++;
+            } catch (IOException ex) {
+                fail(ex);
+            }
+        }
+    }
+
+    private synchronized void close()
+    {
+        if (!isClosed) {
+            isClosed = true;
+            try {
+                out.close();
+            } catch (IOException ex) {
+                NativeSupport.log("Unable to close paint trace: " + ex);
+            }
+        }
+    }
+
+    private void fail(@NotNull IOException ex)
+    {
+        NativeSupport.log("Paint trace recording failed: " + ex);
+        close();
+        if (activeRecorder == this) {
+            activeRecorder = null;
+        }
+    }
+
+    private int getConfigurationID(@NotNull Configuration g)
+      throws IOException
+    {
+        Integer id = configurations.get(g);
+        if (id == null) {
+            id = configurations.size();
+            configurations.put(g, id);
+            out.writeByte(DEFINE_CONFIGURATION);
+            writeVarInt(id);
+            out.writeUTF(g.getClass().getName());
+            out.writeUTF(g.toString());
+        }
+        return id;
+    }
+
+    private int getAppearanceID(@Nullable VAppearance appearance)
+      throws IOException
+    {
+        // Appearance ID zero means no appearance
+        if (appearance == null) {
+            return 0;
+        }
+        String name = appearance.getName();
+        Integer id = appearances.get(name);
+        if (id == null) {
+            id = appearances.size() + 1;
+            appearances.put(name, id);
+            out.writeByte(DEFINE_APPEARANCE);
+            writeVarInt(id);
+            out.writeUTF(name);
+        }
+        return id;
+    }
+
+    private int getThreadID()
+      throws IOException
+    {
+        Thread t = Thread.currentThread();
+        Integer id = threads.get(t.getId());
+        if (id == null) {
+            id = threads.size();
+            threads.put(t.getId(), id);
+            out.writeByte(DEFINE_THREAD);
+            writeVarInt(id);
+            out.writeUTF(t.getName());
+        }
+        return id;
+    }
+
+    private void writeTime(long time)
+      throws IOException
+    {
+        // Times are written as a zig-zag encoded delta from the previous event, because events recorded by different
+        // threads may be written out of order.
+
+        long t = time - startTime;
+        long delta = t - lastTime;
+        lastTime = t;
+        writeVarLong((delta << 1) ^ (delta >> 63));
+    }
+
+    private void writeVarInt(int n)
+      throws IOException
+    {
+        writeVarLong(n & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(long n)
+      throws IOException
+    {
+        while ((n & ~0x7FL) != 0) {
+            out.writeByte((int) ((n & 0x7F) | 0x80));
+            n >>>= 7;
+        }
+        out.writeByte((int) n);
+    }
+}
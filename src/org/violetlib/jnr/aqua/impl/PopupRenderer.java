@@ -50,7 +50,8 @@ public class PopupRenderer
             buttonRenderer.composeTo(compositor);
         }
 
-        Rectangle2D bounds = arrowsInsets.apply2D(w, h);
+        Rectangle2D.Float bounds = new Rectangle2D.Float();
+        arrowsInsets.applyTo(w, h, bounds);
         Renderer r = Renderer.createOffsetRenderer(arrowsRenderer, bounds);
         r.composeTo(compositor);
     }
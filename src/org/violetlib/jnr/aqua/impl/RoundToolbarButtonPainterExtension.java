@@ -18,6 +18,7 @@ import org.violetlib.jnr.aqua.AquaUIPainter;
 import org.violetlib.jnr.aqua.AquaUIPainter.ButtonState;
 import org.violetlib.jnr.aqua.AquaUIPainter.State;
 import org.violetlib.jnr.aqua.ButtonConfiguration;
+import org.violetlib.jnr.impl.ColorKey;
 import org.violetlib.jnr.impl.Colors;
 import org.violetlib.jnr.impl.PainterExtension;
 import org.violetlib.vappearances.VAppearance;
@@ -69,15 +70,13 @@ public class RoundToolbarButtonPainterExtension
 
     protected @NotNull Color getColor()
     {
-        String colorName = "toolbarButton";
         State state = bg.getState();
         ButtonState buttonState = bg.getButtonState();
-        if (buttonState == ButtonState.ON || buttonState == ButtonState.MIXED) {
-            colorName = colorName + "Selected";
-        }
-        if (state == AquaUIPainter.State.PRESSED) {
-            colorName = colorName + "Pressed";
-        }
-        return colors.get(colorName);
+        boolean isSelected = buttonState == ButtonState.ON || buttonState == ButtonState.MIXED;
+        boolean isPressed = state == AquaUIPainter.State.PRESSED;
+        ColorKey key = isSelected
+                         ? (isPressed ? ColorKey.TOOLBAR_BUTTON_SELECTED_PRESSED : ColorKey.TOOLBAR_BUTTON_SELECTED)
+                         : (isPressed ? ColorKey.TOOLBAR_BUTTON_PRESSED : ColorKey.TOOLBAR_BUTTON);
+        return colors.get(key);
     }
 }
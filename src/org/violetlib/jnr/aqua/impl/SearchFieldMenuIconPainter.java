@@ -16,6 +16,7 @@ import java.awt.geom.Rectangle2D;
 import org.violetlib.jnr.Insetter;
 import org.violetlib.jnr.aqua.AquaUIPainter;
 import org.violetlib.jnr.aqua.TextFieldConfiguration;
+import org.violetlib.jnr.impl.ColorKey;
 import org.violetlib.jnr.impl.Colors;
 import org.violetlib.jnr.impl.JNRUtils;
 import org.violetlib.jnr.impl.PainterExtension;
@@ -51,7 +52,7 @@ public class SearchFieldMenuIconPainter
 
         AquaUIPainter.State st = tg.getState();
         boolean isActive = st == AquaUIPainter.State.ACTIVE || st == AquaUIPainter.State.PRESSED || st == AquaUIPainter.State.ROLLOVER;
-        g.setColor(isActive ? colors.get("searchFieldIcon") : colors.get("searchFieldIcon_inactive"));
+        g.setColor(isActive ? colors.get(ColorKey.SEARCH_FIELD_ICON) : colors.get(ColorKey.SEARCH_FIELD_ICON_INACTIVE));
 
         AquaUIPainter.Size sz = tg.getSize();
 
@@ -13,6 +13,7 @@ import java.awt.Graphics2D;
 import java.awt.Shape;
 import java.awt.geom.Ellipse2D;
 
+import org.violetlib.jnr.impl.ColorKey;
 import org.violetlib.jnr.impl.Colors;
 import org.violetlib.jnr.impl.JNRPlatformUtils;
 import org.violetlib.vappearances.VAppearance;
@@ -56,10 +57,10 @@ public class SliderCircularIndicatorPainter
         double y0 = y - Math.sin(angle) * radius;
         Shape s = new Ellipse2D.Double(x0 - d / 2, y0 - d / 2, d, d);
 
-        g.setColor(colors.get("circularSliderDimple"));
+        g.setColor(colors.get(ColorKey.CIRCULAR_SLIDER_DIMPLE));
         g.fill(s);
 
-        Color top = colors.getOptional("circularSliderDimpleTop");
+        Color top = colors.getOptional(ColorKey.CIRCULAR_SLIDER_DIMPLE_TOP);
         if (top != null) {
             int platformVersion = JNRPlatformUtils.getPlatformVersion();
             if (platformVersion < 101400) {
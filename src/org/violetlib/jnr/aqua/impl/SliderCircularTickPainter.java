@@ -11,12 +11,13 @@ package org.violetlib.jnr.aqua.impl;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Shape;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 
 import org.jetbrains.annotations.*;
 
 /**
-  Paint tick marks for a horizontal slider.
+  Paint tick marks for a circular slider.
 */
 
 public class SliderCircularTickPainter
@@ -54,27 +55,38 @@ public class SliderCircularTickPainter
 
     public void paint(@NotNull Graphics2D g)
     {
+        // The tick marks do not overlap, so they can be filled as a single shape.
+
         g.setColor(color);
+        g.fill(getTicks());
+    }
+
+    /**
+      Return a shape containing all of the tick marks.
+    */
+
+    public @NotNull Shape getTicks()
+    {
+        Path2D.Double ticks = new Path2D.Double(Path2D.WIND_NON_ZERO, 5 * tickCount);
 
         if (tickCount == 1) {
-            drawTick(g, p0);
+            addTick(ticks, p0);
         } else {
             double spacing = (p1 - p0) / tickCount;
             double p = p0;
             for (int i = 0; i < tickCount; i++) {
-                drawTick(g, p);
+                addTick(ticks, p);
                 p += spacing;
             }
         }
+        return ticks;
     }
 
-    protected void drawTick(@NotNull Graphics2D g, double thumbPosition)
+    protected void addTick(@NotNull Path2D ticks, double thumbPosition)
     {
         double angle = zeroAngle - thumbPosition * 2 * Math.PI;
         double x0 = x + Math.cos(angle) * radius - w/2;
         double y0 = y - Math.sin(angle) * radius - h/2;
-        g.setColor(color);
-        Shape s = new Rectangle2D.Double(x0, y0, w, h);
-        g.fill(s);
+        ticks.append(new Rectangle2D.Double(x0, y0, w, h), false);
     }
 }
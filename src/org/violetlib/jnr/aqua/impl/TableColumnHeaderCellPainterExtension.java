@@ -16,6 +16,7 @@ import java.awt.geom.Rectangle2D;
 
 import org.violetlib.jnr.aqua.AquaUIPainter;
 import org.violetlib.jnr.aqua.TableColumnHeaderConfiguration;
+import org.violetlib.jnr.impl.ColorKey;
 import org.violetlib.jnr.impl.Colors;
 import org.violetlib.jnr.impl.ImageUtils;
 import org.violetlib.jnr.impl.PainterExtension;
@@ -74,7 +75,7 @@ public class TableColumnHeaderCellPainterExtension
             float x0 = width - 1;
             float y0 = dividerGap;
             Rectangle2D r = new Rectangle2D.Float(x0, y0, 1, dividerHeight);
-            g.setColor(colors.get("tableHeaderDivider"));
+            g.setColor(colors.get(ColorKey.TABLE_HEADER_DIVIDER));
             g.fill(r);
         }
 
@@ -15,6 +15,7 @@ import java.awt.Shape;
 import java.awt.geom.Ellipse2D;
 
 import org.violetlib.jnr.aqua.SplitPaneDividerConfiguration;
+import org.violetlib.jnr.impl.ColorKey;
 import org.violetlib.jnr.impl.Colors;
 import org.violetlib.jnr.impl.PainterExtension;
 import org.violetlib.vappearances.VAppearance;
@@ -43,8 +44,8 @@ public class ThickSplitPaneDividerPainterExtension
     {
         // TBD: shadow
 
-        Color dimpleColor = colors.get("thickDividerDimple");
-        Color dimpleBorderColor = colors.getOptional("thickDividerDimpleBorder");
+        Color dimpleColor = colors.get(ColorKey.THICK_DIVIDER_DIMPLE);
+        Color dimpleBorderColor = colors.getOptional(ColorKey.THICK_DIVIDER_DIMPLE_BORDER);
 
         float d = 6;
         float x = (width - d) / 2;
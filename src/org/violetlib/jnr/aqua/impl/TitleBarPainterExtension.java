@@ -24,6 +24,7 @@ import org.violetlib.jnr.aqua.AquaUIPainter.TitleBarButtonWidget;
 import org.violetlib.jnr.aqua.AquaUIPainter.TitleBarWidget;
 import org.violetlib.jnr.aqua.TitleBarConfiguration;
 import org.violetlib.jnr.aqua.TitleBarConfiguration.ResizeAction;
+import org.violetlib.jnr.impl.ColorKey;
 import org.violetlib.jnr.impl.Colors;
 import org.violetlib.jnr.impl.PainterExtension;
 import org.violetlib.vappearances.VAppearance;
@@ -100,13 +101,13 @@ public class TitleBarPainterExtension
             switch (bw)
             {
                 case CLOSE_BOX:
-                    g.setPaint(colors.get("titleBarCloseButton"));
+                    g.setPaint(colors.get(ColorKey.TITLE_BAR_CLOSE_BUTTON));
                     break;
                 case MINIMIZE_BOX:
-                    g.setPaint(colors.get("titleBarMinimizeButton"));
+                    g.setPaint(colors.get(ColorKey.TITLE_BAR_MINIMIZE_BUTTON));
                     break;
                 case RESIZE_BOX:
-                    g.setPaint(colors.get("titleBarResizeButton"));
+                    g.setPaint(colors.get(ColorKey.TITLE_BAR_RESIZE_BUTTON));
             }
             g.fill(s);
 
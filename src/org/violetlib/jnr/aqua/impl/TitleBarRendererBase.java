@@ -58,22 +58,24 @@ public abstract class TitleBarRendererBase
             r.composeTo(compositor);
         }
 
+        Rectangle2D.Float bounds = new Rectangle2D.Float();
+
         if (closeButtonInsets != null) {
-            Rectangle2D bounds = closeButtonInsets.apply2D(w, h);
+            closeButtonInsets.applyTo(w, h, bounds);
             Renderer br = getButtonRenderer(AquaUIPainter.TitleBarButtonWidget.CLOSE_BOX);
             Renderer r = Renderer.createOffsetRenderer(br, bounds);
             r.composeTo(compositor);
         }
 
         if (minimizeButtonInsets != null) {
-            Rectangle2D bounds = minimizeButtonInsets.apply2D(w, h);
+            minimizeButtonInsets.applyTo(w, h, bounds);
             Renderer br = getButtonRenderer(AquaUIPainter.TitleBarButtonWidget.MINIMIZE_BOX);
             Renderer r = Renderer.createOffsetRenderer(br, bounds);
             r.composeTo(compositor);
         }
 
         if (resizeButtonInsets != null) {
-            Rectangle2D bounds = resizeButtonInsets.apply2D(w, h);
+            resizeButtonInsets.applyTo(w, h, bounds);
             Renderer br = getButtonRenderer(AquaUIPainter.TitleBarButtonWidget.RESIZE_BOX);
             Renderer r = Renderer.createOffsetRenderer(br, bounds);
             r.composeTo(compositor);
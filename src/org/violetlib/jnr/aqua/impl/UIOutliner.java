@@ -10,8 +10,14 @@ package org.violetlib.jnr.aqua.impl;
 
 import java.awt.Shape;
 import java.awt.geom.Rectangle2D;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 
+import org.violetlib.geom.ExpandableOutline;
+import org.violetlib.geom.GeneralRoundRectangle;
 import org.violetlib.jnr.aqua.*;
+import org.violetlib.jnr.impl.ClassDispatcher;
 
 import org.jetbrains.annotations.*;
 
@@ -21,92 +27,163 @@ import org.jetbrains.annotations.*;
 
 public abstract class UIOutliner
 {
-    public @Nullable Shape getOutline(@NotNull Rectangle2D bounds, @NotNull LayoutConfiguration g)
-      throws UnsupportedOperationException
-    {
-        if (g instanceof ButtonLayoutConfiguration) {
-            ButtonLayoutConfiguration gg = (ButtonLayoutConfiguration) g;
-            return getButtonOutline(bounds, gg);
-        }
+    /*
+      Outlines depend only upon the layout configuration, the size of the bounds, and the platform UI, which is fixed
+      for an instance of this class. Outlines are translation invariant for integral translations, so an outline is
+      computed once at the origin and translated as needed. The cached outlines are never returned; the caller receives
+      a translated copy of the same type, which preserves the expansion behavior of ExpandableOutline. Caching can be
+      disabled by setting the system property VAqua.cacheOutlines to false.
+    */
 
-        if (g instanceof ComboBoxLayoutConfiguration) {
-            ComboBoxLayoutConfiguration gg = (ComboBoxLayoutConfiguration) g;
-            return getComboBoxOutline(bounds, gg);
-        }
+    private static final boolean isOutlineCachingEnabled = !"false".equals(System.getProperty("VAqua.cacheOutlines"));
 
-        if (g instanceof PopupButtonLayoutConfiguration) {
-            PopupButtonLayoutConfiguration gg = (PopupButtonLayoutConfiguration) g;
-            return getPopUpButtonOutline(bounds, gg);
-        }
+    private static final int MAXIMUM_CACHED_OUTLINE_COUNT = 1000;
 
-        if (g instanceof TitleBarLayoutConfiguration) {
-            TitleBarLayoutConfiguration gg = (TitleBarLayoutConfiguration) g;
-            return getTitleBarOutline(bounds, gg);
-        }
+    private static final @NotNull Shape NO_OUTLINE = new Rectangle2D.Double();
 
-        if (g instanceof SliderThumbLayoutConfiguration) {
-            SliderThumbLayoutConfiguration gg = (SliderThumbLayoutConfiguration) g;
-            return getSliderThumbOutline(bounds, gg);
+    private static final class OutlineKey
+    {
+        private final @NotNull LayoutConfiguration g;
+        private final double width;
+        private final double height;
+
+        public OutlineKey(@NotNull LayoutConfiguration g, double width, double height)
+        {
+            this.g = g;
+            this.width = width;
+            this.height = height;
         }
 
-        if (g instanceof SliderLayoutConfiguration) {
-            SliderLayoutConfiguration gg = (SliderLayoutConfiguration) g;
-            return getSliderOutline(bounds, gg);
+        @Override
+        public boolean equals(@Nullable Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof OutlineKey)) {
+                return false;
+            }
+            OutlineKey that = (OutlineKey) o;
+            return width == that.width && height == that.height && g.equals(that.g);
         }
 
-        if (g instanceof SpinnerArrowsLayoutConfiguration) {
-            SpinnerArrowsLayoutConfiguration gg = (SpinnerArrowsLayoutConfiguration) g;
-            return getSpinnerArrowsOutline(bounds, gg);
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(g, width, height);
         }
+    }
 
-        if (g instanceof SplitPaneDividerLayoutConfiguration) {
-            SplitPaneDividerLayoutConfiguration gg = (SplitPaneDividerLayoutConfiguration) g;
-            return getSplitPaneDividerOutline(bounds, gg);
-        }
+    /**
+      Provides outlines for layout configurations of a specific type.
+    */
 
-        if (g instanceof SegmentedButtonLayoutConfiguration) {
-            SegmentedButtonLayoutConfiguration gg = (SegmentedButtonLayoutConfiguration) g;
-            return getSegmentedButtonOutline(bounds, gg);
-        }
+    public interface OutlineProvider<G extends LayoutConfiguration>
+    {
+        /**
+          Return the outline for the specified configuration.
+          @param o The platform outliner.
+          @param bounds The widget bounds.
+          @param g The configuration.
+          @return the outline, or null if the widget has no outline.
+        */
+
+        @Nullable Shape getOutline(@NotNull UIOutliner o, @NotNull Rectangle2D bounds, @NotNull G g);
+    }
 
-        if (g instanceof ToolBarItemWellLayoutConfiguration) {
-            ToolBarItemWellLayoutConfiguration gg = (ToolBarItemWellLayoutConfiguration) g;
-            return getToolBarItemWellOutline(bounds, gg);
-        }
+    private static final @NotNull ClassDispatcher<OutlineProvider<?>> outlineProviders = new ClassDispatcher<>();
+
+    static {
+        registerBuiltin(ButtonLayoutConfiguration.class, UIOutliner::getButtonOutline);
+        registerBuiltin(ComboBoxLayoutConfiguration.class, UIOutliner::getComboBoxOutline);
+        registerBuiltin(PopupButtonLayoutConfiguration.class, UIOutliner::getPopUpButtonOutline);
+        registerBuiltin(TitleBarLayoutConfiguration.class, UIOutliner::getTitleBarOutline);
+        registerBuiltin(SliderThumbLayoutConfiguration.class, UIOutliner::getSliderThumbOutline);
+        registerBuiltin(SliderLayoutConfiguration.class, UIOutliner::getSliderOutline);
+        registerBuiltin(SpinnerArrowsLayoutConfiguration.class, UIOutliner::getSpinnerArrowsOutline);
+        registerBuiltin(SplitPaneDividerLayoutConfiguration.class, UIOutliner::getSplitPaneDividerOutline);
+        registerBuiltin(SegmentedButtonLayoutConfiguration.class, UIOutliner::getSegmentedButtonOutline);
+        registerBuiltin(ToolBarItemWellLayoutConfiguration.class, UIOutliner::getToolBarItemWellOutline);
+        registerBuiltin(GroupBoxLayoutConfiguration.class, UIOutliner::getGroupBoxOutline);
+        registerBuiltin(ListBoxLayoutConfiguration.class, UIOutliner::getListBoxOutline);
+        registerBuiltin(TextFieldLayoutConfiguration.class, UIOutliner::getTextFieldOutline);
+        registerBuiltin(ScrollBarLayoutConfiguration.class, UIOutliner::getScrollBarOutline);
+        registerBuiltin(ScrollColumnSizerLayoutConfiguration.class, UIOutliner::getScrollColumnSizerOutline);
+        registerBuiltin(ProgressIndicatorLayoutConfiguration.class, UIOutliner::getProgressIndicatorOutline);
+        registerBuiltin(TableColumnHeaderLayoutConfiguration.class, UIOutliner::getTableColumnHeaderOutline);
+    }
 
-        if (g instanceof GroupBoxLayoutConfiguration) {
-            GroupBoxLayoutConfiguration gg = (GroupBoxLayoutConfiguration) g;
-            return getGroupBoxOutline(bounds, gg);
-        }
+    private static <G extends LayoutConfiguration> void registerBuiltin(@NotNull Class<G> c,
+                                                                        @NotNull OutlineProvider<G> p)
+    {
+        outlineProviders.register(c, p);
+    }
 
-        if (g instanceof ListBoxLayoutConfiguration) {
-            ListBoxLayoutConfiguration gg = (ListBoxLayoutConfiguration) g;
-            return getListBoxOutline(bounds, gg);
-        }
+    /**
+      Register an outline provider for a layout configuration type. The provider is used for configurations of the
+      specified type and its subtypes. It takes precedence over the existing providers, which allows an application to
+      support its own configurations. Outlines that are already cached are not affected.
 
-        if (g instanceof TextFieldLayoutConfiguration) {
-            TextFieldLayoutConfiguration gg = (TextFieldLayoutConfiguration) g;
-            return getTextFieldOutline(bounds, gg);
-        }
+      @param c The layout configuration type.
+      @param p The outline provider.
+    */
 
-        if (g instanceof ScrollBarLayoutConfiguration) {
-            ScrollBarLayoutConfiguration gg = (ScrollBarLayoutConfiguration) g;
-            return getScrollBarOutline(bounds, gg);
+    public static <G extends LayoutConfiguration> void registerOutlineProvider(@NotNull Class<G> c,
+                                                                               @NotNull OutlineProvider<? super G> p)
+    {
+        outlineProviders.registerFirst(c, p);
+    }
+
+    private final @NotNull LinkedHashMap<OutlineKey,Shape> outlineCache
+      = new LinkedHashMap<OutlineKey,Shape>(64, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(@NotNull Map.Entry<OutlineKey,Shape> eldest)
+        {
+            return size() > MAXIMUM_CACHED_OUTLINE_COUNT;
         }
+    };
 
-        if (g instanceof ScrollColumnSizerLayoutConfiguration) {
-            ScrollColumnSizerLayoutConfiguration gg = (ScrollColumnSizerLayoutConfiguration) g;
-            return getScrollColumnSizerOutline(bounds, gg);
+    public @Nullable Shape getOutline(@NotNull Rectangle2D bounds, @NotNull LayoutConfiguration g)
+      throws UnsupportedOperationException
+    {
+        double x = bounds.getX();
+        double y = bounds.getY();
+        if (!isOutlineCachingEnabled || x != Math.rint(x) || y != Math.rint(y)) {
+            return computeOutline(bounds, g);
         }
 
-        if (g instanceof ProgressIndicatorLayoutConfiguration) {
-            ProgressIndicatorLayoutConfiguration gg = (ProgressIndicatorLayoutConfiguration) g;
-            return getProgressIndicatorOutline(bounds, gg);
+        OutlineKey key = new OutlineKey(g, bounds.getWidth(), bounds.getHeight());
+        Shape s;
+        synchronized (outlineCache) {
+            s = outlineCache.get(key);
+        }
+        if (s == null) {
+            Rectangle2D origin = new Rectangle2D.Double(0, 0, bounds.getWidth(), bounds.getHeight());
+            s = computeOutline(origin, g);
+            if (s == null) {
+                s = NO_OUTLINE;
+            } else {
+                s = ExpandableOutline.createTranslatedShape(s, 0, 0);  // the outline may be the bounds
+                if (s instanceof GeneralRoundRectangle) {
+                    ((GeneralRoundRectangle) s).precomputePath();
+                }
+            }
+            synchronized (outlineCache) {
+                outlineCache.put(key, s);
+            }
         }
+        return s != NO_OUTLINE ? ExpandableOutline.createTranslatedShape(s, x, y) : null;
+    }
 
-        if (g instanceof TableColumnHeaderLayoutConfiguration) {
-            TableColumnHeaderLayoutConfiguration gg = (TableColumnHeaderLayoutConfiguration) g;
-            return getTableColumnHeaderOutline(bounds, gg);
+    @SuppressWarnings("unchecked")
+    private @Nullable Shape computeOutline(@NotNull Rectangle2D bounds, @NotNull LayoutConfiguration g)
+      throws UnsupportedOperationException
+    {
+        OutlineProvider<LayoutConfiguration> p
+          = (OutlineProvider<LayoutConfiguration>) outlineProviders.get(g.getClass());
+        if (p != null) {
+            return p.getOutline(this, bounds, g);
         }
 
         throw new UnsupportedOperationException();
@@ -104,21 +104,21 @@ public class JRSPainter
                 maker.set(JRSUIConstants.State.ACTIVE);
                 break;
             case INACTIVE:
-                maker.setProperty(JRSUIConstants.State.INACTIVE);
+                maker.set(JRSUIConstants.State.INACTIVE);
                 break;
             case DISABLED:
             case DISABLED_INACTIVE:
-                maker.setProperty(JRSUIConstants.State.DISABLED);
+                maker.set(JRSUIConstants.State.DISABLED);
                 break;
             case PRESSED:
             case PRESSED_DEFAULT:
-                maker.setProperty(JRSUIConstants.State.PRESSED);
+                maker.set(JRSUIConstants.State.PRESSED);
                 break;
             case ACTIVE_DEFAULT:
-                maker.setProperty(JRSUIConstants.State.PULSED);
+                maker.set(JRSUIConstants.State.PULSED);
                 break;
             case ROLLOVER:
-                maker.setProperty(JRSUIConstants.State.ROLLOVER);
+                maker.set(JRSUIConstants.State.ROLLOVER);
                 break;
             default:
                 throw new UnsupportedOperationException();
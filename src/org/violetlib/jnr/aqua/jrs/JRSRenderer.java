@@ -11,23 +11,25 @@ package org.violetlib.jnr.aqua.jrs;
 import org.violetlib.jnr.impl.BasicRenderer;
 import org.violetlib.jnr.impl.jrs.JRSUIConstants;
 import org.violetlib.jnr.impl.jrs.JRSUIControl;
+import org.violetlib.jnr.impl.jrs.JRSUIControlPool;
 import org.violetlib.jnr.impl.jrs.JRSUIState;
 
 import org.jetbrains.annotations.*;
 
 /**
-  A renderer that use the Java Runtime Support framework to perform the rendering.
+  A renderer that use the Java Runtime Support framework to perform the rendering. A control is obtained from a pool
+  for each rendering.
 */
 
 public class JRSRenderer
   implements BasicRenderer
 {
-    protected final @NotNull JRSUIControl control;
+    protected final @NotNull JRSUIControlPool pool;
     protected final @NotNull JRSUIState state;
 
-    public JRSRenderer(@NotNull JRSUIControl control, @NotNull JRSUIState state)
+    public JRSRenderer(@NotNull JRSUIControlPool pool, @NotNull JRSUIState state)
     {
-        this.control = control;
+        this.pool = pool;
         this.state = state;
     }
 
@@ -52,7 +54,12 @@ public class JRSRenderer
             h = hh;
         }
 
-        control.set(state);
-        control.paint(data, rw, rh, 0, 0, w, h);
+        JRSUIControl control = pool.acquire();
+        try {
+            control.set(state);
+            control.paint(data, rw, rh, 0, 0, w, h);
+        } finally {
+            pool.release(control);
+        }
     }
 }
@@ -8,12 +8,13 @@
 
 package org.violetlib.jnr.aqua.jrs;
 
-import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 
 import org.violetlib.jnr.impl.BasicRenderer;
 import org.violetlib.jnr.impl.EmptyRenderer;
 import org.violetlib.jnr.impl.jrs.JRSUIConstants;
-import org.violetlib.jnr.impl.jrs.JRSUIControl;
+import org.violetlib.jnr.impl.jrs.JRSUIControlPool;
 import org.violetlib.jnr.impl.jrs.JRSUIState;
 import org.violetlib.jnr.impl.jrs.JRSUIStateFactory;
 
@@ -26,27 +27,18 @@ import org.jetbrains.annotations.*;
 public class JRSRendererMaker
 {
     protected @Nullable JRSUIConstants.Widget currentWidget;
-    protected @Nullable JRSUIControl control;
+    protected @Nullable JRSUIControlPool controls;
     protected @Nullable JRSUIState state;
 
-    private static final Method stateSetMethod = getStateSetMethod();
+    // Immutable states, indexed by themselves, so that renderers of the same configuration share the same state.
+    // Ordered by most recent access.
+    private final @NotNull LinkedHashMap<JRSUIState,JRSUIState> states = new LinkedHashMap<>(64, 0.75f, true);
+    private static final int MAXIMUM_STATE_COUNT = 500;
 
     public JRSRendererMaker()
     {
     }
 
-    private static Method getStateSetMethod()
-    {
-        Class c = JRSUIState.class;
-        Method[] methods = c.getMethods();
-        for (Method m : methods) {
-            if (m.getName().equals("set")) {
-                return m;
-            }
-        }
-        throw new UnsupportedOperationException("Set method on JRSUIState not found");
-    }
-
     public void reset()
     {
         if (state != null) {
@@ -54,18 +46,17 @@ public class JRSRendererMaker
         }
     }
 
-    protected void setProperty(@NotNull Object p)
+    protected void setProperty(@NotNull JRSUIConstants.Property p)
     {
         if (false) {  // debug
             System.err.println("  Setting property: " + p);
         }
 
-        // Too bad the Property class is private
-        try {
-            stateSetMethod.invoke(state, p);
-        } catch (Exception ex) {
-            throw new UnsupportedOperationException("Unable to set JRSUIState property: " + ex);
+        if (state == null) {
+            throw new IllegalStateException("Renderer not configured for property " + p);
         }
+
+        state.set(p);
     }
 
     public void set(@NotNull JRSUIConstants.Size p)
@@ -189,7 +180,7 @@ public class JRSRendererMaker
             return;
         }
 
-        // If the widget has changed, we need a new state and a new control.
+        // If the widget has changed, we need a new state and a different pool of controls.
 
         if (p == JRSUIConstants.Widget.SCROLL_BAR) {
             state = JRSUIStateFactory.getScrollBar();
@@ -229,17 +220,19 @@ public class JRSRendererMaker
             setProperty(p);
         }
 
-        control = new JRSUIControl(false);
+        controls = JRSUIControlPool.getPool(p);
     }
 
     public void set(@NotNull JRSUIConstants.Hit p)
     {
-        setProperty(p);
+        // A hit is a result, not a state property
+        throw new UnsupportedOperationException("Unable to set JRSUIState property: " + p);
     }
 
     public void set(@NotNull JRSUIConstants.ScrollBarHit p)
     {
-        setProperty(p);
+        // A hit is a result, not a state property
+        throw new UnsupportedOperationException("Unable to set JRSUIState property: " + p);
     }
 
     public void setValue(double value)
@@ -285,11 +278,31 @@ public class JRSRendererMaker
     public @NotNull BasicRenderer getRenderer()
     {
         if (state != null) {
-            assert control != null;
-            state = state.derive();
-            return new JRSRenderer(control, state);
+            assert controls != null;
+            state = internState(state.derive());
+            return new JRSRenderer(controls, state);
         } else {
             return new EmptyRenderer();
         }
     }
+
+    /**
+      Return a previously created state that is equal to the specified state, if any. Reusing a state allows a control
+      to recognize that the state has already been applied.
+    */
+
+    private @NotNull JRSUIState internState(@NotNull JRSUIState s)
+    {
+        JRSUIState existing = states.get(s);
+        if (existing != null) {
+            return existing;
+        }
+        states.put(s, s);
+        if (states.size() > MAXIMUM_STATE_COUNT) {
+            Iterator<JRSUIState> it = states.keySet().iterator();
+            it.next();
+            it.remove();
+        }
+        return s;
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.violetlib.jnr.Painter;
+import org.violetlib.jnr.aqua.IndeterminateProgressIndicatorConfiguration;
+import org.violetlib.jnr.aqua.impl.IndeterminateProgressBarPainterExtension;
+import org.violetlib.jnr.aqua.impl.LayoutInfo10_10;
+import org.violetlib.jnr.impl.AnimationStrip;
+import org.violetlib.jnr.impl.AnimationStripPainter;
+import org.violetlib.jnr.impl.BasicRenderer;
+import org.violetlib.jnr.impl.JavaSupport;
+import org.violetlib.jnr.impl.Renderer;
+import org.violetlib.jnr.impl.RendererPainter;
+
+import org.jetbrains.annotations.*;
+
+import static org.violetlib.jnr.aqua.AquaUIPainter.*;
+
+/**
+  Verify animation strips without native code. Each frame painted using an animation strip is compared with painting
+  the frame renderer individually. The indeterminate progress bar animation is checked, along with a synthetic barber
+  pole animation, which must be represented by a periodic pattern.
+*/
+
+public class AnimationStripChecker
+{
+    private static int errorCount;
+    private static int frameCount;
+
+    /**
+      A barber pole animation: diagonal stripes that move one pixel to the left per frame.
+    */
+
+    private static class BarberPoleRenderer
+      implements BasicRenderer
+    {
+        private final int frame;
+
+        public BarberPoleRenderer(int frame)
+        {
+            this.frame = frame;
+        }
+
+        @Override
+        public void render(@NotNull int[] data, int rw, int rh, float w, float h)
+        {
+            int scaleFactor = Math.round(rw / w);
+            int stripe = 4 * scaleFactor;
+            for (int row = 0; row < rh; row++) {
+                for (int col = 0; col < rw; col++) {
+                    int phase = (col + row + frame * scaleFactor) % (2 * stripe);
+                    data[row * rw + col] = phase < stripe ? 0xFF3070C0 : 0xFFC0D8F0;
+                }
+            }
+        }
+    }
+
+    private static @NotNull int[] paint(@NotNull Painter p, int width, int height, int scaleFactor)
+    {
+        int rw = width * scaleFactor;
+        int rh = height * scaleFactor;
+        BufferedImage im = new BufferedImage(rw, rh, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = JavaSupport.createOffscreenGraphics(im, scaleFactor);
+        try {
+            p.paint(g, 0, 0);
+        } finally {
+            g.dispose();
+        }
+        return im.getRGB(0, 0, rw, rh, null, 0, rw);
+    }
+
+    private static void check(@NotNull String name,
+                              @NotNull Renderer[] frames,
+                              int width,
+                              int height,
+                              boolean isPeriodic)
+    {
+        AnimationStrip strip = new AnimationStrip(frames, width, height);
+        for (int scaleFactor = 1; scaleFactor <= 2; scaleFactor++) {
+            int differentFrameCount = 0;
+            for (int i = 0; i < frames.length; i++) {
+                Painter individual = new RendererPainter(frames[i], width, height) {};
+                int[] expected = paint(individual, width, height, scaleFactor);
+                int[] actual = paint(new AnimationStripPainter(strip, i), width, height, scaleFactor);
+                frameCount++;
+                for (int j = 0; j < expected.length; j++) {
+                    if (expected[j] != actual[j]) {
+                        differentFrameCount++;
+                        break;
+                    }
+                }
+            }
+            boolean periodic = strip.isPeriodic(scaleFactor);
+            if (differentFrameCount > 0 || periodic != isPeriodic) {
+                errorCount++;
+            }
+            System.out.println(name + " " + width + "x" + height + " @" + scaleFactor + "x: "
+              + differentFrameCount + " incorrect frames" + (periodic ? ", periodic" : ""));
+        }
+        // the pixels of the frames at scale factors 1 and 2
+        long individualPixelCount = (long) frames.length * width * height * (1 + 4);
+        System.out.println("  pixels retained: " + strip.getPixelCount() + " (" + individualPixelCount
+          + " if cached individually)");
+    }
+
+    public static void main(@NotNull String[] args)
+    {
+        LayoutInfo10_10 layout = new LayoutInfo10_10();
+        int n = IndeterminateProgressBarPainterExtension.FRAME_COUNT;
+
+        for (Orientation o : Orientation.values()) {
+            for (Size sz : new Size[] { Size.SMALL, Size.REGULAR }) {
+                Renderer[] frames = new Renderer[n];
+                for (int i = 0; i < n; i++) {
+                    IndeterminateProgressIndicatorConfiguration g = new IndeterminateProgressIndicatorConfiguration(
+                      ProgressWidget.INDETERMINATE_BAR, sz, State.ACTIVE, o, i);
+                    frames[i] = Renderer.create(new IndeterminateProgressBarPainterExtension(layout, g, null));
+                }
+                boolean isVertical = o == Orientation.VERTICAL;
+                int thickness = sz == Size.SMALL ? 4 : 6;
+                check("Progress bar " + o + " " + sz, frames, isVertical ? thickness : 120,
+                  isVertical ? 120 : thickness, false);
+            }
+        }
+
+        int stripeCount = 8;
+        Renderer[] frames = new Renderer[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            frames[i] = Renderer.create(new BarberPoleRenderer(i), null);
+        }
+        check("Barber pole", frames, 120, 12, true);
+
+        System.out.println("Frames: " + frameCount);
+        System.out.println("Errors: " + errorCount);
+    }
+}
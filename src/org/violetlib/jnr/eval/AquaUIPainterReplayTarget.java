@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.awt.Graphics2D;
+
+import org.violetlib.jnr.Painter;
+import org.violetlib.jnr.aqua.AquaUIPainter;
+import org.violetlib.jnr.aqua.Configuration;
+import org.violetlib.jnr.aqua.impl.PaintTraceEvent;
+import org.violetlib.vappearances.VAppearance;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A replay target that uses an {@link AquaUIPainter}. Because a trace describes configurations only by their class
+  name and string representation, the application that recorded the trace must supply a resolver that recreates the
+  configurations. The scale factor used for painting is determined by the graphics context, as usual.
+*/
+
+public class AquaUIPainterReplayTarget
+  implements PaintTraceReplayer.Target
+{
+    /**
+      Recreates recorded configurations and appearances.
+    */
+
+    public interface Resolver
+    {
+        @NotNull Configuration getConfiguration(@NotNull PaintTraceEvent.ConfigurationRecord g);
+
+        @NotNull VAppearance getAppearance(@Nullable String appearanceName);
+    }
+
+    protected final @NotNull AquaUIPainter painter;
+    protected final @NotNull Resolver resolver;
+
+    public AquaUIPainterReplayTarget(@NotNull AquaUIPainter painter, @NotNull Resolver resolver)
+    {
+        this.painter = painter;
+        this.resolver = resolver;
+    }
+
+    @Override
+    public @NotNull Painter getPainter(@NotNull PaintTraceEvent e)
+    {
+        Configuration g = resolver.getConfiguration(e.getConfiguration());
+        painter.configureAppearance(resolver.getAppearance(e.getAppearanceName()));
+        painter.configure(e.getWidth(), e.getHeight());
+        return painter.getPainter(g);
+    }
+
+    @Override
+    public void paint(@NotNull Painter p, @NotNull PaintTraceEvent e, @NotNull Graphics2D g)
+    {
+        p.paint(g, 0, 0);
+    }
+}
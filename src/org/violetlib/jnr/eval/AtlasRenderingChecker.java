@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.violetlib.jnr.impl.AtlasRenderer;
+import org.violetlib.jnr.impl.BasicRenderer;
+import org.violetlib.jnr.impl.BasicRendererDescription;
+import org.violetlib.jnr.impl.BatchRenderingBackend;
+import org.violetlib.jnr.impl.BatchableRenderer;
+import org.violetlib.jnr.impl.CacheableBasicRenderer;
+import org.violetlib.jnr.impl.Renderer;
+import org.violetlib.jnr.impl.RendererDescription;
+import org.violetlib.jnr.impl.ReusableCompositor;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Verify the packing and unpacking performed by the atlas renderer without native code. Synthetic renderers produce a
+  deterministic pattern that depends upon the rendering size. A stub backend draws the pattern of each slot directly
+  into the atlas raster, as a native backend would, and verifies that the slots do not overlap. The result of each
+  request is compared with rendering the renderer individually.
+*/
+
+public class AtlasRenderingChecker
+{
+    /**
+      A renderer that produces a deterministic pattern.
+    */
+
+    public static class PatternRenderer
+      implements BatchableRenderer
+    {
+        private final int seed;
+        private final @Nullable BatchRenderingBackend backend;
+
+        public PatternRenderer(int seed, @Nullable BatchRenderingBackend backend)
+        {
+            this.seed = seed;
+            this.backend = backend;
+        }
+
+        /**
+          Return the value of a pixel of a rendering.
+        */
+
+        public int getPixel(int col, int row, float w, float h)
+        {
+            int v = seed * 31 + col * 7 + row * 13 + Math.round(w * 10) + Math.round(h * 100);
+            // leave some pixels transparent
+            return (v % 5) == 0 ? 0 : 0xFF000000 | (v & 0xFFFFFF);
+        }
+
+        @Override
+        public void render(@NotNull int[] data, int rw, int rh, float w, float h)
+        {
+            for (int row = 0; row < rh; row++) {
+                for (int col = 0; col < rw; col++) {
+                    data[row * rw + col] = getPixel(col, row, w, h);
+                }
+            }
+        }
+
+        @Override
+        public @Nullable BatchRenderingBackend getBatchRenderingBackend()
+        {
+            return backend;
+        }
+    }
+
+    /**
+      A backend that draws pattern renderers into the atlas raster at the slot locations.
+    */
+
+    public static class StubBatchRenderingBackend
+      implements BatchRenderingBackend
+    {
+        private int batchCount;
+        private int overlapCount;
+
+        @Override
+        public void renderBatch(@NotNull int[] data, int rw, int rh, @NotNull List<AtlasRenderer.Slot> slots)
+        {
+            batchCount++;
+            boolean[] used = new boolean[rw * rh];
+            for (AtlasRenderer.Slot slot : slots) {
+                PatternRenderer r = (PatternRenderer) slot.getRenderer();
+                for (int row = 0; row < slot.getRasterHeight(); row++) {
+                    for (int col = 0; col < slot.getRasterWidth(); col++) {
+                        int index = (slot.getY() + row) * rw + slot.getX() + col;
+                        if (used[index]) {
+                            overlapCount++;
+                        }
+                        used[index] = true;
+                        data[index] = r.getPixel(col, row, slot.getWidth(), slot.getHeight());
+                    }
+                }
+            }
+        }
+
+        public int getBatchCount()
+        {
+            return batchCount;
+        }
+
+        public int getOverlapCount()
+        {
+            return overlapCount;
+        }
+    }
+
+    /**
+      Count the pixels of a compositor that differ from rendering the renderer individually.
+    */
+
+    public static int countDifferences(@NotNull AtlasRenderer.Request rq, @NotNull ReusableCompositor actual)
+    {
+        int scaleFactor = rq.getScaleFactor();
+        int rw = rq.getWidth() * scaleFactor;
+        int rh = rq.getHeight() * scaleFactor;
+
+        int[] expectedPixels = new int[rw * rh];
+        ReusableCompositor expected = new ReusableCompositor(expectedPixels, rw, rh, scaleFactor);
+        rq.getRenderer().composeTo(expected);
+
+        int[] actualPixels = new int[rw * rh];
+        ReusableCompositor copy = new ReusableCompositor(actualPixels, rw, rh, scaleFactor);
+        copy.composeFrom(actual, 0, 0, rw, rh);
+
+        int count = 0;
+        for (int i = 0; i < expectedPixels.length; i++) {
+            if (expectedPixels[i] != actualPixels[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static @NotNull Renderer createRenderer(@NotNull Random random, @NotNull BatchRenderingBackend backend)
+    {
+        int seed = random.nextInt(1000);
+        int kind = random.nextInt(4);
+        BasicRenderer br;
+        if (kind == 0) {
+            // not batchable
+            br = new PatternRenderer(seed, null);
+        } else if (kind == 1) {
+            br = new CacheableBasicRenderer(new PatternRenderer(seed, backend), seed, null);
+        } else {
+            br = new PatternRenderer(seed, backend);
+        }
+
+        RendererDescription rd = null;
+        if (random.nextBoolean()) {
+            float x = random.nextInt(5) - 2 + (random.nextBoolean() ? 0.5f : 0);
+            float y = random.nextInt(5) - 2 + (random.nextBoolean() ? 0.5f : 0);
+            float wa = random.nextInt(9) - 4;
+            float ha = random.nextInt(9) - 4;
+            rd = new BasicRendererDescription(x, y, wa, ha);
+        }
+        return Renderer.create(br, rd);
+    }
+
+    public static void main(@NotNull String[] args)
+    {
+        int requestCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int atlasSize = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+
+        Random random = new Random(0);
+        StubBatchRenderingBackend backend = new StubBatchRenderingBackend();
+        List<AtlasRenderer.Request> requests = new ArrayList<>();
+        for (int i = 0; i < requestCount; i++) {
+            Renderer r = createRenderer(random, backend);
+            // occasionally exceed the atlas size
+            int width = random.nextInt(10) == 0 ? atlasSize / 2 + 10 : 1 + random.nextInt(60);
+            int height = 1 + random.nextInt(40);
+            int scaleFactor = 1 + random.nextInt(2);
+            requests.add(new AtlasRenderer.Request(r, width, height, scaleFactor));
+        }
+
+        AtlasRenderer ar = new AtlasRenderer(atlasSize, atlasSize);
+        ReusableCompositor[] results = ar.render(requests);
+
+        int errorCount = 0;
+        for (int i = 0; i < requestCount; i++) {
+            int count = countDifferences(requests.get(i), results[i]);
+            if (count > 0) {
+                errorCount++;
+            }
+        }
+
+        System.out.println("Requests: " + requestCount);
+        System.out.println("Errors: " + errorCount);
+        System.out.println("Overlapping pixels: " + backend.getOverlapCount());
+        System.out.println("Batches: " + ar.getBatchCount() + " (" + backend.getBatchCount() + " backend calls)");
+        System.out.println("Rendered in a batch: " + ar.getBatchedCount()
+          + ", rendered individually: " + ar.getIndividualCount());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.violetlib.jnr.Insets2D;
+import org.violetlib.jnr.Insetter;
+import org.violetlib.jnr.LayoutInfo;
+import org.violetlib.jnr.aqua.AquaUILayoutInfo;
+import org.violetlib.jnr.aqua.ButtonConfiguration;
+import org.violetlib.jnr.aqua.LayoutConfiguration;
+import org.violetlib.jnr.aqua.SliderLayoutConfiguration;
+import org.violetlib.jnr.aqua.TextFieldConfiguration;
+import org.violetlib.jnr.aqua.impl.LayoutInfo10_10;
+
+import org.jetbrains.annotations.*;
+
+import static org.violetlib.jnr.aqua.AquaUIPainter.*;
+
+/**
+  Verify the bulk layout queries against individual queries, using a simulated form: rows of labeled text fields,
+  check boxes, and sliders in varying states. The time to lay out the form using individual queries and using bulk
+  queries is also reported.
+*/
+
+public class BulkLayoutChecker
+{
+    private static @NotNull LayoutConfiguration[] createForm(int rows)
+    {
+        Random random = new Random(1);
+        State[] states = { State.ACTIVE, State.INACTIVE, State.DISABLED, State.ROLLOVER };
+        List<LayoutConfiguration> gs = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            State st = states[random.nextInt(states.length)];
+            gs.add(new TextFieldConfiguration(TextFieldWidget.TEXT_FIELD, Size.REGULAR, st, i == 3,
+              UILayoutDirection.LEFT_TO_RIGHT));
+        }
+        for (int i = 0; i < rows; i++) {
+            State st = states[random.nextInt(states.length)];
+            ButtonState bs = random.nextBoolean() ? ButtonState.ON : ButtonState.OFF;
+            gs.add(new ButtonConfiguration(ButtonWidget.BUTTON_CHECK_BOX, Size.SMALL, st, false, bs,
+              UILayoutDirection.LEFT_TO_RIGHT));
+        }
+        for (int i = 0; i < rows; i++) {
+            gs.add(new SliderLayoutConfiguration(SliderWidget.SLIDER_HORIZONTAL, Size.REGULAR, 5,
+              TickMarkPosition.BELOW));
+        }
+        return gs.toArray(new LayoutConfiguration[0]);
+    }
+
+    private static @Nullable float[] getInsets(@Nullable Insetter s)
+    {
+        Insets2D n = s != null ? s.asInsets2D() : null;
+        return n != null
+                 ? new float[] { n.getTop(), n.getLeft(), n.getBottom(), n.getRight() }
+                 : null;
+    }
+
+    public static void main(@NotNull String[] args)
+    {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        AquaUILayoutInfo layout = new LayoutInfo10_10();
+        layout.initializeLayoutTables();
+        LayoutConfiguration[] gs = createForm(rows);
+        int n = gs.length;
+
+        float[] fixedWidths = new float[n];
+        float[] fixedHeights = new float[n];
+        float[] minimumWidths = new float[n];
+        float[] minimumHeights = new float[n];
+        float[] insets = new float[4 * n];
+        layout.getLayoutInfo(gs, fixedWidths, fixedHeights, minimumWidths, minimumHeights);
+        layout.getContentInsets(gs, insets);
+
+        int errorCount = 0;
+        for (int i = 0; i < n; i++) {
+            LayoutInfo info = layout.getLayoutInfo(gs[i]);
+            if (info.getFixedVisualWidth() != fixedWidths[i] || info.getFixedVisualHeight() != fixedHeights[i]
+                  || info.getMinimumVisualWidth() != minimumWidths[i]
+                  || info.getMinimumVisualHeight() != minimumHeights[i]) {
+                errorCount++;
+            }
+            // If the insets are not all fixed, at least one inset must be reported as not fixed
+            float[] expected = getInsets(layout.getContentInsets(gs[i]));
+            boolean isAnyNotFixed = false;
+            for (int k = 0; k < 4; k++) {
+                float actual = insets[4 * i + k];
+                isAnyNotFixed |= actual == -1;
+                if (expected != null && actual != expected[k]) {
+                    errorCount++;
+                }
+            }
+            if (expected == null && !isAnyNotFixed) {
+                errorCount++;
+            }
+        }
+
+        int rounds = 200;
+        long individualTime = 0;
+        long bulkTime = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            long start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                for (LayoutConfiguration g : gs) {
+                    LayoutInfo info = layout.getLayoutInfo(g);
+                    layout.getContentInsets(g);
+                    fixedWidths[0] = info.getFixedVisualWidth();
+                }
+            }
+            individualTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                layout.getLayoutInfo(gs, fixedWidths, fixedHeights, minimumWidths, minimumHeights);
+                layout.getContentInsets(gs, insets);
+            }
+            bulkTime = System.nanoTime() - start;
+        }
+
+        System.out.println("Configurations: " + n);
+        System.out.println("Individual queries: " + individualTime / rounds / 1000 + " us per layout pass");
+        System.out.println("Bulk queries: " + bulkTime / rounds / 1000 + " us per layout pass");
+        System.out.println("Errors: " + errorCount);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.awt.Color;
+import java.util.Map;
+import java.util.Objects;
+
+import org.violetlib.jnr.impl.ColorKey;
+import org.violetlib.jnr.impl.Colors;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Verify that the colors obtained using color keys match the colors obtained by name, for each combination of dark
+  and high contrast appearance, and compare the time to obtain colors using keys and using names.
+*/
+
+public class ColorsChecker
+{
+    private static int errorCount;
+
+    private static void check(@NotNull String name, @NotNull Colors colors)
+    {
+        for (ColorKey key : ColorKey.values()) {
+            if (!Objects.equals(colors.getOptional(key), colors.getOptional(key.getColorName()))) {
+                errorCount++;
+                System.out.println("Error: " + name + " " + key);
+            }
+        }
+        for (Map.Entry<String,Color> e : colors.getColors().entrySet()) {
+            ColorKey key = ColorKey.forName(e.getKey());
+            if (key == null || !e.getValue().equals(colors.get(key))) {
+                errorCount++;
+                System.out.println("Error: " + name + " " + e.getKey() + " has no matching key");
+            }
+        }
+    }
+
+    private static long timeNames(@NotNull Colors colors, @NotNull String[] names, int rounds)
+    {
+        long start = System.nanoTime();
+        int hash = 0;
+        for (int r = 0; r < rounds; r++) {
+            for (String name : names) {
+                Color c = colors.getOptional(name);
+                hash += c != null ? c.getRGB() : 0;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return hash == 1 ? -elapsed : elapsed;
+    }
+
+    private static long timeKeys(@NotNull Colors colors, @NotNull ColorKey[] keys, int rounds)
+    {
+        long start = System.nanoTime();
+        int hash = 0;
+        for (int r = 0; r < rounds; r++) {
+            for (ColorKey key : keys) {
+                Color c = colors.getOptional(key);
+                hash += c != null ? c.getRGB() : 0;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return hash == 1 ? -elapsed : elapsed;
+    }
+
+    public static void main(@NotNull String[] args)
+    {
+        check("light", Colors.getColors(false, false));
+        check("light high contrast", Colors.getColors(false, true));
+        check("dark", Colors.getColors(true, false));
+        check("dark high contrast", Colors.getColors(true, true));
+
+        ColorKey[] keys = ColorKey.values();
+        String[] names = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            names[i] = keys[i].getColorName();
+        }
+        Colors colors = Colors.getColors(true, false);
+        int rounds = 100000;
+        long nameTime = 0;
+        long keyTime = 0;
+        for (int pass = 0; pass < 5; pass++) {
+            nameTime = timeNames(colors, names, rounds);
+            keyTime = timeKeys(colors, keys, rounds);
+        }
+        long requests = (long) rounds * keys.length;
+        System.out.println("Colors by name: " + nameTime * 1000 / requests / 1000.0 + " ns per request");
+        System.out.println("Colors by key: " + keyTime * 1000 / requests / 1000.0 + " ns per request");
+        System.out.println("Errors: " + errorCount);
+
+        if (errorCount > 0) {
+            System.exit(1);
+        }
+    }
+}
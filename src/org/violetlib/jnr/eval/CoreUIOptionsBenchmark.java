@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.violetlib.jnr.aqua.coreui.CoreUIOptions;
+import org.violetlib.jnr.aqua.coreui.CoreUIOptionsRegistry;
+import org.violetlib.jnr.aqua.coreui.CoreUIOptionsSink;
+
+import org.jetbrains.annotations.*;
+
+import static org.violetlib.jnr.aqua.coreui.CoreUIKeys.*;
+
+/**
+  Measure and verify the interning of Core UI option sets without native code. A synthetic workload of rendering
+  arguments, similar to those created by the Core UI painter, is interned using a sink that decodes each option set
+  and retains it. Every request is checked against the option set held by the sink for the returned ID. The time
+  required to intern a request is compared with the time required to encode the request, which approximates the cost
+  of converting the rendering arguments on every request.
+*/
+
+public class CoreUIOptionsBenchmark
+{
+    /**
+      A sink that decodes and retains the option sets.
+    */
+
+    public static class DecodingSink
+      implements CoreUIOptionsSink
+    {
+        private final @NotNull Map<Integer,CoreUIOptions> definitions = new HashMap<>();
+        private int releaseCount;
+
+        @Override
+        public void defineOptions(int id, @NotNull byte[] encoding)
+        {
+            if (definitions.containsKey(id)) {
+                throw new IllegalStateException("Option set " + id + " is already defined");
+            }
+            definitions.put(id, CoreUIOptions.decode(encoding));
+        }
+
+        @Override
+        public void releaseOptions(int id)
+        {
+            if (definitions.remove(id) == null) {
+                throw new IllegalStateException("Option set " + id + " is not defined");
+            }
+            releaseCount++;
+        }
+
+        public @Nullable CoreUIOptions get(int id)
+        {
+            return definitions.get(id);
+        }
+
+        public int getReleaseCount()
+        {
+            return releaseCount;
+        }
+    }
+
+    private static final @NotNull String[] WIDGETS = { "kCUIWidgetButtonPush", "kCUIWidgetButtonCheckBox",
+      "kCUIWidgetButtonRadio", "kCUIWidgetSlider", "kCUIWidgetProgressIndicator" };
+    private static final @NotNull String[] STATES = { "normal", "pressed", "inactive", "disabled", "rollover" };
+    private static final @NotNull String[] SIZES = { "regular", "small", "mini", "large" };
+
+    /**
+      Create the rendering arguments for a synthetic request.
+
+      @param random The source of the request parameters.
+      @param valueCount The number of distinct widget values.
+    */
+
+    public static @NotNull Object[] createArguments(@NotNull Random random, int valueCount)
+    {
+        return new Object[] {
+          WIDGET_KEY, WIDGETS[random.nextInt(WIDGETS.length)],
+          STATE_KEY, STATES[random.nextInt(STATES.length)],
+          SIZE_KEY, SIZES[random.nextInt(SIZES.length)],
+          IS_FOCUSED_KEY, random.nextBoolean(),
+          VALUE_KEY, random.nextInt(valueCount) / (double) valueCount,
+          ANIMATION_FRAME_KEY, random.nextBoolean() ? null : random.nextInt(4)
+        };
+    }
+
+    public static void main(@NotNull String[] args)
+    {
+        int requestCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int valueCount = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int registrySize = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+
+        Object[][] requests = new Object[requestCount][];
+        Random random = new Random(0);
+        for (int i = 0; i < requestCount; i++) {
+            requests[i] = createArguments(random, valueCount);
+        }
+
+        DecodingSink sink = new DecodingSink();
+        CoreUIOptionsRegistry registry = new CoreUIOptionsRegistry(sink, registrySize);
+
+        // Verify
+
+        int errorCount = 0;
+        for (Object[] request : requests) {
+            CoreUIOptions options = new CoreUIOptions(request);
+            int id = registry.getID(options);
+            if (!options.equals(sink.get(id))) {
+                errorCount++;
+            }
+        }
+
+        // Measure
+
+        int encodedBytes = 0;
+        long encodeStart = System.nanoTime();
+        for (Object[] request : requests) {
+            encodedBytes += new CoreUIOptions(request).getEncoding().length;
+        }
+        long encodeTime = System.nanoTime() - encodeStart;
+
+        long idSum = 0;
+        long internStart = System.nanoTime();
+        for (Object[] request : requests) {
+            idSum += registry.getID(new CoreUIOptions(request));
+        }
+        long internTime = System.nanoTime() - internStart;
+
+        System.out.println("Requests: " + requestCount);
+        System.out.println("Errors: " + errorCount);
+        System.out.println("Option sets defined: " + registry.getDefinitionCount()
+          + ", released: " + sink.getReleaseCount() + ", retained: " + registry.getSize());
+        System.out.println("Average encoding size: " + (encodedBytes / requestCount) + " bytes");
+        System.out.println(String.format("Encode every request: %.1f ns/request",
+          encodeTime / (double) requestCount));
+        System.out.println(String.format("Intern every request: %.1f ns/request (%d)",
+          internTime / (double) requestCount, idSum));
+    }
+}
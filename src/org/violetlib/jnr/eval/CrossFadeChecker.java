@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import org.violetlib.jnr.impl.AnimationStrip;
+import org.violetlib.jnr.impl.BasicRenderer;
+import org.violetlib.jnr.impl.CrossFadeRenderer;
+import org.violetlib.jnr.impl.Renderer;
+import org.violetlib.jnr.impl.ReusableCompositor;
+
+import org.jetbrains.annotations.*;
+
+import static org.violetlib.jnr.impl.ImageUtils.*;
+
+/**
+  Verify cross-fade rendering without native code. Synthetic renderers produce two premultiplied patterns, including
+  transparent and translucent pixels. Each step of a cross-fade is compared with an independent interpolation of the
+  end renderings, and the number of times the end renderers are invoked is counted.
+*/
+
+public class CrossFadeChecker
+{
+    /**
+      A renderer that produces a deterministic premultiplied pattern and counts its invocations.
+    */
+
+    private static class PatternRenderer
+      implements BasicRenderer
+    {
+        private final int seed;
+        private int renderCount;
+
+        public PatternRenderer(int seed)
+        {
+            this.seed = seed;
+        }
+
+        @Override
+        public void render(@NotNull int[] data, int rw, int rh, float w, float h)
+        {
+            renderCount++;
+            for (int row = 0; row < rh; row++) {
+                for (int col = 0; col < rw; col++) {
+                    int v = seed * 31 + col * 7 + row * 13;
+                    int alpha = (v % 3) == 0 ? 0 : (v % 3) == 1 ? 0xFF : (v * 17) & 0xFF;
+                    int red = ((v * 5) & 0xFF) * alpha / 255;
+                    int green = ((v * 11) & 0xFF) * alpha / 255;
+                    int blue = ((v * 23) & 0xFF) * alpha / 255;
+                    data[row * rw + col] = createPixel(alpha, red, green, blue);
+                }
+            }
+        }
+
+        public int getRenderCount()
+        {
+            return renderCount;
+        }
+    }
+
+    private static @NotNull int[] render(@NotNull Renderer r, int rw, int rh, int scaleFactor)
+    {
+        int[] data = new int[rw * rh];
+        r.composeTo(new ReusableCompositor(data, rw, rh, scaleFactor));
+        return data;
+    }
+
+    public static void main(@NotNull String[] args)
+    {
+        int stepCount = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int width = 23;
+        int height = 17;
+
+        PatternRenderer from = new PatternRenderer(1);
+        PatternRenderer to = new PatternRenderer(2);
+        Renderer[] steps = CrossFadeRenderer.createSteps(Renderer.create(from, null), Renderer.create(to, null),
+          stepCount);
+
+        int errorCount = 0;
+        int maximumError = 0;
+        int invalidPixelCount = 0;
+        int stepRenderCount = 0;
+        for (int scaleFactor = 1; scaleFactor <= 2; scaleFactor++) {
+            int rw = width * scaleFactor;
+            int rh = height * scaleFactor;
+
+            int[] first = new int[rw * rh];
+            new PatternRenderer(1).render(first, rw, rh, width, height);
+            int[] last = new int[rw * rh];
+            new PatternRenderer(2).render(last, rw, rh, width, height);
+
+            for (int step = 0; step <= stepCount; step++) {
+                float fraction = step / (float) stepCount;
+                int[] actual = render(steps[step], rw, rh, scaleFactor);
+                stepRenderCount++;
+                for (int i = 0; i < actual.length; i++) {
+                    int pixel = actual[i];
+                    if (red(pixel) > alpha(pixel) || green(pixel) > alpha(pixel) || blue(pixel) > alpha(pixel)) {
+                        invalidPixelCount++;
+                    }
+                    int[] a = { alpha(first[i]), red(first[i]), green(first[i]), blue(first[i]) };
+                    int[] b = { alpha(last[i]), red(last[i]), green(last[i]), blue(last[i]) };
+                    int[] c = { alpha(pixel), red(pixel), green(pixel), blue(pixel) };
+                    for (int k = 0; k < 4; k++) {
+                        int expected = Math.round(a[k] + (b[k] - a[k]) * fraction);
+                        int error = Math.abs(expected - c[k]);
+                        maximumError = Math.max(maximumError, error);
+                        boolean isEnd = step == 0 || step == stepCount;
+                        if (error > (isEnd ? 0 : 1)) {
+                            errorCount++;
+                        }
+                    }
+                }
+            }
+        }
+
+        // The steps are also usable as the frames of an animation strip.
+        AnimationStrip strip = new AnimationStrip(steps, width, height);
+        for (int step = 0; step <= stepCount; step++) {
+            strip.getFrame(1, step);
+        }
+        stepRenderCount += stepCount + 1;
+
+        System.out.println("Steps: " + stepCount);
+        System.out.println("Component errors: " + errorCount + " (maximum difference " + maximumError + ")");
+        System.out.println("Invalid premultiplied pixels: " + invalidPixelCount);
+        System.out.println("Step renderings: " + stepRenderCount);
+        System.out.println("End renderings: " + from.getRenderCount() + " + " + to.getRenderCount());
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.FlatteningPathIterator;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.RoundRectangle2D;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.violetlib.geom.GeneralRoundRectangle;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Verify the geometry of general round rectangles using randomly generated shapes, points, and rectangles. The
+  analytic containment and intersection tests are compared with the same tests applied to the path of the shape.
+  Because the path approximates the elliptical corners, a difference is counted as an error only if the path gives the
+  same answer for slightly displaced points or for slightly smaller and larger rectangles. The path of a shape with
+  equal corners is compared with the path of a round rectangle, and the cached flattened path is compared with
+  flattening the path.
+*/
+
+public class GeneralRoundRectangleChecker
+{
+    private static final double EPSILON = 0.01;
+
+    private static final Random random = new Random(1);
+
+    private static int shapeCount;
+    private static int pointCount;
+    private static int rectangleCount;
+    private static int containsErrorCount;
+    private static int intersectsErrorCount;
+    private static int pathErrorCount;
+    private static int flatteningErrorCount;
+
+    private static double randomArc(double limit)
+    {
+        switch (random.nextInt(4)) {
+            case 0: return 0;
+            case 1: return limit * 2 + random.nextDouble() * 10;  // oversized, limited by the shape
+            default: return random.nextDouble() * limit;
+        }
+    }
+
+    private static @NotNull GeneralRoundRectangle randomShape()
+    {
+        double x = random.nextDouble() * 40 - 20;
+        double y = random.nextDouble() * 40 - 20;
+        double w = 1 + random.nextDouble() * 60;
+        double h = 1 + random.nextDouble() * 60;
+        return new GeneralRoundRectangle(x, y, w, h,
+          randomArc(w), randomArc(h), randomArc(w), randomArc(h),
+          randomArc(w), randomArc(h), randomArc(w), randomArc(h));
+    }
+
+    private static @NotNull Path2D reference(@NotNull Shape s)
+    {
+        return new Path2D.Double(s);
+    }
+
+    private static void checkContains(@NotNull GeneralRoundRectangle rr, @NotNull Path2D p)
+    {
+        for (int i = 0; i < 500; i++) {
+            double x = rr.getX() - 2 + random.nextDouble() * (rr.getWidth() + 4);
+            double y = rr.getY() - 2 + random.nextDouble() * (rr.getHeight() + 4);
+            pointCount++;
+            boolean expected = p.contains(x, y);
+            if (rr.contains(x, y) != expected
+                  && p.contains(x - EPSILON, y - EPSILON) == expected
+                  && p.contains(x + EPSILON, y - EPSILON) == expected
+                  && p.contains(x - EPSILON, y + EPSILON) == expected
+                  && p.contains(x + EPSILON, y + EPSILON) == expected) {
+                containsErrorCount++;
+            }
+        }
+    }
+
+    private static void checkIntersects(@NotNull GeneralRoundRectangle rr, @NotNull Path2D p)
+    {
+        for (int i = 0; i < 500; i++) {
+            double x = rr.getX() - 4 + random.nextDouble() * (rr.getWidth() + 8);
+            double y = rr.getY() - 4 + random.nextDouble() * (rr.getHeight() + 8);
+            double w = random.nextDouble() * (i % 2 == 0 ? 2 : rr.getWidth());
+            double h = random.nextDouble() * (i % 2 == 0 ? 2 : rr.getHeight());
+            if (w <= 2 * EPSILON || h <= 2 * EPSILON) {
+                continue;
+            }
+            rectangleCount++;
+            boolean expected = p.intersects(x, y, w, h);
+            if (rr.intersects(x, y, w, h) != expected
+                  && p.intersects(x + EPSILON, y + EPSILON, w - 2 * EPSILON, h - 2 * EPSILON) == expected
+                  && p.intersects(x - EPSILON, y - EPSILON, w + 2 * EPSILON, h + 2 * EPSILON) == expected) {
+                intersectsErrorCount++;
+            }
+        }
+    }
+
+    private static void checkRoundRectangle(@NotNull GeneralRoundRectangle rr)
+    {
+        double aw = rr.getTopLeftArcWidth();
+        double ah = rr.getTopLeftArcHeight();
+        GeneralRoundRectangle uniform = new GeneralRoundRectangle(rr.getX(), rr.getY(), rr.getWidth(), rr.getHeight(),
+          aw, ah, aw, ah, aw, ah, aw, ah);
+        RoundRectangle2D expected = new RoundRectangle2D.Double(rr.getX(), rr.getY(), rr.getWidth(), rr.getHeight(),
+          aw, ah);
+        if (!isSamePath(expected.getPathIterator(null), uniform.getPathIterator(null))) {
+            pathErrorCount++;
+        }
+    }
+
+    private static void checkFlattening(@NotNull GeneralRoundRectangle rr)
+    {
+        double flatness = random.nextBoolean() ? 0.5 : 0.1;
+        AffineTransform tr = AffineTransform.getTranslateInstance(3, -2);
+
+        // The second iterator uses the cached flattened path
+        for (int i = 0; i < 2; i++) {
+            PathIterator expected = new FlatteningPathIterator(rr.getPathIterator(tr), flatness);
+            if (!isSamePath(expected, rr.getPathIterator(tr, flatness))) {
+                flatteningErrorCount++;
+            }
+        }
+
+        // Changing the shape must discard the cached flattened path
+        GeneralRoundRectangle other = randomShape();
+        rr.set(other);
+        PathIterator expected = new FlatteningPathIterator(other.getPathIterator(null), flatness);
+        if (!isSamePath(expected, rr.getPathIterator(null, flatness))) {
+            flatteningErrorCount++;
+        }
+    }
+
+    private static boolean isSamePath(@NotNull PathIterator expected, @NotNull PathIterator actual)
+    {
+        double[] ec = new double[6];
+        double[] ac = new double[6];
+        while (!expected.isDone()) {
+            if (actual.isDone()) {
+                return false;
+            }
+            Arrays.fill(ec, 0);
+            Arrays.fill(ac, 0);
+            if (expected.currentSegment(ec) != actual.currentSegment(ac)) {
+                return false;
+            }
+            for (int i = 0; i < 6; i++) {
+                if (Math.abs(ec[i] - ac[i]) > 1e-9) {
+                    return false;
+                }
+            }
+            expected.next();
+            actual.next();
+        }
+        return actual.isDone();
+    }
+
+    public static void main(@NotNull String[] args)
+    {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        for (int i = 0; i < count; i++) {
+            GeneralRoundRectangle rr = randomShape();
+            Path2D p = reference(rr);
+            shapeCount++;
+            checkContains(rr, p);
+            checkIntersects(rr, p);
+            checkRoundRectangle(rr);
+            checkFlattening(rr);
+        }
+
+        System.out.println("Shapes: " + shapeCount);
+        System.out.println("Points: " + pointCount + ", contains errors: " + containsErrorCount);
+        System.out.println("Rectangles: " + rectangleCount + ", intersects errors: " + intersectsErrorCount);
+        System.out.println("Round rectangle path errors: " + pathErrorCount);
+        System.out.println("Flattened path errors: " + flatteningErrorCount);
+    }
+}
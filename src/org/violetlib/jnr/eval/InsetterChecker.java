@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+
+import org.violetlib.jnr.Insetter;
+import org.violetlib.jnr.InsetterNotInvertibleException;
+import org.violetlib.jnr.impl.CenteredInsetter1;
+import org.violetlib.jnr.impl.CombinedInsetter;
+import org.violetlib.jnr.impl.FixedInsetter1;
+import org.violetlib.jnr.impl.FloatingInsetter1;
+import org.violetlib.jnr.impl.Insetter1;
+import org.violetlib.jnr.impl.Insetters;
+import org.violetlib.jnr.impl.RigidInsetter1;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Verify insetter evaluation using caller supplied rectangles and the folding of insetter sequences. Random insetters
+  and sequences of insetters are evaluated using the allocating methods, the methods that store into a supplied
+  rectangle, and, for sequences, the step by step application of the individual insetters.
+*/
+
+public class InsetterChecker
+{
+    private static final Random random = new Random(1);
+
+    private static int sequenceCount;
+    private static int foldedCount;
+    private static int evaluationCount;
+    private static int errorCount;
+
+    private static float randomInset()
+    {
+        switch (random.nextInt(3)) {
+            case 0: return 0;
+            case 1: return random.nextInt(6);
+            default: return random.nextInt(12) / 2f;
+        }
+    }
+
+    private static @NotNull Insetter1 randomInsetter1()
+    {
+        switch (random.nextInt(6)) {
+            case 0: return FloatingInsetter1.createLeftTopAligned(4 + random.nextInt(10), randomInset());
+            case 1: return CenteredInsetter1.createCentered(4 + random.nextInt(10));
+            case 2: return new RigidInsetter1(10, 16, 3);
+            default: return new FixedInsetter1(randomInset(), randomInset());
+        }
+    }
+
+    private static @NotNull Insetter randomInsetter()
+    {
+        if (random.nextInt(3) == 0) {
+            return Insetters.createFixed(randomInset(), randomInset(), randomInset(), randomInset());
+        }
+        return new CombinedInsetter(randomInsetter1(), randomInsetter1());
+    }
+
+    private static void check(boolean b, @NotNull String message)
+    {
+        evaluationCount++;
+        if (!b) {
+            errorCount++;
+            if (errorCount <= 10) {
+                System.out.println("Error: " + message);
+            }
+        }
+    }
+
+    private static boolean isSame(@NotNull Rectangle2D r1, @NotNull Rectangle2D r2)
+    {
+        return Math.abs(r1.getX() - r2.getX()) < 1e-4 && Math.abs(r1.getY() - r2.getY()) < 1e-4
+                 && Math.abs(r1.getWidth() - r2.getWidth()) < 1e-4
+                 && Math.abs(r1.getHeight() - r2.getHeight()) < 1e-4;
+    }
+
+    private static void checkOutputVariants(@NotNull Insetter s, int width, int height)
+    {
+        Rectangle2D.Float result = new Rectangle2D.Float();
+        s.applyTo(width, height, result);
+        check(isSame(s.apply2D(width, height), result), "applyTo " + width + "x" + height);
+
+        Rectangle2D bounds = new Rectangle2D.Float(3, 5, width, height);
+        result.setRect(bounds);
+        s.applyToBounds2D(result, result);
+        check(isSame(s.applyToBounds2D(bounds), result), "applyToBounds2D " + bounds);
+    }
+
+    private static void checkSequence(@NotNull Insetter i1, @NotNull Insetter i2)
+    {
+        Insetter s = i1.prepend(i2);
+        sequenceCount++;
+        if (Insetters.fold(i1, i2) != null) {
+            foldedCount++;
+        }
+
+        for (int i = 0; i < 10; i++) {
+            int width = 20 + random.nextInt(60);
+            int height = 20 + random.nextInt(60);
+
+            Rectangle2D expected2D = i2.applyToBounds2D(i1.apply2D(width, height));
+            check(isSame(expected2D, s.apply2D(width, height)), "apply2D " + width + "x" + height);
+
+            Rectangle expected = i2.applyToBounds(i1.apply(width, height));
+            check(expected.equals(s.apply(width, height)), "apply " + width + "x" + height);
+
+            checkOutputVariants(s, width, height);
+        }
+
+        if (s.isInvertible()) {
+            try {
+                Dimension d = new Dimension(10 + random.nextInt(40), 10 + random.nextInt(40));
+                check(i2.expand(i1.expand(d)).equals(s.expand(d)), "expand " + d);
+            } catch (InsetterNotInvertibleException ex) {
+                check(false, "expand: " + ex);
+            }
+        }
+    }
+
+    public static void main(@NotNull String[] args)
+    {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        for (int i = 0; i < count; i++) {
+            Insetter i1 = randomInsetter();
+            Insetter i2 = randomInsetter();
+            checkOutputVariants(i1, 20 + random.nextInt(60), 20 + random.nextInt(60));
+            checkSequence(i1, i2);
+            checkSequence(i1.prepend(i2), randomInsetter());
+        }
+
+        System.out.println("Sequences: " + sequenceCount + " (" + foldedCount + " folded)");
+        System.out.println("Evaluations: " + evaluationCount);
+        System.out.println("Errors: " + errorCount);
+    }
+}
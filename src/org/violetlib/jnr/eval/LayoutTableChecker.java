@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.violetlib.jnr.aqua.AquaUILayoutInfo;
+import org.violetlib.jnr.aqua.ButtonConfiguration;
+import org.violetlib.jnr.aqua.impl.LayoutInfo10_10;
+import org.violetlib.jnr.aqua.impl.LayoutInfo_10_11;
+import org.violetlib.jnr.aqua.impl.LayoutInfo_11;
+import org.violetlib.jnr.aqua.impl.LayoutInfo_12;
+import org.violetlib.jnr.aqua.impl.LayoutInfo_15;
+import org.violetlib.jnr.aqua.impl.LayoutInfo_26;
+
+import org.jetbrains.annotations.*;
+
+import static org.violetlib.jnr.aqua.AquaUIPainter.*;
+
+/**
+  Verify the layout tables of each platform layout against the existing layout logic for every combination of enum
+  values, and compare the time to obtain the layout information of button configurations in all states using the
+  tables and using the existing layout logic.
+*/
+
+public class LayoutTableChecker
+{
+    private static @NotNull List<ButtonConfiguration> createButtonConfigurations()
+    {
+        List<ButtonConfiguration> gs = new ArrayList<>();
+        for (ButtonWidget bw : ButtonWidget.values()) {
+            for (Size sz : Size.values()) {
+                for (State st : State.values()) {
+                    for (ButtonState bs : ButtonState.values()) {
+                        gs.add(new ButtonConfiguration(bw, sz, st, false, bs, UILayoutDirection.LEFT_TO_RIGHT));
+                    }
+                }
+            }
+        }
+        return gs;
+    }
+
+    private static long time(@NotNull AquaUILayoutInfo layout, @NotNull List<ButtonConfiguration> gs, int rounds)
+    {
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            for (ButtonConfiguration g : gs) {
+                layout.getLayoutInfo(g);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void check(@NotNull String name, @NotNull AquaUILayoutInfo layout)
+    {
+        long start = System.nanoTime();
+        try {
+            layout.initializeLayoutTables();
+        } catch (LinkageError ex) {
+            // some layouts consult the native library
+            System.out.println(name + ": requires the native library");
+            return;
+        }
+        long buildTime = System.nanoTime() - start;
+
+        List<String> problems = layout.verifyLayoutTables();
+        System.out.println(name + ": tables built in " + buildTime / 1000000 + " ms, " + problems.size()
+          + " inconsistent entries");
+        for (int i = 0; i < problems.size() && i < 10; i++) {
+            System.out.println("  " + problems.get(i));
+        }
+    }
+
+    public static void main(@NotNull String[] args)
+    {
+        List<ButtonConfiguration> gs = createButtonConfigurations();
+
+        check("10.10", new LayoutInfo10_10());
+        check("10.11", new LayoutInfo_10_11());
+        check("11", new LayoutInfo_11());
+        check("12", new LayoutInfo_12());
+        check("15", new LayoutInfo_15());
+        check("26", new LayoutInfo_26());
+
+        int rounds = 50;
+        AquaUILayoutInfo withoutTables = new LayoutInfo10_10();
+        AquaUILayoutInfo withTables = new LayoutInfo10_10();
+        withTables.initializeLayoutTables();
+        for (int i = 0; i < 5; i++) {
+            time(withoutTables, gs, rounds);
+            time(withTables, gs, rounds);
+        }
+        long t1 = time(withoutTables, gs, rounds);
+        long t2 = time(withTables, gs, rounds);
+        long requests = (long) rounds * gs.size();
+        System.out.println("Button configurations: " + gs.size());
+        System.out.println("Without tables: " + t1 / requests + " ns per request ("
+          + withoutTables.getLayoutInfoMissCount() + " memo misses)");
+        System.out.println("With tables: " + t2 / requests + " ns per request ("
+          + withTables.getLayoutTableHitCount() + " table hits)");
+    }
+}
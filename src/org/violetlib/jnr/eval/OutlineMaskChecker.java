@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+
+import org.violetlib.geom.ExpandableOutline;
+import org.violetlib.geom.GeneralRoundRectangle;
+import org.violetlib.jnr.impl.JavaSupport;
+import org.violetlib.jnr.impl.OutlineMaskCache;
+
+import org.jetbrains.annotations.*;
+
+import static org.violetlib.jnr.impl.ImageUtils.*;
+
+/**
+  Verify focus ring painting using cached outline masks. Rings painted using masks are compared with rings filled
+  directly using Java2D, for several outline types, positions, and scale factors. Outlines that differ only by an
+  integral translation share a mask, as shown by the cache statistics.
+*/
+
+public class OutlineMaskChecker
+{
+    private static final int WIDTH = 120;
+    private static final int HEIGHT = 60;
+    private static final float INNER_OFFSET = -0.5f;
+    private static final float OUTER_OFFSET = 3f;
+    private static final Color COLOR = new Color(0x3F, 0x8E, 0xF7, 0xBF);
+
+    private static int errorCount;
+    private static int maximumDifference;
+
+    private static @NotNull BufferedImage createImage(int scaleFactor)
+    {
+        return new BufferedImage(WIDTH * scaleFactor, HEIGHT * scaleFactor, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static @NotNull int[] paintUsingMask(@NotNull ExpandableOutline outline, int scaleFactor)
+    {
+        BufferedImage im = createImage(scaleFactor);
+        Graphics2D g = JavaSupport.createOffscreenGraphics(im, scaleFactor);
+        try {
+            OutlineMaskCache.getInstance().paintRing(g, outline, INNER_OFFSET, OUTER_OFFSET, COLOR);
+        } finally {
+            g.dispose();
+        }
+        return im.getRGB(0, 0, im.getWidth(), im.getHeight(), null, 0, im.getWidth());
+    }
+
+    private static @NotNull int[] paintDirectly(@NotNull ExpandableOutline outline, int scaleFactor)
+    {
+        BufferedImage im = createImage(scaleFactor);
+        Graphics2D g = JavaSupport.createOffscreenGraphics(im, scaleFactor);
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            Path2D p = new Path2D.Double(Path2D.WIND_EVEN_ODD);
+            p.append(outline.getShape(OUTER_OFFSET), false);
+            p.append(outline.getShape(INNER_OFFSET), false);
+            g.setColor(COLOR);
+            g.fill(p);
+        } finally {
+            g.dispose();
+        }
+        return im.getRGB(0, 0, im.getWidth(), im.getHeight(), null, 0, im.getWidth());
+    }
+
+    private static int premultiply(int component, int pixel)
+    {
+        return (component * alpha(pixel) + 127) / 255;
+    }
+
+    private static void check(@NotNull String name, @NotNull Shape s)
+    {
+        ExpandableOutline outline = ExpandableOutline.fromShape(s);
+        for (int scaleFactor = 1; scaleFactor <= 2; scaleFactor++) {
+            int[] expected = paintDirectly(outline, scaleFactor);
+            int[] actual = paintUsingMask(outline, scaleFactor);
+            int difference = 0;
+            for (int i = 0; i < expected.length; i++) {
+                int e = expected[i];
+                int a = actual[i];
+                // The color components of translucent pixels are compared premultiplied, as they are painted
+                difference = Math.max(difference, Math.abs(alpha(e) - alpha(a)));
+                difference = Math.max(difference, Math.abs(premultiply(red(e), e) - premultiply(red(a), a)));
+                difference = Math.max(difference, Math.abs(premultiply(green(e), e) - premultiply(green(a), a)));
+                difference = Math.max(difference, Math.abs(premultiply(blue(e), e) - premultiply(blue(a), a)));
+            }
+            maximumDifference = Math.max(maximumDifference, difference);
+            if (difference > 2) {
+                errorCount++;
+            }
+            System.out.println(name + " @" + scaleFactor + "x: maximum difference " + difference);
+        }
+    }
+
+    public static void main(@NotNull String[] args)
+    {
+        OutlineMaskCache cache = OutlineMaskCache.getInstance();
+
+        for (int i = 0; i < 3; i++) {
+            double x = 10 + i * 7;
+            double y = 8 + i * 3;
+            check("Round rectangle at " + x + "," + y, new RoundRectangle2D.Double(x, y, 80, 22, 10, 10));
+            check("Rectangle at " + x + "," + y, new Rectangle2D.Double(x, y, 80, 22));
+            check("Ellipse at " + x + "," + y, new Ellipse2D.Double(x, y, 30, 30));
+            check("General round rectangle at " + x + "," + y,
+              new GeneralRoundRectangle(x, y, 60, 24, 12, 12, 0, 0, 12, 12, 0, 0));
+        }
+        check("Round rectangle at 10.5,8.25", new RoundRectangle2D.Double(10.5, 8.25, 80, 22, 10, 10));
+
+        Path2D triangle = new Path2D.Double();
+        triangle.moveTo(20, 10);
+        triangle.lineTo(60, 50);
+        triangle.lineTo(10, 50);
+        triangle.closePath();
+        check("Generic path (not cached)", triangle);
+
+        System.out.println(cache.getStatistics());
+        System.out.println("Maximum difference: " + maximumDifference);
+        System.out.println("Errors: " + errorCount);
+
+        if (errorCount > 0) {
+            System.exit(1);
+        }
+    }
+}
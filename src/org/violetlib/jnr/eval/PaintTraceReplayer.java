@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.violetlib.jnr.Painter;
+import org.violetlib.jnr.aqua.impl.PaintTraceEvent;
+import org.violetlib.jnr.aqua.impl.PaintTraceReader;
+import org.violetlib.jnr.impl.CachingRendererPainter;
+import org.violetlib.jnr.impl.ImageCache;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Replays a paint trace recorded by {@link org.violetlib.jnr.aqua.impl.PaintTraceRecorder} against a painter
+  implementation and reports throughput, latency percentiles, and image cache behavior. The events are replayed
+  sequentially, in trace order, on the calling thread, without reproducing the recorded delays between events.
+
+  <p>
+  The {@link SyntheticReplayTarget} uses a pure Java renderer and the standard image cache, which allows a trace to be
+  replayed on any platform. Running this class as a program replays the specified trace file using that target.
+*/
+
+public class PaintTraceReplayer
+{
+    /**
+      The painter implementation driven by the replay.
+    */
+
+    public interface Target
+    {
+        /**
+          Obtain a painter in response to a painter request event.
+        */
+
+        @NotNull Painter getPainter(@NotNull PaintTraceEvent e);
+
+        /**
+          Paint using a painter in response to a paint event.
+
+          @param p The painter most recently obtained for the same configuration and appearance.
+          @param e The paint event.
+          @param g The graphics context.
+        */
+
+        void paint(@NotNull Painter p, @NotNull PaintTraceEvent e, @NotNull Graphics2D g);
+    }
+
+    /**
+      The results of a replay.
+    */
+
+    public static final class Report
+    {
+        private final int eventCount;
+        private final long elapsedNanos;
+        private final @NotNull long[] painterLatencies;  // sorted
+        private final @NotNull long[] paintLatencies;    // sorted
+        private final int recordedHits;
+        private final int recordedMisses;
+        private final int replayedHits;
+        private final int replayedMisses;
+        private final int unmatchedPaints;
+
+        Report(int eventCount,
+               long elapsedNanos,
+               @NotNull long[] painterLatencies,
+               @NotNull long[] paintLatencies,
+               int recordedHits,
+               int recordedMisses,
+               int replayedHits,
+               int replayedMisses,
+               int unmatchedPaints)
+        {
+            this.eventCount = eventCount;
+            this.elapsedNanos = elapsedNanos;
+            this.painterLatencies = painterLatencies;
+            this.paintLatencies = paintLatencies;
+            this.recordedHits = recordedHits;
+            this.recordedMisses = recordedMisses;
+            this.replayedHits = replayedHits;
+            this.replayedMisses = replayedMisses;
+            this.unmatchedPaints = unmatchedPaints;
+            Arrays.sort(painterLatencies);
+            Arrays.sort(paintLatencies);
+        }
+
+        public int getEventCount()
+        {
+            return eventCount;
+        }
+
+        public long getElapsedNanos()
+        {
+            return elapsedNanos;
+        }
+
+        /**
+          Return the number of events replayed per second.
+        */
+
+        public double getThroughput()
+        {
+            return elapsedNanos > 0 ? eventCount * 1e9 / elapsedNanos : 0;
+        }
+
+        /**
+          Return a percentile of the painter request latency, in nanoseconds.
+          @param p The percentile, from 0 to 100.
+        */
+
+        public long getPainterLatency(double p)
+        {
+            return percentile(painterLatencies, p);
+        }
+
+        /**
+          Return a percentile of the paint latency, in nanoseconds.
+          @param p The percentile, from 0 to 100.
+        */
+
+        public long getPaintLatency(double p)
+        {
+            return percentile(paintLatencies, p);
+        }
+
+        public int getRecordedHits()
+        {
+            return recordedHits;
+        }
+
+        public int getRecordedMisses()
+        {
+            return recordedMisses;
+        }
+
+        public int getReplayedHits()
+        {
+            return replayedHits;
+        }
+
+        public int getReplayedMisses()
+        {
+            return replayedMisses;
+        }
+
+        /**
+          Return the number of paint events that could not be replayed because no painter had been obtained for the
+          configuration and appearance.
+        */
+
+        public int getUnmatchedPaints()
+        {
+            return unmatchedPaints;
+        }
+
+        private static long percentile(@NotNull long[] sorted, double p)
+        {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+
+        @Override
+        public @NotNull String toString()
+        {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Events: ").append(eventCount);
+            sb.append(String.format(" in %.1f ms (%.0f events/s)%n", elapsedNanos / 1e6, getThroughput()));
+            appendLatencies(sb, "Painter requests", painterLatencies);
+            appendLatencies(sb, "Paints", paintLatencies);
+            sb.append("Cache recorded: ").append(recordedHits).append(" hits, ").append(recordedMisses).append(" misses");
+            sb.append(String.format("%n"));
+            sb.append("Cache replayed: ").append(replayedHits).append(" hits, ").append(replayedMisses).append(" misses");
+            sb.append(String.format("%n"));
+            if (unmatchedPaints > 0) {
+                sb.append("Unmatched paints: ").append(unmatchedPaints).append(String.format("%n"));
+            }
+            return sb.toString();
+        }
+
+        private static void appendLatencies(@NotNull StringBuilder sb, @NotNull String name, @NotNull long[] sorted)
+        {
+            sb.append(String.format("%s: %d, p50 %.1f us, p90 %.1f us, p99 %.1f us, max %.1f us%n",
+              name, sorted.length, percentile(sorted, 50) / 1e3, percentile(sorted, 90) / 1e3,
+              percentile(sorted, 99) / 1e3, percentile(sorted, 100) / 1e3));
+        }
+    }
+
+    protected final @NotNull Target target;
+
+    public PaintTraceReplayer(@NotNull Target target)
+    {
+        this.target = target;
+    }
+
+    /**
+      Replay a trace.
+
+      @param events The events of the trace.
+      @return the results.
+    */
+
+    public @NotNull Report replay(@NotNull List<PaintTraceEvent> events)
+    {
+        Map<String,Painter> painters = new HashMap<>();
+        long[] painterLatencies = new long[events.size()];
+        long[] paintLatencies = new long[events.size()];
+        int painterCount = 0;
+        int paintCount = 0;
+        int recordedHits = 0;
+        int recordedMisses = 0;
+        int replayedHits = 0;
+        int replayedMisses = 0;
+        int unmatchedPaints = 0;
+
+        BufferedImage im = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = im.createGraphics();
+
+        long start = System.nanoTime();
+        try {
+            for (PaintTraceEvent e : events) {
+                String key = e.getConfiguration().getID() + "/" + e.getAppearanceName();
+                if (e.isPaint()) {
+                    int outcome = e.getCacheOutcome();
+                    if (outcome == CachingRendererPainter.CACHE_HIT) {
+                        recordedHits++;
+                    } else if (outcome == CachingRendererPainter.CACHE_MISS) {
+                        recordedMisses++;
+                    }
+                    Painter p = painters.get(key);
+                    if (p == null) {
+                        unmatchedPaints++;
+                        continue;
+                    }
+                    int hits = ImageCache.getHitCount();
+                    int misses = ImageCache.getMissCount();
+                    long t = System.nanoTime();
+                    target.paint(p, e, g);
+                    paintLatencies[paintCount++] = System.nanoTime() - t;
+                    replayedHits += ImageCache.getHitCount() - hits;
+                    replayedMisses += ImageCache.getMissCount() - misses;
+                } else {
+                    long t = System.nanoTime();
+                    Painter p = target.getPainter(e);
+                    painterLatencies[painterCount++] = System.nanoTime() - t;
+                    painters.put(key, p);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new Report(events.size() - unmatchedPaints, elapsed,
+          Arrays.copyOf(painterLatencies, painterCount), Arrays.copyOf(paintLatencies, paintCount),
+          recordedHits, recordedMisses, replayedHits, replayedMisses, unmatchedPaints);
+    }
+
+    /**
+      Replay a trace file using the synthetic target.
+    */
+
+    public static void main(@NotNull String[] args)
+      throws IOException
+    {
+        if (args.length != 1) {
+            System.err.println("Usage: PaintTraceReplayer <trace file>");
+            System.exit(1);
+        }
+
+        List<PaintTraceEvent> events;
+        try (InputStream s = new FileInputStream(args[0])) {
+            events = PaintTraceReader.read(s);
+        }
+
+        PaintTraceReplayer replayer = new PaintTraceReplayer(new SyntheticReplayTarget());
+        Report report = replayer.replay(events);
+        System.out.print(report);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.violetlib.jnr.impl.BasicRenderer;
+import org.violetlib.jnr.impl.BasicRendererDescription;
+import org.violetlib.jnr.impl.DirectBasicRenderer;
+import org.violetlib.jnr.impl.PixelBuffer;
+import org.violetlib.jnr.impl.Renderer;
+import org.violetlib.jnr.impl.RendererDescription;
+import org.violetlib.jnr.impl.ReusableCompositor;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Verify the pixel buffer abstraction without native code. Renderings into heap and direct pixel buffers, composed
+  into a compositor, are compared with the same renderings performed using an intermediate compositor. A synthetic
+  renderer that supports direct buffers stands in for a native renderer.
+*/
+
+public class PixelBufferChecker
+{
+    /**
+      A renderer that produces a deterministic pattern and optionally supports direct buffers.
+    */
+
+    public static class PatternRenderer
+      implements DirectBasicRenderer
+    {
+        private final int seed;
+        private final boolean supportsDirect;
+
+        public PatternRenderer(int seed, boolean supportsDirect)
+        {
+            this.seed = seed;
+            this.supportsDirect = supportsDirect;
+        }
+
+        public int getPixel(int col, int row, float w, float h)
+        {
+            int v = seed * 31 + col * 7 + row * 13 + Math.round(w * 10) + Math.round(h * 100);
+            int alpha = (v % 3) == 0 ? 0x80 : 0xFF;
+            // leave some pixels transparent; other pixels are valid premultiplied values
+            return (v % 5) == 0 ? 0 : (alpha << 24) | (v & 0x7F7F7F);
+        }
+
+        @Override
+        public void render(@NotNull int[] data, int rw, int rh, float w, float h)
+        {
+            for (int row = 0; row < rh; row++) {
+                for (int col = 0; col < rw; col++) {
+                    data[row * rw + col] = getPixel(col, row, w, h);
+                }
+            }
+        }
+
+        @Override
+        public boolean render(@NotNull IntBuffer buffer, int rw, int rh, float w, float h)
+        {
+            if (!supportsDirect) {
+                return false;
+            }
+            for (int row = 0; row < rh; row++) {
+                for (int col = 0; col < rw; col++) {
+                    buffer.put(row * rw + col, getPixel(col, row, w, h));
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+      A renderer that does not support direct buffers, used to obtain the expected result.
+    */
+
+    private static class ArrayRenderer
+      implements BasicRenderer
+    {
+        private final @NotNull BasicRenderer r;
+
+        public ArrayRenderer(@NotNull BasicRenderer r)
+        {
+            this.r = r;
+        }
+
+        @Override
+        public void render(@NotNull int[] data, int rw, int rh, float w, float h)
+        {
+            r.render(data, rw, rh, w, h);
+        }
+    }
+
+    private static @NotNull int[] compose(@NotNull Renderer r, int rw, int rh, int scaleFactor, int background)
+    {
+        int[] data = new int[rw * rh];
+        Arrays.fill(data, background);
+        ReusableCompositor rc = new ReusableCompositor(data, rw, rh, scaleFactor);
+        r.composeTo(rc);
+        return data;
+    }
+
+    private static @NotNull int[] composeBuffer(@NotNull PixelBuffer b,
+                                                @NotNull BasicRenderer r,
+                                                int rw,
+                                                int rh,
+                                                int scaleFactor,
+                                                int background)
+    {
+        int[] data = new int[rw * rh];
+        Arrays.fill(data, background);
+        ReusableCompositor rc = new ReusableCompositor(data, rw, rh, scaleFactor);
+        b.render(r, rw, rh, ((float) rw) / scaleFactor, ((float) rh) / scaleFactor);
+        rc.composeFrom(b, 0, 0, 0, 0, rw, rh);
+        return data;
+    }
+
+    private static int countDifferences(@NotNull int[] expected, @NotNull int[] actual)
+    {
+        int count = 0;
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != actual[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void main(@NotNull String[] args)
+    {
+        int trialCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+        Random random = new Random(0);
+        int errorCount = 0;
+        for (int i = 0; i < trialCount; i++) {
+            int seed = random.nextInt(1000);
+            boolean supportsDirect = random.nextInt(4) != 0;
+            PatternRenderer pr = new PatternRenderer(seed, supportsDirect);
+            int scaleFactor = 1 + random.nextInt(2);
+            int rw = (1 + random.nextInt(60)) * scaleFactor;
+            int rh = (1 + random.nextInt(40)) * scaleFactor;
+            int background = random.nextBoolean() ? 0 : 0xFF204060;
+
+            // Compose with an offset and size adjustment, which uses an intermediate raster.
+            float x = random.nextInt(5) - 2;
+            float y = random.nextInt(5) - 2;
+            RendererDescription rd = new BasicRendererDescription(x, y, random.nextInt(5), random.nextInt(5));
+            int[] expected = compose(Renderer.create(new ArrayRenderer(pr), rd), rw, rh, scaleFactor, background);
+            int[] actual = compose(Renderer.create(pr, rd), rw, rh, scaleFactor, background);
+            if (countDifferences(expected, actual) > 0) {
+                errorCount++;
+            }
+
+            // Render into heap and direct pixel buffers.
+            int[] direct = composeBuffer(PixelBuffer.createDirectBuffer(rw * rh), pr, rw, rh, scaleFactor, background);
+            int[] heap = composeBuffer(PixelBuffer.createHeapBuffer(rw * rh), pr, rw, rh, scaleFactor, background);
+            if (countDifferences(heap, direct) > 0) {
+                errorCount++;
+            }
+        }
+
+        System.out.println("Trials: " + trialCount);
+        System.out.println("Errors: " + errorCount);
+    }
+}
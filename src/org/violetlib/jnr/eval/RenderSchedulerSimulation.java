@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.awt.Image;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.violetlib.jnr.impl.RenderScheduler;
+import org.violetlib.jnr.impl.RenderTicket;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Simulate a table that is scrolled while its cells are rendered asynchronously, without native code. Each scroll
+  step is a new generation that requests the visible rows and prefetches the rows below them. Row keys overlap from one
+  step to the next, so many requests are coalesced. The simulation verifies that no superseded rendering is performed
+  after a newer generation has been submitted, and reports how many renderings were avoided.
+*/
+
+public class RenderSchedulerSimulation
+{
+    public static void main(@NotNull String[] args)
+      throws Exception
+    {
+        int stepCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int visibleRowCount = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int rowsPerStep = args.length > 2 ? Integer.parseInt(args[2]) : 7;
+        long renderMicros = args.length > 3 ? Long.parseLong(args[3]) : 200;
+
+        RenderScheduler scheduler = RenderScheduler.getInstance();
+        Object table = new Object();
+        AtomicInteger renderCount = new AtomicInteger();
+        AtomicInteger staleCount = new AtomicInteger();
+        AtomicInteger latestGeneration = new AtomicInteger();
+        int requestCount = 0;
+        List<CompletableFuture<Image>> lastFutures = new ArrayList<>();
+
+        // Rows are identified by their index. A rendering is stale if it serves only rows that are no longer wanted.
+
+        for (int step = 0; step < stepCount; step++) {
+            int generation = step;
+            latestGeneration.set(generation);
+            int firstRow = step * rowsPerStep;
+            lastFutures.clear();
+            for (int i = 0; i < 2 * visibleRowCount; i++) {
+                int row = firstRow + i;
+                RenderTicket.Priority p = i < visibleRowCount ? RenderTicket.Priority.VISIBLE : RenderTicket.Priority.PREFETCH;
+                RenderTicket ticket = new RenderTicket(p, table, generation);
+                Supplier<Image> renderer = () -> {
+                    renderCount.incrementAndGet();
+                    int current = latestGeneration.get() * rowsPerStep;
+                    if (row + 2 * visibleRowCount < current) {
+                        staleCount.incrementAndGet();
+                    }
+                    long end = System.nanoTime() + renderMicros * 1000;
+                    while (System.nanoTime() < end) {
+                        Thread.yield();
+                    }
+                    return null;
+                };
+                lastFutures.add(scheduler.submit(row, renderer, ticket));
+                requestCount++;
+            }
+            Thread.sleep(1);
+        }
+
+        // Wait for the final generation.
+        CountDownLatch done = new CountDownLatch(lastFutures.size());
+        for (CompletableFuture<Image> f : lastFutures) {
+            f.whenComplete((im, ex) -> done.countDown());
+        }
+        done.await();
+
+        int cancelledFinal = 0;
+        for (CompletableFuture<Image> f : lastFutures) {
+            if (f.isCancelled()) {
+                cancelledFinal++;
+            }
+        }
+
+        System.out.println("Requests: " + requestCount);
+        System.out.println("Renderings: " + renderCount.get());
+        System.out.println("Coalesced: " + scheduler.getCoalescedCount());
+        System.out.println("Cancelled: " + scheduler.getCancelledCount());
+        System.out.println("Stale renderings: " + staleCount.get());
+        System.out.println("Final generation requests cancelled: " + cancelledFinal);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import org.violetlib.jnr.impl.Renderer;
+import org.violetlib.jnr.impl.ReusableCompositor;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Compare the output of two renderers. This tool is used to verify that an optimized rendering path produces exactly
+  the same pixels as the path it replaces.
+*/
+
+public class RendererComparator
+{
+    protected final int rasterWidth;
+    protected final int rasterHeight;
+    protected final int scaleFactor;
+
+    /**
+      Create a comparator.
+
+      @param rasterWidth The width of the raster used for the comparison, in pixels.
+      @param rasterHeight The height of the raster used for the comparison, in pixels.
+      @param scaleFactor The scale factor.
+    */
+
+    public RendererComparator(int rasterWidth, int rasterHeight, int scaleFactor)
+    {
+        if (scaleFactor < 1 || scaleFactor > 8) {
+            throw new IllegalArgumentException("Invalid or unsupported scale factor");
+        }
+
+        if (rasterWidth < 0 || rasterHeight < 0) {
+            throw new IllegalArgumentException("Invalid negative raster width and/or height");
+        }
+
+        this.rasterWidth = rasterWidth;
+        this.rasterHeight = rasterHeight;
+        this.scaleFactor = scaleFactor;
+    }
+
+    /**
+      Render using both renderers and count the pixels that differ.
+
+      @param expected The reference renderer.
+      @param actual The renderer being checked.
+      @return the number of pixels whose values differ.
+    */
+
+    public int countDifferences(@NotNull Renderer expected, @NotNull Renderer actual)
+    {
+        int[] expectedPixels = render(expected);
+        int[] actualPixels = render(actual);
+        int count = 0;
+        for (int i = 0; i < expectedPixels.length; i++) {
+            if (expectedPixels[i] != actualPixels[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+      Determine whether two renderers produce identical pixels.
+    */
+
+    public boolean isIdentical(@NotNull Renderer expected, @NotNull Renderer actual)
+    {
+        return countDifferences(expected, actual) == 0;
+    }
+
+    protected @NotNull int[] render(@NotNull Renderer r)
+    {
+        int[] result = new int[rasterWidth * rasterHeight];
+        ReusableCompositor rc = new ReusableCompositor(result, rasterWidth, rasterHeight, scaleFactor);
+        r.composeTo(rc);
+        return result;
+    }
+}
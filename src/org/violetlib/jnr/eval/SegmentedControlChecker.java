@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import org.violetlib.jnr.Painter;
+import org.violetlib.jnr.aqua.RenderContext;
+import org.violetlib.jnr.aqua.SegmentedButtonConfiguration;
+import org.violetlib.jnr.aqua.SegmentedButtonConfiguration.DividerState;
+import org.violetlib.jnr.aqua.impl.AquaNativePainter;
+import org.violetlib.jnr.aqua.impl.AquaNativeSegmentedControlPainter;
+import org.violetlib.jnr.impl.ImageCache;
+import org.violetlib.jnr.impl.JavaSupport;
+import org.violetlib.jnr.impl.Renderer;
+import org.violetlib.jnr.impl.ReusableCompositor;
+import org.violetlib.vappearances.VAppearance;
+
+import org.jetbrains.annotations.*;
+
+import static org.violetlib.jnr.aqua.AquaUIPainter.*;
+
+/**
+  Verify the group rendering of segmented controls. Each button of a set of segmented controls is rendered using the
+  group renderers and individually, and the renderings are compared. The number of native renderings performed by each
+  method is also reported. The segmented control painters of the native painter are also compared with the painters
+  for the individual buttons, in light and dark appearances. Requires the native library.
+*/
+
+public class SegmentedControlChecker
+{
+    private static final int HEIGHT = 22;
+
+    private static int buttonCount;
+    private static int errorCount;
+
+    private static @NotNull SegmentedButtonConfiguration[] createControl(@NotNull SegmentedButtonWidget bw,
+                                                                          @NotNull State st,
+                                                                          @NotNull boolean[] selections)
+    {
+        int n = selections.length;
+        SegmentedButtonConfiguration[] gs = new SegmentedButtonConfiguration[n];
+        for (int i = 0; i < n; i++) {
+            Position pos = n == 1 ? Position.ONLY : i == 0 ? Position.FIRST : i == n - 1 ? Position.LAST
+              : Position.MIDDLE;
+            DividerState left = i > 0 && selections[i-1] ? DividerState.SELECTED : DividerState.NONE;
+            DividerState right = i == n - 1 ? DividerState.NONE
+              : selections[i+1] ? DividerState.SELECTED : DividerState.ORDINARY;
+            gs[i] = new SegmentedButtonConfiguration(bw, Size.REGULAR, st, selections[i], false, Direction.NONE,
+              pos, left, right, SwitchTracking.SELECT_ANY);
+        }
+        return gs;
+    }
+
+    private static @NotNull int[] render(@NotNull Renderer r, int width, int scale)
+    {
+        int[] data = new int[width * scale * HEIGHT * scale];
+        ReusableCompositor compositor = new ReusableCompositor(data, width * scale, HEIGHT * scale, scale);
+        r.composeTo(compositor);
+        return data;
+    }
+
+    private static void check(@NotNull AquaNativeSegmentedControlPainter p,
+                              @NotNull VAppearance appearance,
+                              @NotNull SegmentedButtonWidget bw,
+                              @NotNull State st,
+                              @NotNull boolean[] selections,
+                              int scale)
+    {
+        SegmentedButtonConfiguration[] gs = createControl(bw, st, selections);
+        int[] widths = new int[gs.length];
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = 30 + 7 * i;
+        }
+        Renderer[] rs = p.createSegmentedControlRenderers(gs, widths, HEIGHT, appearance);
+        for (int i = 0; i < gs.length; i++) {
+            buttonCount++;
+            int[] expected = render(p.createSegmentedButtonRenderer(gs[i]), widths[i], scale);
+            int[] actual = render(rs[i], widths[i], scale);
+            if (!Arrays.equals(expected, actual)) {
+                errorCount++;
+                if (errorCount <= 10) {
+                    System.out.println("Error: " + gs[i] + " @" + scale + "x");
+                }
+            }
+        }
+    }
+
+    private static @NotNull int[] paint(@NotNull Painter p, int width, int scale)
+    {
+        BufferedImage im = new BufferedImage(width * scale, HEIGHT * scale, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = JavaSupport.createOffscreenGraphics(im, scale);
+        try {
+            p.paint(g, 0, 0);
+        } finally {
+            g.dispose();
+        }
+        return im.getRGB(0, 0, width * scale, HEIGHT * scale, null, 0, width * scale);
+    }
+
+    private static void checkPainters(@NotNull AquaNativePainter p,
+                                      @NotNull VAppearance appearance,
+                                      @NotNull SegmentedButtonWidget bw,
+                                      @NotNull boolean[] selections,
+                                      int scale)
+    {
+        SegmentedButtonConfiguration[] gs = createControl(bw, State.ACTIVE, selections);
+        int[] widths = new int[gs.length];
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = 30 + 7 * i;
+        }
+        // The cache is flushed so that each method renders the buttons
+
+        ImageCache.getInstance().flush();
+        Painter[] ps = p.getSegmentedControlPainters(gs, widths, HEIGHT, appearance);
+        int[][] actual = new int[gs.length][];
+        for (int i = 0; i < gs.length; i++) {
+            actual[i] = paint(ps[i], widths[i], scale);
+        }
+        ImageCache.getInstance().flush();
+        for (int i = 0; i < gs.length; i++) {
+            painterButtonCount++;
+            Painter individual = p.getPainter(new RenderContext(widths[i], HEIGHT, appearance), gs[i]);
+            int[] expected = paint(individual, widths[i], scale);
+            if (!Arrays.equals(expected, actual[i])) {
+                painterErrorCount++;
+                if (painterErrorCount <= 10) {
+                    System.out.println("Painter error: " + gs[i] + " " + appearance.getName() + " @" + scale + "x");
+                }
+            }
+        }
+    }
+
+    private static int painterButtonCount;
+    private static int painterErrorCount;
+
+    public static void main(@NotNull String[] args)
+    {
+        AquaNativeSegmentedControlPainter p = new AquaNativeSegmentedControlPainter();
+        SegmentedButtonWidget[] widgets = {
+          SegmentedButtonWidget.BUTTON_SEGMENTED,
+          SegmentedButtonWidget.BUTTON_SEGMENTED_SEPARATED,
+          SegmentedButtonWidget.BUTTON_SEGMENTED_TEXTURED,
+          SegmentedButtonWidget.BUTTON_SEGMENTED_SMALL_SQUARE
+        };
+        boolean[][] selections = {
+          { false, false },
+          { false, false, false, false },
+          { false, true, false, false, false },
+          { true, false, false, true, false, false },
+        };
+
+        VAppearance[] appearances = {
+          SpriteAtlasChecker.createAppearance("NSAppearanceNameAqua", false),
+          SpriteAtlasChecker.createAppearance("NSAppearanceNameDarkAqua", true)
+        };
+        AquaNativePainter np;
+
+        try {
+            // The individual renderings use the configured native appearance
+            np = new AquaNativePainter();
+            np.configureAppearance(appearances[0]);
+            for (int scale = 1; scale <= 2; scale++) {
+                for (SegmentedButtonWidget bw : widgets) {
+                    for (State st : new State[] { State.ACTIVE, State.INACTIVE }) {
+                        for (boolean[] ss : selections) {
+                            check(p, appearances[0], bw, st, ss, scale);
+                        }
+                    }
+                }
+            }
+        } catch (LinkageError ex) {
+            System.out.println("Segmented control rendering requires the native library");
+            return;
+        }
+
+        // Each button is rendered twice, individually and as part of a group
+        int totalCount = p.getNativeRenderCount();
+        System.out.println("Buttons: " + buttonCount);
+        System.out.println("Group native renderings: " + (totalCount - buttonCount));
+        System.out.println("Errors: " + errorCount);
+
+        for (int scale = 1; scale <= 2; scale++) {
+            for (VAppearance a : appearances) {
+                for (SegmentedButtonWidget bw : widgets) {
+                    for (boolean[] ss : selections) {
+                        checkPainters(np, a, bw, ss, scale);
+                    }
+                }
+            }
+        }
+        System.out.println("Painter buttons: " + painterButtonCount);
+        System.out.println("Painter errors: " + painterErrorCount);
+    }
+}
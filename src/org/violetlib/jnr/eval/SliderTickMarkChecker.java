@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import org.violetlib.jnr.aqua.SliderConfiguration;
+import org.violetlib.jnr.aqua.coreui.LinearSliderTickMarkRenderer;
+import org.violetlib.jnr.impl.Renderer;
+import org.violetlib.jnr.impl.SliderTickMarkRendererFactory;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Verify that the stamped rendering of linear slider tick marks is identical to rendering each tick mark individually.
+*/
+
+public class SliderTickMarkChecker
+{
+    /**
+      Compare the stamped and per-tick renderings of the tick marks of a linear slider.
+
+      @param g The slider configuration.
+      @param f The factory that creates the renderers for individual tick marks.
+      @param width The width of the tick mark region, in device independent pixels.
+      @param height The height of the tick mark region, in device independent pixels.
+      @param scaleFactor The scale factor.
+      @return the number of pixels that differ.
+    */
+
+    public static int countDifferences(@NotNull SliderConfiguration g,
+                                       @NotNull SliderTickMarkRendererFactory f,
+                                       int width,
+                                       int height,
+                                       int scaleFactor)
+    {
+        Renderer expected = new LinearSliderTickMarkRenderer(g, f, false);
+        Renderer actual = new LinearSliderTickMarkRenderer(g, f, true);
+        RendererComparator c = new RendererComparator(width * scaleFactor, height * scaleFactor, scaleFactor);
+        return c.countDifferences(expected, actual);
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.violetlib.jnr.Painter;
+import org.violetlib.jnr.aqua.AquaUIPainter;
+import org.violetlib.jnr.aqua.ButtonConfiguration;
+import org.violetlib.jnr.aqua.Configuration;
+import org.violetlib.jnr.aqua.LayoutConfiguration;
+import org.violetlib.jnr.aqua.SliderConfiguration;
+import org.violetlib.jnr.aqua.SpriteAtlas;
+import org.violetlib.jnr.aqua.SpriteAtlasGenerator;
+import org.violetlib.jnr.aqua.SpriteAtlasPainter;
+import org.violetlib.jnr.aqua.impl.AquaUIPainterAbstractBase;
+import org.violetlib.jnr.impl.JNRPlatformUtils;
+import org.violetlib.jnr.impl.JavaSupport;
+import org.violetlib.vappearances.VAppearance;
+
+import org.jetbrains.annotations.*;
+
+import static org.violetlib.jnr.aqua.AquaUIPainter.*;
+
+/**
+  Verify the generation and use of a sprite atlas without native code. A synthetic painter produces a deterministic
+  pattern that depends upon the configuration, widget size, appearance, and scale factor. An atlas is generated using
+  the synthetic painter and loaded, and painting using the atlas is compared with painting using the synthetic painter
+  directly. Requests that do not match a sprite must be painted by the synthetic painter, as must requests for
+  configurations that are not supported by sprite atlases.
+*/
+
+public class SpriteAtlasChecker
+{
+    /**
+      A painter that produces a deterministic pattern. The pixels are either opaque or fully transparent, so that
+      painting a pattern is not affected by compositing.
+    */
+
+    public static class PatternPainter
+      extends AquaUIPainterAbstractBase
+    {
+        // The count is shared with copies, which perform render context requests
+        private final @NotNull int[] painterCount;
+
+        public PatternPainter()
+        {
+            this(new int[1]);
+        }
+
+        private PatternPainter(@NotNull int[] painterCount)
+        {
+            this.painterCount = painterCount;
+        }
+
+        public int getPainterCount()
+        {
+            return painterCount[0];
+        }
+
+        @Override
+        public @NotNull Painter getPainter(@NotNull Configuration g)
+          throws UnsupportedOperationException
+        {
+            painterCount[0]++;
+            int seed = SpriteAtlas.getConfigurationKey(g).hashCode() * 31 + w * 7 + h * 13;
+            if (appearance != null) {
+                seed = seed * 31 + appearance.getName().hashCode();
+            }
+            return new PatternSpritePainter(seed, w, h);
+        }
+
+        @Override
+        public @Nullable Shape getOutline(@NotNull LayoutConfiguration g)
+        {
+            return null;
+        }
+
+        @Override
+        public @NotNull PatternPainter copy()
+        {
+            return new PatternPainter(painterCount);
+        }
+    }
+
+    private static class PatternSpritePainter
+      implements Painter
+    {
+        private final int seed;
+        private final int width;
+        private final int height;
+
+        public PatternSpritePainter(int seed, int width, int height)
+        {
+            this.seed = seed;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void paint(@NotNull Graphics g, float x, float y)
+        {
+            Graphics2D g2 = JNRPlatformUtils.toGraphics2D(g);
+            if (g2 == null) {
+                return;
+            }
+            int scaleFactor = JavaSupport.getScaleFactor(g);
+            int rw = width * scaleFactor;
+            int rh = height * scaleFactor;
+            BufferedImage im = new BufferedImage(rw, rh, BufferedImage.TYPE_INT_ARGB);
+            for (int row = 0; row < rh; row++) {
+                for (int col = 0; col < rw; col++) {
+                    int v = seed + col * 7 + row * 13 + scaleFactor * 101;
+                    int pixel = (v % 5) == 0 ? 0 : 0xFF000000 | (v & 0xFFFFFF);
+                    im.setRGB(col, row, pixel);
+                }
+            }
+            AffineTransform tr = AffineTransform.getTranslateInstance(x, y);
+            tr.scale(1.0 / scaleFactor, 1.0 / scaleFactor);
+            g2.drawImage(im, tr, null);
+        }
+    }
+
+    static @NotNull VAppearance createAppearance(@NotNull String name, boolean isDark)
+    {
+        return (VAppearance) Proxy.newProxyInstance(VAppearance.class.getClassLoader(),
+          new Class<?>[] { VAppearance.class }, (proxy, method, args) -> {
+              switch (method.getName()) {
+                  case "getName":
+                  case "toString":
+                      return name;
+                  case "isDark":
+                      return isDark;
+                  case "isHighContrast":
+                      return false;
+                  case "equals":
+                      return proxy == args[0];
+                  case "hashCode":
+                      return System.identityHashCode(proxy);
+                  default:
+                      throw new UnsupportedOperationException(method.getName());
+              }
+          });
+    }
+
+    private static @NotNull int[] paint(@NotNull AquaUIPainter p,
+                                        @NotNull Configuration g,
+                                        int width,
+                                        int height,
+                                        @NotNull VAppearance appearance,
+                                        int scaleFactor)
+    {
+        int rw = width * scaleFactor;
+        int rh = height * scaleFactor;
+        BufferedImage im = new BufferedImage(rw, rh, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D gg = JavaSupport.createOffscreenGraphics(im, scaleFactor);
+        try {
+            p.configureAppearance(appearance);
+            p.configure(width, height);
+            p.getPainter(g).paint(gg, 0, 0);
+        } finally {
+            gg.dispose();
+        }
+        return im.getRGB(0, 0, rw, rh, null, 0, rw);
+    }
+
+    private static int countDifferences(@NotNull int[] expected, @NotNull int[] actual)
+    {
+        int count = 0;
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != actual[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void main(@NotNull String[] args)
+      throws IOException
+    {
+        List<Configuration> configurations = new ArrayList<>();
+        for (ButtonWidget bw : new ButtonWidget[] { ButtonWidget.BUTTON_CHECK_BOX, ButtonWidget.BUTTON_GRADIENT }) {
+            for (Size sz : new Size[] { Size.SMALL, Size.REGULAR }) {
+                for (ButtonState bs : new ButtonState[] { ButtonState.ON, ButtonState.OFF }) {
+                    configurations.add(new ButtonConfiguration(bw, sz, State.ACTIVE, false, bs,
+                      UILayoutDirection.LEFT_TO_RIGHT));
+                }
+            }
+        }
+        int[][] sizes = { { 20, 20 }, { 100, 6 }, { 33, 17 } };
+        VAppearance[] appearances = { createAppearance("Light", false), createAppearance("Dark", true) };
+
+        PatternPainter generatorPainter = new PatternPainter();
+        SpriteAtlasGenerator generator = new SpriteAtlasGenerator(generatorPainter);
+        configurations.forEach(generator::addConfiguration);
+        for (int[] size : sizes) {
+            generator.addSize(size[0], size[1]);
+        }
+        for (VAppearance a : appearances) {
+            generator.addAppearance(a);
+        }
+        generator.addScaleFactor(1);
+        generator.addScaleFactor(2);
+        // use small atlas images to require several atlases
+        generator.setAtlasSize(256, 512);
+
+        File dir = Files.createTempDirectory("jnr-sprites").toFile();
+        File index = generator.generate(dir, "sprites");
+        SpriteAtlas atlas = SpriteAtlas.load(index);
+        File[] files = dir.listFiles();
+        int fileCount = files != null ? files.length : 0;
+
+        PatternPainter direct = new PatternPainter();
+        PatternPainter fallback = new PatternPainter();
+        SpriteAtlasPainter atlasPainter = new SpriteAtlasPainter(fallback, atlas);
+
+        int requestCount = 0;
+        int errorCount = 0;
+        for (Configuration g : configurations) {
+            for (VAppearance a : appearances) {
+                for (int[] size : sizes) {
+                    for (int scaleFactor = 1; scaleFactor <= 3; scaleFactor++) {
+                        int[] expected = paint(direct, g, size[0], size[1], a, scaleFactor);
+                        int[] actual = paint(atlasPainter, g, size[0], size[1], a, scaleFactor);
+                        requestCount++;
+                        if (countDifferences(expected, actual) > 0) {
+                            errorCount++;
+                        }
+                    }
+                }
+            }
+        }
+        int expectedFallbackCount = configurations.size() * appearances.length * sizes.length;
+        int scaleFallbackCount = fallback.getPainterCount();
+
+        // A size that is not in the atlas
+        int[] expected = paint(direct, configurations.get(0), 21, 20, appearances[0], 1);
+        int[] actual = paint(atlasPainter, configurations.get(0), 21, 20, appearances[0], 1);
+        if (countDifferences(expected, actual) > 0) {
+            errorCount++;
+        }
+        boolean isMissDelegated = fallback.getPainterCount() == scaleFallbackCount + 1;
+
+        // Configurations that are not supported must be refused by the generator and delegated by the painter
+        Configuration slider = new SliderConfiguration(SliderWidget.SLIDER_HORIZONTAL, Size.REGULAR, State.ACTIVE,
+          false, 0.5, 0, TickMarkPosition.BELOW);
+        boolean isUnsupportedRefused;
+        try {
+            generator.addConfiguration(slider);
+            isUnsupportedRefused = false;
+        } catch (IllegalArgumentException ex) {
+            isUnsupportedRefused = true;
+        }
+        int sliderFallbackCount = fallback.getPainterCount();
+        paint(atlasPainter, slider, 20, 20, appearances[0], 1);
+        boolean isUnsupportedDelegated = fallback.getPainterCount() == sliderFallbackCount + 1;
+
+        System.out.println("Sprites: " + atlas.getSpriteCount() + " (" + generator.getSkippedCount() + " skipped)");
+        System.out.println("Files: " + fileCount + " in " + dir);
+        System.out.println("Requests: " + requestCount);
+        System.out.println("Errors: " + errorCount);
+        System.out.println("Unsupported scale factor delegated: " + scaleFallbackCount
+          + " (expected " + expectedFallbackCount + ")");
+        System.out.println("Missing sprite delegated: " + isMissDelegated);
+        System.out.println("Unsupported configuration refused: " + isUnsupportedRefused);
+        System.out.println("Unsupported configuration delegated: " + isUnsupportedDelegated);
+
+        if (errorCount > 0 || scaleFallbackCount != expectedFallbackCount || !isMissDelegated
+              || !isUnsupportedRefused || !isUnsupportedDelegated) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.eval;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.util.Objects;
+
+import org.violetlib.jnr.Painter;
+import org.violetlib.jnr.aqua.impl.PaintTraceEvent;
+import org.violetlib.jnr.impl.BasicRenderer;
+import org.violetlib.jnr.impl.CachingRendererPainter;
+import org.violetlib.jnr.impl.ImageCache;
+import org.violetlib.jnr.impl.Renderer;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A replay target that stands in for a native painter. It renders with a pure Java renderer and caches the rendered
+  images in the standard image cache, using a key derived from the recorded configuration, appearance, size, and scale
+  factor. It does not use native code.
+*/
+
+public class SyntheticReplayTarget
+  implements PaintTraceReplayer.Target
+{
+    protected final int workPerPixel;
+
+    /**
+      Create a synthetic replay target.
+    */
+
+    public SyntheticReplayTarget()
+    {
+        this(1);
+    }
+
+    /**
+      Create a synthetic replay target.
+
+      @param workPerPixel The number of arithmetic steps performed for each rendered pixel, which can be used to
+      approximate the cost of native rendering.
+    */
+
+    public SyntheticReplayTarget(int workPerPixel)
+    {
+        this.workPerPixel = Math.max(1, workPerPixel);
+    }
+
+    @Override
+    public @NotNull Painter getPainter(@NotNull PaintTraceEvent e)
+    {
+        PaintTraceEvent.ConfigurationRecord g = e.getConfiguration();
+        String appearanceName = e.getAppearanceName();
+        int seed = Objects.hash(g.getDescription(), appearanceName);
+        BasicRenderer br = (data, rw, rh, w, h) -> {
+            int n = rw * rh;
+            for (int i = 0; i < n; i++) {
+                int v = seed + i;
+                for (int k = 0; k < workPerPixel; k++) {
+                    v = v * 31 + k;
+                }
+                data[i] = v | 0xFF000000;
+            }
+        };
+        return new SyntheticPainter(Renderer.create(br, null), g.getID(), appearanceName, e.getWidth(), e.getHeight());
+    }
+
+    @Override
+    public void paint(@NotNull Painter p, @NotNull PaintTraceEvent e, @NotNull Graphics2D g)
+    {
+        SyntheticPainter sp = (SyntheticPainter) p;
+        sp.paint(g, e.getScaleFactor(), e.getWidth(), e.getHeight());
+    }
+
+    protected static class SyntheticPainter
+      extends CachingRendererPainter
+    {
+        private final int configurationID;
+        private final @Nullable String appearanceName;
+
+        public SyntheticPainter(@NotNull Renderer r,
+                                int configurationID,
+                                @Nullable String appearanceName,
+                                float width,
+                                float height)
+        {
+            super(r, width, height);
+
+            this.configurationID = configurationID;
+            this.appearanceName = appearanceName;
+        }
+
+        /**
+          Paint using the recorded scale factor and image size, which are not available from the graphics context.
+        */
+
+        public void paint(@NotNull Graphics2D g, int scaleFactor, int width, int height)
+        {
+            if (width > 0 && height > 0) {
+                Image im = getImage(Math.max(1, scaleFactor), width, height);
+                if (im != null) {
+                    g.drawImage(im, 0, 0, null);
+                }
+            }
+        }
+
+        @Override
+        protected @Nullable ImageCache.PixelsKey createKey(int scaleFactor, int rasterWidth, int rasterHeight)
+        {
+            return new SyntheticPixelsKey(configurationID, appearanceName, scaleFactor, rasterWidth, rasterHeight);
+        }
+    }
+
+    private static final class SyntheticPixelsKey
+      implements ImageCache.PixelsKey
+    {
+        private final int configurationID;
+        private final @Nullable String appearanceName;
+        private final int scaleFactor;
+        private final int w;
+        private final int h;
+
+        public SyntheticPixelsKey(int configurationID, @Nullable String appearanceName, int scaleFactor, int w, int h)
+        {
+            this.configurationID = configurationID;
+            this.appearanceName = appearanceName;
+            this.scaleFactor = scaleFactor;
+            this.w = w;
+            this.h = h;
+        }
+
+        @Override
+        public int getPixelCount()
+        {
+            return w * h;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(configurationID, appearanceName, scaleFactor, w, h);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj)
+        {
+            if (obj instanceof SyntheticPixelsKey) {
+                SyntheticPixelsKey that = (SyntheticPixelsKey) obj;
+                return configurationID == that.configurationID && Objects.equals(appearanceName, that.appearanceName)
+                         && scaleFactor == that.scaleFactor && w == that.w && h == that.h;
+            }
+            return false;
+        }
+    }
+}
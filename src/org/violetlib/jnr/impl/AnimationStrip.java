@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.*;
+
+/**
+  The frames of an animation of a fixed size. The first time a frame is requested at a given scale factor, all of the
+  frames are rendered into a single raster (a strip), and each frame is provided as an image that shares the strip
+  raster.
+
+  <p>
+  If every frame is a horizontal displacement of a horizontally periodic pattern, as is the case for a barber pole
+  animation, the strip contains only one copy of the pattern, extended by one period, and each frame is a view of the
+  pattern at an offset.
+
+  <p>
+  This class is thread safe.
+*/
+
+public final class AnimationStrip
+{
+    private final @NotNull Renderer[] frames;
+    private final int width;
+    private final int height;
+    private final @Nullable Consumer<AnimationStrip> renderCallback;
+
+    // The rendered strips, indexed by scale factor
+    private final @NotNull Map<Integer,Strip> strips = new HashMap<>();
+
+    private static final class Strip
+    {
+        final @NotNull int[] data;
+        final int rasterWidth;      // the width of the strip raster
+        final int frameRasterWidth;
+        final int frameRasterHeight;
+        final @NotNull int[] offsets;  // the offset of each frame in the strip, in pixels
+        final boolean isPeriodic;
+        final @NotNull BufferedImage image;
+        final @NotNull Image[] images;
+
+        Strip(@NotNull int[] data,
+              int rasterWidth,
+              int frameRasterWidth,
+              int frameRasterHeight,
+              @NotNull int[] offsets,
+              boolean isPeriodic)
+        {
+            this.data = data;
+            this.rasterWidth = rasterWidth;
+            this.frameRasterWidth = frameRasterWidth;
+            this.frameRasterHeight = frameRasterHeight;
+            this.offsets = offsets;
+            this.isPeriodic = isPeriodic;
+            this.image = BasicImageSupport.createImage(data, rasterWidth, data.length / rasterWidth);
+            this.images = new Image[offsets.length];
+        }
+    }
+
+    /**
+      Create an animation strip.
+
+      @param frames The renderers of the frames.
+      @param width The width of a frame, in device independent pixels.
+      @param height The height of a frame, in device independent pixels.
+    */
+
+    public AnimationStrip(@NotNull Renderer[] frames, int width, int height)
+    {
+        this(frames, width, height, null);
+    }
+
+    /**
+      Create an animation strip.
+
+      @param frames The renderers of the frames.
+      @param width The width of a frame, in device independent pixels.
+      @param height The height of a frame, in device independent pixels.
+      @param renderCallback If not null, this callback is invoked after the strip is rendered at a scale factor, which
+      increases the number of pixels retained by this strip. The callback is not invoked while holding the lock of this
+      strip.
+    */
+
+    public AnimationStrip(@NotNull Renderer[] frames,
+                          int width,
+                          int height,
+                          @Nullable Consumer<AnimationStrip> renderCallback)
+    {
+        if (frames.length == 0) {
+            throw new IllegalArgumentException("An animation must have at least one frame");
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid frame size");
+        }
+        this.frames = frames.clone();
+        this.width = width;
+        this.height = height;
+        this.renderCallback = renderCallback;
+    }
+
+    public int getFrameCount()
+    {
+        return frames.length;
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+      Return the renderer of a frame.
+    */
+
+    public @NotNull Renderer getFrameRenderer(int frame)
+    {
+        return frames[frame];
+    }
+
+    /**
+      Return the image of a frame, rendering the strip if necessary.
+
+      @param scaleFactor The scale factor.
+      @param frame The frame index.
+      @return the image, whose base size is the frame size.
+    */
+
+    public @NotNull Image getFrame(int scaleFactor, int frame)
+    {
+        Image im;
+        boolean isRendered;
+        synchronized (this) {
+            isRendered = !strips.containsKey(scaleFactor);
+            Strip s = getStrip(scaleFactor);
+            im = s.images[frame];
+            if (im == null) {
+                int offset = s.offsets[frame];
+                int x = s.isPeriodic ? offset : 0;
+                int y = s.isPeriodic ? 0 : offset;
+                BufferedImage b = s.image.getSubimage(x, y, s.frameRasterWidth, s.frameRasterHeight);
+                im = JavaSupport.createMultiResolutionImage(width, height, b);
+                s.images[frame] = im;
+            }
+        }
+        if (isRendered && renderCallback != null) {
+            renderCallback.accept(this);
+        }
+        return im;
+    }
+
+    /**
+      Indicate whether the strip for the specified scale factor has been rendered and is represented by a periodic
+      pattern.
+    */
+
+    public synchronized boolean isPeriodic(int scaleFactor)
+    {
+        Strip s = strips.get(scaleFactor);
+        return s != null && s.isPeriodic;
+    }
+
+    /**
+      Return the number of pixels retained by the rendered strips.
+    */
+
+    public synchronized long getPixelCount()
+    {
+        long count = 0;
+        for (Strip s : strips.values()) {
+            count += s.data.length;
+        }
+        return count;
+    }
+
+    private @NotNull Strip getStrip(int scaleFactor)
+    {
+        Strip s = strips.get(scaleFactor);
+        if (s == null) {
+            s = render(scaleFactor);
+            strips.put(scaleFactor, s);
+        }
+        return s;
+    }
+
+    private @NotNull Strip render(int scaleFactor)
+    {
+        int rw = width * scaleFactor;
+        int rh = height * scaleFactor;
+        int frameSize = rw * rh;
+        int frameCount = frames.length;
+        int[] data = new int[frameSize * frameCount];
+        int[] frameData = new int[frameSize];
+
+        synchronized (RendererPainter.getRenderingLock()) {
+            for (int i = 0; i < frameCount; i++) {
+                Arrays.fill(frameData, 0);
+                ReusableCompositor rc = new ReusableCompositor(frameData, rw, rh, scaleFactor);
+                frames[i].composeTo(rc);
+                System.arraycopy(frameData, 0, data, i * frameSize, frameSize);
+            }
+        }
+
+        Strip periodic = createPeriodicStrip(data, rw, rh, frameCount);
+        if (periodic != null) {
+            return periodic;
+        }
+
+        int[] offsets = new int[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            offsets[i] = i * rh;
+        }
+        return new Strip(data, rw, rw, rh, offsets, false);
+    }
+
+    /**
+      Create a strip containing a single horizontally periodic pattern, if all frames are horizontal displacements of
+      the pattern.
+
+      @param data The frames, stacked vertically.
+      @param rw The raster width of a frame.
+      @param rh The raster height of a frame.
+      @param frameCount The number of frames.
+      @return the strip, or null if the frames do not have this form.
+    */
+
+    private static @Nullable Strip createPeriodicStrip(@NotNull int[] data, int rw, int rh, int frameCount)
+    {
+        int period = findPeriod(data, rw, rh);
+        if (period == 0) {
+            return null;
+        }
+
+        // The pattern is the first frame extended by one period, so that any displacement is a view of the pattern.
+        int pw = rw + period;
+        int[] pattern = new int[pw * rh];
+        for (int row = 0; row < rh; row++) {
+            int base = row * rw;
+            for (int col = 0; col < pw; col++) {
+                pattern[row * pw + col] = data[base + col % period];
+            }
+        }
+
+        int[] offsets = new int[frameCount];
+        for (int i = 1; i < frameCount; i++) {
+            int offset = findOffset(data, i * rw * rh, rw, rh, pattern, pw, period);
+            if (offset < 0) {
+                return null;
+            }
+            offsets[i] = offset;
+        }
+        return new Strip(pattern, pw, rw, rh, offsets, true);
+    }
+
+    /**
+      Return the smallest horizontal period of the first frame that is at most half of the frame width.
+
+      @return the period, or zero if there is no such period.
+    */
+
+    private static int findPeriod(@NotNull int[] data, int rw, int rh)
+    {
+        for (int period = 1; period <= rw / 2; period++) {
+            if (hasPeriod(data, rw, rh, period)) {
+                return period;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean hasPeriod(@NotNull int[] data, int rw, int rh, int period)
+    {
+        for (int row = 0; row < rh; row++) {
+            int base = row * rw;
+            for (int col = period; col < rw; col++) {
+                if (data[base + col] != data[base + col - period]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+      Return the displacement of the pattern that matches a frame.
+
+      @return the displacement, or -1 if no displacement matches.
+    */
+
+    private static int findOffset(@NotNull int[] data,
+                                  int start,
+                                  int rw,
+                                  int rh,
+                                  @NotNull int[] pattern,
+                                  int pw,
+                                  int period)
+    {
+        for (int offset = 0; offset < period; offset++) {
+            if (matches(data, start, rw, rh, pattern, pw, offset)) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(@NotNull int[] data,
+                                   int start,
+                                   int rw,
+                                   int rh,
+                                   @NotNull int[] pattern,
+                                   int pw,
+                                   int offset)
+    {
+        for (int row = 0; row < rh; row++) {
+            int base = start + row * rw;
+            int patternBase = row * pw + offset;
+            for (int col = 0; col < rw; col++) {
+                if (data[base + col] != pattern[patternBase + col]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.awt.Image;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A painter that paints one frame of an animation using an animation strip.
+*/
+
+public class AnimationStripPainter
+  extends RendererPainter
+{
+    protected final @NotNull AnimationStrip strip;
+    protected final int frame;
+
+    /**
+      Create a painter for an animation frame.
+
+      @param strip The animation strip.
+      @param frame The frame index.
+    */
+
+    public AnimationStripPainter(@NotNull AnimationStrip strip, int frame)
+    {
+        super(strip.getFrameRenderer(frame), strip.getWidth(), strip.getHeight());
+
+        this.strip = strip;
+        this.frame = frame;
+    }
+
+    @Override
+    protected @Nullable Image getImage(int scaleFactor, int width, int height)
+    {
+        return strip.getFrame(scaleFactor, frame);
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.awt.Dimension;
+import java.awt.EventQueue;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.violetlib.jnr.Painter;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A painter that does not render when its image is not cached. Instead, the image is rendered on a worker thread (see
+  {@link RenderScheduler}) and a placeholder is painted, as specified by a {@link PlaceholderStrategy}. When the image
+  is available, a repaint callback is invoked on the event dispatch thread. The client is expected to repaint, at which
+  point the image is painted. The callback is not invoked if the rendering is cancelled or fails. A rendering that
+  fails is not attempted again by the same painter; no image is painted for that scale factor.
+*/
+
+public final class AsyncPainter
+  implements Painter
+{
+    /**
+      Performs a rendering in a context established by the creator of the painter.
+    */
+
+    public interface RenderingScope
+    {
+        @Nullable Image render(@NotNull Supplier<Image> renderer);
+    }
+
+    private final @NotNull CachingRendererPainter p;
+    private final @NotNull PlaceholderStrategy strategy;
+    private final @Nullable Runnable repaintCallback;
+    private final @Nullable RenderingScope scope;
+    private final @NotNull RenderTicket ticket;
+    private final int width;
+    private final int height;
+
+    private @Nullable CompletableFuture<Image> notifyingFuture;
+    private @Nullable CompletableFuture<Image> submittedFuture;
+    private volatile int failedScaleFactors;  // a bit for each scale factor whose rendering failed
+
+    /**
+      Create an asynchronous painter.
+
+      @param p The painter that renders and caches the image.
+      @param strategy The placeholder strategy.
+      @param repaintCallback The callback to invoke on the event dispatch thread when a pending image is available.
+      @param scope If not null, the scope used to perform the rendering on a worker thread.
+      @param ticket The priority and generation of the rendering requests.
+    */
+
+    public AsyncPainter(@NotNull CachingRendererPainter p,
+                        @NotNull PlaceholderStrategy strategy,
+                        @Nullable Runnable repaintCallback,
+                        @Nullable RenderingScope scope,
+                        @NotNull RenderTicket ticket)
+    {
+        this.p = p;
+        this.strategy = strategy;
+        this.repaintCallback = repaintCallback;
+        this.scope = scope;
+        this.ticket = ticket;
+        this.width = (int) Math.ceil(p.width);
+        this.height = (int) Math.ceil(p.height);
+    }
+
+    /**
+      Return the image of this painter. If the image is cached, the returned future is complete. Otherwise, the image is
+      rendered on a worker thread and cached.
+
+      @param scaleFactor The scale factor.
+      @return a future that is completed with the image, which may be null if the painter has no rendering or if a
+      previous rendering failed. The future is cancelled if the rendering is cancelled.
+    */
+
+    public @NotNull CompletableFuture<Image> getImage(int scaleFactor)
+    {
+        if (width <= 0 || height <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Image im = p.getCachedImage(scaleFactor, width, height);
+        if (im != null) {
+            return CompletableFuture.completedFuture(im);
+        }
+
+        int failureBit = 1 << scaleFactor;
+        if ((failedScaleFactors & failureBit) != 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Object key = p.getImageKey(scaleFactor);
+        if (key == null) {
+            // The image is not cached. Rendering is performed synchronously, as it would be by the painter.
+            return CompletableFuture.completedFuture(p.getImage(scaleFactor));
+        }
+
+        Supplier<Image> renderer = () -> p.getImage(scaleFactor);
+        Supplier<Image> scopedRenderer = scope != null ? () -> scope.render(renderer) : renderer;
+        CompletableFuture<Image> f = RenderScheduler.getInstance().submit(key, scopedRenderer, ticket);
+        synchronized (this) {
+            if (f != submittedFuture) {
+                submittedFuture = f;
+                f.whenComplete((result, ex) -> {
+                    if (ex != null && !isCancellation(ex)) {
+                        recordFailure(failureBit);
+                    }
+                });
+            }
+        }
+        return f;
+    }
+
+    private synchronized void recordFailure(int failureBit)
+    {
+        failedScaleFactors |= failureBit;
+    }
+
+    private static boolean isCancellation(@NotNull Throwable ex)
+    {
+        if (ex instanceof CompletionException && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
+        return ex instanceof CancellationException;
+    }
+
+    @Override
+    public void paint(@NotNull Graphics g, float x, float y)
+    {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        int scaleFactor = JavaSupport.getScaleFactor(g);
+        CompletableFuture<Image> f = getImage(scaleFactor);
+        if (f.isDone() && !f.isCompletedExceptionally()) {
+            Image im = f.join();
+            if (im != null) {
+                draw(g, im, x, y, width, height);
+            }
+            return;
+        }
+
+        if (repaintCallback != null && f != notifyingFuture) {
+            notifyingFuture = f;
+            f.whenComplete((im, ex) -> {
+                if (ex == null) {
+                    EventQueue.invokeLater(repaintCallback);
+                }
+            });
+        }
+
+        Image placeholder = getPlaceholder(scaleFactor);
+        if (placeholder != null) {
+            draw(g, placeholder, x, y, width, height);
+        }
+    }
+
+    private @Nullable Image getPlaceholder(int scaleFactor)
+    {
+        switch (strategy) {
+            case LOWER_SCALE:
+                for (int s = scaleFactor - 1; s > 0; s--) {
+                    Image im = p.getCachedImage(s, width, height);
+                    if (im != null) {
+                        return im;
+                    }
+                }
+                return null;
+
+            case NEAREST_SIZE:
+                List<Dimension> sizes = p.getCachedSizes(scaleFactor);
+                Dimension best = null;
+                int bestDistance = Integer.MAX_VALUE;
+                for (Dimension d : sizes) {
+                    int distance = Math.abs(d.width - width) + Math.abs(d.height - height);
+                    if (distance < bestDistance) {
+                        best = d;
+                        bestDistance = distance;
+                    }
+                }
+                return best != null ? p.getCachedImage(scaleFactor, best.width, best.height) : null;
+
+            default:
+                return null;
+        }
+    }
+
+    private static void draw(@NotNull Graphics gg, @NotNull Image im, float x, float y, int width, int height)
+    {
+        int iw = im.getWidth(null);
+        int ih = im.getHeight(null);
+        Graphics2D g2 = JNRPlatformUtils.toGraphics2D(gg);
+        if (g2 != null && iw > 0 && ih > 0) {
+            Graphics2D g = (Graphics2D) g2.create();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            AffineTransform tr = AffineTransform.getTranslateInstance(x, y);
+            if (iw != width || ih != height) {
+                tr.scale(((double) width) / iw, ((double) height) / ih);
+            }
+            g.drawImage(im, tr, null);
+            g.dispose();
+        }
+    }
+}
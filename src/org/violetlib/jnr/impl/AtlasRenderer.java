@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Renders many renderers at once. Renderers whose basic renderer supports batch rendering ({@link BatchableRenderer})
+  are grouped by backend. The rasters for each group are packed into shared atlas rasters using a shelf packer, and the
+  backend is invoked once per atlas, which allows a native backend to render the entire atlas using one native call.
+  The atlas regions are then copied into the result rasters. Other renderers are rendered individually.
+
+  <p>
+  The result of each request is the same as rendering the renderer into an empty compositor of the requested size.
+
+  <p>
+  This class is not thread safe.
+*/
+
+public final class AtlasRenderer
+{
+    public static final int DEFAULT_ATLAS_WIDTH = 1024;
+    public static final int DEFAULT_MAXIMUM_ATLAS_HEIGHT = 1024;
+
+    /**
+      A request to render a renderer.
+    */
+
+    public static final class Request
+    {
+        private final @NotNull Renderer renderer;
+        private final int width;
+        private final int height;
+        private final int scaleFactor;
+
+        /**
+          Create a request.
+
+          @param renderer The renderer.
+          @param width The width of the rendering, in device independent pixels.
+          @param height The height of the rendering, in device independent pixels.
+          @param scaleFactor The scale factor that relates raster pixels to device independent pixels.
+        */
+
+        public Request(@NotNull Renderer renderer, int width, int height, int scaleFactor)
+        {
+            if (width < 0 || height < 0) {
+                throw new IllegalArgumentException("Invalid negative width and/or height");
+            }
+            this.renderer = renderer;
+            this.width = width;
+            this.height = height;
+            this.scaleFactor = scaleFactor;
+        }
+
+        public @NotNull Renderer getRenderer()
+        {
+            return renderer;
+        }
+
+        public int getWidth()
+        {
+            return width;
+        }
+
+        public int getHeight()
+        {
+            return height;
+        }
+
+        public int getScaleFactor()
+        {
+            return scaleFactor;
+        }
+    }
+
+    /**
+      A region of an atlas raster assigned to a renderer.
+    */
+
+    public static final class Slot
+    {
+        private final @NotNull BatchableRenderer renderer;
+        private final int x;
+        private final int y;
+        private final int rasterWidth;
+        private final int rasterHeight;
+        private final int scaleFactor;
+
+        private Slot(@NotNull BatchableRenderer renderer, int x, int y, int rasterWidth, int rasterHeight, int scaleFactor)
+        {
+            this.renderer = renderer;
+            this.x = x;
+            this.y = y;
+            this.rasterWidth = rasterWidth;
+            this.rasterHeight = rasterHeight;
+            this.scaleFactor = scaleFactor;
+        }
+
+        public @NotNull BatchableRenderer getRenderer()
+        {
+            return renderer;
+        }
+
+        /**
+          Return the X origin of the slot in the atlas raster.
+        */
+
+        public int getX()
+        {
+            return x;
+        }
+
+        /**
+          Return the Y origin of the slot in the atlas raster.
+        */
+
+        public int getY()
+        {
+            return y;
+        }
+
+        public int getRasterWidth()
+        {
+            return rasterWidth;
+        }
+
+        public int getRasterHeight()
+        {
+            return rasterHeight;
+        }
+
+        public int getScaleFactor()
+        {
+            return scaleFactor;
+        }
+
+        /**
+          Return the width of the slot in device independent pixels. This is the width passed to the renderer.
+        */
+
+        public float getWidth()
+        {
+            return ((float) rasterWidth) / scaleFactor;
+        }
+
+        /**
+          Return the height of the slot in device independent pixels. This is the height passed to the renderer.
+        */
+
+        public float getHeight()
+        {
+            return ((float) rasterHeight) / scaleFactor;
+        }
+
+        @Override
+        public @NotNull String toString()
+        {
+            return "Slot " + x + "," + y + " " + rasterWidth + "x" + rasterHeight + " @" + scaleFactor + "x";
+        }
+    }
+
+    /**
+      Render a slot using its renderer and copy the result into the atlas raster. A backend may use this method to
+      render slots that it is unable to render as part of a batch.
+
+      @param data The atlas raster.
+      @param rw The number of pixels in each row of the atlas raster.
+      @param rh The number of rows in the atlas raster.
+      @param slot The slot to render.
+    */
+
+    public static void renderIndividually(@NotNull int[] data, int rw, int rh, @NotNull Slot slot)
+    {
+        int sw = slot.rasterWidth;
+        int sh = slot.rasterHeight;
+        if (slot.x < 0 || slot.y < 0 || slot.x + sw > rw || slot.y + sh > rh) {
+            throw new IllegalArgumentException("Slot is outside the atlas raster");
+        }
+        int[] pixels = new int[sw * sh];
+        slot.renderer.render(pixels, sw, sh, slot.getWidth(), slot.getHeight());
+        for (int row = 0; row < sh; row++) {
+            System.arraycopy(pixels, row * sw, data, (slot.y + row) * rw + slot.x, sw);
+        }
+    }
+
+    private static class Item
+    {
+        final int index;
+        final @NotNull BatchableRenderer renderer;
+        final int x;
+        final int y;
+        final int w;
+        final int h;
+        final int scaleFactor;
+        @Nullable Slot slot;
+
+        Item(int index, @NotNull BatchableRenderer renderer, int x, int y, int w, int h, int scaleFactor)
+        {
+            this.index = index;
+            this.renderer = renderer;
+            this.x = x;
+            this.y = y;
+            this.w = w;
+            this.h = h;
+            this.scaleFactor = scaleFactor;
+        }
+    }
+
+    private final int atlasWidth;
+    private final int maximumAtlasHeight;
+
+    private int batchCount;
+    private int batchedCount;
+    private int individualCount;
+
+    /**
+      Create an atlas renderer using the default atlas size.
+    */
+
+    public AtlasRenderer()
+    {
+        this(DEFAULT_ATLAS_WIDTH, DEFAULT_MAXIMUM_ATLAS_HEIGHT);
+    }
+
+    /**
+      Create an atlas renderer.
+
+      @param atlasWidth The width of the atlas rasters.
+      @param maximumAtlasHeight The maximum height of the atlas rasters. Renderings that do not fit in an atlas are
+      rendered individually.
+    */
+
+    public AtlasRenderer(int atlasWidth, int maximumAtlasHeight)
+    {
+        if (atlasWidth <= 0 || maximumAtlasHeight <= 0) {
+            throw new IllegalArgumentException("Invalid atlas size");
+        }
+        this.atlasWidth = atlasWidth;
+        this.maximumAtlasHeight = maximumAtlasHeight;
+    }
+
+    /**
+      Render the requested renderers.
+
+      @param requests The requests.
+      @return an array containing a compositor for each request, in the order of the requests. The raster of each
+      compositor has the requested size, multiplied by the requested scale factor.
+    */
+
+    public @NotNull ReusableCompositor[] render(@NotNull List<Request> requests)
+    {
+        int count = requests.size();
+        ReusableCompositor[] results = new ReusableCompositor[count];
+        Map<BatchRenderingBackend,List<Item>> groups = new LinkedHashMap<>();
+
+        for (int i = 0; i < count; i++) {
+            Request rq = requests.get(i);
+            int scaleFactor = rq.scaleFactor;
+            ReusableCompositor rc = new ReusableCompositor();
+            rc.reset(rq.width * scaleFactor, rq.height * scaleFactor, scaleFactor);
+            results[i] = rc;
+
+            Renderer r = rq.renderer;
+            BatchableRenderer br = getBatchableRenderer(r);
+            BatchRenderingBackend backend = br != null ? br.getBatchRenderingBackend() : null;
+            if (backend == null) {
+                r.composeTo(rc);
+                individualCount++;
+                continue;
+            }
+
+            // Determine the raster region exactly as it is determined when the renderer composes into an empty
+            // compositor.
+
+            RendererDescription rd = r.getRendererDescription();
+            assert rd != null;
+            int x = 0;
+            int y = 0;
+            int w = rc.getRasterWidth();
+            int h = rc.getRasterHeight();
+            if (!rd.isTrivial()) {
+                Rectangle2D bounds = new Rectangle2D.Float(0, 0, rc.getWidth(), rc.getHeight());
+                RasterDescription sd = rd.getRasterBounds(bounds, scaleFactor);
+                x = Math.round(scaleFactor * sd.getX());
+                y = Math.round(scaleFactor * sd.getY());
+                w = (int) Math.ceil(scaleFactor * sd.getWidth());
+                h = (int) Math.ceil(scaleFactor * sd.getHeight());
+            }
+            if (w > 0 && h > 0) {
+                groups.computeIfAbsent(backend, b -> new ArrayList<>()).add(new Item(i, br, x, y, w, h, scaleFactor));
+            }
+        }
+
+        for (Map.Entry<BatchRenderingBackend,List<Item>> e : groups.entrySet()) {
+            renderGroup(e.getKey(), e.getValue(), results);
+        }
+
+        return results;
+    }
+
+    private void renderGroup(@NotNull BatchRenderingBackend backend,
+                             @NotNull List<Item> items,
+                             @NotNull ReusableCompositor[] results)
+    {
+        // Packing is more efficient when the tallest rasters are placed first.
+        items.sort((a, b) -> Integer.compare(b.h, a.h));
+
+        ShelfPacker packer = new ShelfPacker(atlasWidth, maximumAtlasHeight);
+        List<Item> batch = new ArrayList<>();
+        int[] location = new int[2];
+
+        for (Item item : items) {
+            if (item.w > atlasWidth || item.h > maximumAtlasHeight) {
+                results[item.index].composeRenderer(item.renderer, item.x, item.y, item.w, item.h);
+                individualCount++;
+                continue;
+            }
+            if (!packer.add(item.w, item.h, location)) {
+                renderBatch(backend, batch, packer.getHeight(), results);
+                batch.clear();
+                packer.reset();
+                packer.add(item.w, item.h, location);
+            }
+            item.slot = new Slot(item.renderer, location[0], location[1], item.w, item.h, item.scaleFactor);
+            batch.add(item);
+        }
+
+        if (!batch.isEmpty()) {
+            renderBatch(backend, batch, packer.getHeight(), results);
+        }
+    }
+
+    private void renderBatch(@NotNull BatchRenderingBackend backend,
+                             @NotNull List<Item> batch,
+                             int atlasHeight,
+                             @NotNull ReusableCompositor[] results)
+    {
+        int[] data = new int[atlasWidth * atlasHeight];
+        List<Slot> slots = new ArrayList<>(batch.size());
+        for (Item item : batch) {
+            assert item.slot != null;
+            slots.add(item.slot);
+        }
+
+        backend.renderBatch(data, atlasWidth, atlasHeight, slots);
+        batchCount++;
+        batchedCount += slots.size();
+
+        ReusableCompositor atlas = new ReusableCompositor(data, atlasWidth, atlasHeight, 1);
+        for (Item item : batch) {
+            Slot slot = item.slot;
+            assert slot != null;
+            results[item.index].composeFrom(atlas, slot.x, slot.y, item.x, item.y, item.w, item.h);
+        }
+    }
+
+    private static @Nullable BatchableRenderer getBatchableRenderer(@NotNull Renderer r)
+    {
+        BasicRenderer br = r.getBasicRenderer();
+        if (br instanceof CacheableBasicRenderer) {
+            br = ((CacheableBasicRenderer) br).getRenderer();
+        }
+        if (br instanceof BatchableRenderer) {
+            return (BatchableRenderer) br;
+        }
+        return null;
+    }
+
+    /**
+      Return the number of backend invocations.
+    */
+
+    public int getBatchCount()
+    {
+        return batchCount;
+    }
+
+    /**
+      Return the number of requests that were rendered as part of a batch.
+    */
+
+    public int getBatchedCount()
+    {
+        return batchedCount;
+    }
+
+    /**
+      Return the number of requests that were rendered individually.
+    */
+
+    public int getIndividualCount()
+    {
+        return individualCount;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.util.List;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Renders a batch of renderers of one family into regions of a shared raster, ideally using a single native call.
+*/
+
+public interface BatchRenderingBackend
+{
+    /**
+      Render a batch. The pixels written into each slot must be the same as the pixels that the renderer of the slot
+      writes into an empty raster of the size of the slot. Pixels outside the slot must not be changed. A backend that
+      is unable to render a slot may use {@link AtlasRenderer#renderIndividually} to render the slot.
+
+      @param data The shared raster, which is initially empty.
+      @param rw The number of pixels in each row of the raster.
+      @param rh The number of rows in the raster.
+      @param slots The slots to render. The renderer of each slot uses this backend.
+    */
+
+    void renderBatch(@NotNull int[] data, int rw, int rh, @NotNull List<AtlasRenderer.Slot> slots);
+}
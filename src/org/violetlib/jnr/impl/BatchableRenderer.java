@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A basic renderer that can be rendered together with other renderers of the same family into one shared raster (see
+  {@link AtlasRenderer}).
+*/
+
+public interface BatchableRenderer
+  extends BasicRenderer
+{
+    /**
+      Return the backend that renders batches of renderers of this family.
+
+      @return the backend, or null if this renderer cannot currently be rendered as part of a batch.
+    */
+
+    @Nullable BatchRenderingBackend getBatchRenderingBackend();
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import org.violetlib.vappearances.VAppearance;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A basic renderer that identifies its rendering using a descriptor. Two cacheable renderers with equal descriptors and
+  the same appearance must produce identical pixels when rendered into rasters of the same size and scale. This
+  property allows the output of a cacheable renderer to be reused by the {@link SubRenderCache} when it is used as a
+  layer of a composite rendering.
+*/
+
+public final class CacheableBasicRenderer
+  implements BasicRenderer
+{
+    private final @NotNull BasicRenderer r;
+    private final @NotNull Object descriptor;
+    private final @Nullable VAppearance appearance;
+
+    /**
+      Create a cacheable basic renderer.
+
+      @param r The renderer that performs the rendering.
+      @param descriptor An object that identifies the rendering. It must support {@code equals} and {@code hashCode}
+      and it must not be mutated.
+      @param appearance The appearance used by the renderer, if any.
+    */
+
+    public CacheableBasicRenderer(@NotNull BasicRenderer r,
+                                  @NotNull Object descriptor,
+                                  @Nullable VAppearance appearance)
+    {
+        this.r = r;
+        this.descriptor = descriptor;
+        this.appearance = appearance;
+    }
+
+    /**
+      Return the renderer that performs the rendering.
+    */
+
+    public @NotNull BasicRenderer getRenderer()
+    {
+        return r;
+    }
+
+    public @NotNull Object getDescriptor()
+    {
+        return descriptor;
+    }
+
+    public @Nullable VAppearance getAppearance()
+    {
+        return appearance;
+    }
+
+    @Override
+    public void render(@NotNull int[] data, int rw, int rh, float w, float h)
+    {
+        r.render(data, rw, rh, w, h);
+    }
+}
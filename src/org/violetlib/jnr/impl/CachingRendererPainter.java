@@ -8,7 +8,11 @@
 
 package org.violetlib.jnr.impl;
 
+import java.awt.Dimension;
 import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.List;
 
 import org.jetbrains.annotations.*;
 
@@ -19,6 +23,11 @@ import org.jetbrains.annotations.*;
 public abstract class CachingRendererPainter
   extends RendererPainter
 {
+    // Cache outcomes reported to imageProvided()
+    public static final int NOT_CACHED = 0;
+    public static final int CACHE_HIT = 1;
+    public static final int CACHE_MISS = 2;
+
     private static boolean isCachingEnabled = getDefaultCachingEnabled();
 
     private static boolean getDefaultCachingEnabled()
@@ -54,6 +63,18 @@ public abstract class CachingRendererPainter
 
     @Override
     protected @Nullable Image getImage(int scaleFactor, int width, int height)
+    {
+        if (isImageRequestMonitored()) {
+            long start = System.nanoTime();
+            int[] outcome = new int[1];
+            Image im = getImage(scaleFactor, width, height, outcome);
+            imageProvided(scaleFactor, width, height, outcome[0], System.nanoTime() - start);
+            return im;
+        }
+        return getImage(scaleFactor, width, height, null);
+    }
+
+    private @Nullable Image getImage(int scaleFactor, int width, int height, @Nullable int[] outcome)
     {
         ImageCache.PixelsKey key = createKey(scaleFactor, width, height);
 
@@ -61,17 +82,156 @@ public abstract class CachingRendererPainter
             ImageCache cache = ImageCache.getInstance();
             Image im = cache.getImage(key);
             if (im != null) {
+                if (outcome != null) {
+                    outcome[0] = CACHE_HIT;
+                }
                 return im;
             }
+            if (outcome != null) {
+                outcome[0] = CACHE_MISS;
+            }
             im = createImage(scaleFactor, width, height);
             if (im != null) {
                 cache.setImage(key, im);
+                recordSize(scaleFactor, width, height);
             }
             return im;
         } else {
+            if (outcome != null) {
+                outcome[0] = NOT_CACHED;
+            }
             return createImage(scaleFactor, width, height);
         }
     }
 
+    /**
+      Create a request to render the image of this painter as part of a batch (see {@link AtlasRenderer}).
+
+      @param scaleFactor The scale factor.
+      @return the request, or null if the image is not cacheable or is already cached.
+    */
+
+    public @Nullable AtlasRenderer.Request createImageRequest(int scaleFactor)
+    {
+        if (!isCachingEnabled || width <= 0 || height <= 0) {
+            return null;
+        }
+        int w = (int) Math.ceil(width);
+        int h = (int) Math.ceil(height);
+        ImageCache.PixelsKey key = createKey(scaleFactor, w, h);
+        if (key == null || ImageCache.getInstance().containsImage(key)) {
+            return null;
+        }
+        return new AtlasRenderer.Request(r, w, h, scaleFactor);
+    }
+
+    /**
+      Cache an image rendered in response to a request created by {@link #createImageRequest}.
+
+      @param request The request.
+      @param rc The compositor containing the rendering.
+    */
+
+    public void cacheImage(@NotNull AtlasRenderer.Request request, @NotNull ReusableCompositor rc)
+    {
+        ImageCache.PixelsKey key = createKey(request.getScaleFactor(), request.getWidth(), request.getHeight());
+        BufferedImage theImage = rc.getImage();
+        if (key != null && theImage != null) {
+            Image im = JavaSupport.createMultiResolutionImage(request.getWidth(), request.getHeight(), theImage);
+            ImageCache.getInstance().setImage(key, im);
+            recordSize(request.getScaleFactor(), request.getWidth(), request.getHeight());
+        }
+    }
+
+    /**
+      Return the image of this painter, rendering and caching it if needed.
+
+      @param scaleFactor The scale factor.
+      @return the image, or null if the painter has no rendering.
+    */
+
+    public @Nullable Image getImage(int scaleFactor)
+    {
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        return getImage(scaleFactor, (int) Math.ceil(width), (int) Math.ceil(height));
+    }
+
+    /**
+      Return a cached image of the same widget as this painter, if available. Nothing is rendered.
+
+      @param scaleFactor The scale factor.
+      @param width The width of the image, in device independent pixels.
+      @param height The height of the image, in device independent pixels.
+      @return the cached image, or null if no such image is cached.
+    */
+
+    public @Nullable Image getCachedImage(int scaleFactor, int width, int height)
+    {
+        ImageCache.PixelsKey key = isCachingEnabled ? createKey(scaleFactor, width, height) : null;
+        ImageCache cache = ImageCache.getInstance();
+        return key != null && cache.containsImage(key) ? cache.getImage(key) : null;
+    }
+
+    /**
+      Return the key that identifies the cached image of this painter.
+
+      @param scaleFactor The scale factor.
+      @return the key, or null if the image is not cached.
+    */
+
+    public @Nullable ImageCache.PixelsKey getImageKey(int scaleFactor)
+    {
+        return isCachingEnabled ? createKey(scaleFactor, (int) Math.ceil(width), (int) Math.ceil(height)) : null;
+    }
+
+    /**
+      Return the sizes of images of the same widget as this painter that have been cached. An image whose size is
+      returned may no longer be cached.
+
+      @param scaleFactor The scale factor.
+      @return the sizes, in device independent pixels.
+    */
+
+    public @NotNull List<Dimension> getCachedSizes(int scaleFactor)
+    {
+        ImageCache.PixelsKey family = createKey(scaleFactor, 0, 0);
+        return family != null ? ImageSizeIndex.getInstance().getSizes(family) : Collections.emptyList();
+    }
+
+    private void recordSize(int scaleFactor, int width, int height)
+    {
+        // The key for a zero size identifies all sizes of the same widget.
+        ImageCache.PixelsKey family = createKey(scaleFactor, 0, 0);
+        if (family != null) {
+            ImageSizeIndex.getInstance().add(family, width, height);
+        }
+    }
+
+    /**
+      Indicate whether image requests should be reported to {@link #imageProvided}. The default implementation returns
+      false.
+    */
+
+    protected boolean isImageRequestMonitored()
+    {
+        return false;
+    }
+
+    /**
+      This method is called after an image has been provided for painting, if image requests are monitored.
+
+      @param scaleFactor The scale factor.
+      @param width The width of the image, in device independent pixels.
+      @param height The height of the image, in device independent pixels.
+      @param cacheOutcome The cache outcome: {@link #NOT_CACHED}, {@link #CACHE_HIT}, or {@link #CACHE_MISS}.
+      @param elapsedNanos The time required to provide the image, in nanoseconds.
+    */
+
+    protected void imageProvided(int scaleFactor, int width, int height, int cacheOutcome, long elapsedNanos)
+    {
+    }
+
     protected abstract @Nullable ImageCache.PixelsKey createKey(int scaleFactor, int rasterWidth, int rasterHeight);
 }
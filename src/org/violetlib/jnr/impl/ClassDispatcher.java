@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Maps classes to handlers. A handler is registered for a type and applies to that type and its subtypes. The handler
+  for a class is the handler of the first matching registration, which is the same result as testing the registered
+  types in order using {@code instanceof}. The result of the search is remembered for each class using a
+  {@link ClassValue}, so the search is performed once per class.
+
+  @param <H> The type of the handlers.
+*/
+
+public final class ClassDispatcher<H>
+{
+    private static final class Binding<H>
+    {
+        final @NotNull Class<?> type;
+        final @Nullable H handler;
+
+        Binding(@NotNull Class<?> type, @Nullable H handler)
+        {
+            this.type = type;
+            this.handler = handler;
+        }
+    }
+
+    private final @NotNull List<Binding<H>> bindings = new ArrayList<>();
+    private volatile @NotNull ClassValue<Binding<H>> lookup = createLookup();
+
+    /**
+      Register a handler. The registration is tested after the existing registrations.
+
+      @param type The type to which the handler applies.
+      @param handler The handler.
+    */
+
+    public synchronized void register(@NotNull Class<?> type, @NotNull H handler)
+    {
+        bindings.add(new Binding<>(type, handler));
+        lookup = createLookup();
+    }
+
+    /**
+      Register a handler that takes precedence over the existing registrations. This method allows a handler to be
+      registered for a subtype of a type whose handler has already been registered.
+
+      @param type The type to which the handler applies.
+      @param handler The handler.
+    */
+
+    public synchronized void registerFirst(@NotNull Class<?> type, @NotNull H handler)
+    {
+        bindings.add(0, new Binding<>(type, handler));
+        lookup = createLookup();
+    }
+
+    /**
+      Return the handler for the specified class.
+
+      @param c The class.
+      @return the handler of the first registration whose type is {@code c} or a supertype of {@code c}, or null if
+      there is none.
+    */
+
+    public @Nullable H get(@NotNull Class<?> c)
+    {
+        return lookup.get(c).handler;
+    }
+
+    private synchronized @NotNull Binding<H> find(@NotNull Class<?> c)
+    {
+        for (Binding<H> b : bindings) {
+            if (b.type.isAssignableFrom(c)) {
+                return b;
+            }
+        }
+        return new Binding<>(c, null);
+    }
+
+    private @NotNull ClassValue<Binding<H>> createLookup()
+    {
+        return new ClassValue<Binding<H>>()
+        {
+            @Override
+            protected @NotNull Binding<H> computeValue(@NotNull Class<?> c)
+            {
+                return find(c);
+            }
+        };
+    }
+}
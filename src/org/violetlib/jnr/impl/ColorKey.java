@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.*;
+
+/**
+  The names of the colors defined by {@link Colors}. The ordinal of a key indexes the color tables, so that painters
+  can obtain a color without a string lookup.
+*/
+
+public enum ColorKey
+{
+    OVERLAY_SCROLL_TRACK("overlayScrollTrack"),
+    OVERLAY_SCROLL_TRACK_BORDER("overlayScrollTrackBorder"),
+    OVERLAY_THUMB("overlayThumb"),
+    OVERLAY_THUMB_ROLLOVER("overlayThumb_rollover"),
+    OVERLAY_THUMB_BORDER("overlayThumbBorder"),
+    OVERLAY_THUMB_BORDER_ROLLOVER("overlayThumbBorder_rollover"),
+    LEGACY_SCROLL_BAR_THUMB("legacyScrollBarThumb"),
+    LEGACY_SCROLL_BAR_THUMB_ROLLOVER("legacyScrollBarThumb_rollover"),
+    LEGACY_SCROLL_BAR_THUMB_BORDER("legacyScrollBarThumbBorder"),
+    LEGACY_SCROLL_BAR_THUMB_BORDER_ROLLOVER("legacyScrollBarThumbBorder_rollover"),
+    LEGACY_SCROLL_BAR_TRACK("legacyScrollBarTrack"),
+    LEGACY_SCROLL_BAR_INNER_BORDER("legacyScrollBarInnerBorder"),
+    LEGACY_SCROLL_BAR_OUTER_BORDER("legacyScrollBarOuterBorder"),
+    COMBO_BOX_ARROW("comboBoxArrow"),
+    TITLE_BAR_CLOSE_BUTTON("titleBarCloseButton"),
+    TITLE_BAR_MINIMIZE_BUTTON("titleBarMinimizeButton"),
+    TITLE_BAR_RESIZE_BUTTON("titleBarResizeButton"),
+    SEARCH_FIELD_ICON("searchFieldIcon"),
+    SEARCH_FIELD_ICON_INACTIVE("searchFieldIcon_inactive"),
+    LINEAR_SLIDER_TICK("linearSliderTick"),
+    CIRCULAR_SLIDER_INTERIOR("circularSliderInterior"),
+    CIRCULAR_SLIDER_BORDER("circularSliderBorder"),
+    CIRCULAR_SLIDER_DIMPLE("circularSliderDimple"),
+    CIRCULAR_SLIDER_DIMPLE_TOP("circularSliderDimpleTop"),
+    CIRCULAR_SLIDER_TICK("circularSliderTick"),
+    THICK_DIVIDER_DIMPLE("thickDividerDimple"),
+    THICK_DIVIDER_DIMPLE_BORDER("thickDividerDimpleBorder"),
+    TABLE_HEADER_DIVIDER("tableHeaderDivider"),
+    TABLE_HEADER_ARROW("tableHeaderArrow"),
+    TOOLBAR_BUTTON("toolbarButton"),
+    TOOLBAR_BUTTON_SELECTED("toolbarButtonSelected"),
+    TOOLBAR_BUTTON_PRESSED("toolbarButtonPressed"),
+    TOOLBAR_BUTTON_SELECTED_PRESSED("toolbarButtonSelectedPressed");
+
+    private static final @NotNull Map<String,ColorKey> keys = new HashMap<>();
+
+    static {
+        for (ColorKey key : values()) {
+            keys.put(key.name, key);
+        }
+    }
+
+    /**
+      Return the key with the specified color name.
+
+      @param name The color name.
+      @return the key, or null if there is no color with the specified name.
+    */
+
+    public static @Nullable ColorKey forName(@NotNull String name)
+    {
+        return keys.get(name);
+    }
+
+    private final @NotNull String name;
+
+    ColorKey(@NotNull String name)
+    {
+        this.name = name;
+    }
+
+    /**
+      Return the color name.
+    */
+
+    public @NotNull String getColorName()
+    {
+        return name;
+    }
+}
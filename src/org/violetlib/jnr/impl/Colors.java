@@ -59,15 +59,37 @@ public class Colors
     }
 
     private final @NotNull Map<String,Color> colors;
+    private final @NotNull Color[] table;  // indexed by color key ordinal
 
     Colors(@NotNull Map<String,Color> colors)
     {
         this.colors = Collections.unmodifiableMap(colors);
+
+        ColorKey[] keys = ColorKey.values();
+        this.table = new Color[keys.length];
+        for (ColorKey key : keys) {
+            table[key.ordinal()] = colors.get(key.getColorName());
+        }
+    }
+
+    public @NotNull Color get(@NotNull ColorKey key)
+    {
+        Color c = table[key.ordinal()];
+        if (c == null) {
+            throw new UnsupportedOperationException("Missing color: " + key.getColorName());
+        }
+        return c;
+    }
+
+    public @Nullable Color getOptional(@NotNull ColorKey key)
+    {
+        return table[key.ordinal()];
     }
 
     public @NotNull Color get(@NotNull String name)
     {
-        Color c = colors.get(name);
+        ColorKey key = ColorKey.forName(name);
+        Color c = key != null ? table[key.ordinal()] : colors.get(name);
         if (c == null) {
             throw new UnsupportedOperationException("Missing color: " + name);
         }
@@ -76,7 +98,8 @@ public class Colors
 
     public @Nullable Color getOptional(@NotNull String name)
     {
-        return colors.get(name);
+        ColorKey key = ColorKey.forName(name);
+        return key != null ? table[key.ordinal()] : colors.get(name);
     }
 
     public @NotNull Map<String,Color> getColors()
@@ -62,11 +62,33 @@ public class CombinedInsetter
 
     protected @NotNull Rectangle2D apply(float cx, float cy, float cwidth, float cheight)
     {
-        float x = cx + horizontal.getRegionOrigin(cwidth);
-        float y = cy + vertical.getRegionOrigin(cheight);
-        float w = horizontal.getRegionSize(cwidth);
-        float h = vertical.getRegionSize(cheight);
-        return new Rectangle2D.Float(x, y, w, h);
+        Rectangle2D.Float result = new Rectangle2D.Float();
+        apply(cx, cy, cwidth, cheight, result);
+        return result;
+    }
+
+    @Override
+    public void applyTo(float width, float height, @NotNull Rectangle2D.Float result)
+    {
+        apply(0, 0, width, height, result);
+    }
+
+    @Override
+    public void applyToBounds2D(@NotNull Rectangle2D bounds, @NotNull Rectangle2D.Float result)
+    {
+        float x = (float) bounds.getX();
+        float y = (float) bounds.getY();
+        float w = (float) bounds.getWidth();
+        float h = (float) bounds.getHeight();
+        apply(x, y, w, h, result);
+    }
+
+    protected void apply(float cx, float cy, float cwidth, float cheight, @NotNull Rectangle2D.Float result)
+    {
+        result.x = cx + horizontal.getRegionOrigin(cwidth);
+        result.y = cy + vertical.getRegionOrigin(cheight);
+        result.width = horizontal.getRegionSize(cwidth);
+        result.height = vertical.getRegionSize(cheight);
     }
 
     @Override
@@ -171,6 +193,24 @@ public class CombinedInsetter
         return new Insets(tn, ln, bn, rn);
     }
 
+    /**
+      Return the horizontal insetter.
+    */
+
+    public @NotNull Insetter1 getHorizontal()
+    {
+        return horizontal;
+    }
+
+    /**
+      Return the vertical insetter.
+    */
+
+    public @NotNull Insetter1 getVertical()
+    {
+        return vertical;
+    }
+
     public float getFixedRegionWidth()
     {
         return horizontal.getFixedRegionSize();
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A renderer for one step of a cross-fade from one rendering to another. The intermediate steps are produced by
+  interpolating the premultiplied pixels of the two end renderings. The steps of a cross-fade share the end renderings,
+  so that rendering all of the steps at one size (for example, into an animation strip) renders each end only once.
+*/
+
+public final class CrossFadeRenderer
+  extends Renderer
+{
+    /**
+      Create renderers for the steps of a cross-fade.
+
+      @param from The renderer of the initial rendering.
+      @param to The renderer of the final rendering.
+      @param stepCount The number of steps from the initial rendering to the final rendering.
+      @return the renderers, indexed by step. The first renderer produces the initial rendering and the last renderer
+      produces the final rendering.
+    */
+
+    public static @NotNull Renderer[] createSteps(@NotNull Renderer from, @NotNull Renderer to, int stepCount)
+    {
+        if (stepCount < 1) {
+            throw new IllegalArgumentException("Invalid step count");
+        }
+
+        EndRenderings ends = new EndRenderings(from, to);
+        Renderer[] steps = new Renderer[stepCount + 1];
+        for (int i = 0; i <= stepCount; i++) {
+            steps[i] = new CrossFadeRenderer(ends, i / (float) stepCount);
+        }
+        return steps;
+    }
+
+    /**
+      Return the number of pixels retained by the end renderings of the specified renderers. The end renderings shared
+      by several steps are counted once. Renderers that are not cross-fade steps do not contribute.
+    */
+
+    public static long getRetainedPixelCount(@NotNull Renderer[] rs)
+    {
+        Set<EndRenderings> ends = Collections.newSetFromMap(new IdentityHashMap<>());
+        long count = 0;
+        for (Renderer r : rs) {
+            if (r instanceof CrossFadeRenderer && ends.add(((CrossFadeRenderer) r).ends)) {
+                count += ((CrossFadeRenderer) r).ends.getPixelCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+      The end renderings of a cross-fade. The renderings at the most recently used raster size are retained.
+    */
+
+    private static final class EndRenderings
+    {
+        private final @NotNull Renderer from;
+        private final @NotNull Renderer to;
+        private @Nullable ReusableCompositor fromRendering;
+        private @Nullable ReusableCompositor toRendering;
+
+        EndRenderings(@NotNull Renderer from, @NotNull Renderer to)
+        {
+            this.from = from;
+            this.to = to;
+        }
+
+        synchronized long getPixelCount()
+        {
+            long count = 0;
+            if (fromRendering != null) {
+                count += (long) fromRendering.getRasterWidth() * fromRendering.getRasterHeight();
+            }
+            if (toRendering != null) {
+                count += (long) toRendering.getRasterWidth() * toRendering.getRasterHeight();
+            }
+            return count;
+        }
+
+        synchronized @NotNull ReusableCompositor[] get(@NotNull ReusableCompositor compositor)
+        {
+            if (fromRendering == null || toRendering == null
+                  || fromRendering.getRasterWidth() != compositor.getRasterWidth()
+                  || fromRendering.getRasterHeight() != compositor.getRasterHeight()
+                  || fromRendering.getScaleFactor() != compositor.getScaleFactor()) {
+                ReusableCompositor fr = compositor.createSimilar();
+                from.composeTo(fr);
+                ReusableCompositor tr = compositor.createSimilar();
+                to.composeTo(tr);
+                fromRendering = fr;
+                toRendering = tr;
+            }
+            return new ReusableCompositor[] { fromRendering, toRendering };
+        }
+    }
+
+    private final @NotNull EndRenderings ends;
+    private final float fraction;
+
+    private CrossFadeRenderer(@NotNull EndRenderings ends, float fraction)
+    {
+        this.ends = ends;
+        this.fraction = fraction;
+    }
+
+    public float getFraction()
+    {
+        return fraction;
+    }
+
+    @Override
+    public void composeTo(@NotNull ReusableCompositor compositor)
+    {
+        ReusableCompositor[] renderings = ends.get(compositor);
+        if (fraction <= 0) {
+            compositor.compose(renderings[0]);
+        } else if (fraction >= 1) {
+            compositor.compose(renderings[1]);
+        } else {
+            compositor.compose(renderings[0].createInterpolatedCopy(renderings[1], fraction));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.nio.IntBuffer;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A basic renderer that can also render into off-heap memory (see {@link DirectPixelBuffer}).
+*/
+
+public interface DirectBasicRenderer
+  extends BasicRenderer
+{
+    /**
+      Render into a direct buffer.
+
+      @param buffer The direct buffer, whose contents are pixels in INT_ARGB_PRE format in native byte order, arranged
+      in row major order starting at index zero. The buffer is initially clear.
+      @param rw The number of pixels in each row of the raster.
+      @param rh The number of rows in the raster.
+      @param w The width of the rendering, in device independent pixels.
+      @param h The height of the rendering, in device independent pixels.
+      @return true if the rendering was performed, false if the renderer is unable to render into the buffer, in which
+      case {@link #render(int[], int, int, float, float)} is used instead.
+    */
+
+    boolean render(@NotNull IntBuffer buffer, int rw, int rh, float w, float h);
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A pixel buffer backed by off-heap memory. The pixels are stored in native byte order, which is the pixel format used
+  by native renderers.
+*/
+
+public final class DirectPixelBuffer
+  extends PixelBuffer
+{
+    private static final int CLEAR_CHUNK_SIZE = 1024;
+    private static final @NotNull int[] ZEROS = new int[CLEAR_CHUNK_SIZE];
+
+    private final @NotNull IntBuffer buffer;
+
+    public DirectPixelBuffer(int capacity)
+    {
+        super(capacity);
+        buffer = ByteBuffer.allocateDirect(capacity * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+      Return the direct buffer that backs this pixel buffer. The position and limit of the buffer are not significant.
+    */
+
+    public @NotNull IntBuffer getBuffer()
+    {
+        return buffer;
+    }
+
+    @Override
+    public boolean isDirect()
+    {
+        return true;
+    }
+
+    @Override
+    protected void clear(int count)
+    {
+        IntBuffer b = buffer.duplicate();
+        b.clear();
+        while (count > 0) {
+            int n = Math.min(count, CLEAR_CHUNK_SIZE);
+            b.put(ZEROS, 0, n);
+            count -= n;
+        }
+    }
+
+    @Override
+    public int get(int index)
+    {
+        return buffer.get(index);
+    }
+
+    @Override
+    public void put(int index, int pixel)
+    {
+        buffer.put(index, pixel);
+    }
+
+    @Override
+    public void get(int index, @NotNull int[] dst, int offset, int count)
+    {
+        IntBuffer b = buffer.duplicate();
+        b.position(index);
+        b.get(dst, offset, count);
+    }
+
+    @Override
+    public void render(@NotNull BasicRenderer r, int rasterWidth, int rasterHeight, float w, float h)
+    {
+        reset(rasterWidth, rasterHeight);
+
+        DirectBasicRenderer dr = getDirectRenderer(r);
+        if (dr != null && dr.render(buffer, rasterWidth, rasterHeight, w, h)) {
+            return;
+        }
+
+        // The renderer requires an array.
+        int count = rasterWidth * rasterHeight;
+        int[] data = new int[count];
+        r.render(data, rasterWidth, rasterHeight, w, h);
+        IntBuffer b = buffer.duplicate();
+        b.clear();
+        b.put(data, 0, count);
+    }
+}
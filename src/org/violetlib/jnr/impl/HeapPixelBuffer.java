@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A pixel buffer backed by a Java array.
+*/
+
+public final class HeapPixelBuffer
+  extends PixelBuffer
+{
+    private final @NotNull int[] data;
+
+    public HeapPixelBuffer(int capacity)
+    {
+        super(capacity);
+        data = new int[capacity];
+    }
+
+    /**
+      Return the array that backs this buffer.
+    */
+
+    public @NotNull int[] getArray()
+    {
+        return data;
+    }
+
+    @Override
+    public boolean isDirect()
+    {
+        return false;
+    }
+
+    @Override
+    protected void clear(int count)
+    {
+        Arrays.fill(data, 0, count, 0);
+    }
+
+    @Override
+    public int get(int index)
+    {
+        return data[index];
+    }
+
+    @Override
+    public void put(int index, int pixel)
+    {
+        data[index] = pixel;
+    }
+
+    @Override
+    public void get(int index, @NotNull int[] dst, int offset, int count)
+    {
+        System.arraycopy(data, index, dst, offset, count);
+    }
+
+    @Override
+    public void render(@NotNull BasicRenderer r, int rasterWidth, int rasterHeight, float w, float h)
+    {
+        reset(rasterWidth, rasterHeight);
+        r.render(data, rasterWidth, rasterHeight, w, h);
+    }
+}
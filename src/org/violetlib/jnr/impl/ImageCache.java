@@ -81,6 +81,20 @@ final public class ImageCache {
         return INSTANCE;
     }
 
+    /**
+     * Returns the number of image requests that found a cached image.
+     */
+    public static int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of image requests that did not find a cached image.
+     */
+    public static int getMissCount() {
+        return missCount;
+    }
+
     ImageCache(int maxPixelCount) {
         this.maxPixelCount = maxPixelCount;
     }
@@ -120,6 +134,20 @@ final public class ImageCache {
         return result;
     }
 
+    /**
+     * Indicates whether an image is cached for the specified key. The hit and miss counts are not affected.
+     */
+    public boolean containsImage(@NotNull PixelsKey key) {
+        ImageSoftReference ref;
+        lock.readLock().lock();
+        try {
+            ref = map.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ref != null && ref.get() != null;
+    }
+
     /**
      * Sets the cached image for the specified constraints.
      *
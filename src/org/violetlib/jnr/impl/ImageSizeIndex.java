@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Records the sizes of the images cached by caching renderer painters, so that a cached image of a different size can
+  be used as a placeholder (see {@link PlaceholderStrategy#NEAREST_SIZE}). Sizes are recorded for a family of images,
+  identified by a key that is independent of the image size. The number of families and the number of sizes recorded
+  for each family are limited. A recorded size is a hint; the image may no longer be cached.
+*/
+
+final class ImageSizeIndex
+{
+    private static final int MAXIMUM_FAMILY_COUNT = 1000;
+    private static final int MAXIMUM_SIZE_COUNT = 8;
+
+    private static final @NotNull ImageSizeIndex INSTANCE = new ImageSizeIndex();
+
+    public static @NotNull ImageSizeIndex getInstance()
+    {
+        return INSTANCE;
+    }
+
+    private final @NotNull LinkedHashMap<ImageCache.PixelsKey,List<Dimension>> families
+      = new LinkedHashMap<ImageCache.PixelsKey,List<Dimension>>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(@NotNull Map.Entry<ImageCache.PixelsKey,List<Dimension>> eldest)
+        {
+            return size() > MAXIMUM_FAMILY_COUNT;
+        }
+    };
+
+    private ImageSizeIndex()
+    {
+    }
+
+    /**
+      Record the size of a cached image.
+
+      @param family The key that identifies the family of the image.
+      @param width The width of the image, in device independent pixels.
+      @param height The height of the image, in device independent pixels.
+    */
+
+    public synchronized void add(@NotNull ImageCache.PixelsKey family, int width, int height)
+    {
+        List<Dimension> sizes = families.computeIfAbsent(family, k -> new ArrayList<>());
+        Dimension d = new Dimension(width, height);
+        sizes.remove(d);
+        if (sizes.size() >= MAXIMUM_SIZE_COUNT) {
+            sizes.remove(0);
+        }
+        sizes.add(d);
+    }
+
+    /**
+      Return the recorded sizes of a family of images.
+    */
+
+    public synchronized @NotNull List<Dimension> getSizes(@NotNull ImageCache.PixelsKey family)
+    {
+        List<Dimension> sizes = families.get(family);
+        List<Dimension> result = new ArrayList<>();
+        if (sizes != null) {
+            for (Dimension d : sizes) {
+                result.add(new Dimension(d));
+            }
+        }
+        return result;
+    }
+}
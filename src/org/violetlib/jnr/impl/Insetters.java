@@ -141,4 +141,44 @@ public class Insetters
         return new CombinedInsetter(new FixedInsetter1(left, right),
           FloatingInsetter1.createRightBottomAligned(regionHeight, bottom));
     }
+
+    /**
+      Fold a sequence of two insetters into a single equivalent insetter, if possible. Fixed insets are folded by adding
+      the corresponding inset values. Folding is performed only when the folded insetter produces the same results as
+      the sequence, including the integer results, which are rounded at each step of a sequence. That is the case when
+      the insets of the first insetter are integers.
+
+      @param first The insetter that is applied to the component bounds.
+      @param second The insetter that is applied to the result of the first insetter.
+      @return the folded insetter, or null if the sequence cannot be folded.
+    */
+
+    public static @Nullable Insetter fold(@NotNull Insetter first, @NotNull Insetter second)
+    {
+        if (first.getClass() == CombinedInsetter.class && second.getClass() == CombinedInsetter.class) {
+            CombinedInsetter c1 = (CombinedInsetter) first;
+            CombinedInsetter c2 = (CombinedInsetter) second;
+            Insetter1 horizontal = fold(c1.getHorizontal(), c2.getHorizontal());
+            Insetter1 vertical = fold(c1.getVertical(), c2.getVertical());
+            if (horizontal != null && vertical != null) {
+                return new CombinedInsetter(horizontal, vertical);
+            }
+        }
+        return null;
+    }
+
+    private static @Nullable Insetter1 fold(@NotNull Insetter1 first, @NotNull Insetter1 second)
+    {
+        if (first.getClass() == FixedInsetter1.class && second.getClass() == FixedInsetter1.class) {
+            float d1 = first.getFixedInset1();
+            float d2 = first.getFixedInset2();
+            if (d1 == Math.rint(d1) && d2 == Math.rint(d2)) {
+                if (d1 == 0 && d2 == 0) {
+                    return second;
+                }
+                return new FixedInsetter1(d1 + second.getFixedInset1(), d2 + second.getFixedInset2());
+            }
+        }
+        return null;
+    }
 }
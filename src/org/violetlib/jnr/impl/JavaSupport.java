@@ -9,9 +9,13 @@
 package org.violetlib.jnr.impl;
 
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.WeakHashMap;
 
 import org.jetbrains.annotations.*;
 
@@ -25,20 +29,73 @@ public class JavaSupport
     {
         int getScaleFactor(@NotNull Graphics g);
         Image createMultiResolutionImage(int baseImageWidth, int baseImageHeight, @NotNull BufferedImage im);
+        @NotNull Cleanable registerCleanup(@NotNull Object o, @NotNull Runnable action);
+    }
+
+    /**
+      A cleanup action registered using {@link #registerCleanup}.
+    */
+
+    public interface Cleanable
+    {
+        /**
+          Perform the cleanup action, if it has not already been performed. The action is performed at most once.
+        */
+
+        void clean();
     }
 
     private final static JavaSupportImpl impl = findImpl();
 
+    private final static @NotNull Map<Graphics,Integer> offscreenScaleFactors
+      = Collections.synchronizedMap(new WeakHashMap<>());
+
     public static int getScaleFactor(@NotNull Graphics g)
     {
+        Integer n = offscreenScaleFactors.get(g);
+        if (n != null) {
+            return n;
+        }
         return impl.getScaleFactor(g);
     }
 
+    /**
+      Create a graphics context that draws into an image at a specified scale factor. The graphics context is scaled so
+      that it accepts device independent coordinates, and painters that paint into it render at the specified scale
+      factor, as they would when painting to a display with that scale factor.
+
+      @param im The image. Its size should be the size of the rendering, multiplied by {@code scaleFactor}.
+      @param scaleFactor The scale factor.
+      @return the graphics context.
+    */
+
+    public static @NotNull Graphics2D createOffscreenGraphics(@NotNull BufferedImage im, int scaleFactor)
+    {
+        Graphics2D g = im.createGraphics();
+        g.scale(scaleFactor, scaleFactor);
+        offscreenScaleFactors.put(g, scaleFactor);
+        return g;
+    }
+
     public static @NotNull Image createMultiResolutionImage(int baseImageWidth, int baseImageHeight, @NotNull BufferedImage im)
     {
         return impl.createMultiResolutionImage(baseImageWidth, baseImageHeight, im);
     }
 
+    /**
+      Register an action to be performed when an object becomes phantom reachable. This is an alternative to
+      finalization that avoids finalizer overhead.
+
+      @param o The object.
+      @param action The action. The action must not refer to the object.
+      @return a handle that can be used to perform the action before the object becomes phantom reachable.
+    */
+
+    public static @NotNull Cleanable registerCleanup(@NotNull Object o, @NotNull Runnable action)
+    {
+        return impl.registerCleanup(o, action);
+    }
+
     private static JavaSupportImpl findImpl()
     {
         int version = obtainJavaVersion();
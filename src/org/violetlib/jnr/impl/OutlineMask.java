@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+import org.jetbrains.annotations.*;
+
+/**
+  An 8-bit coverage mask derived from an outline, positioned in device pixels. Masks are obtained from an
+  {@link OutlineMaskCache}. The coverage data is shared by all masks created from outlines of the same type, size, and
+  expansion; painting a mask using a color does not rasterize a shape.
+*/
+
+public final class OutlineMask
+{
+    /**
+      The coverage data of a mask, independent of its position.
+    */
+
+    static final class Coverage
+    {
+        final int scaleFactor;
+        final int offsetX;
+        final int offsetY;
+        final int rasterWidth;
+        final int rasterHeight;
+        final @NotNull byte[] data;
+
+        private int imageColor;
+        private @Nullable BufferedImage image;
+
+        /**
+          Create mask coverage data.
+
+          @param scaleFactor The scale factor.
+          @param offsetX The X offset of the raster, in device pixels, from the reference point of the outline.
+          @param offsetY The Y offset of the raster, in device pixels, from the reference point of the outline.
+          @param rasterWidth The raster width.
+          @param rasterHeight The raster height.
+          @param data The coverage values, one byte per pixel, in row major order.
+        */
+
+        Coverage(int scaleFactor, int offsetX, int offsetY, int rasterWidth, int rasterHeight, @NotNull byte[] data)
+        {
+            this.scaleFactor = scaleFactor;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.rasterWidth = rasterWidth;
+            this.rasterHeight = rasterHeight;
+            this.data = data;
+        }
+
+        /**
+          Return an image that paints the specified color using this mask. The image for the most recently requested
+          color is retained.
+        */
+
+        synchronized @NotNull BufferedImage getImage(@NotNull Color c)
+        {
+            int argb = c.getRGB();
+            if (image == null || imageColor != argb) {
+                image = createImage(argb);
+                imageColor = argb;
+            }
+            return image;
+        }
+
+        private @NotNull BufferedImage createImage(int argb)
+        {
+            BufferedImage im = new BufferedImage(rasterWidth, rasterHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+            int[] pixels = ((DataBufferInt) im.getRaster().getDataBuffer()).getData();
+            int alpha = (argb >>> 24) & 0xFF;
+            int red = (argb >> 16) & 0xFF;
+            int green = (argb >> 8) & 0xFF;
+            int blue = argb & 0xFF;
+
+            // Precompute the premultiplied pixel for each coverage value
+            int[] table = new int[256];
+            for (int i = 1; i < 256; i++) {
+                int a = (alpha * i + 127) / 255;
+                table[i] = (a << 24) | (((red * a + 127) / 255) << 16) | (((green * a + 127) / 255) << 8)
+                  | ((blue * a + 127) / 255);
+            }
+
+            int count = rasterWidth * rasterHeight;
+            for (int i = 0; i < count; i++) {
+                pixels[i] = table[data[i] & 0xFF];
+            }
+            return im;
+        }
+    }
+
+    private final @NotNull Coverage coverage;
+    private final int x;
+    private final int y;
+
+    OutlineMask(@NotNull Coverage coverage, int referenceX, int referenceY)
+    {
+        this.coverage = coverage;
+        this.x = referenceX + coverage.offsetX;
+        this.y = referenceY + coverage.offsetY;
+    }
+
+    public int getScaleFactor()
+    {
+        return coverage.scaleFactor;
+    }
+
+    /**
+      Return the X coordinate of the mask raster, in device pixels.
+    */
+
+    public int getX()
+    {
+        return x;
+    }
+
+    /**
+      Return the Y coordinate of the mask raster, in device pixels.
+    */
+
+    public int getY()
+    {
+        return y;
+    }
+
+    public int getRasterWidth()
+    {
+        return coverage.rasterWidth;
+    }
+
+    public int getRasterHeight()
+    {
+        return coverage.rasterHeight;
+    }
+
+    /**
+      Return the coverage of a pixel of the mask raster.
+
+      @return the coverage, from 0 (not covered) to 255 (fully covered).
+    */
+
+    public int getCoverage(int col, int row)
+    {
+        return coverage.data[row * coverage.rasterWidth + col] & 0xFF;
+    }
+
+    /**
+      Return an image, in device pixels, that paints the specified color using this mask. The image is shared and must
+      not be modified.
+    */
+
+    public @NotNull BufferedImage getImage(@NotNull Color c)
+    {
+        return coverage.getImage(c);
+    }
+
+    /**
+      Paint the specified color using this mask.
+
+      @param g The graphics context, whose scale factor should match the scale factor of this mask.
+      @param c The color.
+    */
+
+    public void paint(@NotNull Graphics g, @NotNull Color c)
+    {
+        Graphics2D g2 = JNRPlatformUtils.toGraphics2D(g);
+        if (g2 != null) {
+            int scaleFactor = coverage.scaleFactor;
+            AffineTransform tr = AffineTransform.getTranslateInstance(x / (double) scaleFactor,
+              y / (double) scaleFactor);
+            tr.scale(1.0 / scaleFactor, 1.0 / scaleFactor);
+            g2.drawImage(getImage(c), tr, null);
+        }
+    }
+}
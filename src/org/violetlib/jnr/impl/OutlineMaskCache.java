@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.violetlib.geom.ExpandableOutline;
+import org.violetlib.geom.GeneralRoundRectangle;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A cache of coverage masks derived from expandable outlines, such as the masks used to paint focus rings. A mask is
+  rasterized once for each combination of outline type, outline size, expansion, and scale factor. The position of an
+  outline affects the mask only to the extent of its fractional device pixel offset.
+  <p>
+  Masks are supported for outlines whose shapes are rectangles, round rectangles, ellipses, and general round
+  rectangles. Other outlines are not cached.
+*/
+
+public final class OutlineMaskCache
+{
+    private static final int MAXIMUM_MASK_COUNT = 64;
+
+    private static final OutlineMaskCache INSTANCE = new OutlineMaskCache();
+
+    public static @NotNull OutlineMaskCache getInstance()
+    {
+        return INSTANCE;
+    }
+
+    private final @NotNull LinkedHashMap<MaskKey,OutlineMask.Coverage> map
+      = new LinkedHashMap<MaskKey,OutlineMask.Coverage>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(@NotNull Map.Entry<MaskKey,OutlineMask.Coverage> eldest)
+        {
+            return size() > MAXIMUM_MASK_COUNT;
+        }
+    };
+
+    private int hitCount;
+    private int missCount;
+
+    private OutlineMaskCache()
+    {
+    }
+
+    /**
+      Return a mask for the area between two expansions of an outline, as used to paint a focus ring.
+
+      @param outline The outline.
+      @param innerOffset The expansion offset of the inner boundary of the ring.
+      @param outerOffset The expansion offset of the outer boundary of the ring.
+      @param scaleFactor The scale factor.
+      @return the mask, or null if masks are not supported for the outline.
+    */
+
+    public @Nullable OutlineMask getRingMask(@NotNull ExpandableOutline outline,
+                                             float innerOffset,
+                                             float outerOffset,
+                                             int scaleFactor)
+    {
+        if (innerOffset >= outerOffset) {
+            throw new IllegalArgumentException("Inner offset must be less than outer offset");
+        }
+        return getMask(outline, innerOffset, outerOffset, true, scaleFactor);
+    }
+
+    /**
+      Return a mask for the area inside an expansion of an outline.
+
+      @param outline The outline.
+      @param offset The expansion offset.
+      @param scaleFactor The scale factor.
+      @return the mask, or null if masks are not supported for the outline.
+    */
+
+    public @Nullable OutlineMask getMask(@NotNull ExpandableOutline outline, float offset, int scaleFactor)
+    {
+        return getMask(outline, 0, offset, false, scaleFactor);
+    }
+
+    /**
+      Paint the area between two expansions of an outline using a color. A cached mask is used if masks are supported
+      for the outline. Otherwise, the area is filled.
+
+      @param g The graphics context.
+      @param outline The outline.
+      @param innerOffset The expansion offset of the inner boundary of the ring.
+      @param outerOffset The expansion offset of the outer boundary of the ring.
+      @param c The color.
+    */
+
+    public void paintRing(@NotNull Graphics g,
+                          @NotNull ExpandableOutline outline,
+                          float innerOffset,
+                          float outerOffset,
+                          @NotNull Color c)
+    {
+        int scaleFactor = JavaSupport.getScaleFactor(g);
+        OutlineMask mask = getRingMask(outline, innerOffset, outerOffset, scaleFactor);
+        if (mask != null) {
+            mask.paint(g, c);
+        } else {
+            Graphics2D g2 = JNRPlatformUtils.toGraphics2D(g);
+            if (g2 != null) {
+                Graphics2D gg = (Graphics2D) g2.create();
+                gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                gg.setColor(c);
+                gg.fill(createRing(outline, innerOffset, outerOffset));
+                gg.dispose();
+            }
+        }
+    }
+
+    public synchronized void flush()
+    {
+        map.clear();
+    }
+
+    public synchronized @NotNull String getStatistics()
+    {
+        return "Outline masks: " + map.size() + " entries, " + hitCount + " hits, " + missCount + " misses";
+    }
+
+    private @Nullable OutlineMask getMask(@NotNull ExpandableOutline outline,
+                                          float innerOffset,
+                                          float outerOffset,
+                                          boolean isRing,
+                                          int scaleFactor)
+    {
+        Shape base = outline.getShape(0);
+        double[] size = getSize(base);
+        if (size == null) {
+            return null;
+        }
+
+        // The mask depends on the position of the outline only through the fractional part of its device position.
+
+        Rectangle2D bounds = base.getBounds2D();
+        double dx = bounds.getX() * scaleFactor;
+        double dy = bounds.getY() * scaleFactor;
+        int referenceX = (int) Math.floor(dx);
+        int referenceY = (int) Math.floor(dy);
+        MaskKey key = new MaskKey(outline.getClass(), size, dx - referenceX, dy - referenceY,
+          isRing ? innerOffset : Float.NaN, outerOffset, scaleFactor);
+
+        OutlineMask.Coverage coverage;
+        synchronized (this) {
+            coverage = map.get(key);
+            if (coverage != null) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+        if (coverage == null) {
+            Shape s = isRing ? createRing(outline, innerOffset, outerOffset) : outline.getShape(outerOffset);
+            coverage = createCoverage(s, referenceX, referenceY, scaleFactor);
+            synchronized (this) {
+                map.put(key, coverage);
+            }
+        }
+        return new OutlineMask(coverage, referenceX, referenceY);
+    }
+
+    private static @NotNull Shape createRing(@NotNull ExpandableOutline outline, float innerOffset, float outerOffset)
+    {
+        Path2D p = new Path2D.Double(Path2D.WIND_EVEN_ODD);
+        p.append(outline.getShape(outerOffset), false);
+        p.append(outline.getShape(innerOffset), false);
+        return p;
+    }
+
+    private static @NotNull OutlineMask.Coverage createCoverage(@NotNull Shape s,
+                                                                int referenceX,
+                                                                int referenceY,
+                                                                int scaleFactor)
+    {
+        // Allow one pixel on each side for antialiasing
+        Rectangle2D bounds = s.getBounds2D();
+        int x0 = (int) Math.floor(bounds.getX() * scaleFactor) - 1;
+        int y0 = (int) Math.floor(bounds.getY() * scaleFactor) - 1;
+        int x1 = (int) Math.ceil(bounds.getMaxX() * scaleFactor) + 1;
+        int y1 = (int) Math.ceil(bounds.getMaxY() * scaleFactor) + 1;
+        int rw = Math.max(1, x1 - x0);
+        int rh = Math.max(1, y1 - y0);
+
+        BufferedImage im = new BufferedImage(rw, rh, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = im.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            g.translate(-x0, -y0);
+            g.scale(scaleFactor, scaleFactor);
+            g.setColor(Color.WHITE);
+            g.fill(s);
+        } finally {
+            g.dispose();
+        }
+
+        int[] pixels = ((DataBufferInt) im.getRaster().getDataBuffer()).getData();
+        byte[] data = new byte[rw * rh];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (pixels[i] >>> 24);
+        }
+        return new OutlineMask.Coverage(scaleFactor, x0 - referenceX, y0 - referenceY, rw, rh, data);
+    }
+
+    /**
+      Return the parameters that determine the geometry of a shape, other than its position.
+
+      @return the parameters, or null if the shape is not supported.
+    */
+
+    private static @Nullable double[] getSize(@NotNull Shape s)
+    {
+        if (s instanceof RoundRectangle2D) {
+            RoundRectangle2D rr = (RoundRectangle2D) s;
+            return new double[] { rr.getWidth(), rr.getHeight(), rr.getArcWidth(), rr.getArcHeight() };
+        } else if (s instanceof Rectangle2D || s instanceof Ellipse2D) {
+            Rectangle2D bounds = s.getBounds2D();
+            return new double[] { bounds.getWidth(), bounds.getHeight() };
+        } else if (s instanceof GeneralRoundRectangle) {
+            GeneralRoundRectangle rr = (GeneralRoundRectangle) s;
+            return new double[] { rr.getWidth(), rr.getHeight(),
+              rr.getTopLeftArcWidth(), rr.getTopLeftArcHeight(),
+              rr.getTopRightArcWidth(), rr.getTopRightArcHeight(),
+              rr.getBottomRightArcWidth(), rr.getBottomRightArcHeight(),
+              rr.getBottomLeftArcWidth(), rr.getBottomLeftArcHeight() };
+        } else {
+            return null;
+        }
+    }
+
+    private static final class MaskKey
+    {
+        private final @NotNull Class<?> outlineClass;
+        private final @NotNull double[] size;
+        private final double fractionX;
+        private final double fractionY;
+        private final float innerOffset;
+        private final float outerOffset;
+        private final int scaleFactor;
+        private final int hash;
+
+        MaskKey(@NotNull Class<?> outlineClass,
+                @NotNull double[] size,
+                double fractionX,
+                double fractionY,
+                float innerOffset,
+                float outerOffset,
+                int scaleFactor)
+        {
+            this.outlineClass = outlineClass;
+            this.size = size;
+            this.fractionX = fractionX;
+            this.fractionY = fractionY;
+            this.innerOffset = innerOffset;
+            this.outerOffset = outerOffset;
+            this.scaleFactor = scaleFactor;
+
+            int h = outlineClass.hashCode();
+            h = 31 * h + Arrays.hashCode(size);
+            h = 31 * h + Double.hashCode(fractionX);
+            h = 31 * h + Double.hashCode(fractionY);
+            h = 31 * h + Float.hashCode(innerOffset);
+            h = 31 * h + Float.hashCode(outerOffset);
+            h = 31 * h + scaleFactor;
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MaskKey)) {
+                return false;
+            }
+            MaskKey other = (MaskKey) o;
+            return outlineClass == other.outlineClass
+                     && Arrays.equals(size, other.size)
+                     && Double.compare(fractionX, other.fractionX) == 0
+                     && Double.compare(fractionY, other.fractionY) == 0
+                     && Float.compare(innerOffset, other.innerOffset) == 0
+                     && Float.compare(outerOffset, other.outerOffset) == 0
+                     && scaleFactor == other.scaleFactor;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+}
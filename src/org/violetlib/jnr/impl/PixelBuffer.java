@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A raster of pixels in INT_ARGB_PRE format, arranged in row major order, that is the target of a basic renderer. A
+  pixel buffer may be backed by a Java array or by off-heap memory (a direct buffer). A direct pixel buffer allows a
+  native renderer that supports it ({@link DirectBasicRenderer}) to render into stable memory, without pinning or
+  copying a Java array, and allows a compositor to read the rendered pixels in place (see
+  {@link ReusableCompositor#composeFrom(PixelBuffer, int, int, int, int, int, int)}).
+
+  <p>
+  The capacity of a pixel buffer is fixed. The raster size may be changed, within the capacity.
+
+  <p>
+  This class is not thread safe.
+*/
+
+public abstract class PixelBuffer
+{
+    private static final @NotNull ThreadLocal<DirectPixelBuffer> scratchBuffers = new ThreadLocal<>();
+
+    /**
+      Create a pixel buffer backed by a Java array.
+
+      @param capacity The number of pixels.
+    */
+
+    public static @NotNull PixelBuffer createHeapBuffer(int capacity)
+    {
+        return new HeapPixelBuffer(capacity);
+    }
+
+    /**
+      Create a pixel buffer backed by off-heap memory.
+
+      @param capacity The number of pixels.
+    */
+
+    public static @NotNull PixelBuffer createDirectBuffer(int capacity)
+    {
+        return new DirectPixelBuffer(capacity);
+    }
+
+    /**
+      Return a direct pixel buffer for temporary use by the current thread. The buffer is reused by later calls on the
+      same thread, so it must not be retained. The contents of the buffer are undefined.
+
+      @param capacity The minimum number of pixels.
+    */
+
+    public static @NotNull PixelBuffer getScratchDirectBuffer(int capacity)
+    {
+        DirectPixelBuffer b = scratchBuffers.get();
+        if (b == null || b.getCapacity() < capacity) {
+            // Allocate extra capacity to avoid frequent reallocation of off-heap memory.
+            b = new DirectPixelBuffer(Math.max(capacity, b != null ? b.getCapacity() * 2 : 4096));
+            scratchBuffers.set(b);
+        }
+        return b;
+    }
+
+    /**
+      Return the renderer that can render directly into a direct pixel buffer, if any.
+
+      @param r The renderer.
+      @return {@code r} or the renderer wrapped by {@code r}, if it supports rendering into a direct pixel buffer,
+      otherwise null.
+    */
+
+    public static @Nullable DirectBasicRenderer getDirectRenderer(@NotNull BasicRenderer r)
+    {
+        if (r instanceof CacheableBasicRenderer) {
+            r = ((CacheableBasicRenderer) r).getRenderer();
+        }
+        return r instanceof DirectBasicRenderer ? (DirectBasicRenderer) r : null;
+    }
+
+    protected final int capacity;
+    protected int rasterWidth;
+    protected int rasterHeight;
+
+    protected PixelBuffer(int capacity)
+    {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid negative capacity");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+      Return the number of pixels that this buffer can hold.
+    */
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    public int getRasterWidth()
+    {
+        return rasterWidth;
+    }
+
+    public int getRasterHeight()
+    {
+        return rasterHeight;
+    }
+
+    /**
+      Indicate whether this buffer is backed by off-heap memory.
+    */
+
+    public abstract boolean isDirect();
+
+    /**
+      Resize and clear the raster.
+
+      @param rasterWidth The new raster width.
+      @param rasterHeight The new raster height.
+      @throws IllegalArgumentException if the raster size is invalid or exceeds the capacity of the buffer.
+    */
+
+    public void reset(int rasterWidth, int rasterHeight)
+      throws IllegalArgumentException
+    {
+        if (rasterWidth < 0 || rasterHeight < 0) {
+            throw new IllegalArgumentException("Invalid negative raster width and/or height");
+        }
+        if ((long) rasterWidth * rasterHeight > capacity) {
+            throw new IllegalArgumentException("Raster size exceeds buffer capacity");
+        }
+        this.rasterWidth = rasterWidth;
+        this.rasterHeight = rasterHeight;
+        clear(rasterWidth * rasterHeight);
+    }
+
+    /**
+      Set the specified number of pixels, starting at the beginning of the buffer, to zero.
+    */
+
+    protected abstract void clear(int count);
+
+    /**
+      Return the pixel at the specified index (row * raster width + column).
+    */
+
+    public abstract int get(int index);
+
+    /**
+      Set the pixel at the specified index (row * raster width + column).
+    */
+
+    public abstract void put(int index, int pixel);
+
+    /**
+      Copy pixels from this buffer into an array.
+
+      @param index The index of the first pixel to copy.
+      @param dst The destination array.
+      @param offset The index of the first destination element.
+      @param count The number of pixels to copy.
+    */
+
+    public abstract void get(int index, @NotNull int[] dst, int offset, int count);
+
+    /**
+      Resize and clear the raster, then render into it.
+
+      @param r The renderer.
+      @param rasterWidth The new raster width.
+      @param rasterHeight The new raster height.
+      @param w The width of the rendering, in device independent pixels.
+      @param h The height of the rendering, in device independent pixels.
+    */
+
+    public abstract void render(@NotNull BasicRenderer r, int rasterWidth, int rasterHeight, float w, float h);
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+/**
+  Identifies what an asynchronous painter paints while the image it needs is being rendered (see
+  {@link AsyncPainter}).
+*/
+
+public enum PlaceholderStrategy
+{
+    /**
+      Paint nothing.
+    */
+
+    NONE,
+
+    /**
+      Paint the cached image of the same widget whose size is nearest to the required size, scaled to the required
+      size.
+    */
+
+    NEAREST_SIZE,
+
+    /**
+      Paint a cached image of the same widget and size that was rendered using a lower scale factor.
+    */
+
+    LOWER_SCALE
+}
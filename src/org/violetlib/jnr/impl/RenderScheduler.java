@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.awt.Image;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Performs renderings on a bounded pool of worker threads, giving priority to renderings that are needed to paint what
+  is visible now.
+
+  <ul>
+  <li>Requests that share a key (typically the {@link ImageCache.PixelsKey} of the image) are coalesced into one
+  rendering. The rendering has the highest priority of the coalesced requests.</li>
+  <li>Visible requests are performed before prefetch requests. Requests of the same priority are performed in the
+  order they were submitted.</li>
+  <li>A request whose ticket has a newer generation than earlier requests in the same group supersedes those
+  requests. A queued rendering is cancelled when all of the requests it serves have been superseded or cancelled.
+  Superseded renderings are cancelled when they reach the front of the queue, so that a request of the new generation
+  for the same key can claim the rendering first. Explicit cancellation takes effect immediately. A rendering that has
+  started is not interrupted.</li>
+  </ul>
+
+  The future of a cancelled rendering is completed with a {@link java.util.concurrent.CancellationException}.
+
+  <p>
+  Because rendering is serialized (see {@link RendererPainter#getRenderingLock}), one worker thread is used by default.
+  The number of worker threads can be specified using the system property VAqua.asyncRenderingThreads.
+*/
+
+public final class RenderScheduler
+{
+    private static final @NotNull RenderScheduler INSTANCE = new RenderScheduler(getDefaultThreadCount());
+
+    public static @NotNull RenderScheduler getInstance()
+    {
+        return INSTANCE;
+    }
+
+    private static int getDefaultThreadCount()
+    {
+        String s = System.getProperty("VAqua.asyncRenderingThreads");
+        if (s != null) {
+            try {
+                int n = Integer.parseInt(s);
+                if (n > 0) {
+                    return n;
+                }
+            } catch (NumberFormatException ignore) {
+            }
+        }
+        return 1;
+    }
+
+    private static final Object NO_GROUP = new Object();
+
+    private static class Task
+    {
+        final @NotNull Object key;
+        final @NotNull Supplier<Image> renderer;
+        final @NotNull CompletableFuture<Image> future = new CompletableFuture<>();
+        @NotNull RenderTicket.Priority priority;
+
+        // The generation of the most recent request in each group served by this task. Requests that do not belong to
+        // a group are represented by NO_GROUP.
+        final @NotNull Map<Object,Long> claims = new IdentityHashMap<>();
+
+        Task(@NotNull Object key, @NotNull Supplier<Image> renderer, @NotNull RenderTicket.Priority priority)
+        {
+            this.key = key;
+            this.renderer = renderer;
+            this.priority = priority;
+        }
+    }
+
+    private final @NotNull Object lock = new Object();
+    private final @NotNull ArrayDeque<Task> visibleQueue = new ArrayDeque<>();
+    private final @NotNull ArrayDeque<Task> prefetchQueue = new ArrayDeque<>();
+    private final @NotNull Map<Object,Task> queued = new HashMap<>();
+    private final @NotNull Map<Object,Task> running = new HashMap<>();
+    private final @NotNull Map<Object,Long> currentGenerations = new WeakHashMap<>();  // groups are weakly held
+
+    private int completedCount;
+    private int cancelledCount;
+    private int coalescedCount;
+
+    private RenderScheduler(int threadCount)
+    {
+        for (int i = 0; i < threadCount; i++) {
+            Thread t = new Thread(this::run, "JNR Renderer " + (i + 1));
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    /**
+      Request a rendering.
+
+      @param key The key that identifies the image. Requests with equal keys are coalesced.
+      @param renderer The source of the image.
+      @param ticket The priority and generation of the request.
+      @return a future that is completed with the image, which may be null, or cancelled if the rendering is
+      cancelled.
+    */
+
+    public @NotNull CompletableFuture<Image> submit(@NotNull Object key,
+                                                    @NotNull Supplier<Image> renderer,
+                                                    @NotNull RenderTicket ticket)
+    {
+        CompletableFuture<Image> result;
+
+        synchronized (lock) {
+            Object group = ticket.getGroup();
+            long generation = ticket.getGeneration();
+            if (group != null) {
+                Long current = currentGenerations.get(group);
+                if (current != null && generation < current) {
+                    // This request has already been superseded.
+                    CompletableFuture<Image> f = new CompletableFuture<>();
+                    f.cancel(false);
+                    return f;
+                }
+                if (current == null || generation > current) {
+                    // Queued tasks of older generations are cancelled when they reach the front of a queue, which
+                    // allows requests of the new generation to claim them first.
+                    currentGenerations.put(group, generation);
+                }
+            }
+
+            Task t = running.get(key);
+            if (t != null) {
+                coalescedCount++;
+                result = t.future;
+            } else {
+                t = queued.get(key);
+                if (t != null) {
+                    coalescedCount++;
+                    if (ticket.getPriority() == RenderTicket.Priority.VISIBLE
+                          && t.priority == RenderTicket.Priority.PREFETCH) {
+                        prefetchQueue.remove(t);
+                        visibleQueue.addLast(t);
+                        t.priority = RenderTicket.Priority.VISIBLE;
+                    }
+                } else {
+                    t = new Task(key, renderer, ticket.getPriority());
+                    queued.put(key, t);
+                    (t.priority == RenderTicket.Priority.VISIBLE ? visibleQueue : prefetchQueue).addLast(t);
+                    lock.notify();
+                }
+                t.claims.put(group != null ? group : NO_GROUP, generation);
+                result = t.future;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+      Cancel the queued requests of a group whose generation is older than the specified generation. Later requests
+      with older generations are rejected.
+    */
+
+    public void cancelBefore(@NotNull Object group, long generation)
+    {
+        List<Task> cancelled = new ArrayList<>();
+        synchronized (lock) {
+            Long current = currentGenerations.get(group);
+            if (current == null || generation > current) {
+                currentGenerations.put(group, generation);
+            }
+            releaseClaims(group, generation, cancelled);
+        }
+        complete(cancelled);
+    }
+
+    /**
+      Cancel all queued requests of a group and forget the group.
+    */
+
+    public void cancel(@NotNull Object group)
+    {
+        List<Task> cancelled = new ArrayList<>();
+        synchronized (lock) {
+            currentGenerations.remove(group);
+            releaseClaims(group, Long.MAX_VALUE, cancelled);
+        }
+        complete(cancelled);
+    }
+
+    /**
+      Release the claims of a group on queued tasks whose generation is older than the specified generation. Tasks
+      with no remaining claims are removed from the queues and added to the cancelled list.
+    */
+
+    private void releaseClaims(@NotNull Object group, long generation, @NotNull List<Task> cancelled)
+    {
+        releaseClaims(visibleQueue, group, generation, cancelled);
+        releaseClaims(prefetchQueue, group, generation, cancelled);
+    }
+
+    private void releaseClaims(@NotNull ArrayDeque<Task> queue,
+                               @NotNull Object group,
+                               long generation,
+                               @NotNull List<Task> cancelled)
+    {
+        Iterator<Task> it = queue.iterator();
+        while (it.hasNext()) {
+            Task t = it.next();
+            Long g = t.claims.get(group);
+            if (g != null && g < generation) {
+                t.claims.remove(group);
+                if (t.claims.isEmpty()) {
+                    it.remove();
+                    queued.remove(t.key);
+                    cancelled.add(t);
+                    cancelledCount++;
+                }
+            }
+        }
+    }
+
+    private static void complete(@NotNull List<Task> cancelled)
+    {
+        // Futures are completed outside the lock because completion runs dependent actions.
+        for (Task t : cancelled) {
+            t.future.cancel(false);
+        }
+    }
+
+    /**
+      Indicate whether all requests served by a task have been superseded by requests of a newer generation.
+    */
+
+    private boolean isSuperseded(@NotNull Task t)
+    {
+        for (Map.Entry<Object,Long> e : t.claims.entrySet()) {
+            Object group = e.getKey();
+            if (group == NO_GROUP) {
+                return false;
+            }
+            Long current = currentGenerations.get(group);
+            if (current == null || e.getValue() >= current) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void run()
+    {
+        for (;;) {
+            Task t;
+            List<Task> cancelled = new ArrayList<>();
+            synchronized (lock) {
+                for (;;) {
+                    while (visibleQueue.isEmpty() && prefetchQueue.isEmpty()) {
+                        try {
+                            lock.wait();
+                        } catch (InterruptedException ignore) {
+                        }
+                    }
+                    t = !visibleQueue.isEmpty() ? visibleQueue.removeFirst() : prefetchQueue.removeFirst();
+                    queued.remove(t.key);
+                    if (!isSuperseded(t)) {
+                        break;
+                    }
+                    cancelled.add(t);
+                    cancelledCount++;
+                    if (visibleQueue.isEmpty() && prefetchQueue.isEmpty()) {
+                        t = null;
+                        break;
+                    }
+                }
+                if (t != null) {
+                    running.put(t.key, t);
+                }
+            }
+
+            complete(cancelled);
+            if (t == null) {
+                continue;
+            }
+
+            try {
+                t.future.complete(t.renderer.get());
+            } catch (Throwable ex) {
+                t.future.completeExceptionally(ex);
+            } finally {
+                synchronized (lock) {
+                    running.remove(t.key);
+                    completedCount++;
+                }
+            }
+        }
+    }
+
+    /**
+      Return the number of renderings that are queued.
+    */
+
+    public int getQueuedCount()
+    {
+        synchronized (lock) {
+            return queued.size();
+        }
+    }
+
+    /**
+      Return the number of renderings that have been performed.
+    */
+
+    public int getCompletedCount()
+    {
+        synchronized (lock) {
+            return completedCount;
+        }
+    }
+
+    /**
+      Return the number of queued renderings that have been cancelled.
+    */
+
+    public int getCancelledCount()
+    {
+        synchronized (lock) {
+            return cancelledCount;
+        }
+    }
+
+    /**
+      Return the number of requests that were coalesced with a queued or running rendering.
+    */
+
+    public int getCoalescedCount()
+    {
+        synchronized (lock) {
+            return coalescedCount;
+        }
+    }
+}
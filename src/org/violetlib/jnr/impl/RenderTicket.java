@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Identifies the priority and generation of a request to render on a worker thread (see {@link RenderScheduler}).
+
+  <p>
+  A client that issues many requests, such as a component that renders the cells of a table, may use itself as the
+  group and increment the generation whenever its previous requests become obsolete, for example, when it is resized
+  or scrolled. A request of a newer generation cancels the queued requests of older generations in the same group.
+*/
+
+public final class RenderTicket
+{
+    /**
+      The priority of a request.
+    */
+
+    public enum Priority
+    {
+        /** The image is needed to paint something that is visible now. */
+        VISIBLE,
+        /** The image may be needed later. */
+        PREFETCH
+    }
+
+    /**
+      A ticket for visible renderings that do not belong to a group.
+    */
+
+    public static final @NotNull RenderTicket VISIBLE = new RenderTicket(Priority.VISIBLE, null, 0);
+
+    /**
+      A ticket for prefetch renderings that do not belong to a group.
+    */
+
+    public static final @NotNull RenderTicket PREFETCH = new RenderTicket(Priority.PREFETCH, null, 0);
+
+    private final @NotNull Priority priority;
+    private final @Nullable Object group;
+    private final long generation;
+
+    /**
+      Create a ticket.
+
+      @param priority The priority.
+      @param group The group, or null if the request does not belong to a group. A request that does not belong to a
+      group is never superseded.
+      @param generation The generation of the request within the group.
+    */
+
+    public RenderTicket(@NotNull Priority priority, @Nullable Object group, long generation)
+    {
+        this.priority = priority;
+        this.group = group;
+        this.generation = generation;
+    }
+
+    public @NotNull Priority getPriority()
+    {
+        return priority;
+    }
+
+    public @Nullable Object getGroup()
+    {
+        return group;
+    }
+
+    public long getGeneration()
+    {
+        return generation;
+    }
+
+    @Override
+    public @NotNull String toString()
+    {
+        return priority + (group != null ? " " + group + "#" + generation : "");
+    }
+}
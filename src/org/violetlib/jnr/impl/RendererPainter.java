@@ -26,6 +26,23 @@ import org.jetbrains.annotations.*;
 public abstract class RendererPainter
   implements Painter
 {
+    /*
+      Native renderers depend upon global native state, such as the configured appearance. Rendering is serialized so
+      that rendering on a worker thread (see {@link AsyncPainter}) does not interfere with rendering on the event
+      dispatch thread.
+    */
+
+    private static final @NotNull Object renderingLock = new Object();
+
+    /**
+      Return the lock that serializes rendering.
+    */
+
+    public static @NotNull Object getRenderingLock()
+    {
+        return renderingLock;
+    }
+
     protected final @NotNull Renderer r;
     protected final float width;
     protected final float height;
@@ -80,7 +97,9 @@ public abstract class RendererPainter
         int rasterWidth = width * scaleFactor;
         int rasterHeight = height * scaleFactor;
         rc.reset(rasterWidth, rasterHeight, scaleFactor);
-        r.composeTo(rc);
+        synchronized (renderingLock) {
+            r.composeTo(rc);
+        }
         BufferedImage theImage = rc.getImage();
         return theImage != null ? JavaSupport.createMultiResolutionImage(width, height, theImage) : null;
     }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.awt.geom.Rectangle2D;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Supports drawing the output of a renderer at many locations in a compositor while invoking the renderer only once
+  for each distinct raster size. The result is identical to composing an offset renderer (see
+  {@link Renderer#createOffsetRenderer}) at each location, because an offset basic renderer renders into a separate
+  raster whose contents do not depend upon the location.
+
+  <p>
+  Renderers other than basic renderers are composed at each location in the usual way.
+
+  <p>
+  This class is not thread safe.
+*/
+
+public final class RendererStamp
+{
+    private final @NotNull Renderer source;
+    private final @Nullable BasicRenderer br;
+    private final @Nullable RendererDescription rd;
+
+    private @Nullable ReusableCompositor stamp;  // the most recent rendering
+
+    public RendererStamp(@NotNull Renderer source)
+    {
+        this.source = source;
+        this.br = source.getBasicRenderer();
+        this.rd = source.getRendererDescription();
+    }
+
+    /**
+      Draw the rendering into a region of the compositor.
+
+      @param compositor The compositor.
+      @param bounds The bounds of the destination region, in device independent pixels.
+    */
+
+    public void stampTo(@NotNull ReusableCompositor compositor, @NotNull Rectangle2D bounds)
+    {
+        if (br == null || rd == null) {
+            Renderer r = Renderer.createOffsetRenderer(source, bounds);
+            r.composeTo(compositor);
+            return;
+        }
+
+        // The raster bounds are determined in the same way as by the offset renderer.
+
+        int scaleFactor = compositor.getScaleFactor();
+        float x = (float) bounds.getX();
+        float y = (float) bounds.getY();
+        float w = (float) bounds.getWidth();
+        float h = (float) bounds.getHeight();
+        if (!rd.isTrivial()) {
+            RasterDescription sd = rd.getRasterBounds(new Rectangle2D.Float(x, y, w, h), scaleFactor);
+            x = sd.getX();
+            y = sd.getY();
+            w = sd.getWidth();
+            h = sd.getHeight();
+        }
+        int rx = Math.round(scaleFactor * x);
+        int ry = Math.round(scaleFactor * y);
+        int rw = (int) Math.ceil(scaleFactor * w);
+        int rh = (int) Math.ceil(scaleFactor * h);
+
+        if (rw > 0 && rh > 0) {
+            ReusableCompositor s = stamp;
+            if (s == null || s.getRasterWidth() != rw || s.getRasterHeight() != rh
+                  || s.getScaleFactor() != scaleFactor) {
+                s = new ReusableCompositor();
+                s.render(br, rw, rh, scaleFactor);
+                stamp = s;
+            }
+            compositor.composeFrom(s, rx, ry, rw, rh);
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
+import java.nio.IntBuffer;
 import java.util.Arrays;
 
 import org.jetbrains.annotations.*;
@@ -39,6 +40,11 @@ public class ReusableCompositor
 {
     // TBD: would it be faster to turn everything into an Image and use graphics operations?
 
+    // Renderers that support rendering into off-heap memory render into a direct pixel buffer when an intermediate
+    // raster is needed. Setting the system property VAqua.enableDirectRasters to false disables this behavior.
+
+    private static final boolean isDirectRenderingEnabled = !"false".equals(System.getProperty("VAqua.enableDirectRasters"));
+
     // Note: the data is intended to be private, which is why ReusableCompositor does not support the PixelRaster interface.
 
     private @Nullable int[] data;  // the actual raster buffer, reallocated as needed to contain at least the required number of pixels.
@@ -226,6 +232,28 @@ public class ReusableCompositor
         return output;
     }
 
+    /**
+      Create a compositor containing an interpolation between this one and another compositor of the same raster size.
+      The interpolation is performed independently on each component of the premultiplied pixels, which produces a
+      cross-fade.
+
+      @param target The other compositor.
+      @param fraction The interpolation fraction: 0 produces a copy of this compositor, 1 produces a copy of the other
+      compositor.
+      @return the new compositor.
+    */
+
+    public @NotNull ReusableCompositor createInterpolatedCopy(@NotNull ReusableCompositor target, float fraction)
+    {
+        if (target.rasterWidth != rasterWidth || target.rasterHeight != rasterHeight) {
+            throw new IllegalArgumentException("Raster sizes do not match");
+        }
+
+        ReusableCompositor output = createSimilar();
+        output.interpolateFrom(this, target, fraction);
+        return output;
+    }
+
     /**
       Resize and clear the raster in preparation for rendering. The actual clearing or reallocation of the raster may be
       deferred until the raster is needed.
@@ -288,11 +316,31 @@ public class ReusableCompositor
         if (data != null) {
             float rw = ((float) rasterWidth) / scaleFactor;
             float rh = ((float) rasterHeight) / scaleFactor;
-            r.render(data, rasterWidth, rasterHeight, rw, rh);
+            renderBasic(r, rw, rh);
             isEmpty = false;
         }
     }
 
+    /**
+      Invoke a basic renderer on the raster buffer. If the renderer is cacheable and sub-render caching is enabled,
+      the rendering is obtained from the sub-render cache.
+    */
+
+    private void renderBasic(@NotNull BasicRenderer r, float w, float h)
+    {
+        assert data != null;
+
+        if (r instanceof CacheableBasicRenderer) {
+            SubRenderCache cache = SubRenderCache.getInstance();
+            if (cache.isEnabled()) {
+                cache.render((CacheableBasicRenderer) r, data, rasterWidth, rasterHeight, w, h, scaleFactor);
+                return;
+            }
+        }
+
+        r.render(data, rasterWidth, rasterHeight, w, h);
+    }
+
     /**
       Render into the raster, composing with existing contents.
 
@@ -324,7 +372,8 @@ public class ReusableCompositor
     }
 
     /**
-      Render into the raster, composing with existing contents.
+      Render into the raster, composing with existing contents. If the renderer is a {@link CacheableBasicRenderer}, the
+      rendering may be obtained from the {@link SubRenderCache}.
 
       @param r The renderer that provides the pixels.
     */
@@ -336,7 +385,7 @@ public class ReusableCompositor
             if (isEmpty) {
                 float rw = ((float) rasterWidth) / scaleFactor;
                 float rh = ((float) rasterHeight) / scaleFactor;
-                r.render(data, rasterWidth, rasterHeight, rw, rh);
+                renderBasic(r, rw, rh);
                 isEmpty = false;
             } else {
                 composeRenderer(r, 0, 0, rasterWidth, rasterHeight);
@@ -358,12 +407,23 @@ public class ReusableCompositor
     public void composeRenderer(@NotNull BasicRenderer r, int dx, int dy, int dw, int dh)
     {
         if (dw > 0 && dh > 0) {
-            ReusableCompositor temp = new ReusableCompositor();
-            temp.render(r, dw, dh, scaleFactor);
-            composeFrom(temp, dx, dy, dw, dh);
+            if (isDirectRenderingEnabled && PixelBuffer.getDirectRenderer(r) != null && !isSubRenderCached(r)) {
+                PixelBuffer temp = PixelBuffer.getScratchDirectBuffer(dw * dh);
+                temp.render(r, dw, dh, ((float) dw) / scaleFactor, ((float) dh) / scaleFactor);
+                composeFrom(temp, 0, 0, dx, dy, dw, dh);
+            } else {
+                ReusableCompositor temp = new ReusableCompositor();
+                temp.render(r, dw, dh, scaleFactor);
+                composeFrom(temp, dx, dy, dw, dh);
+            }
         }
     }
 
+    private static boolean isSubRenderCached(@NotNull BasicRenderer r)
+    {
+        return r instanceof CacheableBasicRenderer && SubRenderCache.getInstance().isEnabled();
+    }
+
     /**
       Render a painter extension into a region of the raster, composing with existing contents. The region defines
       translation and clipping, the source data is not scaled.
@@ -430,6 +490,56 @@ public class ReusableCompositor
         }
     }
 
+    /**
+      Replace the raster contents with an interpolation between two compositors of the same raster size.
+
+      @param first The compositor that provides the pixels for fraction 0.
+      @param second The compositor that provides the pixels for fraction 1.
+      @param fraction The interpolation fraction.
+    */
+
+    private void interpolateFrom(@NotNull ReusableCompositor first, @NotNull ReusableCompositor second, float fraction)
+    {
+        ensureConfigured();
+        first.ensureConfigured();
+        second.ensureConfigured();
+
+        if (data != null) {
+            int weight = Math.round(Math.max(0, Math.min(1, fraction)) * 256);
+            int pixelCount = rasterWidth * rasterHeight;
+            first.dataAccess.provide((firstData, firstWidth, firstHeight) ->
+              second.dataAccess.provide((secondData, secondWidth, secondHeight) -> {
+                  if (firstWidth > 0 && firstHeight > 0 && secondWidth > 0 && secondHeight > 0) {
+                      isEmpty = true;
+                      for (int i = 0; i < pixelCount; i++) {
+                          int pixel = interpolate(firstData[i], secondData[i], weight);
+                          if (pixel != 0) {
+                              isEmpty = false;
+                          }
+                          data[i] = pixel;
+                      }
+                  }
+              }));
+        }
+    }
+
+    private static int interpolate(int first, int second, int weight)
+    {
+        if (first == second) {
+            return first;
+        }
+        int a = interpolateComponent(alpha(first), alpha(second), weight);
+        int r = interpolateComponent(red(first), red(second), weight);
+        int g = interpolateComponent(green(first), green(second), weight);
+        int b = interpolateComponent(blue(first), blue(second), weight);
+        return createPixel(a, r, g, b);
+    }
+
+    private static int interpolateComponent(int first, int second, int weight)
+    {
+        return first + (((second - first) * weight + 128) >> 8);
+    }
+
     /**
       Copy pixels from a compositor, flipping vertically.
 
@@ -607,6 +717,59 @@ public class ReusableCompositor
         }
     }
 
+    /**
+      Render from a designated region of a pixel buffer into a designated region of the raster, composing with existing
+      contents. The pixels of a direct pixel buffer are read in place. The regions define translation and clipping, the
+      source data is not scaled.
+
+      @param source The pixel buffer that is the source of the pixels.
+      @param sx The X origin of the source region.
+      @param sy The Y origin of the source region.
+      @param dx The X origin of the raster region.
+      @param dy The Y origin of the raster region.
+      @param dw The width of the region.
+      @param dh The height of the region.
+    */
+
+    public void composeFrom(@NotNull PixelBuffer source, int sx, int sy, int dx, int dy, int dw, int dh)
+    {
+        int sourceWidth = source.getRasterWidth();
+        int sourceHeight = source.getRasterHeight();
+
+        if (source instanceof HeapPixelBuffer) {
+            int[] sourceData = ((HeapPixelBuffer) source).getArray();
+            composeFrom((PixelRaster) a -> a.access(sourceData, sourceWidth, sourceHeight), sx, sy, dx, dy, dw, dh);
+            return;
+        }
+
+        ensureConfigured();
+
+        if (data != null && sourceWidth > 0 && sourceHeight > 0) {
+            isEmpty = false;
+            IntBuffer sourceData = ((DirectPixelBuffer) source).getBuffer();
+            for (int rowOffset = 0; rowOffset < dh; rowOffset++) {
+                int sourceRow = sy + rowOffset;
+                int row = dy + rowOffset;
+                if (row >= 0 && row < rasterHeight && sourceRow >= 0 && sourceRow < sourceHeight) {
+                    for (int colOffset = 0; colOffset < dw; colOffset++) {
+                        int sourceColumn = sx + colOffset;
+                        int col = dx + colOffset;
+                        if (col >= 0 && col < rasterWidth && sourceColumn >= 0 && sourceColumn < sourceWidth) {
+                            int pixel = sourceData.get(sourceRow * sourceWidth + sourceColumn);
+                            int alpha = alpha(pixel);
+                            if (alpha != 0) {
+                                if (alpha != 0xff) {
+                                    pixel = JNRUtils.combine(data[row * rasterWidth + col], pixel);
+                                }
+                                data[row * rasterWidth + col] = pixel;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     /**
       Render a painter extension into the raster, composing with existing contents.
     */
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import org.jetbrains.annotations.*;
+
+/**
+  Assigns locations to rectangles in a raster of fixed width using shelves. Rectangles are placed left to right on the
+  current shelf. When a rectangle does not fit on the current shelf, a new shelf is started below the tallest rectangle
+  of the current shelf. Packing is most efficient when rectangles are added in order of decreasing height.
+
+  <p>
+  This class is not thread safe.
+*/
+
+public final class ShelfPacker
+{
+    private final int width;
+    private final int maximumHeight;
+
+    private int shelfX;       // the X location of the next rectangle on the current shelf
+    private int shelfY;       // the Y location of the current shelf
+    private int shelfHeight;  // the height of the current shelf
+
+    /**
+      Create a shelf packer.
+
+      @param width The width of the raster.
+      @param maximumHeight The maximum height of the raster.
+    */
+
+    public ShelfPacker(int width, int maximumHeight)
+    {
+        if (width <= 0 || maximumHeight <= 0) {
+            throw new IllegalArgumentException("Invalid raster size");
+        }
+        this.width = width;
+        this.maximumHeight = maximumHeight;
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+      Return the height of the raster region used by the rectangles added so far.
+    */
+
+    public int getHeight()
+    {
+        return shelfY + shelfHeight;
+    }
+
+    /**
+      Indicate whether no rectangles have been added since this packer was created or reset.
+    */
+
+    public boolean isEmpty()
+    {
+        return getHeight() == 0;
+    }
+
+    /**
+      Remove all rectangles.
+    */
+
+    public void reset()
+    {
+        shelfX = 0;
+        shelfY = 0;
+        shelfHeight = 0;
+    }
+
+    /**
+      Assign a location to a rectangle.
+
+      @param w The width of the rectangle.
+      @param h The height of the rectangle.
+      @param location This array receives the X and Y location of the rectangle.
+      @return true if the rectangle was added, false if there is no room for the rectangle. The state of the packer is
+      not changed if the rectangle could not be added.
+    */
+
+    public boolean add(int w, int h, @NotNull int[] location)
+    {
+        if (w <= 0 || h <= 0 || w > width) {
+            return false;
+        }
+
+        int x = shelfX;
+        int y = shelfY;
+        int sh = shelfHeight;
+        if (x + w > width) {
+            // start a new shelf
+            x = 0;
+            y += sh;
+            sh = 0;
+        }
+
+        if (y + Math.max(sh, h) > maximumHeight) {
+            return false;
+        }
+
+        location[0] = x;
+        location[1] = y;
+        shelfX = x + w;
+        shelfY = y;
+        shelfHeight = Math.max(sh, h);
+        return true;
+    }
+}
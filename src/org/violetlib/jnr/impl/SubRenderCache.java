@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.violetlib.vappearances.VAppearance;
+
+import org.jetbrains.annotations.*;
+
+import static org.violetlib.jnr.impl.ImageUtils.*;
+
+/**
+  A cache of the pixels produced by the layers of composite renderings. The cache is consulted by
+  {@link ReusableCompositor} when it renders a {@link CacheableBasicRenderer}. The key is the renderer descriptor, the
+  appearance, the raster size, and the scale factor. When a composite rendering is repeated with one layer changed (for
+  example, a slider with a new thumb position or a title bar with a new button state), only the changed layer is
+  rendered.
+
+  <p>
+  Sub-render caching is disabled by default. It can be enabled by setting the system property
+  {@code VAqua.enableSubRenderCaching} to {@code true}, or by calling {@link #setEnabled}.
+*/
+
+public final class SubRenderCache
+{
+    private static final @NotNull SubRenderCache INSTANCE = new SubRenderCache((2 * 1024 * 1024) / 4);  // 2Mb of pixels
+
+    public static @NotNull SubRenderCache getInstance()
+    {
+        return INSTANCE;
+    }
+
+    private static boolean getDefaultEnabled()
+    {
+        String s = System.getProperty("VAqua.enableSubRenderCaching");
+        return "true".equals(s);
+    }
+
+    private volatile boolean isEnabled = getDefaultEnabled();
+
+    // Ordered by most recent access
+    private final @NotNull LinkedHashMap<Key,int[]> map = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxPixelCount;
+    private int currentPixelCount;
+    private int hitCount;
+    private int missCount;
+
+    SubRenderCache(int maxPixelCount)
+    {
+        this.maxPixelCount = maxPixelCount;
+    }
+
+    public boolean isEnabled()
+    {
+        return isEnabled;
+    }
+
+    public void setEnabled(boolean b)
+    {
+        if (b != isEnabled) {
+            isEnabled = b;
+            if (!b) {
+                flush();
+            }
+        }
+    }
+
+    public synchronized void flush()
+    {
+        map.clear();
+        currentPixelCount = 0;
+    }
+
+    public synchronized int getHitCount()
+    {
+        return hitCount;
+    }
+
+    public synchronized int getMissCount()
+    {
+        return missCount;
+    }
+
+    /**
+      Render a cacheable renderer into a raster, using a cached rendering if available. The cached pixels are composed
+      with the existing contents of the raster, which produces the same result as rendering into an empty raster.
+
+      @param r The renderer.
+      @param data The raster.
+      @param rw The number of pixels in each row of the raster.
+      @param rh The number of rows in the raster.
+      @param w The width of the rendered image in device independent pixels.
+      @param h The height of the rendered image in device independent pixels.
+      @param scaleFactor The scale factor that relates raster pixels to device independent pixels.
+    */
+
+    public void render(@NotNull CacheableBasicRenderer r,
+                       @NotNull int[] data,
+                       int rw,
+                       int rh,
+                       float w,
+                       float h,
+                       int scaleFactor)
+    {
+        int pixelCount = rw * rh;
+        if (pixelCount <= 0 || pixelCount > maxPixelCount / 4) {
+            r.render(data, rw, rh, w, h);
+            return;
+        }
+
+        Key key = new Key(r.getDescriptor(), r.getAppearance(), rw, rh, w, h, scaleFactor);
+        int[] pixels = get(key);
+        if (pixels == null) {
+            pixels = new int[pixelCount];
+            r.render(pixels, rw, rh, w, h);
+            put(key, pixels);
+        }
+        composeInto(pixels, data, pixelCount);
+    }
+
+    private synchronized @Nullable int[] get(@NotNull Key key)
+    {
+        int[] pixels = map.get(key);
+        if (pixels != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return pixels;
+    }
+
+    private synchronized void put(@NotNull Key key, @NotNull int[] pixels)
+    {
+        int[] old = map.put(key, pixels);
+        if (old != null) {
+            currentPixelCount -= old.length;
+        }
+        currentPixelCount += pixels.length;
+
+        // remove old items till there is enough free space
+        Iterator<Map.Entry<Key,int[]>> it = map.entrySet().iterator();
+        while (currentPixelCount > maxPixelCount && it.hasNext()) {
+            Map.Entry<Key,int[]> e = it.next();
+            it.remove();
+            currentPixelCount -= e.getValue().length;
+        }
+    }
+
+    private static void composeInto(@NotNull int[] source, @NotNull int[] data, int pixelCount)
+    {
+        for (int i = 0; i < pixelCount; i++) {
+            int pixel = source[i];
+            int alpha = alpha(pixel);
+            if (alpha != 0) {
+                if (alpha != 0xff) {
+                    pixel = JNRUtils.combine(data[i], pixel);
+                }
+                data[i] = pixel;
+            }
+        }
+    }
+
+    private static final class Key
+    {
+        private final @NotNull Object descriptor;
+        private final @Nullable VAppearance appearance;
+        private final int rw;
+        private final int rh;
+        private final float w;
+        private final float h;
+        private final int scaleFactor;
+        private final int hash;
+
+        public Key(@NotNull Object descriptor,
+                   @Nullable VAppearance appearance,
+                   int rw,
+                   int rh,
+                   float w,
+                   float h,
+                   int scaleFactor)
+        {
+            this.descriptor = descriptor;
+            this.appearance = appearance;
+            this.rw = rw;
+            this.rh = rh;
+            this.w = w;
+            this.h = h;
+            this.scaleFactor = scaleFactor;
+            this.hash = hash();
+        }
+
+        private int hash()
+        {
+            int hash = scaleFactor;
+            hash = 31 * hash + rw;
+            hash = 31 * hash + rh;
+            hash = 31 * hash + Float.floatToIntBits(w);
+            hash = 31 * hash + Float.floatToIntBits(h);
+            hash = 31 * hash + descriptor.hashCode();
+            hash = 31 * hash + (appearance != null ? appearance.hashCode() : 0);
+            return hash;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj)
+        {
+            if (obj instanceof Key) {
+                Key that = (Key) obj;
+                return scaleFactor == that.scaleFactor && rw == that.rw && rh == that.rh
+                         && w == that.w && h == that.h && descriptor.equals(that.descriptor)
+                         && (appearance == null ? that.appearance == null : appearance.equals(that.appearance));
+            }
+            return false;
+        }
+    }
+}
@@ -40,25 +40,30 @@ public final class JRSUIConstants {
 
     static class Key {
         @Native protected static final int _value = 20;
-        public static final JRSUIConstants.Key VALUE = new JRSUIConstants.Key(_value);
+        public static final JRSUIConstants.Key VALUE = new JRSUIConstants.Key(_value, 0);
 
         @Native protected static final int _thumbProportion = 24;
-        public static final JRSUIConstants.Key THUMB_PROPORTION = new JRSUIConstants.Key(_thumbProportion);
+        public static final JRSUIConstants.Key THUMB_PROPORTION = new JRSUIConstants.Key(_thumbProportion, 1);
 
         @Native protected static final int _thumbStart = 25;
-        public static final JRSUIConstants.Key THUMB_START = new JRSUIConstants.Key(_thumbStart);
+        public static final JRSUIConstants.Key THUMB_START = new JRSUIConstants.Key(_thumbStart, 2);
 
         @Native protected static final int _windowTitleBarHeight = 28;
-        public static final JRSUIConstants.Key WINDOW_TITLE_BAR_HEIGHT = new JRSUIConstants.Key(_windowTitleBarHeight);
+        public static final JRSUIConstants.Key WINDOW_TITLE_BAR_HEIGHT = new JRSUIConstants.Key(_windowTitleBarHeight, 3);
 
         @Native protected static final int _animationFrame = 23;
-        public static final JRSUIConstants.Key ANIMATION_FRAME = new JRSUIConstants.Key(_animationFrame);
+        public static final JRSUIConstants.Key ANIMATION_FRAME = new JRSUIConstants.Key(_animationFrame, 4);
+
+        // The keys, indexed by ordinal
+        static final JRSUIConstants.Key[] ALL = { VALUE, THUMB_PROPORTION, THUMB_START, WINDOW_TITLE_BAR_HEIGHT, ANIMATION_FRAME };
 
         final int constant;
+        final int ordinal;
         private long ptr;
 
-        private Key(int constant) {
+        private Key(int constant, int ordinal) {
             this.constant = constant;
+            this.ordinal = ordinal;
         }
 
         long getConstantPtr() {
@@ -130,7 +135,7 @@ public final class JRSUIConstants {
         }
     }
 
-    static class Property {
+    public static class Property {
         final JRSUIConstants.PropertyEncoding encoding;
         final long value;
         final byte ordinal;
@@ -26,16 +26,21 @@
 package org.violetlib.jnr.impl.jrs;
 
 import java.nio.Buffer;
-import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
 
+import org.violetlib.jnr.impl.JavaSupport;
 import org.violetlib.jnr.impl.jrs.JRSUIConstants.DoubleValue;
 import org.violetlib.jnr.impl.jrs.JRSUIConstants.Hit;
+import org.violetlib.jnr.impl.jrs.JRSUIConstants.Key;
 
+/**
+ * A native JRSUI control. The control remembers the values of the properties that have been transferred to its native
+ * peer, so that only changed values are transferred. Property values are held in arrays indexed by key ordinal.
+ *
+ * A control is not thread safe. A control must not be used by multiple threads concurrently. {@link JRSUIControlPool}
+ * supports the reuse of controls. The native peer is released when the control is disposed or is no longer reachable.
+ */
 public final class JRSUIControl {
     private static native int initNativeJRSUI();
 
@@ -73,121 +78,121 @@ public final class JRSUIControl {
         if (nativeJRSInitialized != SUCCESS) throw new RuntimeException("JRSUI could not be initialized (" + nativeJRSInitialized + ").");
     }
 
+    // The initial size of the change buffer. The buffer grows as needed to hold all changes.
     private static final int NIO_BUFFER_SIZE = 128;
+
+    // The size of a change in the change buffer: the key constant pointer, the type code, and the value.
+    private static final int CHANGE_SIZE = 8 + 1 + 8;
+
     private static class ThreadLocalByteBuffer {
         final ByteBuffer buffer;
         final long ptr;
 
-        public ThreadLocalByteBuffer() {
-            buffer = ByteBuffer.allocateDirect(NIO_BUFFER_SIZE);
+        public ThreadLocalByteBuffer(int capacity) {
+            buffer = ByteBuffer.allocateDirect(capacity);
             buffer.order(ByteOrder.nativeOrder());
             ptr = getPtrOfBuffer(buffer);
         }
     }
 
     private static final ThreadLocal<JRSUIControl.ThreadLocalByteBuffer> threadLocal = new ThreadLocal<JRSUIControl.ThreadLocalByteBuffer>();
-    private static JRSUIControl.ThreadLocalByteBuffer getThreadLocalBuffer() {
+    private static JRSUIControl.ThreadLocalByteBuffer getThreadLocalBuffer(int requiredSize) {
         JRSUIControl.ThreadLocalByteBuffer byteBuffer = threadLocal.get();
-        if (byteBuffer != null) return byteBuffer;
+        if (byteBuffer != null && byteBuffer.buffer.capacity() >= requiredSize) return byteBuffer;
 
-        byteBuffer = new JRSUIControl.ThreadLocalByteBuffer();
+        int capacity = byteBuffer != null ? byteBuffer.buffer.capacity() : NIO_BUFFER_SIZE;
+        while (capacity < requiredSize) {
+            capacity *= 2;
+        }
+        byteBuffer = new JRSUIControl.ThreadLocalByteBuffer(capacity);
         threadLocal.set(byteBuffer);
         return byteBuffer;
     }
 
-    private final HashMap<JRSUIConstants.Key, DoubleValue> nativeMap;
-    private final HashMap<JRSUIConstants.Key, DoubleValue> changes;
+    private static class Disposer implements Runnable {
+        private final long cfDictionaryPtr;
+
+        Disposer(long cfDictionaryPtr) {
+            this.cfDictionaryPtr = cfDictionaryPtr;
+        }
+
+        @Override
+        public void run() {
+            disposeCFDictionary(cfDictionaryPtr);
+        }
+    }
+
+    // The values known to the native peer, and the pending changes. The key sets are bit sets indexed by key ordinal.
+    private final double[] nativeValues = new double[Key.ALL.length];
+    private int nativeKeys;
+    private final double[] changedValues = new double[Key.ALL.length];
+    private int changedKeys;
+
     private long cfDictionaryPtr;
+    private final JavaSupport.Cleanable cleanable;
 
     private long priorEncodedProperties;
     private long currentEncodedProperties;
     private final boolean flipped;
+    private JRSUIState appliedState;  // the most recently applied state, if no other changes have been made since
 
     public JRSUIControl(boolean flipped){
         this.flipped = flipped;
         cfDictionaryPtr = getCFDictionary(flipped);
         if (cfDictionaryPtr == 0) throw new RuntimeException("Unable to create native representation");
-        nativeMap = new HashMap<JRSUIConstants.Key, DoubleValue>();
-        changes = new HashMap<JRSUIConstants.Key, DoubleValue>();
+        cleanable = JavaSupport.registerCleanup(this, new Disposer(cfDictionaryPtr));
     }
 
     JRSUIControl(JRSUIControl other) {
-        flipped = other.flipped;
-        cfDictionaryPtr = getCFDictionary(flipped);
-        if (cfDictionaryPtr == 0) throw new RuntimeException("Unable to create native representation");
-        nativeMap = new HashMap<JRSUIConstants.Key, DoubleValue>();
-        changes = new HashMap<JRSUIConstants.Key, DoubleValue>(other.nativeMap);
-        changes.putAll(other.changes);
+        this(other.flipped);
+        for (int i = 0; i < Key.ALL.length; i++) {
+            int bit = 1 << i;
+            if ((other.changedKeys & bit) != 0) {
+                changedValues[i] = other.changedValues[i];
+            } else if ((other.nativeKeys & bit) != 0) {
+                changedValues[i] = other.nativeValues[i];
+            }
+        }
+        changedKeys = other.changedKeys | other.nativeKeys;
     }
 
-    protected synchronized void finalize() throws Throwable {
-        if (cfDictionaryPtr == 0) return;
-        disposeCFDictionary(cfDictionaryPtr);
+    /**
+     * Release the native peer. The control must not be used after it is disposed.
+     */
+    public void dispose() {
         cfDictionaryPtr = 0;
+        cleanable.clean();
     }
 
-
-    enum BufferState {
-        NO_CHANGE,
-        ALL_CHANGES_IN_BUFFER,
-        SOME_CHANGES_IN_BUFFER,
-        CHANGE_WONT_FIT_IN_BUFFER;
-    }
-
-    private JRSUIControl.BufferState loadBufferWithChanges(JRSUIControl.ThreadLocalByteBuffer localByteBuffer) {
+    private JRSUIControl.ThreadLocalByteBuffer loadBufferWithChanges() {
+        int changeCount = Integer.bitCount(changedKeys);
+        JRSUIControl.ThreadLocalByteBuffer localByteBuffer = getThreadLocalBuffer(changeCount * CHANGE_SIZE + 8);
         ByteBuffer buffer = localByteBuffer.buffer;
         ((Buffer)buffer).rewind();
 
-        for (JRSUIConstants.Key key : new HashSet<JRSUIConstants.Key>(changes.keySet())) {
-            int changeIndex = buffer.position();
-            JRSUIConstants.DoubleValue value = changes.get(key);
-
-            try {
-                buffer.putLong(key.getConstantPtr());
-                buffer.put(value.getTypeCode());
-                value.putValueInBuffer(buffer);
-            } catch (BufferOverflowException e) {
-                return handleBufferOverflow(buffer, changeIndex);
-            } catch (RuntimeException e) {
-                System.err.println(this);
-                throw e;
-            }
-
-            if (buffer.position() >= NIO_BUFFER_SIZE - 8) {
-                return handleBufferOverflow(buffer, changeIndex);
+        for (int i = 0; i < Key.ALL.length; i++) {
+            int bit = 1 << i;
+            if ((changedKeys & bit) != 0) {
+                double value = changedValues[i];
+                buffer.putLong(Key.ALL[i].getConstantPtr());
+                buffer.put(DoubleValue.TYPE_CODE);
+                buffer.putDouble(value);
+                nativeValues[i] = value;
+                nativeKeys |= bit;
             }
-
-            changes.remove(key);
-            nativeMap.put(key, value);
         }
 
         buffer.putLong(0);
-        return JRSUIControl.BufferState.ALL_CHANGES_IN_BUFFER;
-    }
-
-    private JRSUIControl.BufferState handleBufferOverflow(ByteBuffer buffer, int changeIndex) {
-        if (changeIndex == 0) {
-            buffer.putLong(0, 0);
-            return JRSUIControl.BufferState.CHANGE_WONT_FIT_IN_BUFFER;
-        }
-
-        buffer.putLong(changeIndex, 0);
-        return JRSUIControl.BufferState.SOME_CHANGES_IN_BUFFER;
-    }
-
-    private synchronized void set(JRSUIConstants.Key key, JRSUIConstants.DoubleValue value) {
-        JRSUIConstants.DoubleValue existingValue = nativeMap.get(key);
-
-        if (existingValue != null && existingValue.equals(value)) {
-            changes.remove(key);
-            return;
-        }
-
-        changes.put(key, value);
+        changedKeys = 0;
+        return localByteBuffer;
     }
 
     public void set(JRSUIState state) {
-        state.apply(this);
+        // Reapplying the same (immutable) state has no effect
+        if (state != appliedState) {
+            state.apply(this);
+            appliedState = state;
+        }
     }
 
     void setEncodedState(long state) {
@@ -195,53 +200,29 @@ public final class JRSUIControl {
     }
 
     void set(JRSUIConstants.Key key, double value) {
-        set(key, new JRSUIConstants.DoubleValue(value));
-    }
+        appliedState = null;
+        int bit = 1 << key.ordinal;
 
-//    private static final Color blue = new Color(0x00, 0x00, 0xFF, 0x40);
-//    private static void paintDebug(Graphics2D g, double x, double y, double w, double h) {
-//        Color prev = g.getColor();
-//        g.setColor(blue);
-//        g.drawRect((int)x, (int)y, (int)w, (int)h);
-//        g.setColor(prev);
-//    }
+        if ((nativeKeys & bit) != 0 && nativeValues[key.ordinal] == value) {
+            changedKeys &= ~bit;
+            return;
+        }
 
-//    private static int paintsWithNoChange = 0;
-//    private static int paintsWithChangesThatFit = 0;
-//    private static int paintsWithChangesThatOverflowed = 0;
+        changedValues[key.ordinal] = value;
+        changedKeys |= bit;
+    }
 
     public void paint(int[] data, int imgW, int imgH, double x, double y, double w, double h) {
         paintImage(data, imgW, imgH, x, y, w, h);
         priorEncodedProperties = currentEncodedProperties;
     }
 
-    private synchronized int paintImage(int[] data, int imgW, int imgH, double x, double y, double w, double h) {
-        if (changes.isEmpty()) {
-//            paintsWithNoChange++;
+    private int paintImage(int[] data, int imgW, int imgH, double x, double y, double w, double h) {
+        if (changedKeys == 0) {
             return paintImage(data, imgW, imgH, cfDictionaryPtr, priorEncodedProperties, currentEncodedProperties, x, y, w, h);
         }
 
-        JRSUIControl.ThreadLocalByteBuffer localByteBuffer = getThreadLocalBuffer();
-        JRSUIControl.BufferState bufferState = loadBufferWithChanges(localByteBuffer);
-
-        // fast tracking this, since it's the likely scenario
-        if (bufferState == JRSUIControl.BufferState.ALL_CHANGES_IN_BUFFER) {
-//            paintsWithChangesThatFit++;
-            return paintChangesImage(data, imgW, imgH, cfDictionaryPtr, priorEncodedProperties, currentEncodedProperties, x, y, w, h, localByteBuffer.ptr);
-        }
-
-        while (bufferState == JRSUIControl.BufferState.SOME_CHANGES_IN_BUFFER) {
-            int status = syncChanges(cfDictionaryPtr, localByteBuffer.ptr);
-            if (status != SUCCESS) throw new RuntimeException("JRSUI failed to sync changes into the native buffer: " + this);
-            bufferState = loadBufferWithChanges(localByteBuffer);
-        }
-
-        if (bufferState == JRSUIControl.BufferState.CHANGE_WONT_FIT_IN_BUFFER) {
-            throw new RuntimeException("JRSUI failed to sync changes to the native buffer, because some change was too big: " + this);
-        }
-
-        // implicitly ALL_CHANGES_IN_BUFFER, now that we sync'd the buffer down to native a few times
-//        paintsWithChangesThatOverflowed++;
+        JRSUIControl.ThreadLocalByteBuffer localByteBuffer = loadBufferWithChanges();
         return paintChangesImage(data, imgW, imgH, cfDictionaryPtr, priorEncodedProperties, currentEncodedProperties, x, y, w, h, localByteBuffer.ptr);
     }
 
@@ -250,33 +231,12 @@ public final class JRSUIControl {
         priorEncodedProperties = currentEncodedProperties;
     }
 
-    private synchronized int paintToCGContext(long cgContext, double x, double y, double w, double h) {
-        if (changes.isEmpty()) {
-//            paintsWithNoChange++;
+    private int paintToCGContext(long cgContext, double x, double y, double w, double h) {
+        if (changedKeys == 0) {
             return paintToCGContext(cgContext, cfDictionaryPtr, priorEncodedProperties, currentEncodedProperties, x, y, w, h);
         }
 
-        JRSUIControl.ThreadLocalByteBuffer localByteBuffer = getThreadLocalBuffer();
-        JRSUIControl.BufferState bufferState = loadBufferWithChanges(localByteBuffer);
-
-        // fast tracking this, since it's the likely scenario
-        if (bufferState == JRSUIControl.BufferState.ALL_CHANGES_IN_BUFFER) {
-//            paintsWithChangesThatFit++;
-            return paintChangesToCGContext(cgContext, cfDictionaryPtr, priorEncodedProperties, currentEncodedProperties, x, y, w, h, localByteBuffer.ptr);
-        }
-
-        while (bufferState == JRSUIControl.BufferState.SOME_CHANGES_IN_BUFFER) {
-            int status = syncChanges(cfDictionaryPtr, localByteBuffer.ptr);
-            if (status != SUCCESS) throw new RuntimeException("JRSUI failed to sync changes into the native buffer: " + this);
-            bufferState = loadBufferWithChanges(localByteBuffer);
-        }
-
-        if (bufferState == JRSUIControl.BufferState.CHANGE_WONT_FIT_IN_BUFFER) {
-            throw new RuntimeException("JRSUI failed to sync changes to the native buffer, because some change was too big: " + this);
-        }
-
-        // implicitly ALL_CHANGES_IN_BUFFER, now that we sync'd the buffer down to native a few times
-//        paintsWithChangesThatOverflowed++;
+        JRSUIControl.ThreadLocalByteBuffer localByteBuffer = loadBufferWithChanges();
         return paintChangesToCGContext(cgContext, cfDictionaryPtr, priorEncodedProperties, currentEncodedProperties, x, y, w, h, localByteBuffer.ptr);
     }
 
@@ -306,32 +266,26 @@ public final class JRSUIControl {
     }
 
     private void sync() {
-        if (changes.isEmpty()) return;
-
-        JRSUIControl.ThreadLocalByteBuffer localByteBuffer = getThreadLocalBuffer();
-        JRSUIControl.BufferState bufferState = loadBufferWithChanges(localByteBuffer);
-        if (bufferState == JRSUIControl.BufferState.ALL_CHANGES_IN_BUFFER) {
-            int status = syncChanges(cfDictionaryPtr, localByteBuffer.ptr);
-            if (status != SUCCESS) throw new RuntimeException("JRSUI failed to sync changes into the native buffer: " + this);
-            return;
-        }
+        if (changedKeys == 0) return;
 
-        while (bufferState == JRSUIControl.BufferState.SOME_CHANGES_IN_BUFFER) {
-            int status = syncChanges(cfDictionaryPtr, localByteBuffer.ptr);
-            if (status != SUCCESS) throw new RuntimeException("JRSUI failed to sync changes into the native buffer: " + this);
-            bufferState = loadBufferWithChanges(localByteBuffer);
-        }
-
-        if (bufferState == JRSUIControl.BufferState.CHANGE_WONT_FIT_IN_BUFFER) {
-            throw new RuntimeException("JRSUI failed to sync changes to the native buffer, because some change was too big: " + this);
-        }
+        JRSUIControl.ThreadLocalByteBuffer localByteBuffer = loadBufferWithChanges();
+        int status = syncChanges(cfDictionaryPtr, localByteBuffer.ptr);
+        if (status != SUCCESS) throw new RuntimeException("JRSUI failed to sync changes into the native buffer: " + this);
     }
 
     @Override
     public int hashCode() {
         int bits = (int)(currentEncodedProperties ^ (currentEncodedProperties >>> 32));
-        bits ^= nativeMap.hashCode();
-        bits ^= changes.hashCode();
+        bits ^= nativeKeys ^ (changedKeys << Key.ALL.length);
+        for (int i = 0; i < Key.ALL.length; i++) {
+            int bit = 1 << i;
+            if ((nativeKeys & bit) != 0) {
+                bits ^= Double.hashCode(nativeValues[i]);
+            }
+            if ((changedKeys & bit) != 0) {
+                bits ^= 31 * Double.hashCode(changedValues[i]);
+            }
+        }
         return bits;
     }
 
@@ -344,11 +298,17 @@ public final class JRSUIControl {
         if (currentEncodedProperties != other.currentEncodedProperties) {
             return false;
         }
-        if (!nativeMap.equals(other.nativeMap)) {
+        if (nativeKeys != other.nativeKeys || changedKeys != other.changedKeys) {
             return false;
         }
-        if (!changes.equals(other.changes)) {
-            return false;
+        for (int i = 0; i < Key.ALL.length; i++) {
+            int bit = 1 << i;
+            if ((nativeKeys & bit) != 0 && nativeValues[i] != other.nativeValues[i]) {
+                return false;
+            }
+            if ((changedKeys & bit) != 0 && changedValues[i] != other.changedValues[i]) {
+                return false;
+            }
         }
         return true;
     }
@@ -356,9 +316,25 @@ public final class JRSUIControl {
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder("JRSUIControl[inNative:");
-        builder.append(Arrays.toString(nativeMap.entrySet().toArray()));
+        builder.append(toString(nativeKeys, nativeValues));
         builder.append(", changes:");
-        builder.append(Arrays.toString(changes.entrySet().toArray()));
+        builder.append(toString(changedKeys, changedValues));
+        builder.append("]");
+        return builder.toString();
+    }
+
+    private static String toString(int keys, double[] values) {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < Key.ALL.length; i++) {
+            if ((keys & (1 << i)) != 0) {
+                if (builder.length() > 1) {
+                    builder.append(", ");
+                }
+                builder.append(Key.ALL[i]);
+                builder.append("=");
+                builder.append(values[i]);
+            }
+        }
         builder.append("]");
         return builder.toString();
     }
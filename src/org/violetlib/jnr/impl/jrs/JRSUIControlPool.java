@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 Alan Snyder.
+ * All rights reserved.
+ *
+ * You may not use, copy or modify this file, except in compliance with the license agreement. For details see
+ * accompanying license terms.
+ */
+
+package org.violetlib.jnr.impl.jrs;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.*;
+
+/**
+  A pool of reusable (unflipped) controls for one widget. There is no API for resetting the parameters of a native
+  control, so a control may be reused only to render states that set the same parameters. The states for a widget
+  always set the same parameters.
+
+  <p>
+  A control is acquired for the duration of a rendering, which allows renderers to share controls without
+  synchronizing on the control. The most recently released control is acquired first, which makes it likely that the
+  control already has the required state.
+*/
+
+public final class JRSUIControlPool
+{
+    private static final int MAXIMUM_IDLE_COUNT = 4;
+
+    private static final @NotNull ConcurrentHashMap<JRSUIConstants.Widget,JRSUIControlPool> pools
+      = new ConcurrentHashMap<>();
+
+    /**
+      Return the pool for the specified widget.
+    */
+
+    public static @NotNull JRSUIControlPool getPool(@NotNull JRSUIConstants.Widget widget)
+    {
+        return pools.computeIfAbsent(widget, w -> new JRSUIControlPool());
+    }
+
+    private final @NotNull ArrayDeque<JRSUIControl> idle = new ArrayDeque<>();
+
+    private JRSUIControlPool()
+    {
+    }
+
+    /**
+      Obtain a control for exclusive use. The control should be released when it is no longer needed.
+    */
+
+    public @NotNull JRSUIControl acquire()
+    {
+        synchronized (idle) {
+            JRSUIControl c = idle.pollFirst();
+            if (c != null) {
+                return c;
+            }
+        }
+        return new JRSUIControl(false);
+    }
+
+    /**
+      Return a control to the pool. If the pool is full, the control is disposed.
+    */
+
+    public void release(@NotNull JRSUIControl c)
+    {
+        synchronized (idle) {
+            if (idle.size() < MAXIMUM_IDLE_COUNT) {
+                idle.addFirst(c);
+                return;
+            }
+        }
+        c.dispose();
+    }
+}